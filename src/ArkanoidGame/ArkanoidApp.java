@@ -1,23 +1,33 @@
 package ArkanoidGame;
 
+import Audio.MusicTrack;
 import Engine.AudioManager;
 import Engine.GameManager;
+import Engine.GameSnapshot;
 import Engine.GameState;
-import Engine.HighScoreManager;
-import Objects.GameEntities.Ball;
-import Objects.GameEntities.Laser;
-import Objects.PowerUps.PowerUp;
-import Objects.Bricks.Brick;
+import Engine.HighScoreRepository;
+import Engine.InputAction;
+import Engine.KeyboardController;
+import Engine.LeaderboardSync;
+import Engine.RenderSnapshot;
+import Engine.Replay;
+import Engine.SimulationThread;
+import Engine.SnapshotExchange;
+import Engine.SpectatorServer;
+import Engine.TrackingBot;
 import Render.CanvasRenderer;
+import Render.FrameTimeStats;
+import Rounds.ProceduralRound;
 import UI.Menu.MainMenu;
 import UI.Screens.PauseScreen;
 import UI.Screens.GameOverScreen;
 import UI.Screens.WinScreen;
 import Utils.Constants;
+import Utils.FileManager;
+import Utils.PersistenceService;
 import Utils.SpriteCache;
 import Utils.SpriteCacheProvider;
 import Utils.SpriteProvider;
-import Utils.AnimationFactory;
 import javafx.animation.AnimationTimer;
 import javafx.application.Application;
 import javafx.scene.Scene;
@@ -25,7 +35,11 @@ import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.input.KeyCode;
 import javafx.scene.layout.Pane;
+import javafx.scene.transform.Scale;
 import javafx.stage.Stage;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
 import java.time.LocalDate;
 
 /**
@@ -38,21 +52,45 @@ public class ArkanoidApp extends Application {
     private static final int HEIGHT = Constants.Window.WINDOW_HEIGHT;
     private static final int PLAY_AREA_WIDTH = Constants.PlayArea.PLAY_AREA_WIDTH;
     private static final int PLAY_AREA_HEIGHT = Constants.PlayArea.PLAY_AREA_HEIGHT;
+    // Tốc độ tua nhanh tối đa khi phát replay
+    private static final int MAX_REPLAY_SPEED = 8;
 
     private GameManager gameManager;
+    // Luồng mô phỏng sở hữu gameManager; luồng FX chỉ gửi lệnh và đọc snapshot
+    private SimulationThread simulation;
+    private final SnapshotExchange snapshots = new SnapshotExchange();
+    // Snapshot của khung hình đang hiển thị; input được định tuyến theo màn hình người chơi đang thấy
+    private RenderSnapshot frameSnapshot;
+    // Máy chủ phát cho khán giả, chỉ mở khi có tham số --spectator-port
+    private SpectatorServer spectators;
+    // Đồng bộ bảng điểm chung, chỉ bật khi có tham số --leaderboard
+    private LeaderboardSync leaderboard;
+    // Input bàn phím, được luồng mô phỏng áp dụng ở đầu mỗi tick
+    private final KeyboardController keyboard = new KeyboardController();
     private CanvasRenderer renderer;
     private GraphicsContext gc;
     private boolean spacePressed = false; // Ngăn chặn lặp lại phím
+    private boolean showRenderStats = false; // Hiển thị thống kê render (bật/tắt bằng F3)
+    private boolean autopilot = false; // Bot tự lái đang điều khiển paddle (bật/tắt bằng F8)
+    private boolean autopilotUsed = false; // Ván hiện tại đã từng bật bot (không tính vào bảng xếp hạng)
 
     // Các màn hình UI
     private MainMenu mainMenu;
     private PauseScreen pauseScreen;
     private GameOverScreen gameOverScreen;
     private WinScreen winScreen;
-    private HighScoreManager highScoreManager;
+    private HighScoreRepository highScoreRepository;
 
     // Tham chiếu Scene để xử lý input
     private Scene scene;
+    private Stage stage;
+
+    // Phóng to theo kích thước cửa sổ: root (canvas + UI) được phóng to bằng rootScale,
+    // canvas có kích thước vật lý và tự bù tỉ lệ nên sprite được vẽ 1:1
+    private Pane root;
+    private final Scale rootScale = new Scale(1, 1, 0, 0);
+    private double requestedScale = 1.0; // Tỉ lệ tính từ kích thước cửa sổ, áp dụng ở khung hình kế tiếp
+    private final FrameTimeStats frameStats = new FrameTimeStats();
 
     /**
      * Phương thức khởi tạo chính của ứng dụng JavaFX.
@@ -60,6 +98,7 @@ public class ArkanoidApp extends Application {
      */
     @Override
     public void start(Stage stage) {
+        this.stage = stage;
         // Khởi tạo AudioManager đầu tiên
         AudioManager audioManager = AudioManager.getInstance();
         try {
@@ -79,32 +118,82 @@ public class ArkanoidApp extends Application {
         }
         SpriteProvider sprites = new SpriteCacheProvider(spriteCache);
 
-        // Khởi tạo AnimationFactory
-        AnimationFactory.initialize(sprites);
-
         renderer = new CanvasRenderer(canvas, sprites);
 
         gc = canvas.getGraphicsContext2D();
 
         // Khởi tạo quản lý game và High Score
         gameManager = new GameManager();
-        highScoreManager = new HighScoreManager();
+        // Nhạc menu lúc khởi động (StateManager chỉ đổi nhạc khi chuyển trạng thái)
+        audioManager.playMusic(MusicTrack.MENU);
+        highScoreRepository = HighScoreRepository.getInstance();
 
-        // Tạo Pane root trước
-        Pane root = new Pane(canvas);
+        // Tạo Pane root trước (hệ tọa độ logic 600x800), đặt trong viewport có nền đen để căn giữa
+        root = new Pane(canvas);
+        root.getTransforms().add(rootScale);
+        Pane viewport = new Pane(root);
+        viewport.setStyle("-fx-background-color: black;");
 
         // Khởi tạo các màn hình UI (truyền root cho MainMenu)
-        mainMenu = new MainMenu(gameManager.getStateManager(), sprites, root);
+        mainMenu = new MainMenu(audioManager, sprites, root,
+                () -> simulation.submit(() -> gameManager.getStateManager().setState(GameState.PLAYING)));
         pauseScreen = new PauseScreen(sprites);
-        gameOverScreen = new GameOverScreen(sprites, highScoreManager);
-        winScreen = new WinScreen(sprites, highScoreManager);
+        gameOverScreen = new GameOverScreen(sprites, highScoreRepository);
+        winScreen = new WinScreen(sprites, highScoreRepository);
 
-        scene = new Scene(root);
+        scene = new Scene(viewport, WIDTH, HEIGHT);
+        scene.widthProperty().addListener((obs, oldValue, newValue) -> onViewportResized());
+        scene.heightProperty().addListener((obs, oldValue, newValue) -> onViewportResized());
+        frameStats.setScale(renderer.getScale(), sprites.getScaledMemoryBytes());
 
         // ====== Xử lý Input Keyboard ======
+        frameSnapshot = snapshots.acquire();
         scene.setOnKeyPressed(e -> {
             KeyCode code = e.getCode();
-            GameState currentState = gameManager.getStateManager().getState();
+            GameState currentState = frameSnapshot.getState();
+
+            // F3: Bật/tắt thống kê render (ở mọi trạng thái)
+            if (code == KeyCode.F3) {
+                showRenderStats = !showRenderStats;
+                return;
+            }
+
+            // F11: Bật/tắt toàn màn hình
+            if (code == KeyCode.F11) {
+                stage.setFullScreen(!stage.isFullScreen());
+                return;
+            }
+
+            // F5: Phát lại ván gần nhất (từ menu)
+            if (code == KeyCode.F5 && currentState == GameState.MENU) {
+                startReplay();
+                return;
+            }
+
+            // F7: Đổi bộ vòng chơi: level từ file -> sinh ngẫu nhiên -> lưới chạy thử tải (từ menu)
+            if (code == KeyCode.F7 && currentState == GameState.MENU) {
+                simulation.submit(this::cycleRoundSet);
+                return;
+            }
+
+            // F6: Đổi tốc độ replay 1x -> 2x -> 4x -> 8x
+            if (code == KeyCode.F6 && gameManager.isReplaying()) {
+                int speed = simulation.getSpeed();
+                simulation.setSpeed(speed >= MAX_REPLAY_SPEED ? 1 : speed * 2);
+                return;
+            }
+
+            // F8: Bật/tắt bot tự lái (trong lúc chơi)
+            if (code == KeyCode.F8 && currentState == GameState.PLAYING && !gameManager.isReplaying()) {
+                setAutopilot(!autopilot);
+                return;
+            }
+
+            // F2: Đổi kích thước cửa sổ theo vòng 1x -> 2x -> 3x (để đo bộ nhớ và thời gian khung hình)
+            if (code == KeyCode.F2 && !stage.isFullScreen()) {
+                cycleWindowScale();
+                return;
+            }
 
             // Định tuyến input dựa trên trạng thái hiện tại
             switch (currentState) {
@@ -123,9 +212,11 @@ public class ArkanoidApp extends Application {
                 case GAME_OVER:
                 case WIN:
                     if (code == KeyCode.ENTER) {
-                        // Trở về menu và reset game
-                        gameManager.resetGame();
-                        gameManager.getStateManager().setState(GameState.MENU);
+                        // Trở về menu và reset game (trên luồng mô phỏng)
+                        simulation.submit(() -> {
+                            gameManager.resetGame();
+                            gameManager.getStateManager().setState(GameState.MENU);
+                        });
                         mainMenu.onEnter();
                     }
                     break;
@@ -134,14 +225,14 @@ public class ArkanoidApp extends Application {
 
         scene.setOnKeyReleased(e -> {
             KeyCode code = e.getCode();
-            GameState currentState = gameManager.getStateManager().getState();
+            GameState currentState = frameSnapshot.getState();
 
             if (currentState == GameState.MENU) {
                 mainMenu.handleKeyReleased(code);
-            } else if (currentState == GameState.PLAYING) {
-                // Dừng di chuyển paddle khi nhả phím
+            } else if (currentState == GameState.PLAYING || currentState == GameState.LEVEL_COMPLETE) {
+                // Dừng di chuyển paddle khi nhả phím (cả khi đang qua màn, để không mất lần nhả phím)
                 if (code == KeyCode.LEFT || code == KeyCode.RIGHT) {
-                    gameManager.paddle.stop();
+                    keyboard.press(InputAction.STOP);
                 }
 
                 // Đặt lại trạng thái phím cách
@@ -152,15 +243,16 @@ public class ArkanoidApp extends Application {
         });
 
         // ====== Xử lý Input Mouse ======
-        scene.setOnMouseClicked(e -> {
-            GameState currentState = gameManager.getStateManager().getState();
+        // Đăng ký trên root để tọa độ chuột luôn ở hệ tọa độ logic 600x800, bất kể tỉ lệ
+        root.setOnMouseClicked(e -> {
+            GameState currentState = frameSnapshot.getState();
             if (currentState == GameState.MENU) {
                 mainMenu.handleMouseClicked(e);
             }
         });
 
-        scene.setOnMouseMoved(e -> {
-            GameState currentState = gameManager.getStateManager().getState();
+        root.setOnMouseMoved(e -> {
+            GameState currentState = frameSnapshot.getState();
             if (currentState == GameState.MENU) {
                 mainMenu.handleMouseMoved(e);
             }
@@ -168,9 +260,19 @@ public class ArkanoidApp extends Application {
 
         stage.setScene(scene);
         stage.setTitle("Arkanoid");
-        stage.setResizable(false);
+        stage.setResizable(true);
         stage.show();
 
+        // Tiếp tục ván đã lưu nhanh (nếu có) trước khi luồng mô phỏng sở hữu gameManager
+        resumeQuickSave();
+
+        // ====== Luồng Mô Phỏng (tick cố định, tách khỏi luồng FX) ======
+        simulation = new SimulationThread(gameManager, snapshots);
+        simulation.setController(keyboard);
+        startSpectatorServer();
+        startLeaderboardSync();
+        simulation.start();
+
         // ====== Vòng Lặp Game Chính (60 FPS) ======
         AnimationTimer loop = new AnimationTimer() {
             private long lastUpdateTime = 0;
@@ -182,11 +284,21 @@ public class ArkanoidApp extends Application {
                 long deltaTime = (now - lastUpdateTime) / 1_000_000; // Chuyển sang ms
                 lastUpdateTime = now;
 
-                GameState currentState = gameManager.getStateManager().getState();
+                // Lấy snapshot một lần cho cả khung hình: chuyển trạng thái, cập nhật
+                // và render đều dựa trên cùng một tick của luồng mô phỏng
+                RenderSnapshot snapshot = snapshots.acquire();
+                frameSnapshot = snapshot;
+                GameState currentState = snapshot.getState();
 
-                // Xử lý chuyển đổi trạng thái
+                // Áp dụng tỉ lệ mới nếu cửa sổ vừa đổi kích thước (tạo lại sprite một lần)
+                if (requestedScale != renderer.getScale()) {
+                    applyScale(requestedScale);
+                }
+
+                // Xử lý chuyển đổi trạng thái theo snapshot, để điểm, vòng và tên
+                // người chơi được đọc cùng tick với trạng thái mới
                 if (currentState != previousState) {
-                    onStateChange(previousState, currentState);
+                    onStateChange(previousState, currentState, snapshot);
                     previousState = currentState;
                 }
 
@@ -197,7 +309,7 @@ public class ArkanoidApp extends Application {
                         break;
 
                     case PLAYING:
-                        gameManager.update();
+                        // Logic gameplay chạy trên luồng mô phỏng
                         break;
 
                     case PAUSED:
@@ -214,6 +326,7 @@ public class ArkanoidApp extends Application {
                 }
 
                 // Render dựa trên trạng thái
+                long renderStart = System.nanoTime();
                 renderer.clear();
 
                 switch (currentState) {
@@ -222,12 +335,12 @@ public class ArkanoidApp extends Application {
                         break;
 
                     case PLAYING:
-                        renderGameplay();
+                        renderGameplay(snapshot);
                         break;
 
                     case PAUSED:
                         // Render gameplay trước, sau đó là lớp phủ Pause
-                        renderGameplay();
+                        renderGameplay(snapshot);
                         pauseScreen.render(gc);
                         break;
 
@@ -241,12 +354,13 @@ public class ArkanoidApp extends Application {
 
                     case LEVEL_COMPLETE:
                         // Render gameplay và thông báo hoàn thành màn
-                        renderGameplay();
+                        renderGameplay(snapshot);
                         renderer.drawLevelCompleteOverlay();
                         break;
                 }
 
                 renderer.present();
+                frameStats.record(System.nanoTime() - renderStart);
             }
         };
         loop.start();
@@ -258,8 +372,9 @@ public class ArkanoidApp extends Application {
      *
      * @param from Trạng thái cũ.
      * @param to Trạng thái mới.
+     * @param snapshot Snapshot đầu tiên ở trạng thái mới (luồng FX không đọc gameManager).
      */
-    private void onStateChange(GameState from, GameState to) {
+    private void onStateChange(GameState from, GameState to, RenderSnapshot snapshot) {
         System.out.println("State changed: " + from + " -> " + to);
 
         // Xử lý thoát khỏi trạng thái cũ
@@ -281,26 +396,39 @@ public class ArkanoidApp extends Application {
         // Xử lý vào trạng thái mới
         switch (to) {
             case MENU:
+                setAutopilot(false);
                 mainMenu.onEnter();
                 break;
 
             case PLAYING:
-                // Lưu tên người chơi khi bắt đầu game
-                String playerName = mainMenu.getPlayerName();
-                gameManager.setPlayerName(playerName);
+                // Lưu tên người chơi khi bắt đầu game mới (ván tiếp tục và replay giữ tên đã lưu)
+                if (from == GameState.MENU && !snapshot.isReplaying()) {
+                    String playerName = mainMenu.getPlayerName();
+                    simulation.submit(() -> gameManager.setPlayerName(playerName));
+                    autopilotUsed = false;
+                }
                 break;
 
             case GAME_OVER:
             case WIN:
                 // Logic chung cho GAME_OVER và WIN
-                int finalScore = gameManager.getScore();
-                int currentRound = gameManager.getRoundsManager().getCurrentRoundNumber();
-                String currentPlayerName = gameManager.getPlayerName();
-
-                // Kiểm tra và thêm vào High Score
-                if (highScoreManager.isHighScore(finalScore)) {
-                    highScoreManager.addScore(currentPlayerName, finalScore, LocalDate.now());
+                int finalScore = snapshot.getScore();
+                int currentRound = snapshot.getRoundNumber();
+                String currentPlayerName = snapshot.getPlayerName();
+
+                if (snapshot.isReplaying()) {
+                    // Replay không được tính vào bảng xếp hạng
+                    simulation.setSpeed(1);
+                } else {
+                    // Ghi nhận mọi ván tự chơi vào bảng xếp hạng (O(log n)); ván có bot tự lái thì không
+                    if (!autopilotUsed) {
+                        highScoreRepository.addScore(currentPlayerName, finalScore, LocalDate.now());
+                    }
+                    // Lưu replay của ván vừa kết thúc
+                    simulation.submit(this::saveReplay);
                 }
+                // Ván đã kết thúc: không còn gì để tiếp tục
+                clearQuickSave();
 
                 if (to == GameState.GAME_OVER) {
                     gameOverScreen.setGameResult(finalScore, currentRound);
@@ -314,82 +442,89 @@ public class ArkanoidApp extends Application {
     }
 
     /**
-     * Render tất cả các thành phần gameplay (thực thể game và UI).
+     * Render tất cả các thành phần gameplay (thực thể game và UI) từ snapshot
+     * của khung hình hiện tại.
+     *
+     * @param snapshot Snapshot đã lấy ở đầu khung hình.
      */
-    private void renderGameplay() {
+    private void renderGameplay(RenderSnapshot snapshot) {
+
         // ====== Lớp UI (trên cùng) ======
-        int highScore = highScoreManager.getHighestScore();
-        renderer.drawUI(gameManager.getScore(), highScore, gameManager.getLives());
+        int highScore = highScoreRepository.getHighestScore();
+        renderer.drawUI(snapshot.getScore(), highScore, snapshot.getLives());
 
         // ====== Lớp Đối Tượng Game ======
-        // Vẽ paddle
-        renderer.drawPaddle(gameManager.paddle);
+        renderer.drawSnapshot(snapshot);
+        renderer.flush();
 
-        // Vẽ tất cả các quả bóng
-        for (Ball ball : gameManager.balls) {
-            renderer.drawBall(ball);
-        }
-
-        // Vẽ tất cả các tia laser đang hoạt động
-        for (Laser laser : gameManager.getLasers()) {
-            if (laser.isAlive()) {
-                renderer.drawLaser(laser);
-            }
+        if (showRenderStats) {
+            renderer.drawRenderStats(frameStats.getAverageMillis());
         }
+    }
 
-        // Vẽ gạch
-        for (Brick brick : gameManager.bricks) {
-            if (brick.isAlive()) {
-                renderer.drawBrick(brick);
-            }
+    /**
+     * Chuyển quyền điều khiển paddle giữa bàn phím và bot tự lái.
+     *
+     * @param enabled true để bot điều khiển, false để trả lại cho bàn phím.
+     */
+    private void setAutopilot(boolean enabled) {
+        if (enabled == autopilot) {
+            return;
         }
-
-        // Vẽ PowerUps
-        for (PowerUp powerUp : gameManager.getPowerUpManager().getActivePowerUps()) {
-            renderer.drawPowerUp(powerUp);
+        autopilot = enabled;
+        keyboard.clear();
+        if (enabled) {
+            autopilotUsed = true;
+            simulation.setController(new TrackingBot(System.nanoTime()));
+        } else {
+            simulation.setController(keyboard);
+            keyboard.press(InputAction.STOP); // Không để paddle trôi theo lệnh cuối của bot
         }
+        System.out.println("ArkanoidApp: Autopilot " + (enabled ? "on" : "off"));
     }
 
     /**
      * Xử lý input bàn phím khi game đang ở trạng thái PLAYING.
      */
     private void handlePlayingInput(KeyCode code) {
-        // Điều khiển di chuyển
-        if (code == KeyCode.LEFT) {
-            gameManager.paddle.moveLeft();
+        // Điều khiển di chuyển (bỏ qua khi bot tự lái đang điều khiển)
+        if (code == KeyCode.LEFT && !autopilot) {
+            keyboard.press(InputAction.MOVE_LEFT);
         }
-        if (code == KeyCode.RIGHT) {
-            gameManager.paddle.moveRight();
+        if (code == KeyCode.RIGHT && !autopilot) {
+            keyboard.press(InputAction.MOVE_RIGHT);
         }
 
         // Phím Space: Phóng bóng HOẶC bắn laser
-        if (code == KeyCode.SPACE && !spacePressed) {
+        if (code == KeyCode.SPACE && !spacePressed && !autopilot) {
             spacePressed = true;
-
-            if (gameManager.isAttached()) {
-                gameManager.launchBall(); // Phóng bóng
-            } else if (gameManager.paddle.isLaserEnabled()) {
-                gameManager.shootLaser(); // Bắn laser
-            }
+            keyboard.press(InputAction.FIRE);
         }
 
         // ESC: Tạm dừng game
         if (code == KeyCode.ESCAPE) {
-            // Cài đặt thông tin game cho màn hình Pause
+            // Cài đặt thông tin game cho màn hình Pause (lấy từ snapshot đang hiển thị, không đọc trạng thái sống)
             pauseScreen.setGameInfo(
-                    gameManager.getRoundsManager().getCurrentRoundNumber(),
-                    gameManager.getRoundsManager().getCurrentRoundName(),
-                    gameManager.getScore(),
-                    gameManager.getLives()
+                    frameSnapshot.getRoundNumber(),
+                    frameSnapshot.getRoundName(),
+                    frameSnapshot.getScore(),
+                    frameSnapshot.getLives()
             );
-            gameManager.getStateManager().setState(GameState.PAUSED);
+            simulation.submit(() -> {
+                if (gameManager.getStateManager().setState(GameState.PAUSED) && !gameManager.isReplaying()) {
+                    // Lưu nhanh ngay trên luồng mô phỏng (vài chục micro giây, ghi file ở luồng nền)
+                    quickSave();
+                }
+            });
             pauseScreen.onEnter();
         }
 
         // R: Khởi động lại game (Debug)
         if (code == KeyCode.R) {
-            gameManager.resetGame();
-            System.out.println("Game RESTARTED");
+            simulation.submit(() -> {
+                gameManager.resetGame();
+                System.out.println("Game RESTARTED");
+            });
         }
     }
 
@@ -399,17 +534,223 @@ public class ArkanoidApp extends Application {
     private void handlePausedInput(KeyCode code) {
         if (code == KeyCode.SPACE) {
             // Tiếp tục game
-            gameManager.getStateManager().setState(GameState.PLAYING);
+            simulation.submit(() -> gameManager.getStateManager().setState(GameState.PLAYING));
             pauseScreen.onExit();
         } else if (code == KeyCode.ESCAPE) {
-            // Trở về menu
-            gameManager.resetGame();
-            gameManager.getStateManager().setState(GameState.MENU);
+            // Trở về menu (bỏ ván đang chơi và bản lưu nhanh, giữ replay của ván)
+            clearQuickSave();
+            simulation.setSpeed(1);
+            simulation.submit(() -> {
+                saveReplay();
+                gameManager.resetGame();
+                gameManager.getStateManager().setState(GameState.MENU);
+            });
             pauseScreen.onExit();
             mainMenu.onEnter();
         }
     }
 
+    /**
+     * Lưu nhanh toàn bộ ván đang chơi. Chỉ được gọi trên luồng sở hữu
+     * gameManager (luồng mô phỏng, hoặc sau khi luồng mô phỏng đã dừng).
+     * Việc ghi file được {@link PersistenceService} thực hiện ở luồng nền.
+     */
+    private void quickSave() {
+        long start = System.nanoTime();
+        byte[] data = GameSnapshot.encode(gameManager);
+        PersistenceService.getInstance().write(Constants.Paths.SAVEGAME_FILE, data);
+        System.out.printf("GameSnapshot: Saved %d bytes in %.3f ms%n",
+                data.length, (System.nanoTime() - start) / 1_000_000.0);
+    }
+
+    /**
+     * Lưu replay của ván vừa kết thúc (nếu ván được ghi). Chỉ được gọi trên
+     * luồng mô phỏng; việc ghi file do {@link PersistenceService} thực hiện.
+     */
+    private void saveReplay() {
+        byte[] data = gameManager.finishRecording();
+        if (data != null) {
+            PersistenceService.getInstance().write(Constants.Paths.REPLAY_FILE, data);
+        }
+    }
+
+    /**
+     * Chuyển sang bộ vòng chơi kế tiếp: level từ file, level sinh ngẫu nhiên,
+     * rồi lưới chạy thử tải {@code MAX_COLUMNS} x {@code MAX_ROWS}. Chỉ được
+     * gọi trên luồng mô phỏng.
+     */
+    private void cycleRoundSet() {
+        ProceduralRound.Spec current = gameManager.getProceduralSpec();
+        if (current == null) {
+            gameManager.setProceduralSpec(ProceduralRound.Spec.gameplay("Procedural"));
+        } else if (current.columns() < Constants.Procedural.MAX_COLUMNS) {
+            gameManager.setProceduralSpec(ProceduralRound.Spec.stress());
+        } else {
+            gameManager.setProceduralSpec(null);
+        }
+    }
+
+    /**
+     * Phát lại ván đã ghi gần nhất trên luồng mô phỏng (tốc độ 1x, F6 để tua nhanh).
+     */
+    private void startReplay() {
+        Replay replay = Replay.decode(FileManager.readBytesFromFile(Constants.Paths.REPLAY_FILE));
+        if (replay == null) {
+            System.out.println("ArkanoidApp: No replay available");
+            return;
+        }
+        simulation.setSpeed(1);
+        simulation.submit(() -> gameManager.startReplay(replay));
+    }
+
+    /**
+     * Xóa bản lưu nhanh (ghi file rỗng).
+     */
+    private void clearQuickSave() {
+        PersistenceService.getInstance().write(Constants.Paths.SAVEGAME_FILE, new byte[0]);
+    }
+
+    /**
+     * Khôi phục ván đã lưu nhanh ở lần chạy trước và mở ngay màn hình Pause.
+     * Gọi trước khi luồng mô phỏng bắt đầu.
+     */
+    private void resumeQuickSave() {
+        byte[] data = FileManager.readBytesFromFile(Constants.Paths.SAVEGAME_FILE);
+        if (data == null || data.length == 0) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        if (!GameSnapshot.decode(gameManager, data)) {
+            clearQuickSave();
+            return;
+        }
+        System.out.printf("GameSnapshot: Restored %d bytes in %.3f ms%n",
+                data.length, (System.nanoTime() - start) / 1_000_000.0);
+
+        // MENU -> PLAYING -> PAUSED: người chơi nhấn SPACE để tiếp tục
+        gameManager.getStateManager().setState(GameState.PLAYING);
+        gameManager.getStateManager().setState(GameState.PAUSED);
+        pauseScreen.setGameInfo(
+                gameManager.getRoundsManager().getCurrentRoundNumber(),
+                gameManager.getRoundsManager().getCurrentRoundName(),
+                gameManager.getScore(),
+                gameManager.getLives()
+        );
+        pauseScreen.onEnter();
+    }
+
+    /**
+     * Tính tỉ lệ hiển thị từ kích thước vùng nhìn và căn giữa root.
+     * Tỉ lệ được áp dụng ở khung hình kế tiếp để việc tạo lại sprite chỉ
+     * xảy ra tối đa một lần mỗi khung hình khi đang kéo cửa sổ.
+     */
+    private void onViewportResized() {
+        double fit = Math.min(scene.getWidth() / WIDTH, scene.getHeight() / HEIGHT);
+        if (Constants.Window.INTEGER_SCALING && fit >= 1.0) {
+            fit = Math.floor(fit);
+        }
+        requestedScale = Math.max(0.25, fit);
+        centerRoot(requestedScale);
+    }
+
+    /**
+     * Áp dụng tỉ lệ hiển thị: tạo lại sprite phóng to sẵn và phóng to root.
+     *
+     * @param newScale Tỉ lệ mới.
+     */
+    private void applyScale(double newScale) {
+        renderer.setScale(newScale);
+        rootScale.setX(newScale);
+        rootScale.setY(newScale);
+        centerRoot(newScale);
+        frameStats.setScale(newScale, SpriteCache.getInstance().getScaledMemoryBytes());
+    }
+
+    /**
+     * Căn giữa root (kích thước logic nhân tỉ lệ) trong vùng nhìn.
+     *
+     * @param scale Tỉ lệ hiển thị.
+     */
+    private void centerRoot(double scale) {
+        root.setLayoutX(Math.max(0, Math.floor((scene.getWidth() - WIDTH * scale) / 2)));
+        root.setLayoutY(Math.max(0, Math.floor((scene.getHeight() - HEIGHT * scale) / 2)));
+    }
+
+    /**
+     * Đổi kích thước cửa sổ sang tỉ lệ nguyên kế tiếp (1x -> 2x -> 3x -> 1x).
+     */
+    private void cycleWindowScale() {
+        int next = (int) Math.floor(renderer.getScale()) % Constants.Window.MAX_WINDOW_SCALE + 1;
+        // Phần trang trí của cửa sổ (thanh tiêu đề, viền) nằm ngoài scene
+        double decorationWidth = stage.getWidth() - scene.getWidth();
+        double decorationHeight = stage.getHeight() - scene.getHeight();
+        stage.setWidth(WIDTH * next + decorationWidth);
+        stage.setHeight(HEIGHT * next + decorationHeight);
+    }
+
+    /**
+     * Mở máy chủ khán giả nếu ứng dụng được chạy với {@code --spectator-port=<cổng>}.
+     */
+    private void startSpectatorServer() {
+        String port = getParameters().getNamed().get("spectator-port");
+        if (port == null) {
+            return;
+        }
+        try {
+            spectators = new SpectatorServer(new InetSocketAddress(Integer.parseInt(port)));
+            simulation.setSpectators(spectators);
+        } catch (IOException | NumberFormatException e) {
+            System.err.println("ArkanoidApp: Failed to start spectator server: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Bật đồng bộ bảng điểm chung nếu ứng dụng được chạy với {@code --leaderboard=<url>}.
+     */
+    private void startLeaderboardSync() {
+        String url = getParameters().getNamed().get("leaderboard");
+        if (url == null) {
+            return;
+        }
+        try {
+            leaderboard = LeaderboardSync.start(URI.create(url));
+        } catch (IllegalArgumentException e) {
+            System.err.println("ArkanoidApp: Invalid leaderboard URL: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Được JavaFX gọi khi ứng dụng đóng. Dừng luồng mô phỏng, lưu nhanh ván
+     * đang chơi (nếu có) và in báo cáo render.
+     */
+    @Override
+    public void stop() {
+        if (simulation != null) {
+            simulation.stop();
+            if (spectators != null) {
+                spectators.close();
+            }
+            // stop() chỉ trả về khi luồng mô phỏng đã kết thúc: an toàn để đọc gameManager từ luồng FX
+            // Đang qua màn: đưa vòng đã chuẩn bị vào chơi để lưu nhanh được
+            gameManager.finishRoundTransition();
+            GameState state = gameManager.getStateManager().getState();
+            if (!gameManager.isReplaying() && (state == GameState.PLAYING || state == GameState.PAUSED)) {
+                quickSave();
+            } else {
+                clearQuickSave();
+            }
+        }
+        frameStats.printReport();
+        if (leaderboard != null) {
+            // Điểm chưa gửi nằm trong hàng đợi, được ghi nốt cùng các file khác bên dưới
+            leaderboard.close();
+        }
+        // Lưu lần cuối cài đặt âm thanh và ghi nốt mọi file đang chờ trước khi thoát
+        AudioManager.getInstance().dispose();
+        PersistenceService.getInstance().shutdown();
+    }
+
     /**
      * Phương thức main để khởi chạy ứng dụng JavaFX.
      * @param args Tham số dòng lệnh.
@@ -0,0 +1,248 @@
+package Engine;
+
+import Objects.Bricks.Brick;
+import Objects.Bricks.BrickType;
+import Objects.GameEntities.Ball;
+import Objects.GameEntities.Paddle;
+import Utils.Constants;
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Môi trường kiểu gym cho việc huấn luyện agent điều khiển paddle: một ván
+ * game không giao diện với {@link #reset(long)} và {@link #step(int)}.
+ *
+ * <p>Mỗi bước áp một hành động rồi chạy {@code frameSkip} tick. Phần thưởng
+ * là độ thay đổi điểm trong các tick đó (mất mạng đã bị trừ điểm sẵn). Ván kết
+ * thúc khi thắng, thua, hoặc bị cắt ngang sau {@value #MAX_EPISODE_TICKS} tick
+ * (để ván bị kẹt không chạy mãi).</p>
+ *
+ * <p>Quan sát là {@value #OBSERVATION_SIZE} số thực, ghi thẳng vào một
+ * {@link FloatBuffer} do bên gọi cấp (thường là một phần của bộ đệm chung
+ * trong {@link VectorEnv}); mọi tọa độ được chuẩn hóa theo khu vực chơi:</p>
+ * <pre>
+ * [0]      tâm paddle theo X (0..1)
+ * [1]      chiều rộng paddle / chiều rộng khu vực chơi
+ * [2]      1 nếu có bóng đang dính paddle
+ * [3]      1 nếu laser đang bật
+ * [4..23]  {@value #MAX_BALLS} bóng thấp nhất, mỗi bóng: có mặt, x, y (0..1), vx, vy (chia tốc độ tối đa)
+ * [24..]   lưới {@value #GRID_ROWS}x{@value #GRID_COLUMNS} phủ phần trên khu vực chơi,
+ *          1 nếu ô có gạch còn sống (kể cả gạch vàng), theo hàng rồi cột
+ * </pre>
+ *
+ * <p>Không an toàn luồng: mỗi môi trường chỉ được dùng bởi một luồng tại một thời điểm.</p>
+ */
+public final class ArkanoidEnv {
+    public static final int MAX_BALLS = 4; // Số bóng được đưa vào quan sát
+    public static final int GRID_COLUMNS = (Constants.PlayArea.PLAY_AREA_WIDTH + (int) Constants.Bricks.BRICK_WIDTH - 1)
+            / (int) Constants.Bricks.BRICK_WIDTH; // Một ô mỗi chiều rộng gạch gốc
+    public static final int GRID_ROWS = 18; // Phủ 60% trên của khu vực chơi (đủ cho mọi level có sẵn)
+    public static final int OBSERVATION_SIZE = 4 + MAX_BALLS * 5 + GRID_ROWS * GRID_COLUMNS;
+    public static final int ACTION_COUNT = InputAction.values().length; // Hành động = ordinal của InputAction
+    public static final long MAX_EPISODE_TICKS = 30L * 60 * Constants.Window.FPS; // 30 phút chơi
+
+    private static final int GRID_OFFSET = 4 + MAX_BALLS * 5;
+    private static final double CELL_WIDTH = (double) Constants.PlayArea.PLAY_AREA_WIDTH / GRID_COLUMNS;
+    private static final double CELL_HEIGHT = Constants.PlayArea.PLAY_AREA_HEIGHT * 0.6 / GRID_ROWS;
+    private static final InputAction[] ACTIONS = InputAction.values();
+    private static final int BRICK_TYPES = BrickType.values().length;
+
+    private final int frameSkip; // Số tick mỗi bước
+    private final GameManager game;
+    private final Ball[] lowest = new Ball[MAX_BALLS]; // Bộ đệm chọn bóng thấp nhất
+    private final float[] grid = new float[GRID_ROWS * GRID_COLUMNS]; // Lưới gạch đã tính
+    // Trạng thái gạch ứng với lưới đã tính: vòng (nhận biết qua tick bắt đầu) và số gạch đã bị phá
+    private long gridStartTick = -1;
+    private int gridDestroyed;
+    private InputAction movement = InputAction.STOP; // Hướng di chuyển đang áp dụng
+    private long episodeTicks;
+    private boolean done;
+
+    /**
+     * Tạo môi trường. Cần gọi {@link #reset(long)} trước bước đầu tiên.
+     *
+     * @param frameSkip Số tick game chạy trong mỗi bước (≥ 1).
+     */
+    public ArkanoidEnv(int frameSkip) {
+        if (frameSkip < 1) {
+            throw new IllegalArgumentException("frameSkip must be at least 1: " + frameSkip);
+        }
+        this.frameSkip = frameSkip;
+        this.game = new GameManager(0);
+        game.setAnalyticsEnabled(false);
+        game.setAudioEnabled(false);
+        game.setPlayerName("AGENT");
+    }
+
+    /**
+     * Bắt đầu một ván mới.
+     *
+     * @param seed Seed của ván.
+     */
+    public void reset(long seed) {
+        game.resetGame(seed);
+        game.getStateManager().setState(GameState.PLAYING);
+        movement = InputAction.STOP;
+        episodeTicks = 0;
+        gridStartTick = -1;
+        done = false;
+    }
+
+    /**
+     * Áp một hành động rồi chạy {@code frameSkip} tick. MOVE_LEFT, MOVE_RIGHT
+     * và STOP giữ hiệu lực tới khi đổi; FIRE chỉ phóng bóng hoặc bắn một lần và
+     * không đổi hướng di chuyển. Input chỉ được gửi khi thật sự thay đổi, nên
+     * bản ghi replay của ván không phình theo số bước.
+     *
+     * @param action Ordinal của {@link InputAction} (0 .. ACTION_COUNT - 1).
+     * @return Phần thưởng của bước (độ thay đổi điểm).
+     * @throws IllegalStateException Nếu ván đã kết thúc mà chưa {@link #reset(long)}.
+     */
+    public float step(int action) {
+        if (done) {
+            throw new IllegalStateException("Episode is over, call reset first");
+        }
+        InputAction input = ACTIONS[action];
+        if (input == InputAction.FIRE) {
+            game.applyInput(InputAction.FIRE);
+        } else if (input != movement) {
+            movement = input;
+            game.applyInput(input);
+        }
+
+        int scoreBefore = game.getScore();
+        for (int i = 0; i < frameSkip; i++) {
+            game.update();
+            episodeTicks++;
+            GameState state = game.getStateManager().getState();
+            if (state == GameState.GAME_OVER || state == GameState.WIN || episodeTicks >= MAX_EPISODE_TICKS) {
+                done = true;
+                break;
+            }
+        }
+        return game.getScore() - scoreBefore;
+    }
+
+    /**
+     * Kiểm tra ván đã kết thúc (thắng, thua hoặc bị cắt ngang).
+     *
+     * @return true nếu cần {@link #reset(long)} trước bước kế tiếp.
+     */
+    public boolean isDone() {
+        return done;
+    }
+
+    /**
+     * Kiểm tra ván kết thúc vì bị cắt ngang (hết {@value #MAX_EPISODE_TICKS} tick) chứ không phải thắng/thua.
+     *
+     * @return true nếu bị cắt ngang.
+     */
+    public boolean isTruncated() {
+        GameState state = game.getStateManager().getState();
+        return done && state != GameState.GAME_OVER && state != GameState.WIN;
+    }
+
+    /**
+     * Ghi quan sát hiện tại vào {@code out}, bắt đầu từ vị trí {@code offset}
+     * (ghi theo chỉ số tuyệt đối, không đổi position của buffer).
+     *
+     * @param out Buffer đích, còn ít nhất {@value #OBSERVATION_SIZE} chỗ từ {@code offset}.
+     * @param offset Vị trí bắt đầu.
+     */
+    public void observe(FloatBuffer out, int offset) {
+        double areaX = Constants.PlayArea.PLAY_AREA_X;
+        double areaY = Constants.PlayArea.PLAY_AREA_Y;
+        double areaW = Constants.PlayArea.PLAY_AREA_WIDTH;
+        double areaH = Constants.PlayArea.PLAY_AREA_HEIGHT;
+
+        Paddle paddle = game.getPaddle();
+        out.put(offset, (float) ((paddle.getX() + paddle.getWidth() / 2.0 - areaX) / areaW));
+        out.put(offset + 1, (float) (paddle.getWidth() / areaW));
+        out.put(offset + 2, game.isAttached() ? 1f : 0f);
+        out.put(offset + 3, paddle.isLaserEnabled() ? 1f : 0f);
+
+        int count = selectLowestBalls(game.balls);
+        for (int i = 0; i < MAX_BALLS; i++) {
+            int at = offset + 4 + i * 5;
+            if (i < count) {
+                Ball ball = lowest[i];
+                out.put(at, 1f);
+                out.put(at + 1, (float) ((ball.getCenter().getX() - areaX) / areaW));
+                out.put(at + 2, (float) ((ball.getCenter().getY() - areaY) / areaH));
+                out.put(at + 3, (float) (ball.getVelocity().getDx() / Constants.Ball.BALL_MAX_SPEED));
+                out.put(at + 4, (float) (ball.getVelocity().getDy() / Constants.Ball.BALL_MAX_SPEED));
+            } else {
+                for (int k = 0; k < 5; k++) {
+                    out.put(at + k, 0f);
+                }
+            }
+        }
+        Arrays.fill(lowest, null);
+
+        updateGrid();
+        out.put(offset + GRID_OFFSET, grid);
+    }
+
+    /**
+     * Lấy ván game bên dưới (để đọc thêm thông tin như mạng, vòng, điểm).
+     *
+     * @return GameManager của môi trường.
+     */
+    public GameManager getGame() {
+        return game;
+    }
+
+    /**
+     * Chọn tối đa {@value #MAX_BALLS} bóng thấp nhất (gần paddle nhất), thấp nhất trước.
+     *
+     * @return Số bóng đã chọn.
+     */
+    private int selectLowestBalls(List<Ball> balls) {
+        int count = 0;
+        for (int i = 0; i < balls.size(); i++) {
+            Ball ball = balls.get(i);
+            int k = Math.min(count, MAX_BALLS - 1);
+            if (count == MAX_BALLS && ball.getY() <= lowest[k].getY()) {
+                continue;
+            }
+            while (k > 0 && lowest[k - 1].getY() < ball.getY()) {
+                lowest[k] = lowest[k - 1];
+                k--;
+            }
+            lowest[k] = ball;
+            count = Math.min(count + 1, MAX_BALLS);
+        }
+        return count;
+    }
+
+    /**
+     * Tính lại lưới gạch nếu có gạch bị phá hoặc vòng chơi đã đổi kể từ lần tính trước.
+     */
+    private void updateGrid() {
+        RoundStats stats = game.getRoundStats();
+        int destroyed = 0;
+        for (int type = 0; type < BRICK_TYPES; type++) {
+            destroyed += stats.getBricksDestroyed(type);
+        }
+        if (stats.getStartTick() == gridStartTick && destroyed == gridDestroyed) {
+            return;
+        }
+        gridStartTick = stats.getStartTick();
+        gridDestroyed = destroyed;
+
+        Arrays.fill(grid, 0f);
+        List<Brick> bricks = game.bricks;
+        for (int i = 0; i < bricks.size(); i++) {
+            Brick brick = bricks.get(i);
+            if (!brick.isAlive()) {
+                continue;
+            }
+            int column = (int) ((brick.getX() + brick.getWidth() / 2.0 - Constants.PlayArea.PLAY_AREA_X) / CELL_WIDTH);
+            int row = (int) ((brick.getY() + brick.getHeight() / 2.0 - Constants.PlayArea.PLAY_AREA_Y) / CELL_HEIGHT);
+            column = Math.max(0, Math.min(GRID_COLUMNS - 1, column));
+            row = Math.max(0, Math.min(GRID_ROWS - 1, row));
+            grid[row * GRID_COLUMNS + column] = 1f;
+        }
+    }
+}
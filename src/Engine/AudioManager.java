@@ -63,11 +63,12 @@ public class AudioManager {
     }
 
     /**
-     * Lấy instance duy nhất của AudioManager.
+     * Lấy instance duy nhất của AudioManager. Đồng bộ hóa để nhiều luồng gọi
+     * cùng lúc vẫn chỉ tạo một instance.
      *
      * @return Instance của AudioManager.
      */
-    public static AudioManager getInstance() {
+    public static synchronized AudioManager getInstance() {
         if (instance == null) {
             instance = new AudioManager();
         }
@@ -6,11 +6,13 @@ import Objects.GameEntities.Paddle;
 import Objects.GameEntities.Laser;
 import Objects.Bricks.Brick;
 import Objects.PowerUps.PowerUp;
+import GeometryPrimitives.Rectangle;
 import GeometryPrimitives.Velocity;
+import Rounds.BrickIndex;
 import Utils.Constants;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -24,6 +26,9 @@ public class CollisionManager {
     private int playAreaHeight; // Chiều cao khu vực chơi.
     // Góc phản xạ tối đa của bóng khi chạm thanh đỡ, lấy từ hằng số.
     private static final double MAX_BOUNCE_ANGLE = Constants.Paddle.PADDLE_MAX_ANGLE;
+    /** Lề thêm quanh vùng truy vấn chỉ mục gạch, để không bỏ sót va chạm sát biên do sai số. */
+    private static final double QUERY_MARGIN = 1.0;
+    private RoundStats roundStats; // Bộ đếm số lần trúng gạch của vòng đang chơi (có thể null).
 
     /**
      * Khởi tạo CollisionManager.
@@ -36,6 +41,26 @@ public class CollisionManager {
         this.playAreaHeight = height;
     }
 
+    /**
+     * Thiết lập bộ đếm nhận số lần trúng gạch theo loại.
+     *
+     * @param roundStats Bộ đếm số liệu vòng chơi.
+     */
+    void setRoundStats(RoundStats roundStats) {
+        this.roundStats = roundStats;
+    }
+
+    /**
+     * Ghi nhận một lần trúng gạch (nếu có bộ đếm).
+     *
+     * @param brick Gạch bị trúng.
+     */
+    private void countHit(Brick brick) {
+        if (roundStats != null) {
+            roundStats.brickHit(brick.getBrickType());
+        }
+    }
+
     /**
      * Kiểm tra và xử lý va chạm của bóng với các biên giới hạn cố định (tường trên, trái, phải).
      *
@@ -161,33 +186,93 @@ public class CollisionManager {
         List<Brick> destroyedBricks = new ArrayList<>();
 
         for (Brick brick : bricks) {
-            // Chỉ kiểm tra va chạm với gạch còn sống.
-            if (!brick.isAlive()) {
-                continue;
-            }
+            checkBallBrick(ball, brick, destroyedBricks);
+        }
+
+        return destroyedBricks;
+    }
 
-            // Bỏ qua va chạm cho gạch vàng (không thể phá hủy).
-            if (brick.getBrickType() == BrickType.GOLD){
-                ignoreGoldBricksCollision(brick, ball);
+    /**
+     * Kiểm tra va chạm của bóng với gạch, chỉ xét các gạch mà chỉ mục cho biết
+     * nằm gần đường đi của bóng trong frame này.
+     *
+     * <p>Gạch được xét theo đúng thứ tự danh sách như
+     * {@link #checkBallBrickCollisions(Ball, List)}. Khi bóng đổi hướng hoặc bị
+     * đẩy ra sau một va chạm, vùng truy vấn được tính lại từ trạng thái mới và
+     * tiếp tục từ gạch kế tiếp, nên kết quả giống hệt cách duyệt toàn bộ.</p>
+     *
+     * @param ball Đối tượng bóng.
+     * @param bricks Danh sách các gạch cần kiểm tra.
+     * @param index Chỉ mục va chạm của {@code bricks}.
+     * @return Danh sách các gạch đã bị phá hủy trong lần va chạm này (dùng cho tính điểm).
+     */
+    public List<Brick> checkBallBrickCollisions(Ball ball, List<Brick> bricks, BrickIndex index) {
+        List<Brick> destroyedBricks = new ArrayList<>();
+
+        int last = -1; // Chỉ số gạch cuối cùng đã xét
+        int count = queryBallPath(ball, index);
+        for (int k = 0; k < count; k++) {
+            int i = index.resultAt(k);
+            if (i <= last) {
                 continue;
             }
+            last = i;
+            if (checkBallBrick(ball, bricks.get(i), destroyedBricks)) {
+                // Bóng đã đổi trạng thái: truy vấn lại theo đường đi mới
+                count = queryBallPath(ball, index);
+                k = -1;
+            }
+        }
+
+        return destroyedBricks;
+    }
+
+    /**
+     * Truy vấn các gạch có thể chạm bóng trong frame này: hình bao đường đi của
+     * tâm bóng, mở rộng thêm bán kính và một lề nhỏ.
+     */
+    private int queryBallPath(Ball ball, BrickIndex index) {
+        double radius = ball.getWidth() / 2.0;
+        double startX = ball.getX() + radius;
+        double startY = ball.getY() + radius;
+        double endX = startX + ball.getVelocity().getDx();
+        double endY = startY + ball.getVelocity().getDy();
+        double reach = radius + QUERY_MARGIN;
+        return index.query(Math.min(startX, endX) - reach, Math.min(startY, endY) - reach,
+                Math.max(startX, endX) + reach, Math.max(startY, endY) + reach);
+    }
 
+    /**
+     * Xử lý va chạm giữa bóng và một viên gạch.
+     *
+     * @return {@code true} nếu vận tốc hoặc vị trí của bóng đã thay đổi.
+     */
+    private boolean checkBallBrick(Ball ball, Brick brick, List<Brick> destroyedBricks) {
+        // Chỉ kiểm tra va chạm với gạch còn sống.
+        if (!brick.isAlive()) {
+            return false;
+        }
+
+        // Bỏ qua va chạm cho gạch vàng (không thể phá hủy).
+        if (brick.getBrickType() == BrickType.GOLD){
+            return ignoreGoldBricksCollision(brick, ball);
+        }
 
-            // Kiểm tra va chạm bằng phương pháp "swept collision" tích hợp của Ball.
-            if (ball.checkCollisionWithRect(brick.getBounds())) {
-                // Gạch nhận sát thương.
-                brick.takeHit();
+        // Kiểm tra va chạm bằng phương pháp "swept collision" tích hợp của Ball.
+        if (ball.checkCollisionWithRect(brick.getBounds())) {
+            // Gạch nhận sát thương.
+            brick.takeHit();
+            countHit(brick);
 
-                // Logic phát SFX chạm gạch
+            // Logic phát SFX chạm gạch
 
-                // Nếu gạch bị phá hủy, thêm vào danh sách.
-                if (brick.isDestroyed()) {
-                    destroyedBricks.add(brick);
-                }
+            // Nếu gạch bị phá hủy, thêm vào danh sách.
+            if (brick.isDestroyed()) {
+                destroyedBricks.add(brick);
             }
+            return true;
         }
-
-        return destroyedBricks;
+        return false;
     }
 
     /**
@@ -196,12 +281,14 @@ public class CollisionManager {
      *
      * @param brick Gạch vàng.
      * @param ball Đối tượng bóng.
+     * @return {@code true} nếu bóng bị đổi hướng.
      */
-    private void ignoreGoldBricksCollision(Brick brick, Ball ball) {
+    private boolean ignoreGoldBricksCollision(Brick brick, Ball ball) {
         // Gạch vàng là không thể phá hủy - va chạm tương tự như tường.
         if (brick.getBrickType() == BrickType.GOLD) {
             // Kiểm tra va chạm AABB.
             if (ball.getBounds().intersects(brick.getBounds())) {
+                countHit(brick);
                 // Phản hồi đơn giản: đảo hướng vận tốc dựa trên cạnh va chạm.
                 double ballCenterX = ball.getCenter().getX();
                 double ballCenterY = ball.getCenter().getY();
@@ -222,9 +309,10 @@ public class CollisionManager {
                 }
 
                 // Logic phát SFX va chạm tường
+                return true;
             }
         }
-
+        return false;
     }
 
     /**
@@ -233,10 +321,11 @@ public class CollisionManager {
      *
      * @param lasers Danh sách các tia laser đang hoạt động.
      * @param bricks Danh sách các gạch.
-     * @return Map chứa các cặp va chạm laser-gạch (laser: gạch bị trúng).
+     * @return Map chứa các cặp va chạm laser-gạch (laser: gạch bị trúng), theo thứ tự của danh sách laser.
      */
     public Map<Laser, Brick> checkLaserBrickCollisions(List<Laser> lasers, List<Brick> bricks) {
-        Map<Laser, Brick> collisions = new HashMap<>();
+        // LinkedHashMap: thứ tự xử lý không phụ thuộc identity hash, để replay cho cùng kết quả
+        Map<Laser, Brick> collisions = new LinkedHashMap<>();
 
         for (Laser laser : lasers) {
             // Chỉ kiểm tra tia laser đang hoạt động.
@@ -254,6 +343,7 @@ public class CollisionManager {
                 if (laser.getBounds().intersects(brick.getBounds())) {
                     // Gạch nhận sát thương.
                     brick.takeHit();
+                    countHit(brick);
 
                     // Ghi lại cặp va chạm.
                     collisions.put(laser, brick);
@@ -269,6 +359,43 @@ public class CollisionManager {
         return collisions;
     }
 
+    /**
+     * Kiểm tra va chạm của tia laser với gạch, dùng chỉ mục để chỉ xét các gạch
+     * chạm hình bao của tia. Các gạch ứng viên được xét theo thứ tự danh sách,
+     * nên tia trúng đúng viên gạch như {@link #checkLaserBrickCollisions(List, List)}.
+     *
+     * @param lasers Danh sách các tia laser đang hoạt động.
+     * @param bricks Danh sách các gạch.
+     * @param index Chỉ mục va chạm của {@code bricks}.
+     * @return Map chứa các cặp va chạm laser-gạch, theo thứ tự của danh sách laser.
+     */
+    public Map<Laser, Brick> checkLaserBrickCollisions(List<Laser> lasers, List<Brick> bricks, BrickIndex index) {
+        Map<Laser, Brick> collisions = new LinkedHashMap<>();
+
+        for (Laser laser : lasers) {
+            if (!laser.isAlive()) {
+                continue;
+            }
+
+            Rectangle bounds = laser.getBounds();
+            double minX = bounds.getUpperLeft().getX();
+            double minY = bounds.getUpperLeft().getY();
+            int count = index.query(minX - QUERY_MARGIN, minY - QUERY_MARGIN,
+                    minX + bounds.getWidth() + QUERY_MARGIN, minY + bounds.getHeight() + QUERY_MARGIN);
+            for (int k = 0; k < count; k++) {
+                Brick brick = bricks.get(index.resultAt(k));
+                if (brick.isAlive() && bounds.intersects(brick.getBounds())) {
+                    brick.takeHit();
+                    countHit(brick);
+                    collisions.put(laser, brick);
+                    break;
+                }
+            }
+        }
+
+        return collisions;
+    }
+
     /**
      * Kiểm tra va chạm của vật phẩm bổ trợ (PowerUp) với thanh đỡ.
      *
@@ -0,0 +1,117 @@
+package Engine;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Danh sách thực thể dạng mảng liền (dense array) cho các đối tượng sinh ra
+ * và biến mất liên tục như vật phẩm đang rơi và tia laser.
+ *
+ * <p>Xóa bằng {@link #removeAt(int)}: phần tử cuối được chuyển vào chỗ trống
+ * (swap-remove), nên xóa là O(1) và không dịch mảng. Thứ tự phần tử vì thế
+ * không phải thứ tự thêm vào, nhưng vẫn tất định (chỉ phụ thuộc chuỗi thao
+ * tác). Mảng chỉ tăng kích thước khi cần và không bao giờ co lại, nên cập nhật
+ * mỗi tick không cấp phát.</p>
+ *
+ * <p>Duyệt và xóa trong cùng một tick theo mẫu sau; mỗi phần tử có mặt đầu
+ * vòng lặp được xử lý đúng một lần:</p>
+ * <pre>{@code
+ * for (int i = 0; i < list.size(); ) {
+ *     if (shouldRemove(list.get(i))) {
+ *         list.removeAt(i); // phần tử cuối vừa chuyển vào i, xử lý ở lượt kế tiếp
+ *     } else {
+ *         i++;
+ *     }
+ * }
+ * }</pre>
+ *
+ * <p>Các thao tác xóa khác của {@link List} (theo chỉ số có dịch mảng, qua
+ * iterator) không được hỗ trợ. {@link #view()} trả về view chỉ đọc dùng lại
+ * cho renderer và bản lưu. Không an toàn luồng: chỉ dùng trên luồng mô phỏng
+ * của ván game sở hữu.</p>
+ *
+ * @param <E> Kiểu thực thể.
+ */
+public final class EntityList<E> extends AbstractList<E> implements RandomAccess {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private Object[] elements; // Mảng liền, phần tử [0, size) là hợp lệ
+    private int size;
+    private final List<E> view = Collections.unmodifiableList(this); // View chỉ đọc (tạo một lần)
+
+    /**
+     * Tạo danh sách rỗng với sức chứa mặc định.
+     */
+    public EntityList() {
+        this.elements = new Object[DEFAULT_CAPACITY];
+    }
+
+    /**
+     * Thêm một thực thể vào cuối danh sách (O(1) khấu hao).
+     *
+     * @param entity Thực thể cần thêm.
+     * @return Luôn là {@code true}.
+     */
+    @Override
+    public boolean add(E entity) {
+        if (size == elements.length) {
+            elements = Arrays.copyOf(elements, elements.length * 2);
+        }
+        elements[size++] = entity;
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Xóa thực thể ở vị trí {@code index} bằng cách chuyển phần tử cuối vào
+     * chỗ trống (O(1)).
+     *
+     * @param index Vị trí cần xóa.
+     * @return Thực thể đã xóa.
+     * @throws IndexOutOfBoundsException Nếu vị trí nằm ngoài danh sách.
+     */
+    public E removeAt(int index) {
+        E removed = get(index);
+        int last = --size;
+        elements[index] = elements[last];
+        elements[last] = null; // Không giữ tham chiếu tới thực thể đã xóa
+        modCount++;
+        return removed;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        }
+        return (E) elements[index];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Xóa mọi thực thể (giữ nguyên sức chứa của mảng).
+     */
+    @Override
+    public void clear() {
+        Arrays.fill(elements, 0, size, null);
+        size = 0;
+        modCount++;
+    }
+
+    /**
+     * Lấy view chỉ đọc của danh sách (cùng một đối tượng cho mọi lần gọi, không sao chép).
+     *
+     * @return View chỉ đọc.
+     */
+    public List<E> view() {
+        return view;
+    }
+}
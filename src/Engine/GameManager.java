@@ -8,6 +8,9 @@ import Objects.GameEntities.Laser;
 import Objects.Bricks.Brick;
 import GeometryPrimitives.Point;
 import GeometryPrimitives.Velocity;
+import Rounds.BrickIndex;
+import Rounds.ProceduralRound;
+import Render.AnimationScheduler;
 import Utils.Constants;
 import java.util.ArrayList;
 import java.util.List;
@@ -17,13 +20,19 @@ import java.util.Map;
  * Lớp quản lý trò chơi (GameManager) là lớp trung tâm điều khiển logic chính
  * của game, bao gồm khởi tạo các đối tượng, cập nhật trạng thái game,
  * xử lý va chạm và quản lý các điều kiện thắng/thua.
+ *
+ * <p>Ván game là tất định: mọi yếu tố ngẫu nhiên lấy từ một {@link GameRandom} có
+ * seed và mọi thời hạn tính theo tick của {@link AnimationScheduler}. Cùng seed
+ * và cùng chuỗi {@link InputAction} (kèm tick) luôn cho cùng kết quả, nên mỗi
+ * ván mới được ghi lại bằng {@link InputRecorder} và có thể phát lại bằng
+ * {@link ReplayPlayer}.</p>
  */
 public class GameManager {
     // Các đối tượng game
     public Paddle paddle;
     public List<Ball> balls;
     public List<Brick> bricks;
-    public List<Laser> lasers;
+    public final EntityList<Laser> lasers = new EntityList<>(); // Tia laser đang bay (mảng liền, swap-remove)
 
     // Các lớp quản lý (Managers)
     private CollisionManager collisionManager;
@@ -31,6 +40,24 @@ public class GameManager {
     private RoundsManager roundsManager;
     private ScoreManager scoreManager;
     private StateManager stateManager;
+    // Đồng hồ animation dùng chung cho mọi thực thể của ván game
+    private final AnimationScheduler animationScheduler = new AnimationScheduler();
+
+    // Tính tất định và replay
+    private long seed; // Seed của ván game hiện tại
+    private GameRandom random; // Nguồn ngẫu nhiên duy nhất của ván game (trạng thái được lưu nhanh)
+    private InputRecorder recorder; // Ghi input của ván mới (null nếu không ghi)
+    private volatile ReplayPlayer replayPlayer; // Người phát replay (null nếu đang chơi thật)
+
+    // Số liệu vòng chơi
+    private final RoundStats roundStats = new RoundStats(); // Bộ đếm của vòng đang chơi
+    private final TrajectoryPredictor trajectoryPredictor = new TrajectoryPredictor(this); // Quỹ đạo bóng đoán trước
+    private boolean analyticsEnabled = true; // Ghi số liệu vòng vào RoundAnalytics (tắt cho ván chạy thử)
+
+    // Chuyển vòng
+    private int roundTransitionTicks; // Số tick còn lại của màn hình qua màn
+    private long lastTransitionNanos; // Thời gian của tick đổi vòng gần nhất (ns)
+    private ProceduralRound.Spec proceduralSpec; // Spec của chế độ level sinh ngẫu nhiên (null: level từ file)
 
     // Trạng thái game
     private int width;
@@ -39,9 +66,18 @@ public class GameManager {
     private String playerName; // Tên người chơi
 
     /**
-     * Khởi tạo GameManager, thiết lập kích thước cửa sổ và các thành phần quản lý.
+     * Khởi tạo GameManager với seed ngẫu nhiên.
      */
     public GameManager() {
+        this(System.nanoTime());
+    }
+
+    /**
+     * Khởi tạo GameManager, thiết lập kích thước cửa sổ và các thành phần quản lý.
+     *
+     * @param seed Seed của ván game (cùng seed cho cùng bố cục và vật phẩm rơi).
+     */
+    public GameManager(long seed) {
         this.width = Constants.Window.WINDOW_WIDTH;
         // Chiều cao phải là chiều cao cửa sổ tuyệt đối để xử lý tọa độ Y.
         // Tọa độ Y tuyệt đối (0..WINDOW_HEIGHT) được sử dụng cho các đối tượng game.
@@ -50,14 +86,15 @@ public class GameManager {
 
         this.balls = new ArrayList<>();
         this.bricks = new ArrayList<>();
-        this.lasers = new ArrayList<>();
 
         this.collisionManager = new CollisionManager(width, height);
-        this.powerUpManager = PowerUpManager.getInstance();
+        this.collisionManager.setRoundStats(roundStats);
+        this.powerUpManager = new PowerUpManager();
         this.powerUpManager.setGameManager(this); // Thiết lập tham chiếu ngược.
-        this.roundsManager = new RoundsManager();
+        this.roundsManager = new RoundsManager(animationScheduler);
         this.scoreManager = new ScoreManager();
         this.stateManager = new StateManager();
+        reseed(seed);
 
         // Khởi tạo các đối tượng game cơ bản (paddle, bóng, gạch)
         initGame();
@@ -74,7 +111,8 @@ public class GameManager {
                 (width - paddleWidth) / 2.0, // Đặt ở giữa màn hình
                 height - paddleHeight - 60, // Cách đáy một khoảng
                 paddleWidth,
-                paddleHeight
+                paddleHeight,
+                animationScheduler
         );
 
         // Bắt đầu animation xuất hiện (Materialize)
@@ -95,17 +133,33 @@ public class GameManager {
 
         // Tải gạch cho vòng chơi đầu tiên
         bricks = roundsManager.loadFirstRound();
+        beginRoundStats(0);
     }
 
     /**
      * Cập nhật logic game cho mỗi khung hình.
      */
     public void update() {
+        // Màn hình qua màn: chỉ đếm tick trong khi vòng kế tiếp được chuẩn bị ở luồng nền
+        if (stateManager.getState() == GameState.LEVEL_COMPLETE) {
+            updateRoundTransition();
+            return;
+        }
+
         // Chỉ cập nhật logic nếu game đang ở trạng thái PLAYING
         if (!stateManager.isPlaying()) {
             return;
         }
 
+        // Khi phát replay: áp input đã ghi của tick này; dừng khi tới tick cuối
+        ReplayPlayer replay = replayPlayer;
+        if (replay != null && !replay.feed(this)) {
+            return;
+        }
+
+        // Tiến đồng hồ animation chung (khung hình được tính theo tick, không duyệt từng thực thể)
+        animationScheduler.tick();
+
         // Cập nhật trạng thái thanh đỡ
         paddle.update();
 
@@ -128,30 +182,140 @@ public class GameManager {
             }
         }
 
-        // Cập nhật vị trí của các tia laser
-        for (Laser laser : lasers) {
+        // Cập nhật vị trí của các tia laser; tia đã trúng gạch hoặc bay ra ngoài
+        // màn hình được xóa ngay bằng swap-remove
+        for (int i = 0; i < lasers.size(); ) {
+            Laser laser = lasers.get(i);
             laser.update();
-        }
-
-        // Cập nhật gạch (cho animation như gạch nứt)
-        for (Brick brick : bricks) {
-            if (brick.isAlive()) {
-                brick.update();
+            if (!laser.isAlive() || laser.isOffScreen()) {
+                lasers.removeAt(i); // Tia cuối vừa chuyển vào vị trí i, xử lý ở lượt kế tiếp
+            } else {
+                i++;
             }
         }
 
         // Cập nhật logic vật phẩm bổ trợ
         powerUpManager.update(paddle);
 
-        // Loại bỏ các tia laser đã bay ra ngoài màn hình
-        lasers.removeIf(Laser::isOffScreen);
-
         // Xử lý tất cả va chạm
         handleCollisions();
         // Kiểm tra điều kiện game (mất mạng, qua màn)
         checkGameConditions();
         // Kiểm tra và giữ thanh đỡ trong biên giới hạn (lặp lại đề phòng va chạm đưa ra ngoài)
         checkPaddleOutOfBounds();
+
+        // Replay kết thúc cùng ván game
+        if (replay != null && isGameOver()) {
+            replay.finish(this);
+        }
+    }
+
+    /**
+     * Cập nhật một tick của màn hình qua màn. Khi hết thời gian hiển thị, vòng
+     * đã chuẩn bị được đưa vào chơi. Thời gian tính theo tick (không theo đồng
+     * hồ thật) để replay chuyển vòng ở đúng cùng tick.
+     */
+    private void updateRoundTransition() {
+        ReplayPlayer replay = replayPlayer;
+        if (replay != null && !replay.feed(this)) {
+            return;
+        }
+
+        animationScheduler.tick();
+        if (--roundTransitionTicks <= 0) {
+            finishRoundTransition();
+        }
+    }
+
+    /**
+     * Kết thúc màn hình qua màn: đổi sang gạch và chỉ mục va chạm đã chuẩn bị ở
+     * luồng nền (chờ nếu chưa xong), đặt lại bóng và tiếp tục chơi. Thời gian
+     * của bước này được đo và ghi log.
+     *
+     * <p>Được gọi tự động khi hết {@link Constants.GameRules#LEVEL_COMPLETE_TICKS};
+     * cũng có thể gọi sớm (ví dụ khi ứng dụng đóng trong lúc qua màn, để lưu nhanh được).</p>
+     *
+     * @return {@code true} nếu đã chuyển vòng, {@code false} nếu ván không ở màn hình qua màn.
+     */
+    public boolean finishRoundTransition() {
+        if (stateManager.getState() != GameState.LEVEL_COMPLETE || !roundsManager.isPreparingRound()) {
+            return false;
+        }
+        long start = System.nanoTime();
+
+        bricks = roundsManager.commitPreparedRound();
+        beginRoundStats(0);
+        stateManager.setState(GameState.PLAYING); // Chuyển lại trạng thái chơi
+
+        // Đặt lại bóng và thanh đỡ
+        resetBall();
+        roundTransitionTicks = 0;
+
+        lastTransitionNanos = System.nanoTime() - start;
+        System.out.printf("GameManager: Round %d started in %.3f ms (prepared in %.3f ms, waited %.3f ms)%n",
+                roundsManager.getCurrentRoundNumber(), lastTransitionNanos / 1_000_000.0,
+                roundsManager.getPreparationNanos() / 1_000_000.0,
+                roundsManager.getPreparationWaitNanos() / 1_000_000.0);
+        return true;
+    }
+
+    /**
+     * Lấy thời gian của tick đổi vòng gần nhất (đổi kho gạch, đặt lại bóng).
+     *
+     * @return Thời gian (ns), 0 nếu chưa chuyển vòng lần nào.
+     */
+    public long getLastTransitionNanos() {
+        return lastTransitionNanos;
+    }
+
+    /**
+     * Áp dụng một input của người chơi và ghi lại nó cho replay.
+     * Bị bỏ qua khi đang phát replay hoặc khi ván không ở trạng thái chơi/tạm dừng.
+     * Trong màn hình qua màn chỉ nhận input di chuyển (để không mất lần nhả phím).
+     *
+     * @param action Hành động điều khiển.
+     */
+    public void applyInput(InputAction action) {
+        GameState state = stateManager.getState();
+        if (state == GameState.LEVEL_COMPLETE && action == InputAction.FIRE) {
+            return;
+        }
+        if (replayPlayer != null || (state != GameState.PLAYING && state != GameState.PAUSED
+                && state != GameState.LEVEL_COMPLETE)) {
+            return;
+        }
+        if (recorder != null) {
+            // Input được áp trước lần cập nhật kế tiếp, tức trước khi tick hiện tại tăng
+            recorder.record(animationScheduler.getTick(), action);
+        }
+        performInput(action);
+    }
+
+    /**
+     * Thực hiện một hành động điều khiển lên ván game (dùng chung cho input
+     * thật và replay).
+     *
+     * @param action Hành động điều khiển.
+     */
+    void performInput(InputAction action) {
+        switch (action) {
+            case MOVE_LEFT:
+                paddle.moveLeft();
+                break;
+            case MOVE_RIGHT:
+                paddle.moveRight();
+                break;
+            case STOP:
+                paddle.stop();
+                break;
+            case FIRE:
+                if (isAttached()) {
+                    launchBall(); // Phóng bóng
+                } else if (paddle.isLaserEnabled()) {
+                    shootLaser(); // Bắn laser
+                }
+                break;
+        }
     }
 
     /**
@@ -172,6 +336,10 @@ public class GameManager {
      * Xử lý tất cả va chạm trong game.
      */
     private void handleCollisions() {
+        // Chỉ mục va chạm chỉ khớp khi bricks là danh sách gạch của RoundsManager
+        BrickIndex brickIndex = bricks == roundsManager.getCurrentBricks()
+                ? roundsManager.getCurrentBrickIndex() : null;
+
         // --- Va chạm của Bóng (Ball Collisions) ---
         for (Ball ball : balls) {
             // Kiểm tra va chạm với tường (tường trên, trái, phải).
@@ -191,12 +359,15 @@ public class GameManager {
             }
 
             // Kiểm tra va chạm với gạch
-            List<Brick> destroyedBricks = collisionManager.checkBallBrickCollisions(ball, bricks);
+            List<Brick> destroyedBricks = brickIndex != null
+                    ? collisionManager.checkBallBrickCollisions(ball, bricks, brickIndex)
+                    : collisionManager.checkBallBrickCollisions(ball, bricks);
 
             // Xử lý các gạch bị phá hủy
             for (Brick brick : destroyedBricks) {
                 BrickType type = brick.getBrickType();
                 scoreManager.addDestroyBrickScore(type); // Cộng điểm
+                roundStats.brickDestroyed(type);
 
                 // Rơi vật phẩm bổ trợ (nếu có)
                 powerUpManager.spawnFromBrick(brick.getX(), brick.getY(), type);
@@ -205,7 +376,9 @@ public class GameManager {
 
         // --- Va chạm của Laser (Laser Collisions) ---
         // Lấy Map các cặp (Laser, Brick) bị va chạm
-        Map<Laser, Brick> laserBrickHits = collisionManager.checkLaserBrickCollisions(lasers, bricks);
+        Map<Laser, Brick> laserBrickHits = brickIndex != null
+                ? collisionManager.checkLaserBrickCollisions(lasers, bricks, brickIndex)
+                : collisionManager.checkLaserBrickCollisions(lasers, bricks);
 
         for (Map.Entry<Laser, Brick> entry : laserBrickHits.entrySet()) {
             Laser laser = entry.getKey();
@@ -215,6 +388,9 @@ public class GameManager {
 
             BrickType type = brick.getBrickType();
             scoreManager.addDestroyBrickScore(type); // Cộng điểm
+            if (brick.isDestroyed()) {
+                roundStats.brickDestroyed(type);
+            }
             // Không cần xử lý PowerUp vì laser không tạo ra PowerUp (chỉ bóng làm điều đó)
         }
     }
@@ -247,14 +423,12 @@ public class GameManager {
 
                 // Dọn dẹp tất cả vật phẩm đang rơi khi chuyển màn
                 powerUpManager.clearAllPowerUps();
+                endRoundStats(RoundStats.Outcome.CLEARED);
 
-                // Chuyển sang vòng tiếp theo
-                roundsManager.nextRound();
-                bricks = roundsManager.getCurrentBricks();
-                stateManager.setState(GameState.PLAYING); // Chuyển lại trạng thái chơi
-
-                // Đặt lại bóng và thanh đỡ
-                resetBall();
+                // Chuẩn bị vòng tiếp theo ở luồng nền trong lúc hiển thị màn hình qua màn;
+                // finishRoundTransition() đổi vòng khi hết thời gian hiển thị.
+                roundsManager.prepareNextRound();
+                roundTransitionTicks = Constants.GameRules.LEVEL_COMPLETE_TICKS;
             } else {
                 // Đã hoàn thành tất cả các vòng - THẮNG!
                 // Cộng điểm thưởng hoàn thành màn chơi cuối cùng
@@ -265,6 +439,7 @@ public class GameManager {
                 
                 // Dọn dẹp tất cả vật phẩm đang rơi khi thắng
                 powerUpManager.clearAllPowerUps();
+                endRoundStats(RoundStats.Outcome.CLEARED);
                 stateManager.setState(GameState.WIN);
             }
         }
@@ -276,6 +451,7 @@ public class GameManager {
     private void loseLife() {
         lives--; // Giảm một mạng
         scoreManager.applyLoseLifePenalty(); // Trừ điểm phạt
+        roundStats.lifeLost();
 
         paddle.playExplodeAnimation(); // Bắt đầu animation nổ của paddle
 
@@ -283,6 +459,7 @@ public class GameManager {
         if (lives <= 0) {
             // Dọn dẹp tất cả vật phẩm đang rơi khi game kết thúc
             powerUpManager.clearAllPowerUps();
+            endRoundStats(RoundStats.Outcome.GAME_OVER);
             stateManager.setState(GameState.GAME_OVER);
         } else {
             // Vẫn còn mạng, đặt lại bóng
@@ -357,18 +534,32 @@ public class GameManager {
     }
 
     /**
-     * Đặt lại toàn bộ trò chơi về trạng thái ban đầu.
+     * Đặt lại toàn bộ trò chơi về trạng thái ban đầu với một seed mới.
      */
     public void resetGame() {
+        resetGame(System.nanoTime());
+    }
+
+    /**
+     * Đặt lại toàn bộ trò chơi về trạng thái ban đầu.
+     *
+     * @param seed Seed của ván mới.
+     */
+    public void resetGame(long seed) {
+        // Vòng đang chơi dở (nếu có) được ghi nhận là bỏ ngang
+        endRoundStats(RoundStats.Outcome.ABANDONED);
+        roundTransitionTicks = 0;
         lives = Constants.GameRules.INITIAL_LIVES;
 
+        // Ván mới bắt đầu từ tick 0 với seed mới (điều kiện để replay tái lập được)
+        animationScheduler.reset();
+        reseed(seed);
+
         // Đặt lại các Manager
         scoreManager.resetScore();
         scoreManager.resetMultiplier();
         roundsManager.reset();
-        // Thiết lập lại PowerUpManager
-        powerUpManager = PowerUpManager.getInstance();
-        powerUpManager.setGameManager(this);
+        powerUpManager.clearAllPowerUps();
         // Chuyển về trạng thái MENU
         stateManager.setState(GameState.MENU);
 
@@ -380,6 +571,186 @@ public class GameManager {
         initGame();
     }
 
+    /**
+     * Chọn bộ vòng chơi cho các ván sau: level sinh ngẫu nhiên theo một spec
+     * ({@code Constants.Procedural.ROUND_COUNT} vòng, mỗi vòng một seed), hoặc
+     * level đọc từ file. Ván hiện tại được đặt lại với seed mới.
+     *
+     * <p>Replay và bản lưu nhanh không ghi bộ vòng chơi: chúng chỉ tái lập
+     * đúng khi được mở cùng chế độ đã dùng lúc ghi.</p>
+     *
+     * @param spec Spec của level sinh ngẫu nhiên, hoặc {@code null} để dùng level từ file.
+     */
+    public void setProceduralSpec(ProceduralRound.Spec spec) {
+        if (spec == null) {
+            roundsManager.useLevelRounds();
+        } else {
+            roundsManager.useProceduralRounds(spec, Constants.Procedural.ROUND_COUNT);
+        }
+        proceduralSpec = spec;
+        resetGame();
+        System.out.println("GameManager: Rounds from " + (spec == null ? "level files" : spec.name() + " ("
+                + spec.columns() + "x" + spec.rows() + ")") + ", " + bricks.size() + " bricks in round 1");
+    }
+
+    /**
+     * Lấy spec của chế độ level sinh ngẫu nhiên đang dùng.
+     *
+     * @return Spec, hoặc {@code null} nếu đang dùng level từ file.
+     */
+    public ProceduralRound.Spec getProceduralSpec() {
+        return proceduralSpec;
+    }
+
+    /**
+     * Đặt seed mới cho ván game và bắt đầu ghi input từ tick 0.
+     *
+     * @param seed Seed của ván game.
+     */
+    private void reseed(long seed) {
+        this.seed = seed;
+        this.random = new GameRandom(seed);
+        roundsManager.setSeed(seed);
+        recorder = new InputRecorder(seed);
+        replayPlayer = null;
+    }
+
+    /**
+     * Bắt đầu đếm số liệu cho vòng hiện tại, từ tick và điểm hiện tại. Được
+     * gọi mỗi khi gạch của vòng vừa được nạp (hoặc khôi phục), nên quỹ đạo bóng
+     * đã đoán cũng được bỏ tại đây.
+     *
+     * @param flags Các cờ {@code RoundStats.FLAG_*}.
+     */
+    void beginRoundStats(int flags) {
+        trajectoryPredictor.clear();
+        roundStats.begin(roundsManager.getCurrentRoundNumber(), animationScheduler.getTick(),
+                scoreManager.getScore(), flags);
+    }
+
+    /**
+     * Kết thúc vòng đang đếm và gửi một hàng số liệu cho {@link RoundAnalytics}.
+     * Ván đang phát replay hoặc đã tắt số liệu không được ghi. Không làm gì nếu
+     * vòng đã được kết thúc trước đó.
+     *
+     * @param outcome Kết quả của vòng.
+     */
+    private void endRoundStats(RoundStats.Outcome outcome) {
+        if (!roundStats.end() || !analyticsEnabled || replayPlayer != null) {
+            return;
+        }
+        int ticks = (int) (animationScheduler.getTick() - roundStats.getStartTick());
+        if (outcome == RoundStats.Outcome.ABANDONED && ticks == 0) {
+            return; // Vòng chưa chơi (ví dụ ván mới rồi về menu ngay)
+        }
+        RoundAnalytics.getInstance().record(roundStats, seed, ticks,
+                scoreManager.getScore() - roundStats.getStartScore(), outcome, lives);
+    }
+
+    /**
+     * Bật/tắt ghi số liệu vòng chơi (tắt cho các ván chạy thử không giao diện).
+     *
+     * @param enabled {@code true} để ghi số liệu.
+     */
+    public void setAnalyticsEnabled(boolean enabled) {
+        this.analyticsEnabled = enabled;
+    }
+
+    /**
+     * Bật/tắt nhạc nền theo trạng thái (tắt cho các ván chạy thử không giao diện).
+     *
+     * @param enabled {@code true} để phát nhạc.
+     */
+    public void setAudioEnabled(boolean enabled) {
+        stateManager.setAudioEnabled(enabled);
+    }
+
+    /**
+     * Lấy bộ đếm số liệu của vòng đang chơi.
+     *
+     * @return Bộ đếm số liệu.
+     */
+    RoundStats getRoundStats() {
+        return roundStats;
+    }
+
+    /**
+     * Bắt đầu phát lại một replay: đặt lại ván game với seed đã ghi và chuyển
+     * sang PLAYING. Input của người chơi bị bỏ qua cho tới khi ván được đặt lại.
+     *
+     * @param replay Replay cần phát.
+     * @return Người phát gắn với ván game.
+     */
+    public ReplayPlayer startReplay(Replay replay) {
+        resetGame(replay.getSeed());
+        recorder = null;
+        setPlayerName(replay.getPlayerName());
+        ReplayPlayer player = new ReplayPlayer(replay);
+        replayPlayer = player;
+        stateManager.setState(GameState.PLAYING);
+        System.out.println("GameManager: Replaying " + replay.getEventCount() + " inputs for "
+                + replay.getPlayerName() + " (seed " + replay.getSeed() + ")");
+        return player;
+    }
+
+    /**
+     * Kết thúc ghi input và đóng gói ván hiện tại thành nội dung file replay.
+     *
+     * @return Nội dung file replay, hoặc {@code null} nếu ván này không được ghi.
+     */
+    public byte[] finishRecording() {
+        if (recorder == null) {
+            return null;
+        }
+        byte[] data = recorder.finish(this);
+        System.out.println("GameManager: Recorded " + recorder.getEventCount() + " inputs in "
+                + data.length + " bytes");
+        recorder = null;
+        return data;
+    }
+
+    /**
+     * Khôi phục seed và vị trí trong chuỗi ngẫu nhiên của một ván đã lưu nhanh
+     * (GameSnapshot). Ván tiếp tục không bắt đầu từ tick 0 nên không được ghi
+     * input để replay.
+     *
+     * @param seed Seed đã lưu.
+     * @param randomState Trạng thái của nguồn ngẫu nhiên ({@link GameRandom#getState()}).
+     */
+    void restoreSeed(long seed, long randomState) {
+        reseed(seed);
+        random.setState(randomState);
+        recorder = null;
+    }
+
+    /**
+     * Kiểm tra ván game có đang phát replay không. An toàn khi gọi từ luồng FX.
+     *
+     * @return {@code true} nếu đang phát replay.
+     */
+    public boolean isReplaying() {
+        return replayPlayer != null;
+    }
+
+    /**
+     * Lấy seed của ván game hiện tại.
+     *
+     * @return Seed.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Lấy nguồn ngẫu nhiên của ván game. Mọi yếu tố ngẫu nhiên của gameplay
+     * phải lấy từ đây để ván chơi tái lập được.
+     *
+     * @return Nguồn ngẫu nhiên có seed của ván game.
+     */
+    GameRandom getRandom() {
+        return random;
+    }
+
     /**
      * Bắn quả bóng đầu tiên ra khỏi thanh đỡ.
      */
@@ -507,12 +878,11 @@ public class GameManager {
     }
 
     /**
-     * Đặt lại kích thước thanh đỡ về kích thước ban đầu.
-     * (Việc này thường được xử lý tự động bởi Paddle.update() sau một thời gian).
+     * Đặt lại kích thước thanh đỡ về kích thước ban đầu (khi hiệu ứng EXPAND hết hạn).
      */
     public void revertPaddleSize() {
-        // Xử lý tự động bởi Paddle.update()
-        System.out.println("GameManager: Paddle size will revert automatically");
+        paddle.shrinkToNormal();
+        System.out.println("GameManager: Paddle size reverted");
     }
 
     /**
@@ -524,10 +894,10 @@ public class GameManager {
     }
 
     /**
-     * Vô hiệu hóa khả năng bắn laser.
+     * Vô hiệu hóa khả năng bắn laser (khi hiệu ứng LASER hết hạn), kèm animation đảo ngược.
      */
     public void disableLaser() {
-        paddle.setLaserEnabled(false);
+        paddle.disableLaser();
         System.out.println("GameManager: Laser disabled");
     }
 
@@ -539,6 +909,14 @@ public class GameManager {
         return lives;
     }
 
+    /**
+     * Đặt số mạng (khi khôi phục từ GameSnapshot).
+     * @param lives Số mạng.
+     */
+    void setLives(int lives) {
+        this.lives = lives;
+    }
+
     /**
      * Thêm một mạng (PowerUp LIFE).
      * Giới hạn tối đa được định nghĩa trong Constants.
@@ -564,9 +942,8 @@ public class GameManager {
             ball.setVelocity(new Velocity(newDx, newDy));
         }
 
-        // Đặt thời gian hết hạn hiệu ứng SLOW trên paddle để kích hoạt animation cảnh báo.
-        long expiryTime = System.currentTimeMillis() + Constants.PowerUps.SLOW_DURATION;
-        paddle.setSlowEffectExpiry(expiryTime);
+        // Đánh dấu hiệu ứng SLOW trên paddle (PowerUpManager hẹn giờ cảnh báo và hết hạn).
+        paddle.enableSlowEffect();
 
         System.out.println("GameManager: Balls slowed by " + multiplier + "x");
     }
@@ -594,7 +971,7 @@ public class GameManager {
             }
         }
 
-        // Xóa thời gian hết hạn hiệu ứng SLOW trên thanh đỡ.
+        // Xóa hiệu ứng SLOW trên thanh đỡ.
         paddle.clearSlowEffect();
 
         System.out.println("GameManager: Ball speed restored");
@@ -615,9 +992,11 @@ public class GameManager {
             
             // Dọn dẹp tất cả vật phẩm đang rơi khi chuyển màn
             powerUpManager.clearAllPowerUps();
+            endRoundStats(RoundStats.Outcome.WARPED);
 
             roundsManager.nextRound();
             bricks = roundsManager.getCurrentBricks();
+            beginRoundStats(0);
             resetBall();
             System.out.println("GameManager: Warped to next level!");
             return true;
@@ -631,11 +1010,20 @@ public class GameManager {
             
             // Dọn dẹp tất cả vật phẩm đang rơi khi thắng
             powerUpManager.clearAllPowerUps();
+            endRoundStats(RoundStats.Outcome.WARPED);
             stateManager.setState(GameState.WIN); // Chuyển sang trạng thái Thắng
             return false;
         }
     }
 
+    /**
+     * Lấy thanh đỡ của ván game.
+     * @return Paddle hiện tại.
+     */
+    public Paddle getPaddle() {
+        return paddle;
+    }
+
     /**
      * Lấy instance của PowerUpManager.
      * @return Instance của PowerUpManager.
@@ -652,6 +1040,15 @@ public class GameManager {
         return stateManager;
     }
 
+    /**
+     * Lấy bộ dự đoán quỹ đạo bóng (chỉ dùng trên luồng mô phỏng).
+     *
+     * @return TrajectoryPredictor của ván.
+     */
+    public TrajectoryPredictor getTrajectoryPredictor() {
+        return trajectoryPredictor;
+    }
+
     /**
      * Lấy instance của RoundsManager.
      * @return Instance của RoundsManager.
@@ -660,6 +1057,14 @@ public class GameManager {
         return roundsManager;
     }
 
+    /**
+     * Lấy đồng hồ animation dùng chung của ván game.
+     * @return AnimationScheduler của ván game.
+     */
+    public AnimationScheduler getAnimationScheduler() {
+        return animationScheduler;
+    }
+
     /**
      * Lấy instance của ScoreManager.
      * @return Instance của ScoreManager.
@@ -701,11 +1106,11 @@ public class GameManager {
     }
 
     /**
-     * Lấy danh sách các tia laser đang hoạt động.
+     * Lấy danh sách các tia laser đang hoạt động (view chỉ đọc, không sao chép).
      * @return Danh sách các đối tượng Laser.
      */
     public List<Laser> getLasers() {
-        return lasers;
+        return lasers.view();
     }
 
     /**
@@ -0,0 +1,78 @@
+package Engine;
+
+import java.util.Random;
+
+/**
+ * Nguồn ngẫu nhiên của một ván game, có trạng thái đọc và ghi được để
+ * {@link GameSnapshot} lưu đúng vị trí trong chuỗi số ngẫu nhiên.
+ *
+ * <p>{@link Random} không cho đọc trạng thái, nên khôi phục bản lưu bằng seed sẽ
+ * bắt đầu lại chuỗi rơi vật phẩm từ đầu. Lớp này thay bộ sinh của
+ * {@link Random} bằng SplitMix64: toàn bộ trạng thái là một số 64 bit.
+ * Các phương thức như {@code nextDouble()} và {@code nextInt(int)} vẫn là của
+ * {@link Random}, đều dựa trên {@link #next(int)}.</p>
+ *
+ * <p>{@link #nextGaussian()} không được hỗ trợ vì {@link Random} giữ riêng
+ * một giá trị đệm không lưu được.</p>
+ */
+final class GameRandom extends Random {
+    private static final long serialVersionUID = 1L; // Random là Serializable
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private long state; // Không có giá trị khởi tạo: được gán trong setSeed() do constructor của Random gọi
+
+    /**
+     * Tạo nguồn ngẫu nhiên từ seed của ván game.
+     *
+     * @param seed Seed.
+     */
+    GameRandom(long seed) {
+        super(seed);
+    }
+
+    /**
+     * Bắt đầu lại chuỗi từ một seed.
+     *
+     * @param seed Seed.
+     */
+    @Override
+    public synchronized void setSeed(long seed) {
+        state = seed;
+    }
+
+    /**
+     * Lấy trạng thái hiện tại (vị trí trong chuỗi).
+     *
+     * @return Trạng thái 64 bit.
+     */
+    long getState() {
+        return state;
+    }
+
+    /**
+     * Đặt trạng thái đã lưu bằng {@link #getState()}.
+     *
+     * @param state Trạng thái 64 bit.
+     */
+    void setState(long state) {
+        this.state = state;
+    }
+
+    @Override
+    protected int next(int bits) {
+        return (int) (nextLong() >>> (64 - bits));
+    }
+
+    @Override
+    public long nextLong() {
+        long z = state += GOLDEN_GAMMA;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    @Override
+    public synchronized double nextGaussian() {
+        throw new UnsupportedOperationException("GameRandom does not support nextGaussian");
+    }
+}
@@ -0,0 +1,204 @@
+package Engine;
+
+import Utils.ConsoleLog;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.SplittableRandom;
+
+/**
+ * Máy chủ chạy nhiều ván game từ xa trong một JVM. Mỗi kết nối TCP là một
+ * {@link GameSession}; các phiên được {@link TickScheduler} tick theo shard
+ * thay vì AnimationTimer, còn input đến qua socket (xem giao thức trong
+ * {@link GameSession}) thay cho các phím của ArkanoidApp.
+ *
+ * <p>Luồng "GameServer" dùng một {@link java.nio.channels.Selector} để nhận
+ * kết nối và đọc input; trạng thái được luồng shard ghi thẳng vào socket sau
+ * mỗi tick. Kết nối bị từ chối (đóng ngay) khi mọi shard đều quá tải.</p>
+ *
+ * <pre>
+ * java -cp out Engine.GameServer [cổng] [số shard]
+ * </pre>
+ */
+public final class GameServer implements AutoCloseable {
+    private static final int DEFAULT_PORT = 7778;
+    private static final long REPORT_MILLIS = 5000;
+
+    private final ServerSocketChannel serverChannel;
+    private final Selector selector;
+    private final TickScheduler scheduler;
+    private final Thread thread;
+    private final ByteBuffer readBuffer = ByteBuffer.allocate(256);
+    private final SplittableRandom seeds = new SplittableRandom(); // Chỉ luồng GameServer truy cập
+    private volatile boolean closed;
+    private volatile int accepted;
+    private volatile int rejected;
+
+    /**
+     * Mở cổng lắng nghe, khởi động các shard và luồng mạng.
+     *
+     * @param address Địa chỉ lắng nghe (cổng 0 = cổng ngẫu nhiên, xem {@link #getPort()}).
+     * @param shards Số shard tick.
+     * @throws IOException Nếu không mở được cổng.
+     */
+    public GameServer(InetSocketAddress address, int shards) throws IOException {
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        try {
+            serverChannel.bind(address, 1024);
+            serverChannel.configureBlocking(false);
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            serverChannel.close();
+            selector.close();
+            throw e;
+        }
+        this.scheduler = new TickScheduler(shards);
+        this.thread = new Thread(this::run, "GameServer");
+        this.thread.setDaemon(true);
+        this.thread.start();
+        System.out.println("GameServer: Listening on " + serverChannel.getLocalAddress() + " with " + shards + " shards");
+    }
+
+    /**
+     * Lấy cổng đang lắng nghe.
+     *
+     * @return Số cổng.
+     */
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * Lấy bộ lập lịch tick (để đọc thống kê tải).
+     *
+     * @return TickScheduler của máy chủ.
+     */
+    public TickScheduler getScheduler() {
+        return scheduler;
+    }
+
+    public int getAccepted() { return accepted; }
+    public int getRejected() { return rejected; }
+
+    /**
+     * Dừng nhận kết nối, dừng các shard và đóng mọi phiên.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        selector.wakeup();
+        try {
+            thread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        scheduler.close();
+        System.out.println("GameServer: Closed after " + accepted + " sessions (" + rejected + " rejected, "
+                + scheduler.getShedSessions() + " shed)");
+    }
+
+    /**
+     * Vòng lặp của luồng mạng: nhận kết nối và chuyển input cho phiên.
+     */
+    private void run() {
+        try {
+            while (!closed) {
+                selector.select();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                    } else if (key.isReadable()) {
+                        read(key, (GameSession) key.attachment());
+                    }
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("GameServer: Stopped: " + e.getMessage());
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                if (key.attachment() instanceof GameSession session) {
+                    session.close("server stopped");
+                }
+            }
+            try {
+                serverChannel.close();
+                selector.close();
+            } catch (IOException e) {
+                System.err.println("GameServer: Failed to close: " + e.getMessage());
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = serverChannel.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+            GameSession session = new GameSession(accepted + rejected, channel, seeds.nextLong());
+            if (!scheduler.add(session)) {
+                rejected++;
+                session.close("server full");
+                continue;
+            }
+            accepted++;
+            channel.register(selector, SelectionKey.OP_READ, session);
+        }
+    }
+
+    private void read(SelectionKey key, GameSession session) {
+        try {
+            int read;
+            do {
+                readBuffer.clear();
+                read = session.isClosed() ? -1 : ((SocketChannel) key.channel()).read(readBuffer);
+                for (int i = 0; i < Math.max(0, read); i++) {
+                    session.receive(readBuffer.get(i));
+                }
+            } while (read > 0);
+            if (read < 0) {
+                key.cancel();
+                session.close("disconnected");
+            }
+        } catch (IOException e) {
+            key.cancel();
+            session.close("disconnected");
+        }
+    }
+
+    /**
+     * Chạy máy chủ độc lập và in thống kê tải định kỳ. Log thường của game bị tắt.
+     *
+     * @param args {@code [cổng] [số shard]}.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        int shards = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        // Log thường của từng ván bị tắt (quá nhiều và xen lẫn giữa các shard); lỗi vẫn được in
+        PrintStream out = ConsoleLog.quiet(false);
+        GameServer server = new GameServer(new InetSocketAddress(port), shards);
+        out.println("GameServer: Listening on port " + server.getPort() + " with " + shards + " shards");
+        while (true) {
+            Thread.sleep(REPORT_MILLIS);
+            TickScheduler scheduler = server.getScheduler();
+            out.printf("GameServer: %d sessions, max shard load %.0f%%, %d missed deadlines, %d rejected, %d shed%n",
+                    scheduler.getSessionCount(), scheduler.getMaxLoad() * 100, scheduler.getMissedDeadlines(),
+                    server.getRejected(), scheduler.getShedSessions());
+        }
+    }
+}
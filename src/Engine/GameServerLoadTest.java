@@ -0,0 +1,246 @@
+package Engine;
+
+import Utils.ConsoleLog;
+import Utils.Constants;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Bộ sinh tải cho {@link GameServer}: tăng dần số người chơi giả lập tới khi
+ * máy chủ bắt đầu từ chối hoặc bỏ phiên, rồi giữ mức đó để đo số phiên mỗi
+ * lõi ở 60 tick/giây.
+ *
+ * <p>Mọi người chơi giả lập chạy trên một luồng "ServerLoad" với một
+ * {@link Selector}: đọc frame trạng thái, thỉnh thoảng gửi một input ngẫu
+ * nhiên, và gửi {@link GameSession#RESTART} khi ván kết thúc để phiên luôn có
+ * ván đang chơi. Số phiên mỗi lõi được tính theo thời gian CPU thật của các
+ * luồng máy chủ (shard và mạng), nên không bị ảnh hưởng khi bộ sinh tải chạy
+ * chung máy.</p>
+ *
+ * <pre>
+ * java -cp out Engine.GameServerLoadTest [số shard] [số phiên tối đa] [số giây giữ tải]
+ * </pre>
+ */
+public final class GameServerLoadTest {
+    private static final int RAMP_BATCH = 10; // Số phiên thêm mỗi bước
+    private static final long RAMP_MILLIS = 1000;
+    private static final int DEFAULT_MAX_SESSIONS = 5000;
+    private static final int DEFAULT_HOLD_SECONDS = 20;
+    private static final int INPUT_CHANCE = 20; // Trung bình một input mỗi 20 frame (3 lần/giây)
+    private static final int STATE_OFFSET = 15; // Vị trí byte GameState trong thân frame (xem SpectatorEncoder)
+
+    /**
+     * Constructor private để ngăn việc tạo instance của lớp tiện ích.
+     */
+    private GameServerLoadTest() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Một người chơi giả lập: tách frame theo tiền tố độ dài và chỉ giữ byte trạng thái ván.
+     */
+    private static final class Player {
+        final SocketChannel channel;
+        int headerBytes;
+        int length;
+        int bodyRead;
+        int state = -1; // GameState.ordinal của frame gần nhất
+        boolean restartSent;
+        volatile long frames;
+
+        Player(SocketChannel channel) {
+            this.channel = channel;
+        }
+    }
+
+    /**
+     * Điểm vào bộ sinh tải. Log của game bị tắt trong lúc chạy.
+     *
+     * @param args {@code [số shard] [số phiên tối đa] [số giây giữ tải]}.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int shards = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        int maxSessions = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_MAX_SESSIONS;
+        int holdSeconds = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_HOLD_SECONDS;
+
+        PrintStream out = ConsoleLog.quiet(true);
+
+        GameServer server = new GameServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), shards);
+        TickScheduler scheduler = server.getScheduler();
+        InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getPort());
+        Selector selector = Selector.open();
+        Queue<Player> joining = new ConcurrentLinkedQueue<>();
+        List<Player> players = new ArrayList<>();
+        Thread load = new Thread(() -> playLoop(selector, joining), "ServerLoad");
+        load.setDaemon(true);
+        load.start();
+
+        // Tăng tải tới khi máy chủ từ chối hoặc bỏ phiên
+        out.printf("GameServerLoadTest: %d shards, adding %d sessions every %d ms%n", shards, RAMP_BATCH, RAMP_MILLIS);
+        while (players.size() < maxSessions && server.getRejected() == 0 && scheduler.getShedSessions() == 0) {
+            for (int i = 0; i < RAMP_BATCH; i++) {
+                SocketChannel channel = SocketChannel.open(address);
+                channel.configureBlocking(false);
+                Player player = new Player(channel);
+                players.add(player);
+                joining.add(player);
+            }
+            selector.wakeup();
+            Thread.sleep(RAMP_MILLIS);
+            if (players.size() % (RAMP_BATCH * 10) == 0) {
+                out.printf("  %d sessions, shard load %.0f%%, %d missed deadlines%n",
+                        scheduler.getSessionCount(), scheduler.getMaxLoad() * 100, scheduler.getMissedDeadlines());
+            }
+        }
+
+        // Giữ tải và đo
+        Thread.sleep(2000);
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long serverCpuBefore = cpu(threads, "Tick-") + cpu(threads, "GameServer");
+        long loadCpuBefore = cpu(threads, "ServerLoad");
+        long framesBefore = totalFrames(players);
+        long cyclesBefore = scheduler.getCycles();
+        long missedBefore = scheduler.getMissedDeadlines();
+        long start = System.nanoTime();
+        Thread.sleep(holdSeconds * 1000L);
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        long serverCpu = cpu(threads, "Tick-") + cpu(threads, "GameServer") - serverCpuBefore;
+        long loadCpu = cpu(threads, "ServerLoad") - loadCpuBefore;
+        long frames = totalFrames(players) - framesBefore;
+        long cycles = scheduler.getCycles() - cyclesBefore;
+        long missed = scheduler.getMissedDeadlines() - missedBefore;
+        int sessions = scheduler.getSessionCount();
+        double maxLoad = scheduler.getMaxLoad();
+
+        server.close();
+        selector.close();
+        ConsoleLog.restore();
+
+        double serverCores = serverCpu / 1e9 / elapsed;
+        out.printf("Ramp stopped at %d sessions (%d rejected, %d shed)%n",
+                players.size(), server.getRejected(), scheduler.getShedSessions());
+        out.printf("Held %d sessions for %.1f s: %.1f ticks/s per shard, %.1f frames/s per session, %d missed deadlines%n",
+                sessions, elapsed, cycles / elapsed / shards, frames / elapsed / Math.max(1, sessions), missed);
+        out.printf("Tick cost: %.1f us per session tick (shard load %.0f%%)%n",
+                maxLoad * TickScheduler.TICK_NANOS / 1e3 / Math.max(1, (double) sessions / shards), maxLoad * 100);
+        out.printf("CPU: server %.2f cores, load generator %.2f cores%n", serverCores, loadCpu / 1e9 / elapsed);
+        out.printf("Capacity: %.0f sessions per core at %d Hz%n",
+                sessions / Math.max(serverCores, 1e-9), Constants.Window.FPS);
+    }
+
+    /**
+     * Vòng lặp của mọi người chơi giả lập.
+     */
+    private static void playLoop(Selector selector, Queue<Player> joining) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+        ByteBuffer command = ByteBuffer.allocate(1);
+        SplittableRandom random = new SplittableRandom(1);
+        try {
+            while (selector.isOpen()) {
+                selector.select();
+                Player joined;
+                while ((joined = joining.poll()) != null) {
+                    joined.channel.register(selector, SelectionKey.OP_READ, joined);
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    Player player = (Player) key.attachment();
+                    buffer.clear();
+                    if (player.channel.read(buffer) < 0) {
+                        key.cancel();
+                        player.channel.close();
+                        continue;
+                    }
+                    buffer.flip();
+                    long before = player.frames;
+                    consume(player, buffer);
+                    if (player.frames == before) {
+                        continue;
+                    }
+                    // Phản hồi như một người chơi: chơi lại khi ván kết thúc, thỉnh thoảng bấm phím
+                    byte send = -1;
+                    if (player.state == GameState.GAME_OVER.ordinal() || player.state == GameState.WIN.ordinal()) {
+                        if (!player.restartSent) {
+                            player.restartSent = true;
+                            send = GameSession.RESTART;
+                        }
+                    } else {
+                        player.restartSent = false;
+                        if (random.nextInt(INPUT_CHANCE) == 0) {
+                            send = (byte) random.nextInt(InputAction.values().length);
+                        }
+                    }
+                    if (send >= 0) {
+                        command.clear();
+                        command.put(send).flip();
+                        player.channel.write(command);
+                    }
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // Selector bị đóng khi thử tải kết thúc
+        }
+    }
+
+    /**
+     * Tách frame từ luồng byte, giữ lại byte trạng thái ván.
+     */
+    private static void consume(Player player, ByteBuffer data) {
+        while (data.hasRemaining()) {
+            if (player.headerBytes < SpectatorEncoder.HEADER_BYTES) {
+                player.length |= (data.get() & 0xFF) << (8 * player.headerBytes);
+                player.headerBytes++;
+            } else {
+                if (player.bodyRead <= STATE_OFFSET && player.bodyRead + data.remaining() > STATE_OFFSET) {
+                    player.state = data.get(data.position() + STATE_OFFSET - player.bodyRead);
+                }
+                int skip = Math.min(player.length - player.bodyRead, data.remaining());
+                data.position(data.position() + skip);
+                player.bodyRead += skip;
+            }
+            if (player.headerBytes == SpectatorEncoder.HEADER_BYTES && player.bodyRead == player.length) {
+                player.frames++;
+                player.headerBytes = 0;
+                player.length = 0;
+                player.bodyRead = 0;
+            }
+        }
+    }
+
+    private static long totalFrames(List<Player> players) {
+        long total = 0;
+        for (Player player : players) {
+            total += player.frames;
+        }
+        return total;
+    }
+
+    /**
+     * Tổng thời gian CPU (nano giây) của các luồng có tên bắt đầu bằng {@code prefix}.
+     */
+    private static long cpu(ThreadMXBean threads, String prefix) {
+        long total = 0;
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().startsWith(prefix)) {
+                total += Math.max(0, threads.getThreadCpuTime(thread.getId()));
+            }
+        }
+        return total;
+    }
+}
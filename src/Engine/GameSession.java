@@ -0,0 +1,185 @@
+package Engine;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Một ván game từ xa trên {@link GameServer}: một {@link GameManager} do một
+ * shard của {@link TickScheduler} chạy, nhận input từ socket của người chơi
+ * và gửi lại trạng thái mỗi tick.
+ *
+ * <p>Giao thức từ người chơi là từng byte, thay cho các phím của ArkanoidApp:
+ * 0..3 là ordinal của {@link InputAction} (trái, phải, dừng, bắn), {@value #RESTART}
+ * bắt đầu ván mới. Mỗi tick máy chủ gửi lại một frame của {@link SpectatorEncoder}
+ * (keyframe ở tick đầu và khi bộ gạch đổi, còn lại là delta).</p>
+ *
+ * <p>Luồng mạng chỉ gọi {@link #receive(byte)} và {@link #close(String)}; mọi
+ * thứ khác chạy trên luồng shard sở hữu phiên. Thời gian của từng tick được
+ * cộng dồn để shard biết phiên nào tốn kém.</p>
+ */
+public final class GameSession {
+    public static final byte RESTART = 0x7F;
+    static final int MAX_PENDING_INPUTS = 64; // Gửi nhanh hơn thế là spam: ngắt kết nối
+    static final int MAX_BACKLOG_BYTES = 256 * 1024; // Người chơi không đọc kịp trạng thái thì bị ngắt
+
+    private static final InputAction[] ACTIONS = InputAction.values();
+
+    private final int id;
+    private final SocketChannel channel;
+    private final GameManager game;
+    private final SpectatorEncoder encoder = new SpectatorEncoder();
+    private long nextSeed;
+
+    // Input từ luồng mạng
+    private final Queue<InputAction> inputs = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingInputs = new AtomicInteger();
+    private volatile boolean restartRequested;
+    private volatile String closeReason; // Khác null khi phiên đã đóng
+
+    // Chỉ luồng shard truy cập
+    private ByteBuffer backlog; // Trạng thái chưa gửi hết (chế độ ghi), null khi trống
+    private boolean keyframeSent;
+
+    // Thống kê thời gian tick (luồng shard ghi)
+    private volatile long ticks;
+    private volatile long tickNanos;
+    private volatile long maxTickNanos;
+
+    /**
+     * Tạo phiên và bắt đầu ván đầu tiên.
+     *
+     * @param id Số hiệu phiên.
+     * @param channel Socket của người chơi (non-blocking).
+     * @param seed Seed của ván đầu tiên; các ván sau dùng seed kế tiếp.
+     */
+    GameSession(int id, SocketChannel channel, long seed) {
+        this.id = id;
+        this.channel = channel;
+        this.nextSeed = seed;
+        this.game = new GameManager(seed);
+        game.setAnalyticsEnabled(false);
+        game.setAudioEnabled(false);
+        game.setPlayerName("REMOTE-" + id);
+        game.getStateManager().setState(GameState.PLAYING);
+    }
+
+    /**
+     * Nhận một byte input từ người chơi. Chỉ được gọi từ luồng mạng.
+     *
+     * @param command Byte lệnh.
+     */
+    void receive(byte command) {
+        if (command == RESTART) {
+            restartRequested = true;
+        } else if (command >= 0 && command < ACTIONS.length) {
+            if (pendingInputs.incrementAndGet() > MAX_PENDING_INPUTS) {
+                close("input flood");
+                return;
+            }
+            inputs.add(ACTIONS[command]);
+        } else {
+            close("unknown command " + command);
+        }
+    }
+
+    /**
+     * Chạy một tick: áp input đang chờ, cập nhật game, gửi trạng thái.
+     * Chỉ được gọi từ luồng shard sở hữu phiên.
+     */
+    void tick() {
+        long start = System.nanoTime();
+        if (restartRequested) {
+            restartRequested = false;
+            game.resetGame(++nextSeed);
+            game.getStateManager().setState(GameState.PLAYING);
+        }
+        InputAction input;
+        while ((input = inputs.poll()) != null) {
+            pendingInputs.decrementAndGet();
+            game.applyInput(input);
+        }
+        game.update();
+        send(encoder.encode(game, !keyframeSent));
+        keyframeSent = true;
+
+        long elapsed = System.nanoTime() - start;
+        ticks++;
+        tickNanos += elapsed;
+        if (elapsed > maxTickNanos) {
+            maxTickNanos = elapsed;
+        }
+    }
+
+    /**
+     * Gửi frame: ghi thẳng vào socket, phần còn lại vào bộ đệm của phiên. Bộ
+     * đệm được xả ở tick sau (không cần OP_WRITE); vượt giới hạn thì đóng phiên.
+     */
+    private void send(ByteBuffer frame) {
+        try {
+            if (backlog != null) {
+                backlog.flip();
+                channel.write(backlog);
+                backlog.compact();
+                if (backlog.position() == 0) {
+                    backlog = null;
+                }
+            }
+            if (backlog == null) {
+                channel.write(frame);
+                if (!frame.hasRemaining()) {
+                    return;
+                }
+            }
+            int needed = (backlog == null ? 0 : backlog.position()) + frame.remaining();
+            if (needed > MAX_BACKLOG_BYTES) {
+                close("too slow, " + needed + " bytes pending");
+                return;
+            }
+            if (backlog == null || backlog.remaining() < frame.remaining()) {
+                ByteBuffer grown = ByteBuffer.allocate(Math.min(MAX_BACKLOG_BYTES, needed * 2));
+                if (backlog != null) {
+                    backlog.flip();
+                    grown.put(backlog);
+                }
+                backlog = grown;
+            }
+            backlog.put(frame);
+        } catch (IOException e) {
+            close("disconnected");
+        }
+    }
+
+    /**
+     * Đóng phiên (lần gọi đầu tiên thắng). An toàn khi gọi từ bất kỳ luồng nào;
+     * shard bỏ phiên ra ở tick kế tiếp.
+     *
+     * @param reason Lý do đóng.
+     */
+    void close(String reason) {
+        synchronized (this) {
+            if (closeReason != null) {
+                return;
+            }
+            closeReason = reason;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // Kết nối đã hỏng, không còn gì để làm
+        }
+    }
+
+    boolean isClosed() {
+        return closeReason != null;
+    }
+
+    public int getId() { return id; }
+    public String getCloseReason() { return closeReason; }
+    public long getTicks() { return ticks; }
+    public long getTickNanos() { return tickNanos; }
+    public long getMaxTickNanos() { return maxTickNanos; }
+}
@@ -0,0 +1,271 @@
+package Engine;
+
+import GeometryPrimitives.Velocity;
+import Objects.Bricks.Brick;
+import Objects.Bricks.SilverBrick;
+import Objects.GameEntities.Ball;
+import Objects.GameEntities.Laser;
+import Objects.PowerUps.PowerUp;
+import Objects.PowerUps.PowerUpType;
+import Render.AnimationScheduler;
+import Utils.Constants;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Bộ mã hóa/giải mã nhị phân toàn bộ trạng thái một ván game đang chơi
+ * (quick-save), dùng để lưu khi tạm dừng hoặc đóng cửa sổ và tiếp tục ở lần chạy sau.
+ *
+ * <p>Gạch không được lưu vị trí: vòng chơi được tạo lại từ chỉ số vòng, sau đó
+ * chỉ áp trạng thái sống và số máu còn lại của từng viên theo đúng thứ tự (1
+ * byte mỗi viên); seed của ván được lưu để vòng có bố cục ngẫu nhiên được tạo
+ * lại giống hệt. Bóng, laser, vật phẩm đang rơi và paddle được lưu bằng giá
+ * trị nguyên thủy. Thời hạn hiệu ứng được lưu dưới dạng số tick còn lại.
+ * Cuối bản lưu là CRC32 của toàn bộ nội dung phía trước; bản lưu hỏng hoặc
+ * khác phiên bản bị bỏ qua mà không chạm vào ván game.</p>
+ *
+ * <p>Chỉ được gọi trên luồng sở hữu {@link GameManager} (luồng mô phỏng,
+ * hoặc luồng bất kỳ khi luồng mô phỏng chưa chạy/đã dừng).</p>
+ */
+public final class GameSnapshot {
+    private static final int MAGIC = 0x474B5241; // "ARKG" khi đọc little-endian
+    private static final short VERSION = 4; // Phiên bản định dạng (2: thêm seed của ván; 3: thời hạn hiệu ứng theo tick; 4: trạng thái GameRandom)
+    private static final int FIXED_BYTES = 256; // Header, HUD, paddle và các bộ đếm (dư)
+    private static final int BALL_BYTES = 33; // x, y, dx, dy, cờ gắn
+    private static final int LASER_BYTES = 16; // x, y
+    private static final int POWERUP_BYTES = 25; // loại, x, y, animation
+    private static final int CRACK_BYTES = 12; // chỉ số gạch, animation nứt
+    private static final int EFFECT_BYTES = 5; // loại, số tick còn lại
+    static final byte ALIVE_FLAG = (byte) 0x80; // Bit cao của byte gạch: còn sống
+
+    private GameSnapshot() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Mã hóa trạng thái hiện tại của ván game thành một khối byte.
+     *
+     * @param game Ván game nguồn.
+     * @return Bản lưu nhị phân.
+     */
+    public static byte[] encode(GameManager game) {
+        long now = game.getAnimationScheduler().getTimeMillis();
+        List<Brick> bricks = game.bricks;
+        List<Ball> balls = game.balls;
+        List<Laser> lasers = game.getLasers();
+        List<PowerUp> powerUps = game.getPowerUpManager().getActivePowerUpsView();
+        Map<PowerUpType, Long> effects = game.getPowerUpManager().getActiveEffects();
+        byte[] name = game.getPlayerName().getBytes(StandardCharsets.UTF_8);
+
+        ByteBuffer out = ByteBuffer.allocate(FIXED_BYTES + name.length
+                        + bricks.size() * (1 + CRACK_BYTES)
+                        + balls.size() * BALL_BYTES
+                        + lasers.size() * LASER_BYTES
+                        + powerUps.size() * POWERUP_BYTES
+                        + effects.size() * EFFECT_BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+
+        // Header và HUD
+        out.putInt(MAGIC);
+        out.putShort(VERSION);
+        out.putLong(game.getAnimationScheduler().getTick());
+        out.putLong(game.getSeed());
+        out.putLong(game.getRandom().getState());
+        out.put((byte) (game.getRoundsManager().getCurrentRoundNumber() - 1));
+        out.putInt(game.getLives());
+        out.putInt(game.getScore());
+        out.putInt(game.getScoreManager().getMultiplier());
+        out.putShort((short) name.length);
+        out.put(name);
+        out.putShort((short) bricks.size());
+
+        game.paddle.saveState(out, now);
+
+        // Gạch: 1 byte mỗi viên (bit cao = còn sống, 7 bit thấp = máu còn lại)
+        int cracks = 0;
+        for (Brick brick : bricks) {
+            int hp = brick instanceof SilverBrick silver ? silver.getCurrentHP() : brick.getHitPoints();
+            out.put((byte) ((brick.isAlive() ? ALIVE_FLAG : 0) | (Math.max(0, hp) & 0x7F)));
+            if (brick instanceof SilverBrick silver && silver.getCrackAnimation() != AnimationScheduler.NONE) {
+                cracks++;
+            }
+        }
+        // Animation nứt của gạch bạc (chỉ những viên đã nứt)
+        out.putShort((short) cracks);
+        for (int i = 0; i < bricks.size(); i++) {
+            if (bricks.get(i) instanceof SilverBrick silver && silver.getCrackAnimation() != AnimationScheduler.NONE) {
+                out.putInt(i);
+                out.putLong(silver.getCrackAnimation());
+            }
+        }
+
+        // Bóng
+        out.putShort((short) balls.size());
+        for (Ball ball : balls) {
+            out.putDouble(ball.getX());
+            out.putDouble(ball.getY());
+            out.putDouble(ball.getVelocity().getDx());
+            out.putDouble(ball.getVelocity().getDy());
+            out.put((byte) (ball.isAttached() ? 1 : 0));
+        }
+
+        // Laser còn hoạt động
+        int laserCountPosition = out.position();
+        out.putShort((short) 0);
+        short laserCount = 0;
+        for (Laser laser : lasers) {
+            if (laser.isAlive()) {
+                out.putDouble(laser.getX());
+                out.putDouble(laser.getY());
+                laserCount++;
+            }
+        }
+        out.putShort(laserCountPosition, laserCount);
+
+        // Vật phẩm đang rơi
+        int powerUpCountPosition = out.position();
+        out.putShort((short) 0);
+        short powerUpCount = 0;
+        for (PowerUp powerUp : powerUps) {
+            if (powerUp.isActive()) {
+                out.put((byte) powerUp.getType().ordinal());
+                out.putDouble(powerUp.getX());
+                out.putDouble(powerUp.getY());
+                out.putLong(powerUp.getAnimation());
+                powerUpCount++;
+            }
+        }
+        out.putShort(powerUpCountPosition, powerUpCount);
+
+        // Hiệu ứng đang hoạt động (thời gian còn lại)
+        out.put((byte) effects.size());
+        for (Map.Entry<PowerUpType, Long> effect : effects.entrySet()) {
+            out.put((byte) effect.getKey().ordinal());
+            out.putInt((int) Math.max(0, effect.getValue()));
+        }
+
+        // CRC32 của toàn bộ nội dung phía trước
+        CRC32 crc = new CRC32();
+        crc.update(out.array(), 0, out.position());
+        out.putInt((int) crc.getValue());
+        return Arrays.copyOf(out.array(), out.position());
+    }
+
+    /**
+     * Khôi phục ván game từ một bản lưu. Ván game chỉ bị thay đổi khi bản lưu
+     * hợp lệ (đúng magic, phiên bản, CRC và số gạch của vòng chơi).
+     * Trạng thái game (StateManager) không bị thay đổi.
+     *
+     * @param game Ván game đích.
+     * @param data Bản lưu do {@link #encode(GameManager)} tạo ra.
+     * @return {@code true} nếu khôi phục thành công.
+     */
+    public static boolean decode(GameManager game, byte[] data) {
+        if (data == null || data.length < 10) {
+            return false;
+        }
+        ByteBuffer in = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+        if (in.getInt() != MAGIC || in.getShort() != VERSION) {
+            System.err.println("GameSnapshot: Unsupported save format, ignoring");
+            return false;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, data.length - 4);
+        if (in.getInt(data.length - 4) != (int) crc.getValue()) {
+            System.err.println("GameSnapshot: Save checksum mismatch, ignoring");
+            return false;
+        }
+
+        try {
+            long tick = in.getLong();
+            long seed = in.getLong();
+            long randomState = in.getLong();
+            int roundIndex = in.get();
+            int lives = in.getInt();
+            int score = in.getInt();
+            int multiplier = in.getInt();
+            byte[] name = new byte[in.getShort()];
+            in.get(name);
+            int brickCount = in.getShort();
+
+            // Tạo lại vòng chơi (cùng seed) rồi kiểm tra số gạch trước khi thay đổi phần còn lại
+            int previousRound = game.getRoundsManager().getCurrentRoundNumber() - 1;
+            game.getRoundsManager().setSeed(seed);
+            List<Brick> bricks = game.getRoundsManager().loadRound(roundIndex);
+            if (brickCount != bricks.size()) {
+                System.err.println("GameSnapshot: Round layout changed (" + brickCount + " != "
+                        + bricks.size() + " bricks), ignoring save");
+                game.getRoundsManager().setSeed(game.getSeed());
+                game.bricks = game.getRoundsManager().loadRound(previousRound);
+                return false;
+            }
+
+            game.bricks = bricks;
+            game.restoreSeed(seed, randomState);
+            game.getAnimationScheduler().setTick(tick);
+            long now = game.getAnimationScheduler().getTimeMillis();
+            game.setLives(lives);
+            game.getScoreManager().restore(score, multiplier);
+            game.setPlayerName(new String(name, StandardCharsets.UTF_8));
+            game.paddle.loadState(in, now);
+
+            for (Brick brick : bricks) {
+                byte state = in.get();
+                brick.restoreState((state & ALIVE_FLAG) != 0, state & 0x7F);
+            }
+            int cracks = in.getShort();
+            for (int i = 0; i < cracks; i++) {
+                int index = in.getInt();
+                long animation = in.getLong();
+                if (bricks.get(index) instanceof SilverBrick silver) {
+                    silver.setCrackAnimation(animation);
+                }
+            }
+
+            game.balls.clear();
+            int ballCount = in.getShort();
+            for (int i = 0; i < ballCount; i++) {
+                Ball ball = new Ball(0, 0, Constants.Ball.BALL_RADIUS, new Velocity(0, 0));
+                ball.setX(in.getDouble());
+                ball.setY(in.getDouble());
+                ball.setVelocity(new Velocity(in.getDouble(), in.getDouble()));
+                ball.setAttached(in.get() != 0);
+                game.balls.add(ball);
+            }
+
+            game.lasers.clear();
+            int laserCount = in.getShort();
+            for (int i = 0; i < laserCount; i++) {
+                game.lasers.add(new Laser(in.getDouble(), in.getDouble()));
+            }
+
+            PowerUpManager powerUps = game.getPowerUpManager();
+            powerUps.clearAllPowerUps();
+            PowerUpType[] types = PowerUpType.values();
+            int powerUpCount = in.getShort();
+            for (int i = 0; i < powerUpCount; i++) {
+                PowerUpType type = types[in.get()];
+                powerUps.restorePowerUp(type, in.getDouble(), in.getDouble(), in.getLong());
+            }
+            int effectCount = in.get();
+            for (int i = 0; i < effectCount; i++) {
+                powerUps.restoreEffect(types[in.get()], in.getInt());
+            }
+            // Số liệu của vòng chỉ tính phần chơi sau khi khôi phục
+            game.beginRoundStats(RoundStats.FLAG_RESUMED);
+            return true;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            // CRC đúng nhưng nội dung không khớp (ví dụ danh sách vòng chơi đã đổi)
+            System.err.println("GameSnapshot: Corrupt save - " + e.getMessage());
+            game.resetGame();
+            return false;
+        }
+    }
+}
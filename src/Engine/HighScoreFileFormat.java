@@ -0,0 +1,212 @@
+package Engine;
+
+import Engine.HighScoreRepository.HighScoreEntry;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Định dạng nhị phân của file điểm cao ({@code highscores.bin}).
+ *
+ * <p>File gồm một header cố định {@value #HEADER_SIZE} byte và theo sau là các
+ * bản ghi cùng kích thước {@value #RECORD_SIZE} byte, nên vị trí của bản ghi
+ * thứ {@code i} là {@code HEADER_SIZE + i * RECORD_SIZE}. Nhờ vậy một điểm mới
+ * chỉ cần ghi thêm đúng bản ghi của nó và ghi đè header, và khi tải có thể đọc
+ * thẳng từ {@link java.nio.MappedByteBuffer} mà không phải tách chuỗi.</p>
+ *
+ * <pre>
+ * Header (little-endian):
+ *   0  int   magic "ARKS"
+ *   4  short phiên bản định dạng
+ *   6  short kích thước bản ghi
+ *   8  int   số bản ghi
+ *   12 int   (dự trữ)
+ *   16 long  số thứ tự lớn nhất đã ghi
+ *   24 int   CRC32 của byte 0..23
+ *   28 int   (dự trữ)
+ *
+ * Bản ghi:
+ *   0  long  số thứ tự
+ *   8  int   điểm
+ *   12 int   ngày (epoch day)
+ *   16 byte[28] tên (UTF-8, đệm 0)
+ *   44 int   CRC32 của byte 0..43
+ * </pre>
+ */
+final class HighScoreFileFormat {
+    static final int MAGIC = 0x534B5241; // "ARKS" khi đọc little-endian
+    static final short VERSION = 1; // Phiên bản định dạng hiện tại
+    static final int HEADER_SIZE = 32; // Kích thước header (byte)
+    static final int RECORD_SIZE = 48; // Kích thước một bản ghi (byte)
+    static final int NAME_BYTES = 28; // Số byte tối đa cho tên người chơi
+
+    private static final int HEADER_CRC_OFFSET = 24; // Vị trí CRC trong header
+    private static final int RECORD_CRC_OFFSET = RECORD_SIZE - 4; // Vị trí CRC trong bản ghi
+    private static final int NAME_OFFSET = 16; // Vị trí tên trong bản ghi
+
+    /**
+     * Kết quả giải mã header.
+     *
+     * @param count Số bản ghi khai báo trong header.
+     * @param maxSequence Số thứ tự lớn nhất đã ghi.
+     */
+    record Header(int count, long maxSequence) {
+    }
+
+    private HighScoreFileFormat() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Tạo buffer little-endian với kích thước cho trước.
+     *
+     * @param size Kích thước (byte).
+     * @return Buffer mới, vị trí 0.
+     */
+    static ByteBuffer allocate(int size) {
+        return ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Tính vị trí (byte) của bản ghi thứ {@code index} trong file.
+     *
+     * @param index Chỉ số bản ghi.
+     * @return Vị trí byte.
+     */
+    static long recordPosition(int index) {
+        return HEADER_SIZE + (long) index * RECORD_SIZE;
+    }
+
+    /**
+     * Ghi header vào buffer tại vị trí hiện tại.
+     *
+     * @param out Buffer đích (little-endian).
+     * @param count Số bản ghi.
+     * @param maxSequence Số thứ tự lớn nhất đã ghi.
+     */
+    static void writeHeader(ByteBuffer out, int count, long maxSequence) {
+        int start = out.position();
+        out.putInt(MAGIC);
+        out.putShort(VERSION);
+        out.putShort((short) RECORD_SIZE);
+        out.putInt(count);
+        out.putInt(0);
+        out.putLong(maxSequence);
+        out.putInt(crc(new CRC32(), out, start, HEADER_CRC_OFFSET));
+        out.putInt(0);
+    }
+
+    /**
+     * Kiểm tra magic, phiên bản và kích thước bản ghi của header, không kiểm
+     * tra CRC. Dùng để quét lại các bản ghi khi chỉ header bị hỏng.
+     *
+     * @param in Buffer nguồn (little-endian).
+     * @return {@code true} nếu các bản ghi phía sau có thể đọc theo định dạng này.
+     */
+    static boolean hasValidPrefix(ByteBuffer in) {
+        return in.limit() >= HEADER_SIZE && in.getInt(0) == MAGIC
+                && in.getShort(4) == VERSION && in.getShort(6) == RECORD_SIZE;
+    }
+
+    /**
+     * Đọc và kiểm tra header ở đầu buffer.
+     *
+     * @param in Buffer nguồn (little-endian).
+     * @return Header, hoặc {@code null} nếu sai magic, phiên bản, kích thước bản ghi hoặc CRC.
+     */
+    static Header readHeader(ByteBuffer in) {
+        if (in.limit() < HEADER_SIZE || in.getInt(0) != MAGIC) {
+            return null;
+        }
+        if (in.getShort(4) != VERSION || in.getShort(6) != RECORD_SIZE) {
+            System.err.println("HighScoreFileFormat: Unsupported version " + in.getShort(4));
+            return null;
+        }
+        if (in.getInt(HEADER_CRC_OFFSET) != crc(new CRC32(), in, 0, HEADER_CRC_OFFSET)) {
+            System.err.println("HighScoreFileFormat: Header checksum mismatch");
+            return null;
+        }
+        return new Header(in.getInt(8), in.getLong(16));
+    }
+
+    /**
+     * Ghi một bản ghi vào buffer tại vị trí hiện tại.
+     * Tên dài hơn {@value #NAME_BYTES} byte UTF-8 bị cắt ở ranh giới ký tự.
+     *
+     * @param out Buffer đích (little-endian).
+     * @param entry Entry cần ghi.
+     */
+    static void writeRecord(ByteBuffer out, HighScoreEntry entry) {
+        int start = out.position();
+        out.putLong(entry.getSequence());
+        out.putInt(entry.getScore());
+        out.putInt((int) entry.getDate().toEpochDay());
+
+        byte[] name = entry.getPlayerName().getBytes(StandardCharsets.UTF_8);
+        int length = Math.min(name.length, NAME_BYTES);
+        // Không cắt giữa một ký tự nhiều byte (byte tiếp nối có dạng 10xxxxxx)
+        while (length < name.length && length > 0 && (name[length] & 0xC0) == 0x80) {
+            length--;
+        }
+        out.put(name, 0, length);
+        for (int i = length; i < NAME_BYTES; i++) {
+            out.put((byte) 0);
+        }
+        out.putInt(crc(new CRC32(), out, start, RECORD_CRC_OFFSET));
+    }
+
+    /**
+     * Giải mã các bản ghi hợp lệ, bắt đầu từ bản ghi thứ {@code from}.
+     * Bản ghi sai CRC bị bỏ qua; dừng ở bản ghi thứ {@code to} hoặc cuối buffer.
+     *
+     * @param in Buffer nguồn (little-endian), thường là file đã map.
+     * @param from Chỉ số bản ghi đầu tiên.
+     * @param to Chỉ số bản ghi kết thúc (không bao gồm).
+     * @param sink Nhận từng entry đã giải mã.
+     * @return Số bản ghi bị bỏ qua vì sai CRC.
+     */
+    static int readRecords(ByteBuffer in, int from, int to, Consumer<HighScoreEntry> sink) {
+        int available = Math.max(0, (in.limit() - HEADER_SIZE) / RECORD_SIZE);
+        int end = Math.min(to, available);
+        byte[] name = new byte[NAME_BYTES];
+        CRC32 checksum = new CRC32(); // Dùng lại cho mọi bản ghi
+        int corrupt = 0;
+
+        for (int i = from; i < end; i++) {
+            int base = (int) recordPosition(i);
+            if (in.getInt(base + RECORD_CRC_OFFSET) != crc(checksum, in, base, RECORD_CRC_OFFSET)) {
+                corrupt++;
+                continue;
+            }
+            in.get(base + NAME_OFFSET, name);
+            int length = 0;
+            while (length < NAME_BYTES && name[length] != 0) {
+                length++;
+            }
+            HighScoreEntry entry = new HighScoreEntry(new String(name, 0, length, StandardCharsets.UTF_8),
+                    in.getInt(base + 8), LocalDate.ofEpochDay(in.getInt(base + 12)));
+            entry.setSequence(in.getLong(base));
+            sink.accept(entry);
+        }
+        return corrupt;
+    }
+
+    /**
+     * Tính CRC32 của một đoạn buffer mà không thay đổi vị trí của buffer.
+     *
+     * @param crc Bộ tính CRC (được reset trước khi dùng).
+     * @param buffer Buffer nguồn.
+     * @param offset Vị trí bắt đầu.
+     * @param length Số byte.
+     * @return Giá trị CRC32 (32 bit thấp).
+     */
+    private static int crc(CRC32 crc, ByteBuffer buffer, int offset, int length) {
+        crc.reset();
+        crc.update(buffer.slice(offset, length));
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,789 @@
+package Engine;
+
+import Engine.HighScoreFileFormat.Header;
+import Utils.Constants;
+import Utils.FileManager;
+import Utils.PersistenceService;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Kho điểm cao (High Score Repository) dùng chung cho toàn bộ tiến trình.
+ *
+ * <p>Mọi ván chơi đều được ghi nhận (có thể tới hàng trăm nghìn entry). Bảng
+ * điểm nằm trong một {@link ScoreSkipList} có chỉ mục nên kiểm tra high score,
+ * tính hạng của một điểm và đọc top-N theo trang đều là O(log n). Mỗi khi bảng
+ * thay đổi, các {@link Listener} đã đăng ký được thông báo để màn hình dựng lại
+ * phần hiển thị đã cache.</p>
+ *
+ * <p>Bảng được lưu trong một file nhị phân duy nhất ({@code highscores.bin},
+ * xem {@link HighScoreFileFormat}) gồm header có phiên bản và CRC cùng các bản
+ * ghi cố định kích thước. Mỗi điểm mới chỉ được ghi thêm đúng bản ghi của nó
+ * bằng ghi theo vị trí (positioned write) rồi cập nhật header, trên luồng nền
+ * của {@link PersistenceService}; các điểm đến dồn dập được gộp vào một lần
+ * ghi. Khi tải, file được map vào bộ nhớ và giải mã trực tiếp. Các file văn
+ * bản cũ ({@code highscores.dat}, {@code highscores.log}, {@code highscore.dat})
+ * được tự động chuyển sang định dạng mới ở lần chạy đầu tiên.</p>
+ */
+public class HighScoreRepository {
+    private static HighScoreRepository instance; // Instance Singleton.
+
+    private final ScoreSkipList highScores = new ScoreSkipList(); // Mọi entry, giảm dần theo điểm.
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>(); // Các listener nhận thông báo thay đổi.
+    private volatile int highestScore = 0; // Điểm cao nhất, cache để đọc mỗi khung hình.
+    private volatile long version = 0; // Tăng mỗi khi bảng điểm thay đổi.
+    private long nextSequence = 1; // Số thứ tự cho entry kế tiếp.
+    private final List<HighScoreEntry> pendingRecords = new ArrayList<>(); // Các entry chưa ghi xuống đĩa.
+    private int persistedCount = 0; // Số bản ghi đang có trong file nhị phân.
+    private boolean flushScheduled = false; // Đã có tác vụ ghi bản ghi mới đang chờ.
+    private boolean rewriteScheduled = false; // Đã có tác vụ ghi lại toàn bộ file đang chờ.
+    private boolean legacyFilesPresent = false; // Còn file văn bản cũ cần xóa sau khi chuyển đổi.
+    private List<HighScoreEntry> remoteScores = List.of(); // Top của bảng chung (máy khác), giảm dần, không lưu vào file.
+
+    private static final int TOP_ENTRIES = 10; // Số hạng được coi là "high score" và hiển thị trên bảng.
+    private static final String SAVE_FILE = Constants.Paths.HIGHSCORE_FILE; // Tên file nhị phân điểm cao.
+    private static final String LEGACY_SNAPSHOT_FILE = "highscores.dat"; // Snapshot văn bản cũ.
+    private static final String LEGACY_LOG_FILE = "highscores.log"; // Log văn bản cũ.
+    private static final String LEGACY_BEST_FILE = "highscore.dat"; // File cũ chỉ chứa một điểm cao nhất.
+    private static final String SNAPSHOT_HEADER = "#seq="; // Dòng đầu snapshot văn bản cũ.
+    // Định dạng ngày tháng cho hiển thị.
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("MM/dd/yyyy");
+
+    /**
+     * Listener nhận thông báo khi bảng điểm cao thay đổi.
+     * Được gọi trên luồng đã thực hiện thay đổi, nên chỉ nên đánh dấu cần cập nhật.
+     */
+    @FunctionalInterface
+    public interface Listener {
+        /**
+         * Được gọi sau khi bảng điểm cao thay đổi.
+         *
+         * @param repository Kho điểm cao vừa thay đổi.
+         */
+        void onHighScoresChanged(HighScoreRepository repository);
+
+        /**
+         * Được gọi sau khi một điểm mới được ghi nhận bằng {@link #addScore},
+         * sau {@link #onHighScoresChanged}. Mặc định không làm gì.
+         *
+         * @param entry Entry vừa ghi nhận.
+         */
+        default void onScoreAdded(HighScoreEntry entry) {
+        }
+    }
+
+    /**
+     * Lớp lồng (Inner class) để lưu trữ thông tin một entry điểm cao.
+     */
+    public static class HighScoreEntry {
+        private int rank; // Hạng của người chơi.
+        private String playerName; // Tên người chơi.
+        private int score; // Điểm số đạt được.
+        private LocalDate date; // Ngày đạt được điểm số.
+        private long sequence; // Số thứ tự ghi nhận (tăng dần), dùng để xếp các điểm bằng nhau và lọc log.
+
+        /**
+         * Constructor cho HighScoreEntry.
+         *
+         * @param playerName Tên người chơi.
+         * @param score Điểm số.
+         * @param date Ngày đạt được điểm số.
+         */
+        public HighScoreEntry(String playerName, int score, LocalDate date) {
+            this.playerName = playerName;
+            this.score = score;
+            this.date = date;
+        }
+
+        // Getters
+        /**
+         * Lấy hạng (rank) của entry.
+         * @return Hạng.
+         */
+        public int getRank() {
+            return rank;
+        }
+
+        /**
+         * Đặt hạng (rank) cho entry.
+         * @param rank Hạng mới.
+         */
+        public void setRank(int rank) {
+            this.rank = rank;
+        }
+
+        /**
+         * Lấy số thứ tự ghi nhận của entry.
+         * @return Số thứ tự.
+         */
+        public long getSequence() {
+            return sequence;
+        }
+
+        /**
+         * Đặt số thứ tự ghi nhận (chỉ dùng nội bộ khi chèn hoặc tải).
+         * @param sequence Số thứ tự.
+         */
+        void setSequence(long sequence) {
+            this.sequence = sequence;
+        }
+
+        /**
+         * Lấy tên người chơi.
+         * @return Tên người chơi.
+         */
+        public String getPlayerName() {
+            return playerName;
+        }
+
+        /**
+         * Lấy điểm số.
+         * @return Điểm số.
+         */
+        public int getScore() {
+            return score;
+        }
+
+        /**
+         * Lấy ngày đạt được điểm số.
+         * @return Đối tượng LocalDate.
+         */
+        public LocalDate getDate() {
+            return date;
+        }
+
+        /**
+         * Lấy ngày đạt được điểm số theo định dạng chuỗi.
+         * @return Ngày theo định dạng "MM/dd/yyyy".
+         */
+        public String getFormattedDate() {
+            return date.format(DATE_FORMATTER);
+        }
+
+        /**
+         * Chuyển đổi entry thành chuỗi để lưu file.
+         * Format: "rank|name|score|date".
+         *
+         * @return Chuỗi biểu diễn entry.
+         */
+        @Override
+        public String toString() {
+            return rank + "|" + playerName + "|" + score + "|" + date.toString();
+        }
+
+        /**
+         * Chuyển đổi entry thành bản ghi văn bản của snapshot/log cũ.
+         * Format: "sequence|name|score|date".
+         *
+         * @return Chuỗi bản ghi.
+         */
+        public String toRecord() {
+            return sequence + "|" + playerName + "|" + score + "|" + date.toString();
+        }
+
+        /**
+         * Parse một bản ghi văn bản cũ "sequence|name|score|date" (chỉ dùng khi chuyển đổi).
+         * @param line Chuỗi bản ghi.
+         * @return HighScoreEntry hoặc {@code null} nếu chuỗi không hợp lệ.
+         */
+        public static HighScoreEntry fromRecord(String line) {
+            try {
+                String[] parts = line.split("\\|");
+                if (parts.length >= 4) {
+                    HighScoreEntry entry = new HighScoreEntry(parts[1], Integer.parseInt(parts[2]),
+                            LocalDate.parse(parts[3]));
+                    entry.setSequence(Long.parseLong(parts[0]));
+                    return entry;
+                }
+            } catch (Exception e) {
+                System.err.println("Error parsing high score record: " + line);
+            }
+            return null;
+        }
+
+        /**
+         * Parse một entry từ file văn bản cũ (chỉ dùng khi chuyển đổi).
+         * @param line Chuỗi format: "rank|name|score|date".
+         * @return HighScoreEntry hoặc {@code null} nếu chuỗi không hợp lệ.
+         */
+        public static HighScoreEntry fromString(String line) {
+            try {
+                String[] parts = line.split("\\|");
+                // Kiểm tra đủ 4 phần tử.
+                if (parts.length >= 4) {
+                    // Chuyển đổi và tạo đối tượng.
+                    int rank = Integer.parseInt(parts[0]);
+                    String name = parts[1];
+                    int score = Integer.parseInt(parts[2]);
+                    LocalDate date = LocalDate.parse(parts[3]);
+
+                    HighScoreEntry entry = new HighScoreEntry(name, score, date);
+                    entry.setRank(rank);
+                    return entry;
+                }
+            } catch (Exception e) {
+                System.err.println("Error parsing high score entry: " + line);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Constructor private. Tải bảng điểm từ file (một lần).
+     */
+    private HighScoreRepository() {
+        loadFromFile();
+    }
+
+    /**
+     * Lấy instance duy nhất của HighScoreRepository. File điểm cao chỉ được đọc
+     * ở lần gọi đầu tiên.
+     *
+     * @return Instance của HighScoreRepository.
+     */
+    public static synchronized HighScoreRepository getInstance() {
+        if (instance == null) {
+            instance = new HighScoreRepository();
+        }
+        return instance;
+    }
+
+    /**
+     * Đăng ký listener nhận thông báo khi bảng điểm thay đổi.
+     *
+     * @param listener Listener cần đăng ký.
+     */
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Hủy đăng ký listener.
+     *
+     * @param listener Listener cần hủy.
+     */
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Ghi nhận điểm của một ván chơi. Mọi ván đều được lưu; chỉ bản ghi mới và
+     * header được ghi (trên luồng nền), không ghi lại toàn bộ file.
+     *
+     * @param playerName Tên người chơi.
+     * @param score Điểm số.
+     * @param date Ngày đạt được.
+     * @return {@code true} nếu điểm số lọt vào top {@value #TOP_ENTRIES}, ngược lại là {@code false}.
+     */
+    public boolean addScore(String playerName, int score, LocalDate date) {
+        boolean isTop;
+        HighScoreEntry entry;
+        synchronized (this) {
+            isTop = isHighScore(score);
+            entry = insert(playerName, score, date);
+            // Luồng nền ghi dồn mọi bản ghi đang chờ trong một lần
+            pendingRecords.add(entry);
+            if (!flushScheduled) {
+                flushScheduled = true;
+                PersistenceService.getInstance().submit(this::flushRecords);
+            }
+        }
+        notifyListeners();
+        for (Listener listener : listeners) {
+            try {
+                listener.onScoreAdded(entry);
+            } catch (RuntimeException e) {
+                System.err.println("HighScoreRepository: Listener failed: " + e.getMessage());
+            }
+        }
+        return isTop;
+    }
+
+    /**
+     * Thay top của bảng xếp hạng chung (điểm của các máy khác, do
+     * {@link LeaderboardSync} tải về). Các điểm này chỉ được trộn vào bảng top
+     * {@value #TOP_ENTRIES} và điểm cao nhất để hiển thị; chúng không được lưu
+     * vào file điểm cao và không ảnh hưởng tới hạng hay {@link #isHighScore}.
+     *
+     * @param remote Các điểm của bảng chung (thứ tự bất kỳ).
+     */
+    public void mergeRemoteScores(List<HighScoreEntry> remote) {
+        List<HighScoreEntry> sorted = new ArrayList<>(remote);
+        sorted.sort((a, b) -> Integer.compare(b.getScore(), a.getScore()));
+        synchronized (this) {
+            remoteScores = sorted.subList(0, Math.min(sorted.size(), TOP_ENTRIES));
+            onTableChanged();
+        }
+        notifyListeners();
+    }
+
+    /**
+     * Chèn một entry mới vào bảng (không ghi file, không thông báo).
+     *
+     * @param playerName Tên người chơi.
+     * @param score Điểm số.
+     * @param date Ngày đạt được.
+     * @return Entry vừa chèn.
+     */
+    private HighScoreEntry insert(String playerName, int score, LocalDate date) {
+        // Đặt tên mặc định nếu tên người chơi trống.
+        if (playerName == null || playerName.trim().isEmpty()) {
+            playerName = "ANONYMOUS";
+        }
+        HighScoreEntry entry = new HighScoreEntry(playerName.toUpperCase(), score, date);
+        entry.setSequence(nextSequence++);
+        highScores.insert(entry);
+        onTableChanged();
+        return entry;
+    }
+
+    /**
+     * Cập nhật giá trị cache sau khi bảng thay đổi.
+     */
+    private void onTableChanged() {
+        HighScoreEntry top = highScores.get(0);
+        int remoteTop = remoteScores.isEmpty() ? 0 : remoteScores.get(0).getScore();
+        highestScore = Math.max(top != null ? top.getScore() : 0, remoteTop);
+        version++;
+    }
+
+    /**
+     * Thông báo cho mọi listener rằng bảng điểm đã thay đổi.
+     */
+    private void notifyListeners() {
+        for (Listener listener : listeners) {
+            try {
+                listener.onHighScoresChanged(this);
+            } catch (RuntimeException e) {
+                System.err.println("HighScoreRepository: Listener failed: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Lấy một trang entry theo thứ tự hạng. O(log n + limit).
+     * Hạng của các entry trả về được cập nhật theo vị trí hiện tại.
+     *
+     * @param offset Vị trí bắt đầu (0 = hạng 1).
+     * @param limit Số entry tối đa.
+     * @return Danh sách mới chứa các entry của trang.
+     */
+    public synchronized List<HighScoreEntry> getScores(int offset, int limit) {
+        List<HighScoreEntry> page = new ArrayList<>(Math.max(0, Math.min(limit, highScores.size() - offset)));
+        forEachScore(offset, limit, page::add);
+        return page;
+    }
+
+    /**
+     * Lấy N điểm cao nhất. O(log n + count).
+     *
+     * @param count Số lượng entries muốn lấy.
+     * @return Danh sách mới chứa tối đa {@code count} entry đầu tiên.
+     */
+    public List<HighScoreEntry> getTopScores(int count) {
+        return getScores(0, count);
+    }
+
+    /**
+     * Duyệt một trang entry theo thứ tự hạng trong khi giữ khóa của kho, an
+     * toàn với thay đổi đồng thời từ luồng khác. Hạng của từng entry được cập
+     * nhật theo vị trí hiện tại trước khi gọi {@code action}.
+     *
+     * @param offset Vị trí bắt đầu (0 = hạng 1).
+     * @param limit Số entry tối đa.
+     * @param action Hành động áp dụng cho từng entry.
+     */
+    public synchronized void forEachScore(int offset, int limit, Consumer<HighScoreEntry> action) {
+        int[] rank = { offset };
+        highScores.forEach(offset, limit, entry -> {
+            entry.setRank(++rank[0]);
+            action.accept(entry);
+        });
+    }
+
+    /**
+     * Duyệt các entry của bảng top {@value #TOP_ENTRIES}. Khi có bảng xếp hạng
+     * chung ({@link #mergeRemoteScores}), điểm cục bộ và điểm của các máy khác
+     * được trộn theo điểm giảm dần (bằng điểm thì điểm cục bộ trước).
+     *
+     * @param action Hành động áp dụng cho từng entry.
+     */
+    public synchronized void forEachTopScore(Consumer<HighScoreEntry> action) {
+        if (remoteScores.isEmpty()) {
+            forEachScore(0, TOP_ENTRIES, action);
+            return;
+        }
+        List<HighScoreEntry> local = new ArrayList<>(TOP_ENTRIES);
+        highScores.forEach(0, TOP_ENTRIES, local::add);
+        int i = 0;
+        int j = 0;
+        for (int rank = 1; rank <= TOP_ENTRIES && (i < local.size() || j < remoteScores.size()); rank++) {
+            HighScoreEntry entry = j >= remoteScores.size()
+                    || (i < local.size() && local.get(i).getScore() >= remoteScores.get(j).getScore())
+                    ? local.get(i++) : remoteScores.get(j++);
+            entry.setRank(rank);
+            action.accept(entry);
+        }
+    }
+
+    /**
+     * Tính hạng mà một điểm số sẽ nhận nếu được ghi nhận bây giờ
+     * (sau mọi entry có điểm lớn hơn hoặc bằng). O(log n).
+     *
+     * @param score Điểm cần tra.
+     * @return Hạng (bắt đầu từ 1).
+     */
+    public synchronized int getRank(int score) {
+        return highScores.countAtLeast(score) + 1;
+    }
+
+    /**
+     * Kiểm tra xem một điểm có đủ điều kiện là high score (lọt vào top {@value #TOP_ENTRIES}) không. O(log n).
+     *
+     * @param score Điểm cần kiểm tra.
+     * @return {@code true} nếu điểm đủ điều kiện là high score.
+     */
+    public synchronized boolean isHighScore(int score) {
+        return getRank(score) <= TOP_ENTRIES;
+    }
+
+    /**
+     * Lấy điểm cao nhất (Top 1) từ giá trị đã cache, không duyệt danh sách.
+     *
+     * @return Điểm cao nhất, hoặc 0 nếu danh sách trống.
+     */
+    public int getHighestScore() {
+        return highestScore;
+    }
+
+    /**
+     * Lấy tổng số ván đã được ghi nhận.
+     *
+     * @return Số entry.
+     */
+    public synchronized int size() {
+        return highScores.size();
+    }
+
+    /**
+     * Lấy phiên bản hiện tại của bảng điểm (tăng mỗi lần thay đổi).
+     *
+     * @return Số phiên bản.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Lên lịch ghi lại toàn bộ file trên luồng nền (nếu chưa có tác vụ chờ).
+     * Phải được gọi khi đang giữ khóa.
+     */
+    private void scheduleRewrite() {
+        if (rewriteScheduled) {
+            return;
+        }
+        rewriteScheduled = true;
+        PersistenceService.getInstance().submit(this::rewrite);
+    }
+
+    /**
+     * Ghi các bản ghi đang chờ vào cuối file bằng một lần ghi theo vị trí, rồi
+     * ghi đè header. Chạy trên luồng nền của {@link PersistenceService}.
+     *
+     * <p>Bản ghi được ghi trước header: nếu bị ngắt giữa chừng, header cũ vẫn
+     * hợp lệ và các bản ghi thừa phía sau được khôi phục khi tải nhờ CRC.</p>
+     */
+    private void flushRecords() {
+        ByteBuffer records;
+        ByteBuffer header;
+        long position;
+        synchronized (this) {
+            flushScheduled = false;
+            if (pendingRecords.isEmpty()) {
+                return; // Đã được ghi cùng lần ghi lại toàn bộ file.
+            }
+            position = HighScoreFileFormat.recordPosition(persistedCount);
+            records = HighScoreFileFormat.allocate(pendingRecords.size() * HighScoreFileFormat.RECORD_SIZE);
+            for (HighScoreEntry entry : pendingRecords) {
+                HighScoreFileFormat.writeRecord(records, entry);
+            }
+            persistedCount += pendingRecords.size();
+            header = HighScoreFileFormat.allocate(HighScoreFileFormat.HEADER_SIZE);
+            HighScoreFileFormat.writeHeader(header, persistedCount,
+                    pendingRecords.get(pendingRecords.size() - 1).getSequence());
+            pendingRecords.clear();
+        }
+        FileManager.writeAtNow(SAVE_FILE, position, records.flip());
+        FileManager.writeAtNow(SAVE_FILE, 0, header.flip());
+    }
+
+    /**
+     * Ghi lại toàn bộ bảng vào file nhị phân (nguyên tử). Dùng khi tạo mới,
+     * đặt lại, chuyển đổi từ file cũ hoặc sửa file hỏng. Chạy trên luồng nền
+     * của {@link PersistenceService}; chỉ giữ khóa trong lúc mã hóa bảng.
+     */
+    private void rewrite() {
+        long start = System.nanoTime();
+        ByteBuffer data;
+        int count;
+        boolean deleteLegacy;
+        synchronized (this) {
+            rewriteScheduled = false;
+            // Các bản ghi đang chờ đã nằm trong lần ghi này
+            pendingRecords.clear();
+            count = highScores.size();
+            data = HighScoreFileFormat.allocate(HighScoreFileFormat.HEADER_SIZE
+                    + count * HighScoreFileFormat.RECORD_SIZE);
+            HighScoreFileFormat.writeHeader(data, count, nextSequence - 1);
+            highScores.forEach(0, count, entry -> HighScoreFileFormat.writeRecord(data, entry));
+            persistedCount = count;
+            deleteLegacy = legacyFilesPresent;
+            legacyFilesPresent = false;
+        }
+
+        FileManager.writeFileNow(SAVE_FILE, data.array());
+        if (deleteLegacy) {
+            // Chỉ xóa file cũ sau khi file mới đã được ghi
+            FileManager.deleteFileNow(LEGACY_SNAPSHOT_FILE);
+            FileManager.deleteFileNow(LEGACY_LOG_FILE);
+            FileManager.deleteFileNow(LEGACY_BEST_FILE);
+        }
+        System.out.printf("HighScoreRepository: Wrote %d records in %.1f ms%n",
+                count, (System.nanoTime() - start) / 1_000_000.0);
+    }
+
+    /**
+     * Tải bảng điểm từ file nhị phân. File nguyên vẹn được map vào bộ nhớ; file
+     * cần sửa được đọc vào heap, vì file đang được map không thay thế được trên
+     * Windows. Nếu chưa có file hoặc không khôi phục được bản ghi nào, chuyển
+     * đổi từ các file văn bản cũ.
+     */
+    private void loadFromFile() {
+        long start = System.nanoTime();
+        long size = FileManager.fileSize(SAVE_FILE);
+        ByteBuffer head = size > 0 ? FileManager.readRangeFromFile(SAVE_FILE, 0, HighScoreFileFormat.HEADER_SIZE) : null;
+        Header header = head != null ? HighScoreFileFormat.readHeader(head) : null;
+        boolean loaded = false;
+
+        if (header != null && size == HighScoreFileFormat.recordPosition(header.count())) {
+            // Kích thước khớp header: không có bản ghi chưa được đánh chỉ mục, map để đọc nhanh
+            MappedByteBuffer buffer = FileManager.mapFileForRead(SAVE_FILE);
+            List<HighScoreEntry> entries = new ArrayList<>(header.count());
+            if (buffer != null && HighScoreFileFormat.readRecords(buffer, 0, header.count(), entries::add) == 0) {
+                loadEntries(entries, header.count());
+                loaded = true;
+            }
+        }
+        if (!loaded && head != null) {
+            // Header hỏng, kích thước không khớp hoặc có bản ghi sai CRC: đọc vào heap rồi sửa
+            ByteBuffer data = FileManager.readRangeFromFile(SAVE_FILE, 0, (int) Math.min(size, Integer.MAX_VALUE));
+            loaded = data != null && repair(data, header);
+            if (!loaded) {
+                System.err.println("HighScoreRepository: Unreadable " + SAVE_FILE + ", rebuilding from legacy files");
+            }
+        }
+        if (!loaded && loadLegacyFiles()) {
+            legacyFilesPresent = true;
+            scheduleRewrite();
+        }
+
+        if (highScores.size() == 0) {
+            // Nếu không có file hoặc file trống, tạo điểm mặc định.
+            createDefaultScores();
+            scheduleRewrite();
+        }
+        onTableChanged();
+        System.out.printf("HighScoreRepository: Loaded %d entries in %.1f ms%n",
+                highScores.size(), (System.nanoTime() - start) / 1_000_000.0);
+    }
+
+    /**
+     * Khôi phục các bản ghi hợp lệ từ một bản sao trên heap của file hỏng và
+     * lên lịch ghi lại file.
+     *
+     * <p>Nếu header hợp lệ, đọc các bản ghi đã đánh chỉ mục và các bản ghi đã
+     * ghi nhưng chưa kịp cập nhật header. Nếu chỉ CRC của header sai, quét mọi
+     * bản ghi tới cuối file; số bản ghi và số thứ tự lớn nhất được suy ra từ các
+     * bản ghi đúng CRC.</p>
+     *
+     * @param data Nội dung file (little-endian).
+     * @param header Header đã đọc từ đầu file, hoặc {@code null} nếu không hợp lệ.
+     * @return {@code true} nếu khôi phục được ít nhất một bản ghi.
+     */
+    private boolean repair(ByteBuffer data, Header header) {
+        List<HighScoreEntry> entries = new ArrayList<>();
+        int corrupt;
+        int recovered = 0;
+        if (header != null) {
+            corrupt = HighScoreFileFormat.readRecords(data, 0, header.count(), entries::add);
+            // Khôi phục các bản ghi đã ghi nhưng chưa kịp cập nhật header
+            int indexed = entries.size();
+            HighScoreFileFormat.readRecords(data, header.count(), Integer.MAX_VALUE, entry -> {
+                if (entry.getSequence() > header.maxSequence()) {
+                    entries.add(entry);
+                }
+            });
+            recovered = entries.size() - indexed;
+        } else if (HighScoreFileFormat.hasValidPrefix(data)) {
+            corrupt = HighScoreFileFormat.readRecords(data, 0, Integer.MAX_VALUE, entries::add);
+            recovered = entries.size();
+        } else {
+            return false;
+        }
+        if (entries.isEmpty()) {
+            return false;
+        }
+        System.err.println("HighScoreRepository: " + corrupt + " corrupt and "
+                + recovered + " unindexed records, rewriting file");
+        loadEntries(entries, entries.size());
+        scheduleRewrite();
+        return true;
+    }
+
+    /**
+     * Nạp các entry đã đọc từ file vào bảng.
+     *
+     * @param entries Các entry đã giải mã.
+     * @param persisted Số bản ghi đang nằm trong file.
+     */
+    private void loadEntries(List<HighScoreEntry> entries, int persisted) {
+        for (HighScoreEntry entry : entries) {
+            nextSequence = Math.max(nextSequence, entry.getSequence() + 1);
+        }
+        // Dựng skip list một lần thay vì chèn từng entry
+        highScores.build(entries);
+        persistedCount = persisted;
+    }
+
+    /**
+     * Đọc các file văn bản cũ: snapshot (có hoặc không có header số thứ tự),
+     * log chỉ-ghi-thêm và file chỉ chứa một điểm cao nhất.
+     *
+     * @return {@code true} nếu có ít nhất một file cũ.
+     */
+    private boolean loadLegacyFiles() {
+        long snapshotSequence = 0;
+        int skipped = 0;
+        List<String> snapshot = FileManager.readLinesFromFile(LEGACY_SNAPSHOT_FILE);
+        List<String> log = FileManager.readLinesFromFile(LEGACY_LOG_FILE);
+        List<String> best = FileManager.readLinesFromFile(LEGACY_BEST_FILE);
+
+        if (snapshot != null && !snapshot.isEmpty()) {
+            boolean ranked = !snapshot.get(0).startsWith(SNAPSHOT_HEADER);
+            for (String line : snapshot) {
+                if (line.startsWith(SNAPSHOT_HEADER)) {
+                    snapshotSequence = parseHeader(line);
+                    continue;
+                }
+                if (line.isBlank()) {
+                    continue;
+                }
+                HighScoreEntry entry = ranked ? HighScoreEntry.fromString(line) : HighScoreEntry.fromRecord(line);
+                if (entry == null) {
+                    skipped++;
+                    continue;
+                }
+                if (ranked) {
+                    // File xếp hạng cũ đã sắp xếp: giữ nguyên thứ tự cho các điểm bằng nhau
+                    entry.setSequence(nextSequence);
+                }
+                addLoaded(entry);
+            }
+            snapshotSequence = Math.max(snapshotSequence, nextSequence - 1);
+        }
+
+        // Phát lại log: chỉ các bản ghi mới hơn snapshot
+        if (log != null) {
+            for (String line : log) {
+                HighScoreEntry entry = line.isBlank() ? null : HighScoreEntry.fromRecord(line);
+                if (entry == null) {
+                    skipped += line.isBlank() ? 0 : 1;
+                } else if (entry.getSequence() > snapshotSequence) {
+                    addLoaded(entry);
+                }
+            }
+        }
+
+        // File cũ chỉ lưu một số nguyên: giữ lại nếu cao hơn mọi điểm trong bảng
+        if (best != null && !best.isEmpty()) {
+            try {
+                int value = Integer.parseInt(best.get(0).trim());
+                HighScoreEntry top = highScores.get(0);
+                if (value > 0 && (top == null || value > top.getScore())) {
+                    insert(null, value, LocalDate.now());
+                }
+            } catch (NumberFormatException e) {
+                skipped++;
+            }
+        }
+
+        boolean found = snapshot != null || log != null || best != null;
+        if (found) {
+            System.out.println("HighScoreRepository: Migrating " + highScores.size()
+                    + " entries from legacy text files (" + skipped + " unreadable lines skipped)");
+        }
+        return found;
+    }
+
+    /**
+     * Chèn một entry đã có số thứ tự (khi tải) và cập nhật số thứ tự kế tiếp.
+     *
+     * @param entry Entry đã tải.
+     */
+    private void addLoaded(HighScoreEntry entry) {
+        highScores.insert(entry);
+        nextSequence = Math.max(nextSequence, entry.getSequence() + 1);
+    }
+
+    /**
+     * Đọc số thứ tự từ dòng header của snapshot văn bản cũ.
+     *
+     * @param line Dòng header.
+     * @return Số thứ tự, hoặc 0 nếu hỏng.
+     */
+    private static long parseHeader(String line) {
+        try {
+            return Long.parseLong(line.substring(SNAPSHOT_HEADER.length()).trim());
+        } catch (NumberFormatException e) {
+            System.err.println("HighScoreRepository: Corrupt snapshot header: " + line);
+            return 0;
+        }
+    }
+
+    /**
+     * Tạo danh sách điểm cao mặc định (Default High Scores).
+     */
+    private void createDefaultScores() {
+        highScores.clear();
+        LocalDate today = LocalDate.now();
+
+        // Thêm một số điểm mặc định vào danh sách
+        insert("STEVE", 50000, today.minusDays(7));
+        insert("ALICE", 45000, today.minusDays(6));
+        insert("BOB", 40000, today.minusDays(5));
+        insert("CHARLIE", 35000, today.minusDays(4));
+        insert("DIANA", 30000, today.minusDays(3));
+        insert("EVAN", 25000, today.minusDays(2));
+        insert("FIONA", 20000, today.minusDays(1));
+        insert("GEORGE", 15000, today);
+        insert("HANNAH", 10000, today);
+        insert("IAN", 5000, today);
+    }
+
+    /**
+     * Đặt lại (Reset) tất cả high scores về điểm mặc định và ghi lại file.
+     */
+    public void reset() {
+        synchronized (this) {
+            createDefaultScores();
+            scheduleRewrite();
+        }
+        notifyListeners();
+    }
+}
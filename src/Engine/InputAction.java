@@ -0,0 +1,20 @@
+package Engine;
+
+/**
+ * Các hành động điều khiển gameplay mà người chơi (hoặc replay) gửi tới
+ * {@link GameManager#applyInput(InputAction)}.
+ *
+ * <p>Đây là toàn bộ input có thể làm thay đổi ván game, nên ghi lại chuỗi
+ * hành động này cùng seed là đủ để chạy lại ván chơi. Ordinal được ghi vào
+ * file replay (2 bit), vì vậy chỉ thêm giá trị mới vào cuối.</p>
+ */
+public enum InputAction {
+    // Bắt đầu di chuyển paddle sang trái
+    MOVE_LEFT,
+    // Bắt đầu di chuyển paddle sang phải
+    MOVE_RIGHT,
+    // Dừng paddle (nhả phím di chuyển)
+    STOP,
+    // Phóng bóng đang gắn, hoặc bắn laser nếu có
+    FIRE
+}
@@ -0,0 +1,90 @@
+package Engine;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * Ghi lại input của một ván chơi để có thể replay (xem {@link Replay} cho định dạng).
+ *
+ * <p>Chỉ những thay đổi input được ghi, mỗi sự kiện là một varint gộp khoảng
+ * cách tick với hành động, nên phần lớn sự kiện chỉ tốn 1-2 byte. Ghi chép
+ * luôn bật từ tick 0 của mỗi ván mới; ván được khôi phục từ quick-save không
+ * được ghi vì không bắt đầu từ seed.</p>
+ *
+ * <p>Chỉ được gọi trên luồng sở hữu {@link GameManager}.</p>
+ */
+final class InputRecorder {
+    private static final int INITIAL_CAPACITY = 1024; // Dung lượng ban đầu của vùng sự kiện (byte)
+
+    private final long seed;
+    private ByteBuffer events = ByteBuffer.allocate(INITIAL_CAPACITY);
+    private int eventCount = 0;
+    private long lastTick = 0;
+
+    /**
+     * Bắt đầu ghi một ván chơi.
+     *
+     * @param seed Seed của ván game.
+     */
+    InputRecorder(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Ghi một input được áp dụng trước lần cập nhật ở tick {@code tick}.
+     *
+     * @param tick Tick hiện tại của AnimationScheduler.
+     * @param action Hành động.
+     */
+    void record(long tick, InputAction action) {
+        if (events.remaining() < Replay.MAX_VARINT_BYTES) {
+            events = ByteBuffer.wrap(Arrays.copyOf(events.array(), events.capacity() * 2))
+                    .position(events.position());
+        }
+        Replay.putVarLong(events, ((tick - lastTick) << Replay.ACTION_BITS) | action.ordinal());
+        lastTick = tick;
+        eventCount++;
+    }
+
+    /**
+     * Kết thúc ghi: đóng gói seed, các sự kiện, tick/điểm cuối và hash trạng
+     * thái hiện tại của ván game thành nội dung file replay.
+     *
+     * @param game Ván game đang được ghi (ở trạng thái cuối).
+     * @return Nội dung file replay.
+     */
+    byte[] finish(GameManager game) {
+        byte[] name = game.getPlayerName().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer out = ByteBuffer.allocate(5 + 4 * Replay.MAX_VARINT_BYTES + name.length
+                        + events.position() + 3 * Replay.MAX_VARINT_BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+
+        out.putInt(Replay.MAGIC);
+        out.put(Replay.VERSION);
+        Replay.putVarLong(out, Replay.zigzag(seed));
+        Replay.putVarLong(out, name.length);
+        out.put(name);
+        Replay.putVarLong(out, eventCount);
+        out.put(events.array(), 0, events.position());
+        Replay.putVarLong(out, game.getAnimationScheduler().getTick());
+        Replay.putVarLong(out, Replay.zigzag(game.getScore()));
+        out.putInt(Replay.stateHash(game));
+
+        CRC32 crc = new CRC32();
+        crc.update(out.array(), 0, out.position());
+        out.putInt((int) crc.getValue());
+        return Arrays.copyOf(out.array(), out.position());
+    }
+
+    /**
+     * Lấy số sự kiện đã ghi.
+     *
+     * @return Số sự kiện.
+     */
+    int getEventCount() {
+        return eventCount;
+    }
+}
@@ -0,0 +1,40 @@
+package Engine;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Bộ điều khiển paddle từ bàn phím.
+ *
+ * <p>Luồng FX chuyển phím thành {@link InputAction} và gọi {@link #press};
+ * các hành động được xếp hàng và áp dụng theo đúng thứ tự ở tick kế tiếp
+ * trên luồng mô phỏng.</p>
+ */
+public final class KeyboardController implements PaddleController {
+    // Hành động chờ áp dụng (ghi từ luồng FX, đọc từ luồng mô phỏng)
+    private final Queue<InputAction> pending = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Xếp một hành động để áp dụng ở tick kế tiếp. An toàn khi gọi từ mọi luồng.
+     *
+     * @param action Hành động điều khiển.
+     */
+    public void press(InputAction action) {
+        pending.add(action);
+    }
+
+    /**
+     * Bỏ các hành động chưa áp dụng (khi bàn phím lấy lại quyền điều khiển từ bot).
+     */
+    public void clear() {
+        pending.clear();
+    }
+
+    @Override
+    public void control(GameManager game) {
+        InputAction action;
+        while ((action = pending.poll()) != null) {
+            game.applyInput(action);
+        }
+    }
+}
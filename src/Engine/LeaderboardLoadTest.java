@@ -0,0 +1,227 @@
+package Engine;
+
+import Engine.HighScoreRepository.HighScoreEntry;
+import Utils.ConsoleLog;
+import Utils.FileManager;
+import Utils.PersistenceService;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Thử tải toàn bộ luồng đồng bộ bảng điểm trên một máy: N máy chơi giả lập
+ * (mỗi máy một {@link LeaderboardSync}) cùng gửi điểm tới một
+ * {@link LeaderboardServer} có giả lập lỗi.
+ *
+ * <p>Giữa chừng máy chủ bị tắt trong {@value #OUTAGE_PERCENT}% thời gian chạy;
+ * trong lúc đó máy chơi đầu tiên cũng được khởi động lại để kiểm tra hàng đợi
+ * ngoại tuyến được nạp lại từ file. Cuối cùng kiểm tra: mọi điểm tới máy chủ
+ * đúng một lần, và bảng top của mọi máy chơi khớp bảng chung.</p>
+ *
+ * <p>File hàng đợi của máy giả lập nằm trong {@code ~/.arkanoid} với tiền tố
+ * {@value #FILE_PREFIX} và bị xóa khi kết thúc.</p>
+ *
+ * <pre>
+ * java -cp out Engine.LeaderboardLoadTest [số máy] [điểm/giây mỗi máy] [số giây] [tỉ lệ lỗi]
+ * </pre>
+ */
+public final class LeaderboardLoadTest {
+    private static final int DEFAULT_CABINETS = 20;
+    private static final double DEFAULT_RATE = 5;
+    private static final int DEFAULT_SECONDS = 20;
+    private static final double DEFAULT_FAIL_RATE = 0.1;
+    private static final int OUTAGE_PERCENT = 20; // Máy chủ tắt từ 40% tới 60% thời gian chạy
+    private static final long DRAIN_TIMEOUT_MILLIS = 90_000; // Đủ cho thời gian chờ thử lại tối đa
+    private static final long CONVERGE_TIMEOUT_MILLIS = 10_000;
+    private static final String FILE_PREFIX = "loadtest_";
+
+    /**
+     * Constructor private để ngăn việc tạo instance của lớp tiện ích.
+     */
+    private LeaderboardLoadTest() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Điểm vào thử tải. Log của game bị tắt trong lúc chạy.
+     *
+     * @param args {@code [số máy] [điểm/giây mỗi máy] [số giây] [tỉ lệ lỗi]}.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int cabinets = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_CABINETS;
+        double rate = args.length > 1 ? Double.parseDouble(args[1]) : DEFAULT_RATE;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_SECONDS;
+        double failRate = args.length > 3 ? Double.parseDouble(args[3]) : DEFAULT_FAIL_RATE;
+
+        PrintStream out = ConsoleLog.quiet(true);
+
+        LeaderboardServer server = new LeaderboardServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+                4, failRate);
+        URI uri = URI.create("http://127.0.0.1:" + server.getPort());
+        LeaderboardSync[] syncs = new LeaderboardSync[cabinets];
+        List<AtomicReference<List<HighScoreEntry>>> merged = new ArrayList<>(cabinets);
+        long[] nextSequence = new long[cabinets];
+        for (int i = 0; i < cabinets; i++) {
+            deleteFiles(i);
+            merged.add(new AtomicReference<>(List.of()));
+            nextSequence[i] = 1;
+            syncs[i] = open(uri, i, merged.get(i));
+        }
+
+        // Gửi điểm theo nhịp cố định; máy chủ tắt ở giữa
+        out.printf("LeaderboardLoadTest: %d cabinets x %.1f scores/s for %d s, fail rate %.0f%%%n",
+                cabinets, rate, seconds, failRate * 100);
+        SplittableRandom random = new SplittableRandom(1);
+        LocalDate today = LocalDate.now();
+        long periodNanos = (long) (1e9 / rate);
+        long start = System.nanoTime();
+        long end = start + seconds * 1_000_000_000L;
+        long outageStart = start + (end - start) * (50 - OUTAGE_PERCENT / 2) / 100;
+        long outageEnd = start + (end - start) * (50 + OUTAGE_PERCENT / 2) / 100;
+        boolean down = false;
+        boolean restarted = false;
+        int restoredQueue = -1;
+        long submitted = 0;
+        for (long next = start; next < end; next += periodNanos) {
+            long now = System.nanoTime();
+            if (next > now) {
+                Thread.sleep((next - now) / 1_000_000, (int) ((next - now) % 1_000_000));
+            }
+            if (!down && next >= outageStart && next < outageEnd) {
+                server.stop();
+                down = true;
+            } else if (down && next >= outageEnd) {
+                server.start();
+                down = false;
+            }
+            if (down && !restarted && next >= (outageStart + outageEnd) / 2) {
+                // Khởi động lại máy 0 khi đang mất mạng: hàng đợi phải được nạp lại từ file
+                int queued = syncs[0].getQueueSize();
+                syncs[0].close();
+                PersistenceService.getInstance().flush();
+                syncs[0] = open(uri, 0, merged.get(0));
+                Thread.sleep(200);
+                restoredQueue = syncs[0].getQueueSize() == queued ? queued : -queued - 1;
+                restarted = true;
+            }
+            for (int i = 0; i < cabinets; i++) {
+                HighScoreEntry entry = new HighScoreEntry("CAB" + i, random.nextInt(1_000_000), today);
+                entry.setSequence(nextSequence[i]++);
+                syncs[i].onScoreAdded(entry);
+                submitted++;
+            }
+        }
+        if (down) {
+            server.start();
+        }
+        double feedSeconds = (System.nanoTime() - start) / 1e9;
+
+        // Chờ mọi hàng đợi gửi hết
+        long drainStart = System.nanoTime();
+        while (queued(syncs) > 0 && (System.nanoTime() - drainStart) / 1_000_000 < DRAIN_TIMEOUT_MILLIS) {
+            Thread.sleep(50);
+        }
+        double drainSeconds = (System.nanoTime() - drainStart) / 1e9;
+
+        // Tải lại bảng chung ở mọi máy và chờ các bảng top khớp nhau
+        int converged = 0;
+        long convergeStart = System.nanoTime();
+        while ((System.nanoTime() - convergeStart) / 1_000_000 < CONVERGE_TIMEOUT_MILLIS) {
+            for (LeaderboardSync sync : syncs) {
+                sync.refresh();
+            }
+            Thread.sleep(500);
+            converged = converged(server, syncs, merged);
+            if (converged == cabinets) {
+                break;
+            }
+        }
+
+        long acked = 0;
+        long requests = 0;
+        long failed = 0;
+        long dropped = 0;
+        long ackNanos = 0;
+        long maxAckNanos = 0;
+        for (LeaderboardSync sync : syncs) {
+            acked += sync.getAcked();
+            requests += sync.getRequests();
+            failed += sync.getFailedRequests();
+            dropped += sync.getDroppedScores();
+            ackNanos += sync.getAckNanos();
+            maxAckNanos = Math.max(maxAckNanos, sync.getMaxAckNanos());
+        }
+        int remaining = queued(syncs);
+        for (int i = 0; i < cabinets; i++) {
+            syncs[i].close();
+        }
+        PersistenceService.getInstance().flush();
+        for (int i = 0; i < cabinets; i++) {
+            deleteFiles(i);
+        }
+        server.close();
+        ConsoleLog.restore();
+
+        out.printf("Submitted %d scores in %.1f s (%.0f/s), server stored %d, %d duplicates ignored, %d still queued%n",
+                submitted, feedSeconds, submitted / feedSeconds, server.getScoreCount(), server.getDuplicates(),
+                remaining);
+        out.printf("Requests: %d client (%d failed and retried), %d server, %d injected faults, %d scores dropped%n",
+                requests, failed, server.getRequests(), server.getInjectedFaults(), dropped);
+        out.printf("Ack latency: mean %.0f ms, max %.0f ms; queues drained %.1f s after the last score%n",
+                ackNanos / 1e6 / Math.max(1, acked), maxAckNanos / 1e6, drainSeconds);
+        out.printf("Cabinet restart during outage: %s%n", restoredQueue >= 0
+                ? restoredQueue + " queued scores restored from disk" : "queue NOT restored");
+        out.printf("Leaderboards converged: %d/%d cabinets, exactly-once: %s%n", converged, cabinets,
+                server.getScoreCount() == submitted && remaining == 0 ? "yes" : "NO");
+    }
+
+    private static LeaderboardSync open(URI uri, int index, AtomicReference<List<HighScoreEntry>> merged) {
+        return new LeaderboardSync(uri, index + 1, FILE_PREFIX + "queue_" + index + ".bin",
+                FILE_PREFIX + "remote_" + index + ".bin", merged::set);
+    }
+
+    private static void deleteFiles(int index) {
+        FileManager.deleteFileNow(FILE_PREFIX + "queue_" + index + ".bin");
+        FileManager.deleteFileNow(FILE_PREFIX + "remote_" + index + ".bin");
+    }
+
+    private static int queued(LeaderboardSync[] syncs) {
+        int total = 0;
+        for (LeaderboardSync sync : syncs) {
+            total += sync.getQueueSize();
+        }
+        return total;
+    }
+
+    /**
+     * Đếm số máy có bảng của các máy khác khớp top của bảng chung.
+     */
+    private static int converged(LeaderboardServer server, LeaderboardSync[] syncs,
+                                 List<AtomicReference<List<HighScoreEntry>>> merged) {
+        List<LeaderboardProtocol.Score> top = server.top(LeaderboardSync.TOP);
+        int converged = 0;
+        for (int i = 0; i < syncs.length; i++) {
+            List<HighScoreEntry> remote = merged.get(i).get();
+            int matched = 0;
+            boolean same = true;
+            for (LeaderboardProtocol.Score score : top) {
+                if (score.cabinet() == syncs[i].getCabinet()) {
+                    continue;
+                }
+                HighScoreEntry entry = matched < remote.size() ? remote.get(matched) : null;
+                same &= entry != null && entry.getSequence() == score.sequence() && entry.getScore() == score.score()
+                        && entry.getPlayerName().equals(score.name());
+                matched++;
+            }
+            converged += same && matched == remote.size() ? 1 : 0;
+        }
+        return converged;
+    }
+}
@@ -0,0 +1,143 @@
+package Engine;
+
+import Engine.HighScoreRepository.HighScoreEntry;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Giao thức HTTP giữa {@link LeaderboardSync} (các máy chơi) và
+ * {@link LeaderboardServer} (bảng xếp hạng chung).
+ *
+ * <p>Thân yêu cầu và phản hồi là văn bản UTF-8, mỗi dòng một điểm:
+ * {@code máy|số thứ tự|tên|điểm|ngày}. Cặp (máy, số thứ tự) định danh một
+ * điểm, nên gửi lại một lô sau khi mất phản hồi không tạo bản trùng.</p>
+ *
+ * <pre>
+ * POST /scores?top=N   thân: các điểm mới   → 200, thân: top N của bảng chung
+ * GET  /scores?top=N                         → 200, thân: top N của bảng chung
+ * 400 dòng hỏng (cả lô bị từ chối), 413 thân quá lớn, 503 máy chủ bận (thử lại)
+ * </pre>
+ */
+final class LeaderboardProtocol {
+    static final String PATH = "/scores";
+    static final int MAX_BATCH = 100; // Số điểm tối đa trong một yêu cầu
+    static final int MAX_TOP = 100; // Giới hạn của tham số top
+    static final int MAX_NAME_LENGTH = 20;
+    static final int MAX_BODY_BYTES = 64 * 1024;
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Một điểm trên đường truyền.
+     *
+     * @param cabinet Số hiệu máy chơi đã ghi điểm.
+     * @param sequence Số thứ tự của điểm trên máy đó.
+     * @param name Tên người chơi (đã làm sạch).
+     * @param score Điểm số.
+     * @param date Ngày đạt được.
+     */
+    record Score(long cabinet, long sequence, String name, int score, LocalDate date) {
+
+        /**
+         * Tạo điểm từ một entry của kho điểm cao cục bộ.
+         *
+         * @param cabinet Số hiệu máy chơi này.
+         * @param entry Entry cục bộ.
+         * @return Điểm để gửi.
+         */
+        static Score of(long cabinet, HighScoreEntry entry) {
+            return new Score(cabinet, entry.getSequence(), entry.getPlayerName(), entry.getScore(), entry.getDate());
+        }
+
+        /**
+         * Chuyển thành entry để hiển thị trong bảng cục bộ.
+         *
+         * @return Entry mới (số thứ tự giữ nguyên của máy gốc).
+         */
+        HighScoreEntry toEntry() {
+            HighScoreEntry entry = new HighScoreEntry(name, score, date);
+            entry.setSequence(sequence);
+            return entry;
+        }
+
+        /**
+         * Ghi điểm thành một dòng, kết thúc bằng ký tự xuống dòng.
+         *
+         * @param out Nơi ghi.
+         */
+        void appendTo(StringBuilder out) {
+            out.append(cabinet).append(SEPARATOR).append(sequence).append(SEPARATOR).append(sanitize(name))
+                    .append(SEPARATOR).append(score).append(SEPARATOR).append(date).append('\n');
+        }
+    }
+
+    private LeaderboardProtocol() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Ghi một danh sách điểm thành thân yêu cầu/phản hồi.
+     *
+     * @param scores Các điểm.
+     * @return Văn bản, mỗi điểm một dòng.
+     */
+    static String format(List<Score> scores) {
+        StringBuilder out = new StringBuilder(scores.size() * 40);
+        for (Score score : scores) {
+            score.appendTo(out);
+        }
+        return out.toString();
+    }
+
+    /**
+     * Đọc thân yêu cầu/phản hồi. Dòng trống bị bỏ qua.
+     *
+     * @param body Văn bản.
+     * @param sink Nhận từng điểm.
+     * @throws IllegalArgumentException Nếu có dòng hỏng.
+     */
+    static void parse(String body, Consumer<Score> sink) {
+        for (String line : body.split("\n")) {
+            if (!line.isBlank()) {
+                sink.accept(parseLine(line));
+            }
+        }
+    }
+
+    private static Score parseLine(String line) {
+        String[] parts = line.split("\\|", -1);
+        if (parts.length != 5) {
+            throw new IllegalArgumentException("Bad score line: " + line);
+        }
+        try {
+            long cabinet = Long.parseLong(parts[0]);
+            long sequence = Long.parseLong(parts[1]);
+            int score = Integer.parseInt(parts[3]);
+            if (cabinet < 0 || sequence <= 0 || score < 0) {
+                throw new IllegalArgumentException("Bad score line: " + line);
+            }
+            return new Score(cabinet, sequence, sanitize(parts[2]), score, LocalDate.parse(parts[4].trim()));
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Bad score line: " + line, e);
+        }
+    }
+
+    /**
+     * Làm sạch tên người chơi: bỏ ký tự phân cách và ký tự điều khiển, cắt độ dài.
+     *
+     * @param name Tên gốc.
+     * @return Tên an toàn cho giao thức (không rỗng).
+     */
+    static String sanitize(String name) {
+        StringBuilder out = new StringBuilder(Math.min(name.length(), MAX_NAME_LENGTH));
+        for (int i = 0; i < name.length() && out.length() < MAX_NAME_LENGTH; i++) {
+            char c = name.charAt(i);
+            out.append(c == '|' || Character.isISOControl(c) ? ' ' : c);
+        }
+        String clean = out.toString().trim();
+        return clean.isEmpty() ? "ANONYMOUS" : clean;
+    }
+}
@@ -0,0 +1,281 @@
+package Engine;
+
+import Engine.HighScoreRepository.HighScoreEntry;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Máy chủ bảng xếp hạng tham chiếu cho {@link LeaderboardSync}, dựng trên
+ * {@code com.sun.net.httpserver}. Dùng để chạy thử toàn bộ luồng đồng bộ trên
+ * một máy, kể cả dưới tải (xem {@link LeaderboardLoadTest}); giao thức ở
+ * {@link LeaderboardProtocol}.
+ *
+ * <p>Bảng chung nằm trong bộ nhớ, trong một {@link ScoreSkipList} như bảng cục
+ * bộ, nên top-N là O(log n + N). Điểm trùng (cùng máy, cùng số thứ tự) bị bỏ
+ * qua, nên máy chơi có thể gửi lại thoải mái. Có thể giả lập lỗi: với xác suất
+ * cho trước, yêu cầu bị trả 503 trước khi lưu, hoặc sau khi đã lưu (như mất
+ * phản hồi), để kiểm tra thử lại và chống trùng.</p>
+ *
+ * <p>{@link #stop()} và {@link #start()} tắt/mở cổng mà giữ nguyên bảng, để giả
+ * lập máy chủ mất kết nối.</p>
+ *
+ * <pre>
+ * java -cp out Engine.LeaderboardServer [cổng=8080] [số luồng=4] [tỉ lệ lỗi=0]
+ * </pre>
+ */
+public final class LeaderboardServer implements AutoCloseable {
+    static final int DEFAULT_PORT = 8080;
+    static final int DEFAULT_TOP = 10;
+
+    private final ExecutorService executor;
+    private final double failRate;
+    private InetSocketAddress address;
+    private HttpServer server;
+
+    // Bảng chung, được khóa bằng chính máy chủ
+    private final ScoreSkipList scores = new ScoreSkipList();
+    private final List<LeaderboardProtocol.Score> bySequence = new ArrayList<>(); // Chỉ số = số thứ tự trên máy chủ - 1
+    private final Set<Key> seen = new HashSet<>();
+    private final SplittableRandom random = new SplittableRandom(1);
+
+    // Thống kê
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong injectedFaults = new AtomicLong();
+
+    /**
+     * Định danh của một điểm trên toàn hệ thống.
+     */
+    private record Key(long cabinet, long sequence) {
+    }
+
+    /**
+     * Mở máy chủ.
+     *
+     * @param address Địa chỉ lắng nghe (cổng 0 để hệ điều hành chọn).
+     * @param threads Số luồng xử lý yêu cầu.
+     * @param failRate Xác suất giả lập lỗi 503 cho mỗi yêu cầu (0..1).
+     * @throws IOException Nếu không mở được cổng.
+     */
+    public LeaderboardServer(InetSocketAddress address, int threads, double failRate) throws IOException {
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, threads), r -> {
+            Thread thread = new Thread(r, "Leaderboard-" + counter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.failRate = failRate;
+        this.address = address;
+        start();
+    }
+
+    /**
+     * Mở lại cổng (cùng cổng đã dùng lần trước). Bảng điểm được giữ nguyên.
+     *
+     * @throws IOException Nếu không mở được cổng.
+     */
+    public synchronized void start() throws IOException {
+        if (server != null) {
+            return;
+        }
+        server = HttpServer.create(address, 0);
+        server.createContext(LeaderboardProtocol.PATH, this::handle);
+        server.setExecutor(executor);
+        server.start();
+        address = new InetSocketAddress(address.getAddress(), server.getAddress().getPort());
+        System.out.println("LeaderboardServer: Listening on port " + getPort());
+    }
+
+    /**
+     * Đóng cổng ngay (các kết nối đang mở bị ngắt). Bảng điểm được giữ nguyên.
+     */
+    public synchronized void stop() {
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+    }
+
+    /**
+     * Đóng cổng và dừng các luồng xử lý.
+     */
+    @Override
+    public void close() {
+        stop();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Xử lý một yêu cầu trên luồng của executor.
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        try (exchange) {
+            String method = exchange.getRequestMethod();
+            int top = parseTop(exchange.getRequestURI().getRawQuery());
+            if (top < 0) {
+                respond(exchange, 400, "Bad top parameter\n");
+                return;
+            }
+            double roll = nextRandom();
+            if (method.equals("GET")) {
+                if (roll < failRate) {
+                    injectedFaults.incrementAndGet();
+                    respond(exchange, 503, "Injected fault\n");
+                    return;
+                }
+                respond(exchange, 200, LeaderboardProtocol.format(top(top)));
+            } else if (method.equals("POST")) {
+                byte[] body = readBody(exchange.getRequestBody());
+                if (body == null) {
+                    rejected.incrementAndGet();
+                    respond(exchange, 413, "Body too large\n");
+                    return;
+                }
+                if (roll < failRate / 2) {
+                    // Lỗi trước khi lưu
+                    injectedFaults.incrementAndGet();
+                    respond(exchange, 503, "Injected fault\n");
+                    return;
+                }
+                List<LeaderboardProtocol.Score> batch = new ArrayList<>();
+                try {
+                    LeaderboardProtocol.parse(new String(body, StandardCharsets.UTF_8), batch::add);
+                } catch (IllegalArgumentException e) {
+                    rejected.incrementAndGet();
+                    respond(exchange, 400, e.getMessage() + "\n");
+                    return;
+                }
+                if (batch.size() > LeaderboardProtocol.MAX_BATCH) {
+                    rejected.incrementAndGet();
+                    respond(exchange, 413, "Batch too large\n");
+                    return;
+                }
+                List<LeaderboardProtocol.Score> result = submit(batch, top);
+                if (roll < failRate) {
+                    // Đã lưu nhưng phản hồi bị mất: máy chơi sẽ gửi lại
+                    injectedFaults.incrementAndGet();
+                    respond(exchange, 503, "Injected fault\n");
+                    return;
+                }
+                respond(exchange, 200, LeaderboardProtocol.format(result));
+            } else {
+                exchange.getResponseHeaders().set("Allow", "GET, POST");
+                respond(exchange, 405, "Method not allowed\n");
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("LeaderboardServer: Request failed: " + e);
+        }
+    }
+
+    /**
+     * Lưu một lô điểm (bỏ điểm trùng) và trả về top-N sau khi lưu.
+     */
+    private synchronized List<LeaderboardProtocol.Score> submit(List<LeaderboardProtocol.Score> batch, int top) {
+        for (LeaderboardProtocol.Score score : batch) {
+            if (!seen.add(new Key(score.cabinet(), score.sequence()))) {
+                duplicates.incrementAndGet();
+                continue;
+            }
+            bySequence.add(score);
+            // Bảng chung xếp các điểm bằng nhau theo thứ tự máy chủ nhận được
+            HighScoreEntry entry = new HighScoreEntry(score.name(), score.score(), score.date());
+            entry.setSequence(bySequence.size());
+            scores.insert(entry);
+        }
+        return top(top);
+    }
+
+    /**
+     * Lấy N điểm cao nhất của bảng chung.
+     *
+     * @param count Số điểm.
+     * @return Danh sách mới.
+     */
+    synchronized List<LeaderboardProtocol.Score> top(int count) {
+        List<LeaderboardProtocol.Score> result = new ArrayList<>(Math.min(count, scores.size()));
+        scores.forEach(0, count, entry -> result.add(bySequence.get((int) entry.getSequence() - 1)));
+        return result;
+    }
+
+    private synchronized double nextRandom() {
+        return random.nextDouble();
+    }
+
+    /**
+     * Đọc tham số {@code top}; -1 nếu không hợp lệ.
+     */
+    private static int parseTop(String query) {
+        if (query == null) {
+            return DEFAULT_TOP;
+        }
+        for (String parameter : query.split("&")) {
+            if (parameter.startsWith("top=")) {
+                try {
+                    int top = Integer.parseInt(parameter.substring(4));
+                    return top >= 0 && top <= LeaderboardProtocol.MAX_TOP ? top : -1;
+                } catch (NumberFormatException e) {
+                    return -1;
+                }
+            }
+        }
+        return DEFAULT_TOP;
+    }
+
+    /**
+     * Đọc thân yêu cầu; null nếu vượt giới hạn.
+     */
+    private static byte[] readBody(InputStream in) throws IOException {
+        byte[] body = in.readNBytes(LeaderboardProtocol.MAX_BODY_BYTES + 1);
+        return body.length > LeaderboardProtocol.MAX_BODY_BYTES ? null : body;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] data = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, data.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(data);
+        }
+    }
+
+    public int getPort() { return address.getPort(); }
+    public synchronized int getScoreCount() { return scores.size(); }
+    public long getRequests() { return requests.get(); }
+    public long getDuplicates() { return duplicates.get(); }
+    public long getRejected() { return rejected.get(); }
+    public long getInjectedFaults() { return injectedFaults.get(); }
+
+    /**
+     * Chạy máy chủ độc lập tới khi tiến trình bị dừng.
+     *
+     * @param args {@code [cổng] [số luồng] [tỉ lệ lỗi]}.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        double failRate = args.length > 2 ? Double.parseDouble(args[2]) : 0;
+        LeaderboardServer server = new LeaderboardServer(new InetSocketAddress(port), threads, failRate);
+        while (true) {
+            Thread.sleep(60_000);
+            System.out.printf("LeaderboardServer: %d scores, %d requests, %d duplicates, %d rejected%n",
+                    server.getScoreCount(), server.getRequests(), server.getDuplicates(), server.getRejected());
+        }
+    }
+}
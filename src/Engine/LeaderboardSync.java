@@ -0,0 +1,431 @@
+package Engine;
+
+import Engine.HighScoreFileFormat.Header;
+import Engine.HighScoreRepository.HighScoreEntry;
+import Utils.FileManager;
+import Utils.PersistenceService;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Đồng bộ bảng điểm cao của máy chơi này với một bảng xếp hạng chung qua HTTP
+ * (giao thức ở {@link LeaderboardProtocol}, máy chủ tham chiếu ở
+ * {@link LeaderboardServer}). Chỉ bật khi ứng dụng được chạy với
+ * {@code --leaderboard=<url>}.
+ *
+ * <p>Mỗi điểm mới của {@link HighScoreRepository} được đưa vào một hàng đợi
+ * ngoại tuyến, lưu bền trong {@code ~/.arkanoid/}{@value #QUEUE_FILE} (cùng
+ * định dạng bản ghi với {@link HighScoreFileFormat}), rồi gửi theo lô qua
+ * {@link HttpClient#sendAsync}. Lỗi mạng hoặc 5xx được thử lại với thời gian
+ * chờ tăng gấp đôi (có nhiễu ngẫu nhiên) tới {@value #BACKOFF_MAX_MILLIS} ms;
+ * hàng đợi còn nguyên qua các lần khởi động lại. Máy chủ bỏ điểm trùng, nên gửi
+ * lại một lô đã được lưu là an toàn.</p>
+ *
+ * <p>Mỗi phản hồi mang top của bảng chung; điểm của các máy khác được trộn vào
+ * bảng top cục bộ bằng {@link HighScoreRepository#mergeRemoteScores} và lưu
+ * vào {@value #REMOTE_CACHE_FILE} để hiển thị được cả khi mất mạng. Khi hàng
+ * đợi trống, bảng chung được tải lại mỗi {@value #REFRESH_MILLIS} ms.</p>
+ *
+ * <p>Mọi việc chạy trên một luồng nền "LeaderboardSync"; luồng FX chỉ đưa điểm
+ * vào hàng đợi và nhận thông báo thay đổi như với điểm cục bộ.</p>
+ */
+public final class LeaderboardSync implements HighScoreRepository.Listener, AutoCloseable {
+    static final String QUEUE_FILE = "leaderboard_queue.bin";
+    static final String REMOTE_CACHE_FILE = "leaderboard_remote.bin";
+    static final String CABINET_FILE = "cabinet.id";
+    static final long BATCH_DELAY_MILLIS = 500; // Gộp các điểm đến gần nhau vào một yêu cầu
+    static final long REFRESH_MILLIS = 30_000;
+    static final long BACKOFF_BASE_MILLIS = 1_000;
+    static final long BACKOFF_MAX_MILLIS = 60_000;
+    static final int TOP = 10;
+
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(3);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(5);
+
+    private final URI endpoint;
+    private final long cabinet;
+    private final String queueFile;
+    private final String cacheFile;
+    private final Consumer<List<HighScoreEntry>> sink;
+    private final ScheduledExecutorService executor;
+    private final HttpClient client;
+    private HighScoreRepository repository; // Khác null khi được gắn bằng start()
+
+    // Chỉ luồng LeaderboardSync truy cập
+    private final ArrayDeque<HighScoreEntry> queue = new ArrayDeque<>();
+    private final ArrayDeque<Long> queuedAt = new ArrayDeque<>(); // System.nanoTime() khi vào hàng đợi
+    private final SplittableRandom random = new SplittableRandom();
+    private ScheduledFuture<?> flushTask;
+    private long flushAt; // Thời điểm (nanoTime) của lần gửi đã lên lịch
+    private long notBefore; // Không gửi trước thời điểm này (đang chờ thử lại)
+    private boolean inFlight;
+    private int failures; // Số lần thất bại liên tiếp
+    private String lastRemoteBody = "";
+    private volatile boolean closed;
+
+    // Thống kê
+    private volatile int queueSize;
+    private final AtomicLong acked = new AtomicLong();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong failedRequests = new AtomicLong();
+    private final AtomicLong droppedScores = new AtomicLong();
+    private final AtomicLong ackNanos = new AtomicLong();
+    private volatile long maxAckNanos;
+
+    /**
+     * Tạo bộ đồng bộ. Hàng đợi và bảng chung đã lưu được nạp trên luồng nền,
+     * rồi lần gửi đầu tiên được lên lịch ngay.
+     *
+     * @param server Địa chỉ gốc của máy chủ (ví dụ {@code http://host:8080}).
+     * @param cabinet Số hiệu của máy chơi này.
+     * @param queueFile Tên file hàng đợi trong thư mục ứng dụng.
+     * @param cacheFile Tên file lưu bảng chung trong thư mục ứng dụng.
+     * @param sink Nhận điểm của các máy khác sau mỗi lần bảng chung đổi.
+     */
+    LeaderboardSync(URI server, long cabinet, String queueFile, String cacheFile,
+                    Consumer<List<HighScoreEntry>> sink) {
+        this.endpoint = server.resolve(LeaderboardProtocol.PATH + "?top=" + TOP);
+        this.cabinet = cabinet;
+        this.queueFile = queueFile;
+        this.cacheFile = cacheFile;
+        this.sink = sink;
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "LeaderboardSync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(CONNECT_TIMEOUT)
+                .executor(executor)
+                .build();
+        execute(this::load);
+    }
+
+    /**
+     * Bật đồng bộ cho kho điểm cao dùng chung. Số hiệu máy được tạo ngẫu nhiên
+     * ở lần đầu và lưu trong {@value #CABINET_FILE}.
+     *
+     * @param server Địa chỉ gốc của máy chủ.
+     * @return Bộ đồng bộ đang chạy; gọi {@link #close()} khi thoát.
+     */
+    public static LeaderboardSync start(URI server) {
+        HighScoreRepository repository = HighScoreRepository.getInstance();
+        LeaderboardSync sync = new LeaderboardSync(server, loadCabinetId(), QUEUE_FILE, REMOTE_CACHE_FILE,
+                repository::mergeRemoteScores);
+        sync.repository = repository;
+        repository.addListener(sync);
+        System.out.println("LeaderboardSync: Cabinet " + sync.cabinet + " syncing with " + server);
+        return sync;
+    }
+
+    @Override
+    public void onHighScoresChanged(HighScoreRepository repository) {
+        // Chỉ quan tâm tới điểm mới (onScoreAdded)
+    }
+
+    /**
+     * Đưa một điểm mới vào hàng đợi. Không chặn; an toàn từ mọi luồng.
+     *
+     * @param entry Entry vừa được ghi nhận.
+     */
+    @Override
+    public void onScoreAdded(HighScoreEntry entry) {
+        execute(() -> enqueue(entry));
+    }
+
+    /**
+     * Yêu cầu tải lại bảng chung sớm (vẫn tôn trọng thời gian chờ thử lại).
+     */
+    void refresh() {
+        execute(() -> scheduleFlush(0));
+    }
+
+    /**
+     * Dừng đồng bộ. Các điểm chưa gửi vẫn nằm trong hàng đợi đã lưu và được
+     * gửi ở lần chạy sau; yêu cầu đang gửi bị bỏ (máy chủ bỏ điểm trùng nếu nó
+     * đã được lưu).
+     */
+    @Override
+    public void close() {
+        closed = true;
+        if (repository != null) {
+            repository.removeListener(this);
+        }
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void execute(Runnable task) {
+        if (closed) {
+            return;
+        }
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            // Đang đóng: điểm đã nằm trong bảng cục bộ, chỉ không được gửi đi
+        }
+    }
+
+    // Các phương thức dưới đây chỉ chạy trên luồng LeaderboardSync
+
+    /**
+     * Nạp hàng đợi và bảng chung đã lưu từ lần chạy trước.
+     */
+    private void load() {
+        long now = System.nanoTime();
+        for (HighScoreEntry entry : readEntries(queueFile)) {
+            queue.add(entry);
+            queuedAt.add(now);
+        }
+        queueSize = queue.size();
+        List<HighScoreEntry> cached = readEntries(cacheFile);
+        if (!cached.isEmpty()) {
+            sink.accept(cached);
+        }
+        if (!queue.isEmpty()) {
+            System.out.println("LeaderboardSync: " + queue.size() + " scores waiting from last run");
+        }
+        scheduleFlush(0);
+    }
+
+    private void enqueue(HighScoreEntry entry) {
+        queue.add(entry);
+        queuedAt.add(System.nanoTime());
+        queueSize = queue.size();
+        PersistenceService.getInstance().write(queueFile, encodeEntries(queue));
+        scheduleFlush(BATCH_DELAY_MILLIS);
+    }
+
+    /**
+     * Lên lịch lần gửi kế tiếp sau {@code delayMillis}, không sớm hơn thời
+     * điểm chờ thử lại. Lịch đã có sớm hơn thì giữ nguyên; đang có yêu cầu thì
+     * lần gửi kế tiếp được lên lịch khi có phản hồi.
+     */
+    private void scheduleFlush(long delayMillis) {
+        if (closed || inFlight) {
+            return;
+        }
+        long now = System.nanoTime();
+        long at = now + TimeUnit.MILLISECONDS.toNanos(delayMillis);
+        if (notBefore - at > 0) {
+            at = notBefore;
+        }
+        if (flushTask != null) {
+            if (flushAt - at <= 0) {
+                return;
+            }
+            flushTask.cancel(false);
+        }
+        flushAt = at;
+        try {
+            flushTask = executor.schedule(this::flush, Math.max(0, at - now), TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            flushTask = null;
+        }
+    }
+
+    /**
+     * Gửi lô đầu hàng đợi (POST), hoặc chỉ tải bảng chung (GET) khi hàng đợi trống.
+     */
+    private void flush() {
+        flushTask = null;
+        if (closed || inFlight) {
+            return;
+        }
+        int count = Math.min(queue.size(), LeaderboardProtocol.MAX_BATCH);
+        HttpRequest.Builder builder = HttpRequest.newBuilder(endpoint).timeout(REQUEST_TIMEOUT);
+        if (count > 0) {
+            List<LeaderboardProtocol.Score> batch = new ArrayList<>(count);
+            Iterator<HighScoreEntry> entries = queue.iterator();
+            for (int i = 0; i < count; i++) {
+                batch.add(LeaderboardProtocol.Score.of(cabinet, entries.next()));
+            }
+            builder.header("Content-Type", "text/plain; charset=utf-8")
+                    .POST(HttpRequest.BodyPublishers.ofString(LeaderboardProtocol.format(batch), StandardCharsets.UTF_8));
+        } else {
+            builder.GET();
+        }
+        inFlight = true;
+        requests.incrementAndGet();
+        client.sendAsync(builder.build(), HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8))
+                .whenCompleteAsync((response, error) -> onResponse(count, response, error), executor);
+    }
+
+    private void onResponse(int count, HttpResponse<String> response, Throwable error) {
+        inFlight = false;
+        if (closed) {
+            return;
+        }
+        int status = response != null ? response.statusCode() : 0;
+        if (error != null || status == 408 || status == 429 || status >= 500) {
+            // Lỗi tạm thời: thử lại sau, lô vẫn ở đầu hàng đợi
+            failures++;
+            failedRequests.incrementAndGet();
+            long delay = backoffMillis();
+            notBefore = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay);
+            if (failures == 1) {
+                System.err.println("LeaderboardSync: Sync failed (" + (error != null ? error : "HTTP " + status)
+                        + "), retrying with backoff");
+            }
+            scheduleFlush(0);
+            return;
+        }
+        failures = 0;
+        notBefore = 0;
+
+        if (status / 100 != 2) {
+            // Máy chủ từ chối lô (4xx): gửi lại cũng vô ích, bỏ để hàng đợi không bị kẹt
+            System.err.println("LeaderboardSync: Server rejected " + count + " scores (HTTP " + status + "): "
+                    + response.body().strip());
+            droppedScores.addAndGet(count);
+            removeHead(count, false);
+        } else {
+            removeHead(count, true);
+            mergeRemote(response.body());
+        }
+        scheduleFlush(queue.isEmpty() ? REFRESH_MILLIS : 0);
+    }
+
+    /**
+     * Bỏ {@code count} điểm đầu hàng đợi (đã gửi xong) và lưu lại hàng đợi.
+     */
+    private void removeHead(int count, boolean ack) {
+        if (count == 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            queue.poll();
+            long latency = now - queuedAt.poll();
+            if (ack) {
+                ackNanos.addAndGet(latency);
+                maxAckNanos = Math.max(maxAckNanos, latency);
+            }
+        }
+        if (ack) {
+            acked.addAndGet(count);
+        }
+        queueSize = queue.size();
+        PersistenceService.getInstance().write(queueFile, encodeEntries(queue));
+    }
+
+    /**
+     * Trộn top của bảng chung (trừ điểm của chính máy này, đã có trong bảng
+     * cục bộ) vào bảng cục bộ, nếu nó đã đổi.
+     */
+    private void mergeRemote(String body) {
+        if (body.equals(lastRemoteBody)) {
+            return;
+        }
+        List<HighScoreEntry> remote = new ArrayList<>();
+        try {
+            LeaderboardProtocol.parse(body, score -> {
+                if (score.cabinet() != cabinet) {
+                    remote.add(score.toEntry());
+                }
+            });
+        } catch (IllegalArgumentException e) {
+            System.err.println("LeaderboardSync: Bad leaderboard from server: " + e.getMessage());
+            return;
+        }
+        lastRemoteBody = body;
+        sink.accept(remote);
+        PersistenceService.getInstance().write(cacheFile, encodeEntries(remote));
+    }
+
+    /**
+     * Thời gian chờ trước lần thử lại: gấp đôi sau mỗi lần thất bại, tối đa
+     * {@value #BACKOFF_MAX_MILLIS} ms, nhiễu ngẫu nhiên trong nửa trên để các
+     * máy không cùng thử lại một lúc.
+     */
+    private long backoffMillis() {
+        long delay = Math.min(BACKOFF_MAX_MILLIS, BACKOFF_BASE_MILLIS << Math.min(failures - 1, 16));
+        return delay / 2 + random.nextLong(delay / 2 + 1);
+    }
+
+    // Lưu trữ: header và bản ghi của HighScoreFileFormat
+
+    private static byte[] encodeEntries(Collection<HighScoreEntry> entries) {
+        ByteBuffer data = HighScoreFileFormat.allocate(HighScoreFileFormat.HEADER_SIZE
+                + entries.size() * HighScoreFileFormat.RECORD_SIZE);
+        long maxSequence = 0;
+        for (HighScoreEntry entry : entries) {
+            maxSequence = Math.max(maxSequence, entry.getSequence());
+        }
+        HighScoreFileFormat.writeHeader(data, entries.size(), maxSequence);
+        for (HighScoreEntry entry : entries) {
+            HighScoreFileFormat.writeRecord(data, entry);
+        }
+        return data.array();
+    }
+
+    private static List<HighScoreEntry> readEntries(String filename) {
+        List<HighScoreEntry> entries = new ArrayList<>();
+        byte[] data = FileManager.readBytesFromFile(filename);
+        if (data == null) {
+            return entries;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+        Header header = HighScoreFileFormat.readHeader(buffer);
+        if (header == null) {
+            System.err.println("LeaderboardSync: Unreadable " + filename + ", ignoring");
+            return entries;
+        }
+        int corrupt = HighScoreFileFormat.readRecords(buffer, 0, header.count(), entries::add);
+        if (corrupt > 0) {
+            System.err.println("LeaderboardSync: Skipped " + corrupt + " corrupt records in " + filename);
+        }
+        return entries;
+    }
+
+    /**
+     * Đọc số hiệu máy đã lưu, hoặc tạo số mới ở lần chạy đầu tiên.
+     */
+    private static long loadCabinetId() {
+        List<String> lines = FileManager.readLinesFromFile(CABINET_FILE);
+        if (lines != null && !lines.isEmpty()) {
+            try {
+                return Long.parseLong(lines.get(0).trim());
+            } catch (NumberFormatException e) {
+                System.err.println("LeaderboardSync: Corrupt " + CABINET_FILE + ", creating a new cabinet id");
+            }
+        }
+        long id = new SecureRandom().nextLong() & Long.MAX_VALUE;
+        FileManager.writeLinesToFile(CABINET_FILE, List.of(Long.toString(id)));
+        return id;
+    }
+
+    public long getCabinet() { return cabinet; }
+    public int getQueueSize() { return queueSize; }
+    public long getAcked() { return acked.get(); }
+    public long getRequests() { return requests.get(); }
+    public long getFailedRequests() { return failedRequests.get(); }
+    public long getDroppedScores() { return droppedScores.get(); }
+    public long getAckNanos() { return ackNanos.get(); }
+    public long getMaxAckNanos() { return maxAckNanos; }
+}
@@ -0,0 +1,21 @@
+package Engine;
+
+/**
+ * Nguồn điều khiển paddle của một ván game: bàn phím của người chơi
+ * ({@link KeyboardController}) hoặc bot tự lái ({@link TrackingBot}).
+ *
+ * <p>{@link SimulationThread} (hoặc vòng lặp không giao diện như
+ * {@link SoakRunner}) gọi {@link #control(GameManager)} đúng một lần mỗi tick,
+ * trên luồng mô phỏng, ngay trước {@link GameManager#update()}. Bộ điều khiển
+ * chỉ được tác động lên ván game qua {@link GameManager#applyInput(InputAction)},
+ * nên mọi input đều được ghi lại và ván chơi vẫn phát lại được.</p>
+ */
+@FunctionalInterface
+public interface PaddleController {
+    /**
+     * Gửi input của tick hiện tại (nếu có) tới ván game.
+     *
+     * @param game Ván game được điều khiển.
+     */
+    void control(GameManager game);
+}
@@ -3,53 +3,67 @@ package Engine;
 import Objects.PowerUps.*;
 import Objects.Bricks.BrickType;
 import Objects.GameEntities.Paddle;
+import Render.AnimationScheduler;
 import Utils.Constants;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Iterator;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 
 /**
- * Lớp Singleton quản lý các vật phẩm bổ trợ (PowerUps) trong game.
+ * Lớp quản lý các vật phẩm bổ trợ (PowerUps) của một ván game.
  * Lớp này xử lý việc sinh ra vật phẩm, cập nhật vị trí vật phẩm đang rơi,
  * phát hiện va chạm với thanh đỡ và áp dụng/hủy bỏ các hiệu ứng kéo dài.
+ *
+ * <p>Mỗi {@link GameManager} sở hữu một instance riêng. Việc sinh vật phẩm dùng
+ * bộ sinh số ngẫu nhiên có seed của ván game và thời hạn hiệu ứng tính theo
+ * tick của {@link AnimationScheduler}, nên cùng seed và cùng chuỗi input luôn
+ * cho cùng kết quả (phục vụ replay).</p>
+ *
+ * <p>Hiệu ứng của từng loại do một {@link EffectHandler} không trạng thái xử lý
+ * (bảng {@code EnumMap}). Mỗi loại có thời hạn có hai hẹn giờ dùng lại trong
+ * một {@link TimerWheel}: cảnh báo (còn {@code WARNING_THRESHOLD}) và hết hạn.
+ * Nhặt lại vật phẩm chỉ dời hai hẹn giờ đó; mỗi tick chỉ tiến bánh xe một ô
+ * thay vì so từng hiệu ứng với đồng hồ.</p>
  */
 public class PowerUpManager {
-    private static PowerUpManager instance; // Instance Singleton.
-    private final List<PowerUp> activePowerUps; // Danh sách các vật phẩm đang rơi trên màn hình.
-    private final Map<PowerUpType, Long> activeEffects; // Map lưu trữ các hiệu ứng đang hoạt động và thời gian hết hạn (expiry time).
-    private GameManager gameManager; // Tham chiếu đến GameManager để áp dụng/hủy bỏ hiệu ứng.
+    private final EntityList<PowerUp> activePowerUps = new EntityList<>(); // Các vật phẩm đang rơi (mảng liền, swap-remove).
+    private static final PowerUpType[] TYPES = PowerUpType.values();
+    private static final Map<PowerUpType, EffectHandler> HANDLERS = createHandlers(); // Handler theo loại (không trạng thái, dùng chung)
 
-    /**
-     * Constructor private để đảm bảo chỉ có thể tạo instance qua {@link #getInstance()}.
-     */
-    private PowerUpManager() {
-        this.activePowerUps = new ArrayList<>();
-        this.activeEffects = new HashMap<>();
-    }
+    private final TimerWheel timers = new TimerWheel(); // Hẹn giờ cảnh báo/hết hạn của các hiệu ứng (theo tick)
+    private final TimerWheel.Timer[] expiryTimers = new TimerWheel.Timer[TYPES.length]; // Hẹn giờ hết hạn theo ordinal
+    private final TimerWheel.Timer[] warningTimers = new TimerWheel.Timer[TYPES.length]; // Hẹn giờ cảnh báo theo ordinal
+    private final TimerWheel.Listener onTimer = this::timerExpired;
+    private GameManager gameManager; // Tham chiếu đến GameManager để áp dụng/hủy bỏ hiệu ứng.
 
     /**
-     * Lấy instance duy nhất của PowerUpManager.
-     *
-     * @return Instance của PowerUpManager.
+     * Khởi tạo PowerUpManager cho một ván game.
+     * Cần gọi {@link #setGameManager(GameManager)} trước khi sử dụng.
      */
-    public static PowerUpManager getInstance() {
-        if (instance == null) {
-            instance = new PowerUpManager();
+    public PowerUpManager() {
+        for (PowerUpType type : TYPES) {
+            expiryTimers[type.ordinal()] = new TimerWheel.Timer(type.ordinal());
+            warningTimers[type.ordinal()] = new TimerWheel.Timer(TYPES.length + type.ordinal());
         }
-        return instance;
     }
 
     /**
-     * Đặt lại trạng thái của PowerUpManager (hữu ích khi game reset).
+     * Tạo bảng handler hiệu ứng theo loại vật phẩm.
+     *
+     * @return EnumMap loại -> handler.
      */
-    public static void reset() {
-        if (instance != null) {
-            instance.activePowerUps.clear(); // Xóa vật phẩm đang rơi.
-            instance.activeEffects.clear(); // Xóa hiệu ứng đang hoạt động.
-        }
-        instance = null;
+    private static Map<PowerUpType, EffectHandler> createHandlers() {
+        Map<PowerUpType, EffectHandler> handlers = new EnumMap<>(PowerUpType.class);
+        handlers.put(PowerUpType.CATCH, CatchPowerUp.EFFECT);
+        handlers.put(PowerUpType.DUPLICATE, DuplicatePowerUp.EFFECT);
+        handlers.put(PowerUpType.EXPAND, ExpandPaddlePowerUp.EFFECT);
+        handlers.put(PowerUpType.LASER, LaserPowerUp.EFFECT);
+        handlers.put(PowerUpType.LIFE, LifePowerUp.EFFECT);
+        handlers.put(PowerUpType.SLOW, SlowBallPowerUp.EFFECT);
+        handlers.put(PowerUpType.WARP, WarpPowerUp.EFFECT);
+        return Collections.unmodifiableMap(handlers);
     }
 
     /**
@@ -69,20 +83,27 @@ public class PowerUpManager {
      * @param brickType Loại gạch bị phá hủy.
      */
     public void spawnFromBrick(double x, double y, BrickType brickType) {
+        if (gameManager == null) {
+            return;
+        }
+        Random random = gameManager.getRandom();
+
         // Kiểm tra tỉ lệ sinh vật phẩm (mặc định 30%).
-        if (Math.random() > Constants.GameRules.POWERUP_SPAWN_CHANCE) {
+        if (random.nextDouble() > Constants.GameRules.POWERUP_SPAWN_CHANCE) {
             return; // Không sinh vật phẩm.
         }
 
         // Chọn ngẫu nhiên loại vật phẩm với tỉ lệ có trọng số.
-        PowerUpType type = PowerUpType.randomWeighted();
+        PowerUpType type = PowerUpType.randomWeighted(random);
         if (type == null) {
             return; // Chọn thất bại.
         }
 
         // Tạo đối tượng PowerUp mới.
         PowerUp powerUp = createPowerUp(x, y, type);
+        powerUp.startAnimation(gameManager.getAnimationScheduler());
         activePowerUps.add(powerUp); // Thêm vào danh sách đang hoạt động.
+        gameManager.getRoundStats().powerUpSpawned(type);
 
         System.out.println("PowerUp spawned: " + type + " at (" + x + ", " + y + ")");
     }
@@ -128,118 +149,176 @@ public class PowerUpManager {
             return;
         }
 
-        // Sao chép danh sách để tránh ConcurrentModificationException khi xóa.
-        List<PowerUp> powerUpsCopy = new ArrayList<>(activePowerUps);
-
-        for (PowerUp powerUp : powerUpsCopy) {
-            // Kiểm tra lại xem vật phẩm có còn trong danh sách gốc không (đề phòng xóa đồng thời).
-            if (!activePowerUps.contains(powerUp)) {
-                continue;
-            }
-
+        // Duyệt theo chỉ số và xóa bằng swap-remove: không sao chép danh sách, mỗi
+        // vật phẩm có mặt đầu tick được xử lý đúng một lần.
+        for (int i = 0; i < activePowerUps.size(); ) {
+            PowerUp powerUp = activePowerUps.get(i);
             powerUp.update(); // Cập nhật vị trí rơi.
 
             // Kiểm tra va chạm với thanh đỡ.
             if (powerUp.checkPaddleCollision(paddle)) {
+                // Xóa trước khi áp dụng hiệu ứng: WARP có thể xóa toàn bộ danh sách.
+                activePowerUps.removeAt(i);
                 powerUp.collect(); // Đánh dấu đã thu thập.
-                applyPowerUpEffect(powerUp); // Áp dụng hiệu ứng.
-                scheduleEffectExpiry(powerUp.getType()); // Lên lịch hủy hiệu ứng (nếu có thời gian).
-                activePowerUps.remove(powerUp); // Xóa khỏi danh sách vật phẩm đang rơi.
+                if (gameManager != null) {
+                    gameManager.getRoundStats().powerUpCollected(powerUp.getType());
+                }
+                applyPowerUpEffect(powerUp.getType()); // Áp dụng hiệu ứng.
+                scheduleEffectExpiry(powerUp.getType()); // Lên lịch cảnh báo và hủy hiệu ứng (nếu có thời gian).
 
                 System.out.println("PowerUp collected: " + powerUp.getType());
             }
             // Kiểm tra vật phẩm rơi ra khỏi màn hình.
             else if (powerUp.getY() > Constants.Window.WINDOW_HEIGHT) {
-                activePowerUps.remove(powerUp); // Xóa khỏi danh sách.
+                activePowerUps.removeAt(i); // Xóa khỏi danh sách.
                 System.out.println("PowerUp missed and removed: " + powerUp.getType());
+            } else {
+                i++;
             }
         }
 
-        // Kiểm tra và loại bỏ các hiệu ứng đã hết hạn.
-        updateActiveEffects();
+        // Tiến bánh xe hẹn giờ: cảnh báo và hủy các hiệu ứng tới hạn.
+        timers.advance(currentTick(), onTimer);
     }
 
     /**
-     * Áp dụng hiệu ứng của vật phẩm thông qua GameManager.
+     * Áp dụng hiệu ứng của vật phẩm thông qua handler của loại đó.
      *
-     * @param powerUp Vật phẩm vừa được thu thập.
+     * @param type Loại vật phẩm vừa được thu thập.
      */
-    private void applyPowerUpEffect(PowerUp powerUp) {
+    private void applyPowerUpEffect(PowerUpType type) {
         if (gameManager == null) {
             System.err.println("PowerUpManager: GameManager is null, cannot apply effect");
             return;
         }
 
-        // Gọi phương thức áp dụng hiệu ứng trên chính đối tượng PowerUp.
-        powerUp.applyEffect(gameManager);
+        HANDLERS.get(type).apply(gameManager);
     }
 
     /**
-     * Hủy bỏ hiệu ứng của vật phẩm đã hết hạn.
+     * Lên lịch cảnh báo và hết hạn cho hiệu ứng kéo dài. Nhặt lại cùng loại
+     * khi hiệu ứng còn hoạt động chỉ dời hai hẹn giờ (O(1)).
      *
-     * @param type Loại PowerUp cần hủy hiệu ứng.
+     * @param type Loại PowerUp.
      */
-    private void removePowerUpEffect(PowerUpType type) {
-        if (gameManager == null) {
-            System.err.println("PowerUpManager: GameManager is null, cannot remove effect");
-            return;
+    private void scheduleEffectExpiry(PowerUpType type) {
+        long duration = AnimationScheduler.ticksFor(type.getDuration());
+        // Chỉ lên lịch nếu thời gian kéo dài > 0.
+        if (duration > 0) {
+            scheduleEffect(type, currentTick() + duration);
+            System.out.println("PowerUpManager: Scheduled expiry for " + type + " at tick "
+                    + expiryTimers[type.ordinal()].getDeadline());
         }
-
-        // Tạo tạm một đối tượng PowerUp (không cần vị trí thực) chỉ để gọi removeEffect.
-        PowerUp tempPowerUp = createPowerUp(0, 0, type);
-        tempPowerUp.removeEffect(gameManager);
     }
 
     /**
-     * Lên lịch thời gian hết hạn cho hiệu ứng kéo dài.
+     * Đặt hẹn giờ hết hạn tại {@code expiryTick} và hẹn giờ cảnh báo trước đó
+     * {@code WARNING_THRESHOLD} (bỏ qua cảnh báo nếu thời điểm đó đã qua).
      *
-     * @param type Loại PowerUp.
+     * @param type Loại hiệu ứng.
+     * @param expiryTick Tick hết hạn.
      */
-    private void scheduleEffectExpiry(PowerUpType type) {
-        long duration = type.getDuration();
-        // Chỉ lên lịch nếu thời gian kéo dài > 0.
-        if (duration > 0) {
-            long expiryTime = System.currentTimeMillis() + duration; // Tính thời gian hết hạn.
-            activeEffects.put(type, expiryTime); // Lưu vào Map.
-
-            System.out.println("PowerUpManager: Scheduled expiry for " + type + " at " + expiryTime);
+    private void scheduleEffect(PowerUpType type, long expiryTick) {
+        timers.schedule(expiryTimers[type.ordinal()], expiryTick);
+        long warningTick = expiryTick - AnimationScheduler.ticksFor(Constants.PowerUps.WARNING_THRESHOLD);
+        TimerWheel.Timer warning = warningTimers[type.ordinal()];
+        if (warningTick > currentTick()) {
+            timers.schedule(warning, warningTick);
+        } else {
+            timers.cancel(warning);
         }
     }
 
     /**
-     * Cập nhật các hiệu ứng đang hoạt động, loại bỏ các hiệu ứng đã hết hạn.
+     * Xử lý một hẹn giờ tới hạn: gọi cảnh báo hoặc hủy hiệu ứng qua handler.
+     *
+     * @param timer Hẹn giờ tới hạn.
      */
-    private void updateActiveEffects() {
-        if (activeEffects.isEmpty()) {
+    private void timerExpired(TimerWheel.Timer timer) {
+        if (gameManager == null) {
+            System.err.println("PowerUpManager: GameManager is null, cannot remove effect");
             return;
         }
 
-        long currentTime = System.currentTimeMillis();
-        // Sử dụng Iterator để có thể xóa phần tử an toàn trong khi lặp.
-        Iterator<Map.Entry<PowerUpType, Long>> iterator = activeEffects.entrySet().iterator();
+        boolean warning = timer.id >= TYPES.length;
+        PowerUpType type = TYPES[warning ? timer.id - TYPES.length : timer.id];
+        if (warning) {
+            HANDLERS.get(type).warn(gameManager);
+        } else {
+            HANDLERS.get(type).expire(gameManager);
+            System.out.println("PowerUpManager: Effect expired for " + type);
+        }
+    }
 
-        while (iterator.hasNext()) {
-            Map.Entry<PowerUpType, Long> entry = iterator.next();
-            PowerUpType type = entry.getKey();
-            long expiryTime = entry.getValue();
+    /**
+     * Lấy tick hiện tại từ đồng hồ của ván game.
+     *
+     * @return Tick hiện tại, 0 nếu chưa gắn GameManager.
+     */
+    private long currentTick() {
+        return gameManager != null ? gameManager.getAnimationScheduler().getTick() : 0L;
+    }
 
-            // Kiểm tra xem đã hết hạn chưa.
-            if (currentTime >= expiryTime) {
-                removePowerUpEffect(type); // Hủy hiệu ứng.
-                iterator.remove(); // Xóa khỏi danh sách hiệu ứng đang hoạt động.
+    /**
+     * Lấy danh sách các vật phẩm đang rơi trên màn hình.
+     * Giống {@link #getActivePowerUpsView()}: view chỉ đọc, không sao chép.
+     *
+     * @return View chỉ đọc của danh sách PowerUp đang hoạt động.
+     */
+    public List<PowerUp> getActivePowerUps() {
+        return activePowerUps.view();
+    }
+
+    /**
+     * Lấy view chỉ đọc của danh sách vật phẩm đang rơi, không sao chép.
+     * Chỉ nên dùng trên luồng đang cập nhật game (ví dụ khi ghi snapshot).
+     *
+     * @return View chỉ đọc của danh sách PowerUp đang hoạt động.
+     */
+    public List<PowerUp> getActivePowerUpsView() {
+        return activePowerUps.view();
+    }
 
-                System.out.println("PowerUpManager: Effect expired for " + type);
+    /**
+     * Lấy các hiệu ứng đang hoạt động và số tick còn lại (dùng cho GameSnapshot).
+     *
+     * @return Map loại hiệu ứng -> số tick còn lại, theo thứ tự khai báo của loại.
+     */
+    Map<PowerUpType, Long> getActiveEffects() {
+        Map<PowerUpType, Long> effects = new EnumMap<>(PowerUpType.class);
+        for (PowerUpType type : TYPES) {
+            TimerWheel.Timer expiry = expiryTimers[type.ordinal()];
+            if (expiry.isScheduled()) {
+                effects.put(type, expiry.getDeadline() - currentTick());
             }
         }
+        return effects;
     }
 
     /**
-     * Lấy danh sách các vật phẩm đang rơi trên màn hình.
+     * Khôi phục một vật phẩm đang rơi từ bản lưu (GameSnapshot).
      *
-     * @return Danh sách các PowerUp đang hoạt động (bản sao).
+     * @param type Loại vật phẩm.
+     * @param x Tọa độ X.
+     * @param y Tọa độ Y.
+     * @param animation Trạng thái animation gọn.
      */
-    public List<PowerUp> getActivePowerUps() {
-        return new ArrayList<>(activePowerUps); // Trả về bản sao để tránh chỉnh sửa trực tiếp.
+    void restorePowerUp(PowerUpType type, double x, double y, long animation) {
+        PowerUp powerUp = createPowerUp(x, y, type);
+        powerUp.setAnimation(animation);
+        activePowerUps.add(powerUp);
+    }
+
+    /**
+     * Khôi phục một hiệu ứng đang hoạt động từ bản lưu (GameSnapshot). Cảnh
+     * báo chỉ được hẹn lại nếu chưa tới lúc cảnh báo (trạng thái nhấp nháy đã
+     * được lưu cùng paddle).
+     *
+     * @param type Loại hiệu ứng.
+     * @param remainingTicks Số tick còn lại.
+     */
+    void restoreEffect(PowerUpType type, long remainingTicks) {
+        scheduleEffect(type, currentTick() + remainingTicks);
     }
 
     /**
@@ -247,7 +326,7 @@ public class PowerUpManager {
      */
     public void clearAllPowerUps() {
         activePowerUps.clear();
-        activeEffects.clear();
+        timers.reset(currentTick());
         System.out.println("PowerUpManager: Cleared all power-ups and effects");
     }
 }
\ No newline at end of file
@@ -0,0 +1,274 @@
+package Engine;
+
+import Objects.Bricks.Brick;
+import Objects.Bricks.BrickType;
+import Objects.Bricks.SilverBrick;
+import Objects.GameEntities.Ball;
+import Objects.GameEntities.Laser;
+import Objects.GameEntities.Paddle;
+import Objects.GameEntities.PaddleState;
+import Objects.PowerUps.PowerUp;
+import Render.AnimationScheduler;
+import Render.FrameTable;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Ảnh chụp (snapshot) trạng thái cần để vẽ một khung hình gameplay.
+ *
+ * <p>Luồng mô phỏng ghi vị trí và trạng thái của các thực thể vào các mảng
+ * nguyên thủy của snapshot, sau đó công bố nó qua {@link SnapshotExchange}.
+ * Luồng FX chỉ đọc snapshot mới nhất và không bao giờ chạm vào các danh sách
+ * sống của {@link GameManager}, nên hai luồng không tranh chấp dữ liệu.</p>
+ *
+ * <p>Các mảng được tái sử dụng giữa các tick và chỉ mở rộng khi số thực thể
+ * vượt quá dung lượng hiện có. Chỉ {@code count} phần tử đầu của mỗi mảng là hợp lệ.</p>
+ *
+ * <p>Animation được ghi dưới dạng (bảng khung hình, chỉ số khung hình) do
+ * {@link AnimationScheduler} tính; renderer tự tra ảnh qua SpriteProvider.</p>
+ */
+public final class RenderSnapshot {
+    private static final int INITIAL_CAPACITY = 16; // Dung lượng ban đầu của mỗi mảng
+
+    // Số thứ tự công bố, do SnapshotExchange gán
+    long sequence;
+
+    // Thông tin HUD
+    private int score;
+    private int lives;
+    private int roundNumber;
+    private String roundName = "";
+
+    // Trạng thái ván, để luồng FX xử lý chuyển trạng thái mà không đọc GameManager
+    private GameState state = GameState.MENU;
+    private String playerName = "";
+    private boolean replaying;
+
+    // Paddle
+    private double paddleX, paddleY, paddleWidth;
+    private PaddleState paddleState = PaddleState.NORMAL;
+    private FrameTable paddleFrameTable; // Bảng khung hình đang phát, null nếu không có animation
+    private int paddleFrameIndex = -1;
+
+    // Bóng
+    private int ballCount;
+    private double[] ballX = new double[INITIAL_CAPACITY];
+    private double[] ballY = new double[INITIAL_CAPACITY];
+
+    // Laser
+    private int laserCount;
+    private double[] laserX = new double[INITIAL_CAPACITY];
+    private double[] laserY = new double[INITIAL_CAPACITY];
+
+    // Gạch còn sống
+    private int brickCount;
+    private double[] brickX = new double[INITIAL_CAPACITY];
+    private double[] brickY = new double[INITIAL_CAPACITY];
+    private double[] brickWidth = new double[INITIAL_CAPACITY]; // Kích thước gạch (vòng sinh ngẫu nhiên có thể thu nhỏ gạch)
+    private double[] brickHeight = new double[INITIAL_CAPACITY];
+    private BrickType[] brickType = new BrickType[INITIAL_CAPACITY];
+    private int[] brickCrackFrame = new int[INITIAL_CAPACITY]; // Chỉ số khung hình nứt, -1 nếu không nứt
+
+    // PowerUp đang rơi
+    private int powerUpCount;
+    private double[] powerUpX = new double[INITIAL_CAPACITY];
+    private double[] powerUpY = new double[INITIAL_CAPACITY];
+    private double[] powerUpWidth = new double[INITIAL_CAPACITY];
+    private double[] powerUpHeight = new double[INITIAL_CAPACITY];
+    private FrameTable[] powerUpFrameTable = new FrameTable[INITIAL_CAPACITY];
+    private int[] powerUpFrameIndex = new int[INITIAL_CAPACITY];
+
+    /**
+     * Ghi trạng thái hiện tại của game vào snapshot.
+     * Chỉ được gọi từ luồng mô phỏng, giữa hai tick.
+     *
+     * @param game GameManager nguồn.
+     */
+    void capture(GameManager game) {
+        AnimationScheduler animations = game.getAnimationScheduler();
+        score = game.getScore();
+        lives = game.getLives();
+        roundNumber = game.getRoundsManager().getCurrentRoundNumber();
+        roundName = game.getRoundsManager().getCurrentRoundName();
+        state = game.getStateManager().getState();
+        playerName = game.getPlayerName();
+        replaying = game.isReplaying();
+
+        // Paddle
+        Paddle paddle = game.paddle;
+        paddleX = paddle.getX();
+        paddleY = paddle.getY();
+        paddleWidth = paddle.getWidth();
+        paddleState = paddle.getState();
+        paddleFrameTable = null;
+        paddleFrameIndex = -1;
+        if (paddle.isAnimationPlaying()) {
+            paddleFrameTable = AnimationScheduler.tableOf(paddle.getAnimation());
+            paddleFrameIndex = animations.frameIndex(paddle.getAnimation());
+        }
+
+        // Bóng
+        List<Ball> balls = game.balls;
+        ensureBallCapacity(balls.size());
+        ballCount = 0;
+        for (Ball ball : balls) {
+            ballX[ballCount] = ball.getX();
+            ballY[ballCount] = ball.getY();
+            ballCount++;
+        }
+
+        // Laser
+        List<Laser> lasers = game.getLasers();
+        ensureLaserCapacity(lasers.size());
+        laserCount = 0;
+        for (Laser laser : lasers) {
+            if (laser.isAlive()) {
+                laserX[laserCount] = laser.getX();
+                laserY[laserCount] = laser.getY();
+                laserCount++;
+            }
+        }
+
+        // Gạch
+        List<Brick> bricks = game.bricks;
+        ensureBrickCapacity(bricks.size());
+        brickCount = 0;
+        for (Brick brick : bricks) {
+            if (!brick.isAlive()) {
+                continue;
+            }
+            brickX[brickCount] = brick.getX();
+            brickY[brickCount] = brick.getY();
+            brickWidth[brickCount] = brick.getWidth();
+            brickHeight[brickCount] = brick.getHeight();
+            brickType[brickCount] = brick.getBrickType();
+            brickCrackFrame[brickCount] = -1;
+            if (brick instanceof SilverBrick silverBrick && silverBrick.isCrackAnimationPlaying()) {
+                brickCrackFrame[brickCount] = animations.frameIndex(silverBrick.getCrackAnimation());
+            }
+            brickCount++;
+        }
+
+        // PowerUp
+        List<PowerUp> powerUps = game.getPowerUpManager().getActivePowerUpsView();
+        ensurePowerUpCapacity(powerUps.size());
+        powerUpCount = 0;
+        for (PowerUp powerUp : powerUps) {
+            if (!powerUp.isActive()) {
+                continue;
+            }
+            powerUpX[powerUpCount] = powerUp.getX();
+            powerUpY[powerUpCount] = powerUp.getY();
+            powerUpWidth[powerUpCount] = powerUp.getWidth();
+            powerUpHeight[powerUpCount] = powerUp.getHeight();
+            long animation = powerUp.getAnimation();
+            boolean playing = animations.isPlaying(animation);
+            powerUpFrameTable[powerUpCount] = playing ? AnimationScheduler.tableOf(animation) : null;
+            powerUpFrameIndex[powerUpCount] = playing ? animations.frameIndex(animation) : -1;
+            powerUpCount++;
+        }
+    }
+
+    /**
+     * Đảm bảo mảng bóng đủ chỗ cho {@code n} phần tử.
+     *
+     * @param n Số phần tử cần chứa.
+     */
+    private void ensureBallCapacity(int n) {
+        if (n > ballX.length) {
+            int capacity = Math.max(n, ballX.length * 2);
+            ballX = Arrays.copyOf(ballX, capacity);
+            ballY = Arrays.copyOf(ballY, capacity);
+        }
+    }
+
+    /**
+     * Đảm bảo mảng laser đủ chỗ cho {@code n} phần tử.
+     *
+     * @param n Số phần tử cần chứa.
+     */
+    private void ensureLaserCapacity(int n) {
+        if (n > laserX.length) {
+            int capacity = Math.max(n, laserX.length * 2);
+            laserX = Arrays.copyOf(laserX, capacity);
+            laserY = Arrays.copyOf(laserY, capacity);
+        }
+    }
+
+    /**
+     * Đảm bảo mảng gạch đủ chỗ cho {@code n} phần tử.
+     *
+     * @param n Số phần tử cần chứa.
+     */
+    private void ensureBrickCapacity(int n) {
+        if (n > brickX.length) {
+            int capacity = Math.max(n, brickX.length * 2);
+            brickX = Arrays.copyOf(brickX, capacity);
+            brickY = Arrays.copyOf(brickY, capacity);
+            brickWidth = Arrays.copyOf(brickWidth, capacity);
+            brickHeight = Arrays.copyOf(brickHeight, capacity);
+            brickType = Arrays.copyOf(brickType, capacity);
+            brickCrackFrame = Arrays.copyOf(brickCrackFrame, capacity);
+        }
+    }
+
+    /**
+     * Đảm bảo mảng PowerUp đủ chỗ cho {@code n} phần tử.
+     *
+     * @param n Số phần tử cần chứa.
+     */
+    private void ensurePowerUpCapacity(int n) {
+        if (n > powerUpX.length) {
+            int capacity = Math.max(n, powerUpX.length * 2);
+            powerUpX = Arrays.copyOf(powerUpX, capacity);
+            powerUpY = Arrays.copyOf(powerUpY, capacity);
+            powerUpWidth = Arrays.copyOf(powerUpWidth, capacity);
+            powerUpHeight = Arrays.copyOf(powerUpHeight, capacity);
+            powerUpFrameTable = Arrays.copyOf(powerUpFrameTable, capacity);
+            powerUpFrameIndex = Arrays.copyOf(powerUpFrameIndex, capacity);
+        }
+    }
+
+    // Getters
+
+    public long getSequence() { return sequence; }
+    public int getScore() { return score; }
+    public int getLives() { return lives; }
+    public int getRoundNumber() { return roundNumber; }
+    public String getRoundName() { return roundName; }
+    public GameState getState() { return state; }
+    public String getPlayerName() { return playerName; }
+    public boolean isReplaying() { return replaying; }
+
+    public double getPaddleX() { return paddleX; }
+    public double getPaddleY() { return paddleY; }
+    public double getPaddleWidth() { return paddleWidth; }
+    public PaddleState getPaddleState() { return paddleState; }
+    public FrameTable getPaddleFrameTable() { return paddleFrameTable; }
+    public int getPaddleFrameIndex() { return paddleFrameIndex; }
+
+    public int getBallCount() { return ballCount; }
+    public double getBallX(int i) { return ballX[i]; }
+    public double getBallY(int i) { return ballY[i]; }
+
+    public int getLaserCount() { return laserCount; }
+    public double getLaserX(int i) { return laserX[i]; }
+    public double getLaserY(int i) { return laserY[i]; }
+
+    public int getBrickCount() { return brickCount; }
+    public double getBrickX(int i) { return brickX[i]; }
+    public double getBrickY(int i) { return brickY[i]; }
+    public double getBrickWidth(int i) { return brickWidth[i]; }
+    public double getBrickHeight(int i) { return brickHeight[i]; }
+    public BrickType getBrickType(int i) { return brickType[i]; }
+    public int getBrickCrackFrame(int i) { return brickCrackFrame[i]; }
+
+    public int getPowerUpCount() { return powerUpCount; }
+    public double getPowerUpX(int i) { return powerUpX[i]; }
+    public double getPowerUpY(int i) { return powerUpY[i]; }
+    public double getPowerUpWidth(int i) { return powerUpWidth[i]; }
+    public double getPowerUpHeight(int i) { return powerUpHeight[i]; }
+    public FrameTable getPowerUpFrameTable(int i) { return powerUpFrameTable[i]; }
+    public int getPowerUpFrameIndex(int i) { return powerUpFrameIndex[i]; }
+}
@@ -0,0 +1,175 @@
+package Engine;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+/**
+ * Bản ghi input của một ván chơi (replay) đã được giải mã.
+ *
+ * <p>Vì engine tất định (bộ sinh số ngẫu nhiên có seed, thời gian tính theo
+ * tick, thứ tự duyệt cố định), một ván chơi được mô tả đầy đủ bởi seed và
+ * chuỗi input kèm tick áp dụng. File chỉ chứa những thay đổi input, không chứa
+ * trạng thái từng tick, nên một ván vài phút chỉ tốn vài trăm byte.</p>
+ *
+ * <pre>
+ * File (varint = LEB128 không dấu, zigzag với giá trị có dấu):
+ *   int     magic "ARKR" (little-endian)
+ *   byte    phiên bản định dạng
+ *   varint  seed (zigzag)
+ *   varint  độ dài tên + tên (UTF-8)
+ *   varint  số sự kiện
+ *   varint  mỗi sự kiện: (tick - tick sự kiện trước) &lt;&lt; 2 | ordinal của InputAction
+ *   varint  tick cuối
+ *   varint  điểm cuối (zigzag)
+ *   int     hash trạng thái cuối (CRC32 của GameSnapshot)
+ *   int     CRC32 của toàn bộ nội dung phía trước
+ * </pre>
+ */
+public final class Replay {
+    static final int MAGIC = 0x524B5241; // "ARKR" khi đọc little-endian
+    static final byte VERSION = 3; // Phiên bản định dạng (2: màn hình qua màn kéo dài LEVEL_COMPLETE_TICKS tick; 3: GameRandom thay Random)
+    static final int ACTION_BITS = 2; // Số bit dành cho InputAction trong mỗi sự kiện
+    static final int MAX_VARINT_BYTES = 10; // Số byte tối đa của một varint 64 bit
+
+    private static final InputAction[] ACTIONS = InputAction.values();
+
+    private final long seed;
+    private final String playerName;
+    private final long[] ticks; // Tick áp dụng của từng sự kiện (tuyệt đối)
+    private final InputAction[] actions; // Hành động của từng sự kiện
+    private final long finalTick;
+    private final int finalScore;
+    private final int finalHash;
+
+    private Replay(long seed, String playerName, long[] ticks, InputAction[] actions,
+                   long finalTick, int finalScore, int finalHash) {
+        this.seed = seed;
+        this.playerName = playerName;
+        this.ticks = ticks;
+        this.actions = actions;
+        this.finalTick = finalTick;
+        this.finalScore = finalScore;
+        this.finalHash = finalHash;
+    }
+
+    /**
+     * Giải mã một file replay.
+     *
+     * @param data Nội dung file do {@link InputRecorder} tạo ra.
+     * @return Replay, hoặc {@code null} nếu file rỗng, hỏng hoặc khác phiên bản.
+     */
+    public static Replay decode(byte[] data) {
+        if (data == null || data.length < 9) {
+            return null;
+        }
+        ByteBuffer in = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+        if (in.getInt() != MAGIC || in.get() != VERSION) {
+            System.err.println("Replay: Unsupported replay format, ignoring");
+            return null;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, data.length - 4);
+        if (in.getInt(data.length - 4) != (int) crc.getValue()) {
+            System.err.println("Replay: Replay checksum mismatch, ignoring");
+            return null;
+        }
+
+        try {
+            long seed = unzigzag(getVarLong(in));
+            byte[] name = new byte[(int) getVarLong(in)];
+            in.get(name);
+            int count = (int) getVarLong(in);
+            long[] ticks = new long[count];
+            InputAction[] actions = new InputAction[count];
+            long tick = 0;
+            for (int i = 0; i < count; i++) {
+                long event = getVarLong(in);
+                tick += event >>> ACTION_BITS;
+                ticks[i] = tick;
+                actions[i] = ACTIONS[(int) (event & ((1 << ACTION_BITS) - 1))];
+            }
+            long finalTick = getVarLong(in);
+            int finalScore = (int) unzigzag(getVarLong(in));
+            int finalHash = in.getInt();
+            return new Replay(seed, new String(name, StandardCharsets.UTF_8), ticks, actions,
+                    finalTick, finalScore, finalHash);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException e) {
+            System.err.println("Replay: Corrupt replay - " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Tính hash của toàn bộ trạng thái ván game: CRC32 mà {@link GameSnapshot}
+     * ghi ở cuối bản mã hóa. Hai ván có cùng hash khi và chỉ khi (gần như chắc
+     * chắn) mọi vị trí, vận tốc, gạch, hiệu ứng và điểm đều trùng nhau.
+     *
+     * @param game Ván game.
+     * @return Hash trạng thái.
+     */
+    static int stateHash(GameManager game) {
+        byte[] snapshot = GameSnapshot.encode(game);
+        return ByteBuffer.wrap(snapshot).order(ByteOrder.LITTLE_ENDIAN).getInt(snapshot.length - 4);
+    }
+
+    /**
+     * Ghi một varint không dấu (LEB128) vào buffer.
+     *
+     * @param out Buffer đích (còn ít nhất {@value #MAX_VARINT_BYTES} byte).
+     * @param value Giá trị (được coi là không dấu).
+     */
+    static void putVarLong(ByteBuffer out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    /**
+     * Đọc một varint không dấu (LEB128) từ buffer.
+     *
+     * @param in Buffer nguồn.
+     * @return Giá trị.
+     */
+    static long getVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IndexOutOfBoundsException("Varint too long");
+    }
+
+    /**
+     * Mã hóa zigzag để số âm nhỏ cũng có varint ngắn.
+     */
+    static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    /**
+     * Giải mã zigzag.
+     */
+    static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    // Getters
+
+    public long getSeed() { return seed; }
+    public String getPlayerName() { return playerName; }
+    public int getEventCount() { return ticks.length; }
+    public long getFinalTick() { return finalTick; }
+    public int getFinalScore() { return finalScore; }
+    public int getFinalHash() { return finalHash; }
+
+    long tickAt(int i) { return ticks[i]; }
+    InputAction actionAt(int i) { return actions[i]; }
+}
@@ -0,0 +1,129 @@
+package Engine;
+
+import Utils.Constants;
+
+/**
+ * Phát lại một {@link Replay}: đưa các input đã ghi vào ván game đúng tick
+ * của chúng, rồi so sánh tick, điểm và hash trạng thái cuối với bản ghi.
+ *
+ * <p>Người phát không tự chạy vòng lặp: {@link GameManager#update()} gọi
+ * {@link #feed(GameManager)} ở đầu mỗi tick. Vì vậy cùng một replay có thể
+ * chạy trên {@link SimulationThread} ở tốc độ 1× hoặc tua nhanh N×
+ * ({@link SimulationThread#setSpeed(int)}), hoặc không giao diện với tốc độ tối
+ * đa của CPU qua {@link #runHeadless(Replay)}.</p>
+ */
+public final class ReplayPlayer {
+    /**
+     * Kết quả phát lại.
+     *
+     * @param ticks Tick cuối khi dừng.
+     * @param score Điểm cuối.
+     * @param hash Hash trạng thái cuối.
+     * @param matches {@code true} nếu cả ba khớp với bản ghi.
+     */
+    public record Result(long ticks, int score, int hash, boolean matches) {
+    }
+
+    private final Replay replay;
+    private int cursor = 0; // Sự kiện kế tiếp cần áp dụng
+    private Result result; // null cho đến khi phát xong
+
+    /**
+     * Tạo người phát cho một replay. Chỉ {@link GameManager#startReplay(Replay)}
+     * tạo người phát, sau khi đặt lại ván game với seed của replay.
+     *
+     * @param replay Replay cần phát.
+     */
+    ReplayPlayer(Replay replay) {
+        this.replay = replay;
+    }
+
+    /**
+     * Áp dụng các input đến hạn ở tick hiện tại. Khi đã tới tick cuối của bản
+     * ghi, kiểm tra kết quả và báo cho ván game dừng cập nhật.
+     *
+     * @param game Ván game đang phát.
+     * @return {@code false} nếu replay đã kết thúc và không nên cập nhật tiếp.
+     */
+    boolean feed(GameManager game) {
+        if (result != null) {
+            return false;
+        }
+        long tick = game.getAnimationScheduler().getTick();
+        while (cursor < replay.getEventCount() && replay.tickAt(cursor) <= tick) {
+            game.performInput(replay.actionAt(cursor++));
+        }
+        if (tick >= replay.getFinalTick()) {
+            finish(game);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Kết thúc phát lại và so sánh trạng thái cuối với bản ghi. Gọi khi đã tới
+     * tick cuối hoặc khi ván game kết thúc (GAME_OVER/WIN). Chỉ có tác dụng lần đầu.
+     *
+     * @param game Ván game đang phát.
+     */
+    void finish(GameManager game) {
+        if (result != null) {
+            return;
+        }
+        long tick = game.getAnimationScheduler().getTick();
+        int score = game.getScore();
+        int hash = Replay.stateHash(game);
+        boolean matches = tick == replay.getFinalTick()
+                && score == replay.getFinalScore()
+                && hash == replay.getFinalHash();
+        result = new Result(tick, score, hash, matches);
+
+        System.out.printf("ReplayPlayer: %s - tick %d, score %d, hash %08x (recorded %d, %d, %08x)%n",
+                matches ? "Verified" : "MISMATCH", tick, score, hash,
+                replay.getFinalTick(), replay.getFinalScore(), replay.getFinalHash());
+    }
+
+    /**
+     * Kiểm tra replay đã phát xong chưa.
+     *
+     * @return {@code true} nếu đã phát xong.
+     */
+    public boolean isFinished() {
+        return result != null;
+    }
+
+    /**
+     * Lấy kết quả phát lại.
+     *
+     * @return Kết quả, hoặc {@code null} nếu chưa phát xong.
+     */
+    public Result getResult() {
+        return result;
+    }
+
+    /**
+     * Phát lại không giao diện với tốc độ tối đa: tạo một ván game riêng và gọi
+     * {@link GameManager#update()} liên tục cho tới tick cuối của bản ghi.
+     *
+     * @param replay Replay cần phát.
+     * @return Kết quả phát lại.
+     */
+    public static Result runHeadless(Replay replay) {
+        long start = System.nanoTime();
+        GameManager game = new GameManager(replay.getSeed());
+        game.setAudioEnabled(false);
+        ReplayPlayer player = game.startReplay(replay);
+
+        // feed() dừng ở tick cuối; ván kết thúc sớm hơn (GAME_OVER/WIN) cũng dừng vòng lặp
+        while (!player.isFinished() && game.getStateManager().isRunning()) {
+            game.update();
+        }
+        player.finish(game);
+
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("ReplayPlayer: Headless run of %d ticks in %.1f ms (%.0fx real time)%n",
+                player.result.ticks(), elapsed / 1_000_000.0,
+                player.result.ticks() * 1e9 / Constants.Window.FPS / Math.max(1, elapsed));
+        return player.result;
+    }
+}
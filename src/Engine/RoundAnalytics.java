@@ -0,0 +1,136 @@
+package Engine;
+
+import Engine.RoundStatsFileFormat.Layout;
+import Utils.Constants;
+import Utils.FileManager;
+import Utils.PersistenceService;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Kho số liệu vòng chơi dùng chung cho toàn bộ tiến trình.
+ *
+ * <p>Mỗi vòng chơi kết thúc tạo đúng một hàng cố định kích thước (xem
+ * {@link RoundStatsFileFormat}), được mã hóa ngay trên luồng mô phỏng vào một
+ * buffer chờ rồi ghi thêm vào cuối {@code round_stats.bin} trên luồng nền của
+ * {@link PersistenceService}. Các hàng đến dồn dập được gộp vào một lần ghi
+ * theo vị trí; file không bao giờ bị ghi lại toàn bộ. Nếu lần ghi trước bị
+ * ngắt giữa một hàng, phần thừa được ghi đè ở lần ghi kế tiếp.</p>
+ */
+public final class RoundAnalytics {
+    private static RoundAnalytics instance; // Instance Singleton.
+
+    private static final String STATS_FILE = Constants.Paths.ROUND_STATS_FILE; // Tên file số liệu.
+    private static final String BACKUP_SUFFIX = ".old"; // Hậu tố cho file cũ không đọc được.
+    private static final int INITIAL_CAPACITY = 16; // Số hàng chờ ban đầu.
+
+    private final int rowSize = Layout.CURRENT.rowSize();
+    private ByteBuffer pendingRows = RoundStatsFileFormat.allocate(INITIAL_CAPACITY * rowSize); // Hàng chưa ghi
+    private boolean flushScheduled = false; // Đã có tác vụ ghi đang chờ.
+    private long nextPosition = -1; // Vị trí ghi hàng kế tiếp (-1: chưa mở file). Chỉ dùng trên luồng nền.
+    private volatile long rowsWritten = 0; // Số hàng đã ghi trong phiên (ghi trên luồng nền).
+
+    /**
+     * Constructor private để đảm bảo chỉ có thể truy cập qua {@link #getInstance()}.
+     */
+    private RoundAnalytics() {
+    }
+
+    /**
+     * Lấy instance duy nhất của RoundAnalytics.
+     *
+     * @return Instance của RoundAnalytics.
+     */
+    public static synchronized RoundAnalytics getInstance() {
+        if (instance == null) {
+            instance = new RoundAnalytics();
+        }
+        return instance;
+    }
+
+    /**
+     * Ghi nhận một vòng chơi vừa kết thúc. Chỉ mã hóa hàng vào bộ nhớ; việc ghi
+     * file diễn ra trên luồng nền.
+     *
+     * @param stats Số liệu của vòng (đã {@link RoundStats#end()}).
+     * @param seed Seed của ván game.
+     * @param ticks Thời lượng vòng (tick).
+     * @param score Điểm kiếm được trong vòng.
+     * @param outcome Kết quả của vòng.
+     * @param livesLeft Số mạng còn lại.
+     */
+    void record(RoundStats stats, long seed, int ticks, int score, RoundStats.Outcome outcome, int livesLeft) {
+        synchronized (this) {
+            if (pendingRows.remaining() < rowSize) {
+                pendingRows = RoundStatsFileFormat.allocate(pendingRows.capacity() * 2)
+                        .put(pendingRows.flip());
+            }
+            RoundStatsFileFormat.writeRow(pendingRows, stats, seed, System.currentTimeMillis(),
+                    ticks, score, outcome, livesLeft);
+            if (!flushScheduled) {
+                flushScheduled = true;
+                PersistenceService.getInstance().submit(this::flushRows);
+            }
+        }
+    }
+
+    /**
+     * Ghi các hàng đang chờ vào cuối file bằng một lần ghi theo vị trí. Chạy
+     * trên luồng nền của {@link PersistenceService}.
+     */
+    private void flushRows() {
+        byte[] rows;
+        synchronized (this) {
+            flushScheduled = false;
+            rows = Arrays.copyOf(pendingRows.array(), pendingRows.position());
+            pendingRows.clear();
+        }
+        if (rows.length == 0) {
+            return;
+        }
+        if (nextPosition < 0) {
+            nextPosition = openFile();
+        }
+        FileManager.writeAtNow(STATS_FILE, nextPosition, ByteBuffer.wrap(rows));
+        nextPosition += rows.length;
+        rowsWritten += rows.length / rowSize;
+    }
+
+    /**
+     * Tìm vị trí ghi hàng kế tiếp của file số liệu, tạo file (chỉ có header)
+     * nếu chưa có. File có header không đọc được hoặc bố cục khác (ví dụ đã
+     * thêm loại gạch) được đổi tên thành {@code round_stats.bin.old}.
+     *
+     * @return Vị trí byte ngay sau hàng nguyên vẹn cuối cùng.
+     */
+    private long openFile() {
+        long size = FileManager.fileSize(STATS_FILE);
+        if (size > 0) {
+            MappedByteBuffer header = FileManager.mapFileForRead(STATS_FILE, 0, RoundStatsFileFormat.HEADER_SIZE);
+            Layout layout = header != null ? RoundStatsFileFormat.readHeader(header) : null;
+            if (Layout.CURRENT.equals(layout)) {
+                // Bỏ qua hàng ghi dở (nếu có) ở cuối file
+                long rows = (size - RoundStatsFileFormat.HEADER_SIZE) / rowSize;
+                System.out.println("RoundAnalytics: Appending to " + STATS_FILE + " (" + rows + " rows)");
+                return RoundStatsFileFormat.HEADER_SIZE + rows * rowSize;
+            }
+            System.err.println("RoundAnalytics: Incompatible " + STATS_FILE + ", moving it to "
+                    + STATS_FILE + BACKUP_SUFFIX);
+            FileManager.moveFileNow(STATS_FILE, STATS_FILE + BACKUP_SUFFIX);
+        }
+        ByteBuffer header = RoundStatsFileFormat.allocate(RoundStatsFileFormat.HEADER_SIZE);
+        RoundStatsFileFormat.writeHeader(header, System.currentTimeMillis());
+        FileManager.writeFileNow(STATS_FILE, header.array());
+        return RoundStatsFileFormat.HEADER_SIZE;
+    }
+
+    /**
+     * Lấy số hàng đã ghi xuống đĩa trong phiên này.
+     *
+     * @return Số hàng.
+     */
+    public long getRowsWritten() {
+        return rowsWritten;
+    }
+}
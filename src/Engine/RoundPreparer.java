@@ -0,0 +1,71 @@
+package Engine;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Luồng nền chuẩn bị vòng chơi kế tiếp (nạp gạch vào kho dự phòng và tạo chỉ
+ * mục va chạm) trong lúc màn hình "LEVEL COMPLETE" đang hiển thị.
+ *
+ * <p>Một nhóm luồng daemon có giới hạn ({@value #MAX_THREADS} luồng, không quá
+ * số lõi) dùng chung cho mọi ván game, nên nhiều ván qua màn cùng lúc (máy chủ
+ * nhiều phiên, môi trường song song) được chuẩn bị song song. Tác vụ chỉ chạm
+ * vào kho gạch dự phòng của {@link RoundsManager}, không bao giờ chạm vào gạch
+ * đang chơi, và kết quả được luồng mô phỏng lấy qua {@link Future#get()} nên
+ * được công bố an toàn. Luồng mô phỏng không chờ tác vụ chưa xong mà tự nạp
+ * vòng (xem {@link RoundsManager#commitPreparedRound()}), nên một tác vụ chậm
+ * không làm dừng tick của các ván khác.</p>
+ */
+public final class RoundPreparer {
+    private static final int MAX_THREADS = 4; // Số luồng chuẩn bị tối đa
+    private static RoundPreparer instance; // Instance Singleton.
+
+    // Nhóm luồng nền thực hiện việc chuẩn bị
+    private final ExecutorService executor;
+
+    /**
+     * Constructor private để đảm bảo chỉ có thể truy cập qua {@link #getInstance()}.
+     */
+    private RoundPreparer() {
+        int threads = Math.max(1, Math.min(MAX_THREADS, Runtime.getRuntime().availableProcessors()));
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "RoundPreparer-" + counter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Lấy instance duy nhất của RoundPreparer.
+     *
+     * @return Instance của RoundPreparer.
+     */
+    public static synchronized RoundPreparer getInstance() {
+        if (instance == null) {
+            instance = new RoundPreparer();
+        }
+        return instance;
+    }
+
+    /**
+     * Chạy một tác vụ chuẩn bị trên luồng nền.
+     *
+     * @param task Tác vụ cần chạy.
+     * @return Future hoàn tất khi tác vụ chạy xong (lỗi được giữ trong Future).
+     */
+    public Future<?> submit(Runnable task) {
+        try {
+            return executor.submit(task);
+        } catch (RuntimeException e) {
+            // Executor không nhận tác vụ: chạy đồng bộ, kết quả vẫn trả qua Future
+            System.err.println("RoundPreparer: Executor unavailable, preparing synchronously");
+            FutureTask<?> future = new FutureTask<>(task, null);
+            future.run();
+            return future;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package Engine;
+
+import Objects.Bricks.BrickType;
+import Objects.PowerUps.PowerUpType;
+import java.util.Arrays;
+
+/**
+ * Bộ đếm số liệu gameplay của vòng chơi đang diễn ra: số lần trúng và số gạch
+ * bị phá theo {@link BrickType}, số vật phẩm rơi ra và được nhặt theo
+ * {@link PowerUpType}, số mạng bị mất, cùng tick và điểm lúc bắt đầu vòng.
+ *
+ * <p>Mỗi {@link GameManager} có một bộ đếm được dùng lại cho mọi vòng: chỉ
+ * tăng các ô của mảng nguyên, không cấp phát trong lúc chơi. Khi vòng kết thúc,
+ * bộ đếm được ghi thành một hàng của {@link RoundStatsFileFormat} qua
+ * {@link RoundAnalytics}. Chỉ được dùng trên luồng sở hữu ván game.</p>
+ */
+final class RoundStats {
+    /**
+     * Cách một vòng chơi kết thúc. Ordinal được ghi vào file, vì vậy chỉ thêm giá trị mới vào cuối.
+     */
+    enum Outcome {
+        // Phá hết gạch
+        CLEARED,
+        // Qua vòng bằng vật phẩm WARP
+        WARPED,
+        // Mất hết mạng
+        GAME_OVER,
+        // Người chơi bỏ ván (về menu hoặc bắt đầu ván mới)
+        ABANDONED
+    }
+
+    static final int FLAG_RESUMED = 1; // Vòng được tiếp tục từ quick-save (chỉ đếm phần sau khi khôi phục)
+
+    private final int[] bricksHit = new int[BrickType.values().length];
+    private final int[] bricksDestroyed = new int[BrickType.values().length];
+    private final int[] powerUpsSpawned = new int[PowerUpType.values().length];
+    private final int[] powerUpsCollected = new int[PowerUpType.values().length];
+
+    private boolean active = false; // Đang đếm một vòng chưa kết thúc
+    private int round; // Số thứ tự vòng (bắt đầu từ 1)
+    private int flags; // Các cờ FLAG_*
+    private long startTick; // Tick lúc bắt đầu vòng
+    private int startScore; // Điểm lúc bắt đầu vòng
+    private int livesLost;
+
+    /**
+     * Bắt đầu đếm một vòng mới, xóa số liệu của vòng trước.
+     *
+     * @param round Số thứ tự vòng.
+     * @param tick Tick hiện tại.
+     * @param score Điểm hiện tại.
+     * @param flags Các cờ FLAG_*.
+     */
+    void begin(int round, long tick, int score, int flags) {
+        Arrays.fill(bricksHit, 0);
+        Arrays.fill(bricksDestroyed, 0);
+        Arrays.fill(powerUpsSpawned, 0);
+        Arrays.fill(powerUpsCollected, 0);
+        this.active = true;
+        this.round = round;
+        this.flags = flags;
+        this.startTick = tick;
+        this.startScore = score;
+        this.livesLost = 0;
+    }
+
+    /**
+     * Kết thúc vòng đang đếm. Các sự kiện sau đó bị bỏ qua cho tới lần {@link #begin} kế tiếp.
+     *
+     * @return {@code true} nếu có vòng đang đếm (chỉ lần gọi đầu tiên).
+     */
+    boolean end() {
+        boolean wasActive = active;
+        active = false;
+        return wasActive;
+    }
+
+    /** Ghi nhận một lần gạch nhận sát thương (bóng hoặc laser). */
+    void brickHit(BrickType type) {
+        if (active) {
+            bricksHit[type.ordinal()]++;
+        }
+    }
+
+    /** Ghi nhận một viên gạch bị phá hủy. */
+    void brickDestroyed(BrickType type) {
+        if (active) {
+            bricksDestroyed[type.ordinal()]++;
+        }
+    }
+
+    /** Ghi nhận một vật phẩm rơi ra từ gạch. */
+    void powerUpSpawned(PowerUpType type) {
+        if (active) {
+            powerUpsSpawned[type.ordinal()]++;
+        }
+    }
+
+    /** Ghi nhận một vật phẩm được thanh đỡ nhặt. */
+    void powerUpCollected(PowerUpType type) {
+        if (active) {
+            powerUpsCollected[type.ordinal()]++;
+        }
+    }
+
+    /** Ghi nhận một lần mất mạng. */
+    void lifeLost() {
+        if (active) {
+            livesLost++;
+        }
+    }
+
+    // Getters
+
+    boolean isActive() { return active; }
+    int getRound() { return round; }
+    int getFlags() { return flags; }
+    long getStartTick() { return startTick; }
+    int getStartScore() { return startScore; }
+    int getLivesLost() { return livesLost; }
+    int getBricksHit(int type) { return bricksHit[type]; }
+    int getBricksDestroyed(int type) { return bricksDestroyed[type]; }
+    int getPowerUpsSpawned(int type) { return powerUpsSpawned[type]; }
+    int getPowerUpsCollected(int type) { return powerUpsCollected[type]; }
+}
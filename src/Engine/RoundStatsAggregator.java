@@ -0,0 +1,338 @@
+package Engine;
+
+import Engine.RoundStatsFileFormat.Layout;
+import Objects.Bricks.BrickType;
+import Objects.PowerUps.PowerUpType;
+import Utils.Constants;
+import Utils.FileManager;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+/**
+ * Bộ tổng hợp số liệu vòng chơi theo luồng (streaming) từ file
+ * {@code round_stats.bin} (xem {@link RoundStatsFileFormat}).
+ *
+ * <p>File được map từng cửa sổ {@value #WINDOW_BYTES} byte (cắt đúng ranh giới
+ * hàng) và mỗi hàng chỉ được đọc một lần rồi cộng dồn vào các bộ đếm của vòng
+ * tương ứng, nên bộ nhớ dùng không phụ thuộc số hàng: hàng triệu vòng chơi chỉ
+ * cần vài trăm KB. Thời lượng vòng được gom vào {@link Histogram} log-tuyến tính
+ * (sai số tương đối dưới 1%) để tính phân vị mà không phải giữ hay sắp xếp
+ * từng giá trị.</p>
+ *
+ * <p>Có thể chạy độc lập để in báo cáo:</p>
+ * <pre>
+ * java -cp out Engine.RoundStatsAggregator [đường dẫn file ...]
+ * </pre>
+ */
+public final class RoundStatsAggregator {
+    private static final long WINDOW_BYTES = 64L << 20; // Kích thước cửa sổ map (64 MB)
+    private static final double[] REPORT_PERCENTILES = { 50, 90, 99 }; // Các phân vị in trong báo cáo
+
+    private final Map<Integer, RoundTotals> rounds = new TreeMap<>(); // Bộ đếm theo số thứ tự vòng
+    private final RoundTotals overall = new RoundTotals(); // Bộ đếm của mọi vòng
+    private long corruptRows = 0; // Số hàng sai CRC bị bỏ qua
+
+    /**
+     * Histogram log-tuyến tính cho giá trị nguyên không âm: giá trị dưới
+     * {@value #EXACT} được đếm chính xác, phía trên mỗi khoảng lũy thừa 2 được
+     * chia thành {@value #SUB_BUCKETS} ô bằng nhau. Kích thước cố định (khoảng
+     * 57 KB) với mọi số lượng giá trị.
+     */
+    public static final class Histogram {
+        private static final int SUB_BITS = 7;
+        private static final int SUB_BUCKETS = 1 << SUB_BITS; // Số ô trong mỗi khoảng lũy thừa 2
+        private static final int EXACT = SUB_BUCKETS * 2; // Các giá trị nhỏ hơn được đếm chính xác
+        private static final int EXACT_BITS = SUB_BITS + 1;
+
+        private final long[] counts = new long[EXACT + (63 - EXACT_BITS) * SUB_BUCKETS];
+        private long total = 0;
+
+        /**
+         * Thêm một giá trị.
+         *
+         * @param value Giá trị (âm được coi là 0).
+         */
+        public void add(long value) {
+            counts[bucketOf(Math.max(0, value))]++;
+            total++;
+        }
+
+        /**
+         * Tính phân vị gần đúng.
+         *
+         * @param percentile Phân vị (0..100).
+         * @return Giá trị đại diện của ô chứa phân vị, hoặc 0 nếu histogram rỗng.
+         */
+        public long percentile(double percentile) {
+            if (total == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+            long seen = 0;
+            for (int bucket = 0; bucket < counts.length; bucket++) {
+                seen += counts[bucket];
+                if (seen >= rank) {
+                    return valueOf(bucket);
+                }
+            }
+            return valueOf(counts.length - 1);
+        }
+
+        /**
+         * Lấy số giá trị đã thêm.
+         *
+         * @return Số giá trị.
+         */
+        public long getTotal() {
+            return total;
+        }
+
+        private static int bucketOf(long value) {
+            if (value < EXACT) {
+                return (int) value;
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(value); // >= EXACT_BITS
+            int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+            return EXACT + (exponent - EXACT_BITS) * SUB_BUCKETS + sub;
+        }
+
+        private static long valueOf(int bucket) {
+            if (bucket < EXACT) {
+                return bucket;
+            }
+            int exponent = (bucket - EXACT) / SUB_BUCKETS + EXACT_BITS;
+            long sub = (bucket - EXACT) % SUB_BUCKETS;
+            long low = (1L << exponent) | (sub << (exponent - SUB_BITS));
+            return low + (1L << (exponent - SUB_BITS - 1)); // Giữa ô
+        }
+    }
+
+    /**
+     * Tổng cộng dồn của một nhóm vòng chơi.
+     */
+    public static final class RoundTotals {
+        private long rows = 0;
+        private final long[] outcomes = new long[RoundStats.Outcome.values().length];
+        private long ticks = 0;
+        private long score = 0;
+        private long livesLost = 0;
+        private final long[] bricksHit = new long[BrickType.values().length];
+        private final long[] bricksDestroyed = new long[BrickType.values().length];
+        private final long[] powerUpsSpawned = new long[PowerUpType.values().length];
+        private final long[] powerUpsCollected = new long[PowerUpType.values().length];
+        private final Histogram durations = new Histogram(); // Thời lượng vòng (tick)
+
+        /**
+         * Cộng một hàng hợp lệ vào tổng.
+         */
+        private void add(MappedByteBuffer in, int base, Layout layout) {
+            rows++;
+            int outcome = in.get(base + RoundStatsFileFormat.OUTCOME);
+            if (outcome >= 0 && outcome < outcomes.length) {
+                outcomes[outcome]++;
+            }
+            int duration = in.getInt(base + RoundStatsFileFormat.TICKS);
+            ticks += duration;
+            durations.add(duration);
+            score += in.getInt(base + RoundStatsFileFormat.SCORE);
+            livesLost += in.get(base + RoundStatsFileFormat.LIVES_LOST) & 0xFF;
+
+            // File cũ có thể có ít hoặc nhiều loại hơn enum hiện tại: chỉ đọc phần chung
+            int brickTypes = Math.min(layout.brickTypes(), bricksHit.length);
+            for (int i = 0; i < brickTypes; i++) {
+                bricksHit[i] += RoundStatsFileFormat.getCount(in, base + layout.hitsOffset(i));
+                bricksDestroyed[i] += RoundStatsFileFormat.getCount(in, base + layout.destroyedOffset(i));
+            }
+            int powerUpTypes = Math.min(layout.powerUpTypes(), powerUpsSpawned.length);
+            for (int i = 0; i < powerUpTypes; i++) {
+                powerUpsSpawned[i] += RoundStatsFileFormat.getCount(in, base + layout.spawnedOffset(i));
+                powerUpsCollected[i] += RoundStatsFileFormat.getCount(in, base + layout.collectedOffset(i));
+            }
+        }
+
+        // Getters
+
+        public long getRows() { return rows; }
+        public long getOutcomeCount(int outcome) { return outcomes[outcome]; }
+        public double getMeanSeconds() { return rows == 0 ? 0 : (double) ticks / rows / Constants.Window.FPS; }
+        public double getMeanScore() { return rows == 0 ? 0 : (double) score / rows; }
+        public double getMeanLivesLost() { return rows == 0 ? 0 : (double) livesLost / rows; }
+        public long getBricksHit(BrickType type) { return bricksHit[type.ordinal()]; }
+        public long getBricksDestroyed(BrickType type) { return bricksDestroyed[type.ordinal()]; }
+        public long getPowerUpsSpawned(PowerUpType type) { return powerUpsSpawned[type.ordinal()]; }
+        public long getPowerUpsCollected(PowerUpType type) { return powerUpsCollected[type.ordinal()]; }
+        public Histogram getDurations() { return durations; }
+
+        /**
+         * Tính phân vị thời lượng vòng.
+         *
+         * @param percentile Phân vị (0..100).
+         * @return Thời lượng (giây).
+         */
+        public double getDurationPercentileSeconds(double percentile) {
+            return (double) durations.percentile(percentile) / Constants.Window.FPS;
+        }
+    }
+
+    /**
+     * Đọc toàn bộ một file số liệu và cộng dồn vào các tổng. Có thể gọi nhiều
+     * lần với nhiều file (ví dụ file {@code .old}).
+     *
+     * @param file Đường dẫn file.
+     * @return Số hàng hợp lệ đã đọc, hoặc -1 nếu file không đọc được.
+     */
+    public long scan(Path file) {
+        long before = overall.rows;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < RoundStatsFileFormat.HEADER_SIZE) {
+                System.err.println("RoundStatsAggregator: " + file + " has no header");
+                return -1;
+            }
+            MappedByteBuffer headerBuffer = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                    RoundStatsFileFormat.HEADER_SIZE);
+            headerBuffer.order(ByteOrder.LITTLE_ENDIAN);
+            Layout layout = RoundStatsFileFormat.readHeader(headerBuffer);
+            if (layout == null) {
+                System.err.println("RoundStatsAggregator: " + file + " is not a round stats file");
+                return -1;
+            }
+
+            int rowSize = layout.rowSize();
+            long rowsPerWindow = WINDOW_BYTES / rowSize;
+            long totalRows = (size - RoundStatsFileFormat.HEADER_SIZE) / rowSize;
+            CRC32 checksum = new CRC32(); // Dùng lại cho mọi hàng
+            for (long first = 0; first < totalRows; first += rowsPerWindow) {
+                int count = (int) Math.min(rowsPerWindow, totalRows - first);
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY,
+                        RoundStatsFileFormat.HEADER_SIZE + first * rowSize, (long) count * rowSize);
+                window.order(ByteOrder.LITTLE_ENDIAN);
+                for (int i = 0; i < count; i++) {
+                    addRow(window, i * rowSize, layout, checksum);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("RoundStatsAggregator: Cannot read " + file + " - " + e.getMessage());
+            return -1;
+        }
+        return overall.rows - before;
+    }
+
+    /**
+     * Cộng một hàng vào tổng chung và tổng của vòng tương ứng, bỏ qua hàng sai CRC.
+     */
+    private void addRow(MappedByteBuffer in, int base, Layout layout, CRC32 checksum) {
+        if (!RoundStatsFileFormat.isRowValid(in, base, layout, checksum)) {
+            corruptRows++;
+            return;
+        }
+        int round = in.getShort(base + RoundStatsFileFormat.ROUND) & 0xFFFF;
+        rounds.computeIfAbsent(round, r -> new RoundTotals()).add(in, base, layout);
+        overall.add(in, base, layout);
+    }
+
+    /**
+     * Lấy tổng của mọi vòng.
+     *
+     * @return Tổng chung.
+     */
+    public RoundTotals getOverall() {
+        return overall;
+    }
+
+    /**
+     * Lấy tổng theo số thứ tự vòng, tăng dần.
+     *
+     * @return Map số thứ tự vòng → tổng (chỉ đọc).
+     */
+    public Map<Integer, RoundTotals> getRounds() {
+        return Collections.unmodifiableMap(rounds);
+    }
+
+    /**
+     * Lấy số hàng sai CRC đã bị bỏ qua.
+     *
+     * @return Số hàng.
+     */
+    public long getCorruptRows() {
+        return corruptRows;
+    }
+
+    /**
+     * Tạo báo cáo dạng văn bản: thời lượng, kết quả và điểm theo vòng, tỉ lệ
+     * phá gạch theo loại và tỉ lệ nhặt vật phẩm theo loại.
+     *
+     * @return Báo cáo.
+     */
+    public String report() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%d rounds (%d corrupt rows skipped)%n", overall.rows, corruptRows));
+
+        sb.append(String.format("%n%-6s %9s %8s %8s %8s %8s %8s %8s %9s%n",
+                "round", "rows", "clear%", "mean s", "p50 s", "p90 s", "p99 s", "lives", "score"));
+        for (Map.Entry<Integer, RoundTotals> entry : rounds.entrySet()) {
+            appendRoundLine(sb, String.valueOf(entry.getKey()), entry.getValue());
+        }
+        appendRoundLine(sb, "all", overall);
+
+        sb.append(String.format("%n%-8s %12s %12s %10s %10s%n", "brick", "hits", "destroyed", "per round", "hits/kill"));
+        for (BrickType type : BrickType.values()) {
+            long hits = overall.getBricksHit(type);
+            long destroyed = overall.getBricksDestroyed(type);
+            sb.append(String.format("%-8s %12d %12d %10.2f %10.2f%n", type, hits, destroyed,
+                    ratio(destroyed, overall.rows), ratio(hits, destroyed)));
+        }
+
+        sb.append(String.format("%n%-10s %12s %12s %10s %10s%n", "power-up", "spawned", "collected", "collect%", "per round"));
+        for (PowerUpType type : PowerUpType.values()) {
+            long spawned = overall.getPowerUpsSpawned(type);
+            long collected = overall.getPowerUpsCollected(type);
+            sb.append(String.format("%-10s %12d %12d %10.1f %10.2f%n", type, spawned, collected,
+                    100 * ratio(collected, spawned), ratio(spawned, overall.rows)));
+        }
+        return sb.toString();
+    }
+
+    private static void appendRoundLine(StringBuilder sb, String label, RoundTotals totals) {
+        long cleared = totals.getOutcomeCount(RoundStats.Outcome.CLEARED.ordinal())
+                + totals.getOutcomeCount(RoundStats.Outcome.WARPED.ordinal());
+        sb.append(String.format("%-6s %9d %8.1f %8.1f", label, totals.rows,
+                100 * ratio(cleared, totals.rows), totals.getMeanSeconds()));
+        for (double percentile : REPORT_PERCENTILES) {
+            sb.append(String.format(" %8.1f", totals.getDurationPercentileSeconds(percentile)));
+        }
+        sb.append(String.format(" %8.2f %9.0f%n", totals.getMeanLivesLost(), totals.getMeanScore()));
+    }
+
+    private static double ratio(long numerator, long denominator) {
+        return denominator == 0 ? 0 : (double) numerator / denominator;
+    }
+
+    /**
+     * In báo cáo của các file được chỉ định, hoặc của {@code ~/.arkanoid/round_stats.bin}.
+     *
+     * @param args Đường dẫn các file số liệu (tùy chọn).
+     */
+    public static void main(String[] args) {
+        RoundStatsAggregator aggregator = new RoundStatsAggregator();
+        long start = System.nanoTime();
+        if (args.length == 0) {
+            aggregator.scan(FileManager.resolve(Constants.Paths.ROUND_STATS_FILE));
+        }
+        for (String arg : args) {
+            aggregator.scan(Paths.get(arg));
+        }
+        System.out.print(aggregator.report());
+        System.out.printf("%nRoundStatsAggregator: Aggregated %d rows in %.1f ms%n",
+                aggregator.overall.rows, (System.nanoTime() - start) / 1_000_000.0);
+    }
+}
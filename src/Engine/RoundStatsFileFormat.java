@@ -0,0 +1,256 @@
+package Engine;
+
+import Objects.Bricks.BrickType;
+import Objects.PowerUps.PowerUpType;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.zip.CRC32;
+
+/**
+ * Định dạng nhị phân của file số liệu vòng chơi ({@code round_stats.bin}).
+ *
+ * <p>File chỉ được ghi thêm (append-only): một header cố định
+ * {@value #HEADER_SIZE} byte, theo sau là các hàng cùng kích thước, mỗi hàng
+ * là một vòng chơi đã kết thúc. Mỗi cột nằm ở một vị trí cố định trong hàng,
+ * nên bộ tổng hợp ({@link RoundStatsAggregator}) đọc thẳng cột cần dùng từ
+ * file đã map mà không giải mã cả hàng. Số loại gạch và số loại vật phẩm được
+ * ghi trong header; kích thước hàng suy ra từ hai số đó.</p>
+ *
+ * <pre>
+ * Header (little-endian):
+ *   0  int   magic "ARKT"
+ *   4  short phiên bản định dạng
+ *   6  short kích thước hàng
+ *   8  byte  số loại gạch (B)
+ *   9  byte  số loại vật phẩm (P)
+ *   10 short (dự trữ)
+ *   12 long  thời điểm tạo file (epoch ms)
+ *   20 int   (dự trữ)
+ *   24 int   CRC32 của byte 0..23
+ *   28 int   (dự trữ)
+ *
+ * Hàng:
+ *   0  long  seed của ván game
+ *   8  long  thời điểm kết thúc vòng (epoch ms)
+ *   16 int   thời lượng vòng (tick)
+ *   20 int   điểm kiếm được trong vòng (có thể âm)
+ *   24 short số thứ tự vòng
+ *   26 byte  kết quả (ordinal của RoundStats.Outcome)
+ *   27 byte  cờ (RoundStats.FLAG_*)
+ *   28 byte  số mạng bị mất
+ *   29 byte  số mạng còn lại
+ *   30 short (dự trữ)
+ *   32 ushort[B] số lần trúng theo loại gạch
+ *   .. ushort[B] số gạch bị phá theo loại gạch
+ *   .. ushort[P] số vật phẩm rơi ra theo loại
+ *   .. ushort[P] số vật phẩm được nhặt theo loại
+ *   .. int   CRC32 của các byte phía trước trong hàng
+ * </pre>
+ */
+final class RoundStatsFileFormat {
+    static final int MAGIC = 0x544B5241; // "ARKT" khi đọc little-endian
+    static final short VERSION = 1; // Phiên bản định dạng hiện tại
+    static final int HEADER_SIZE = 32; // Kích thước header (byte)
+
+    // Vị trí các cột cố định trong hàng
+    static final int SEED = 0;
+    static final int END_TIME = 8;
+    static final int TICKS = 16;
+    static final int SCORE = 20;
+    static final int ROUND = 24;
+    static final int OUTCOME = 26;
+    static final int FLAGS = 27;
+    static final int LIVES_LOST = 28;
+    static final int LIVES_LEFT = 29;
+    static final int COUNTERS = 32; // Bắt đầu các cột đếm theo loại
+
+    private static final int HEADER_CRC_OFFSET = 24; // Vị trí CRC trong header
+    private static final int MAX_COUNT = 0xFFFF; // Giá trị lớn nhất của một ô đếm (ushort)
+
+    /**
+     * Bố cục hàng của một file, suy ra từ số loại gạch và vật phẩm trong header.
+     *
+     * @param brickTypes Số loại gạch (B).
+     * @param powerUpTypes Số loại vật phẩm (P).
+     */
+    record Layout(int brickTypes, int powerUpTypes) {
+        /** Bố cục ứng với các enum hiện tại. */
+        static final Layout CURRENT = new Layout(BrickType.values().length, PowerUpType.values().length);
+
+        /** Kích thước một hàng (byte). */
+        int rowSize() {
+            return COUNTERS + 4 * (brickTypes + powerUpTypes) + 4;
+        }
+
+        /** Vị trí cột số lần trúng của loại gạch {@code type}. */
+        int hitsOffset(int type) {
+            return COUNTERS + 2 * type;
+        }
+
+        /** Vị trí cột số gạch bị phá của loại gạch {@code type}. */
+        int destroyedOffset(int type) {
+            return COUNTERS + 2 * (brickTypes + type);
+        }
+
+        /** Vị trí cột số vật phẩm rơi ra của loại {@code type}. */
+        int spawnedOffset(int type) {
+            return COUNTERS + 2 * (2 * brickTypes + type);
+        }
+
+        /** Vị trí cột số vật phẩm được nhặt của loại {@code type}. */
+        int collectedOffset(int type) {
+            return COUNTERS + 2 * (2 * brickTypes + powerUpTypes + type);
+        }
+
+        /** Vị trí CRC trong hàng. */
+        int crcOffset() {
+            return rowSize() - 4;
+        }
+    }
+
+    private RoundStatsFileFormat() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Tạo buffer little-endian với kích thước cho trước.
+     *
+     * @param size Kích thước (byte).
+     * @return Buffer mới, vị trí 0.
+     */
+    static ByteBuffer allocate(int size) {
+        return ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Ghi header (với bố cục hiện tại) vào buffer tại vị trí hiện tại.
+     *
+     * @param out Buffer đích (little-endian).
+     * @param createdMillis Thời điểm tạo file (epoch ms).
+     */
+    static void writeHeader(ByteBuffer out, long createdMillis) {
+        int start = out.position();
+        out.putInt(MAGIC);
+        out.putShort(VERSION);
+        out.putShort((short) Layout.CURRENT.rowSize());
+        out.put((byte) Layout.CURRENT.brickTypes());
+        out.put((byte) Layout.CURRENT.powerUpTypes());
+        out.putShort((short) 0);
+        out.putLong(createdMillis);
+        out.putInt(0);
+        out.putInt(crc(new CRC32(), out, start, HEADER_CRC_OFFSET));
+        out.putInt(0);
+    }
+
+    /**
+     * Đọc và kiểm tra header ở đầu buffer.
+     *
+     * @param in Buffer nguồn (little-endian).
+     * @return Bố cục hàng của file, hoặc {@code null} nếu sai magic, phiên bản hoặc CRC.
+     */
+    static Layout readHeader(ByteBuffer in) {
+        if (in.limit() < HEADER_SIZE || in.getInt(0) != MAGIC) {
+            return null;
+        }
+        if (in.getShort(4) != VERSION) {
+            System.err.println("RoundStatsFileFormat: Unsupported version " + in.getShort(4));
+            return null;
+        }
+        if (in.getInt(HEADER_CRC_OFFSET) != crc(new CRC32(), in, 0, HEADER_CRC_OFFSET)) {
+            System.err.println("RoundStatsFileFormat: Header checksum mismatch");
+            return null;
+        }
+        Layout layout = new Layout(in.get(8), in.get(9));
+        if (layout.rowSize() != in.getShort(6)) {
+            System.err.println("RoundStatsFileFormat: Row size mismatch");
+            return null;
+        }
+        return layout;
+    }
+
+    /**
+     * Ghi một hàng (với bố cục hiện tại) vào buffer tại vị trí hiện tại.
+     * Các ô đếm lớn hơn {@value #MAX_COUNT} được giữ ở {@value #MAX_COUNT}.
+     *
+     * @param out Buffer đích (little-endian).
+     * @param stats Số liệu của vòng vừa kết thúc.
+     * @param seed Seed của ván game.
+     * @param endMillis Thời điểm kết thúc vòng (epoch ms).
+     * @param ticks Thời lượng vòng (tick).
+     * @param score Điểm kiếm được trong vòng.
+     * @param outcome Kết quả của vòng.
+     * @param livesLeft Số mạng còn lại.
+     */
+    static void writeRow(ByteBuffer out, RoundStats stats, long seed, long endMillis, int ticks, int score,
+                         RoundStats.Outcome outcome, int livesLeft) {
+        Layout layout = Layout.CURRENT;
+        int start = out.position();
+        out.putLong(seed);
+        out.putLong(endMillis);
+        out.putInt(ticks);
+        out.putInt(score);
+        out.putShort((short) stats.getRound());
+        out.put((byte) outcome.ordinal());
+        out.put((byte) stats.getFlags());
+        out.put((byte) Math.min(stats.getLivesLost(), 0xFF));
+        out.put((byte) Math.max(livesLeft, 0));
+        out.putShort((short) 0);
+        for (int i = 0; i < layout.brickTypes(); i++) {
+            putCount(out, stats.getBricksHit(i));
+        }
+        for (int i = 0; i < layout.brickTypes(); i++) {
+            putCount(out, stats.getBricksDestroyed(i));
+        }
+        for (int i = 0; i < layout.powerUpTypes(); i++) {
+            putCount(out, stats.getPowerUpsSpawned(i));
+        }
+        for (int i = 0; i < layout.powerUpTypes(); i++) {
+            putCount(out, stats.getPowerUpsCollected(i));
+        }
+        out.putInt(crc(new CRC32(), out, start, layout.crcOffset()));
+    }
+
+    /**
+     * Kiểm tra CRC của hàng bắt đầu tại {@code base}.
+     *
+     * @param in Buffer nguồn.
+     * @param base Vị trí đầu hàng trong buffer.
+     * @param layout Bố cục hàng.
+     * @param checksum Bộ tính CRC dùng lại.
+     * @return {@code true} nếu hàng nguyên vẹn.
+     */
+    static boolean isRowValid(ByteBuffer in, int base, Layout layout, CRC32 checksum) {
+        return in.getInt(base + layout.crcOffset()) == crc(checksum, in, base, layout.crcOffset());
+    }
+
+    /**
+     * Đọc một ô đếm (ushort) của hàng.
+     *
+     * @param in Buffer nguồn.
+     * @param position Vị trí tuyệt đối của ô.
+     * @return Giá trị (0..65535).
+     */
+    static int getCount(ByteBuffer in, int position) {
+        return in.getShort(position) & 0xFFFF;
+    }
+
+    private static void putCount(ByteBuffer out, int value) {
+        out.putShort((short) Math.min(value, MAX_COUNT));
+    }
+
+    /**
+     * Tính CRC32 của một đoạn buffer mà không thay đổi vị trí của buffer.
+     *
+     * @param crc Bộ tính CRC (được reset trước khi dùng).
+     * @param buffer Buffer nguồn.
+     * @param offset Vị trí bắt đầu.
+     * @param length Số byte.
+     * @return Giá trị CRC32 (32 bit thấp).
+     */
+    private static int crc(CRC32 crc, ByteBuffer buffer, int offset, int length) {
+        crc.reset();
+        crc.update(buffer.slice(offset, length));
+        return (int) crc.getValue();
+    }
+}
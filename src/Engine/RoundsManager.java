@@ -3,60 +3,129 @@ package Engine;
 import Objects.Bricks.BrickType;
 import Rounds.*;
 import Objects.Bricks.Brick;
+import Render.AnimationScheduler;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Lớp quản lý các vòng chơi (RoundsManager) chịu trách nhiệm tải,
  * theo dõi tiến độ và chuyển đổi giữa các cấp độ (round) khác nhau trong game.
+ *
+ * <p>RoundsManager giữ hai kho gạch: kho của vòng đang chơi và một kho dự phòng.
+ * Khi vòng kết thúc, {@link #prepareNextRound()} nạp vòng kế tiếp vào kho dự
+ * phòng trên {@link RoundPreparer} trong lúc màn hình qua màn hiển thị;
+ * {@link #commitPreparedRound()} đổi vai hai kho trong một bước trên luồng mô phỏng.
+ * Nếu luồng nền chưa xong (ví dụ đang bận với vòng của các ván khác), vòng được
+ * nạp ngay trên luồng mô phỏng thay vì chờ.</p>
  */
 public class RoundsManager {
     private final List<RoundBase> rounds; // Danh sách tất cả các vòng chơi có sẵn.
     private int currentRoundIndex; // Chỉ số (index) của vòng chơi hiện tại trong danh sách.
     private RoundBase currentRound; // Đối tượng vòng chơi hiện tại.
     private List<Brick> currentBricks; // Danh sách gạch của vòng chơi hiện tại.
+    private BrickStore brickStore; // Kho gạch của vòng đang chơi, dùng lại giữa các lần bắt đầu vòng.
+    private BrickStore spareStore; // Kho dự phòng, nơi vòng kế tiếp được chuẩn bị ở luồng nền.
+    private Future<?> preparation; // Việc chuẩn bị đang chạy (null nếu không có)
+    private AtomicBoolean preparationSkipped; // Đặt true để việc chuẩn bị chưa bắt đầu tự bỏ qua
+    private Future<?> spareBusy; // Việc chuẩn bị bị bỏ nhưng có thể vẫn đang ghi kho dự phòng (null nếu không có)
+    private int preparedRoundIndex = -1; // Chỉ số vòng đang được chuẩn bị
+    private long preparationNanos; // Thời gian chuẩn bị ở luồng nền của lần gần nhất (ns)
+    private long preparationWaitNanos; // Thời gian luồng mô phỏng phải chờ ở lần đổi kho gần nhất (ns)
+    private long seed; // Seed của ván game, dùng cho các vòng có bố cục ngẫu nhiên.
 
     /**
      * Khởi tạo RoundsManager.
+     *
+     * @param animationScheduler Đồng hồ animation của ván game, gán cho các gạch bạc khi tạo.
      */
-    public RoundsManager() {
+    public RoundsManager(AnimationScheduler animationScheduler) {
+        this.brickStore = new BrickStore(animationScheduler);
+        this.spareStore = new BrickStore(animationScheduler);
         this.rounds = new ArrayList<>();
         this.currentRoundIndex = 0;
-        this.currentBricks = new ArrayList<>();
+        this.currentBricks = brickStore.getBricks();
 
         initializeRounds(); // Khởi tạo danh sách các vòng chơi.
     }
 
     /**
-     * Khởi tạo tất cả các vòng chơi có sẵn trong game và thêm vào danh sách.
+     * Khởi tạo tất cả các vòng chơi có sẵn trong game từ các file level (theo
+     * thứ tự trong {@code levels.txt}). Bố cục đã biên dịch được dùng chung
+     * giữa các ván game.
      */
     private void initializeRounds() {
-        rounds.add(new Round1());
-        rounds.add(new Round2());
-        rounds.add(new Round3());
-        rounds.add(new Round4());
+        rounds.clear();
+        List<LevelLayout> layouts = LevelLoader.loadAll();
+        for (int i = 0; i < layouts.size(); i++) {
+            rounds.add(new LevelRound(i + 1, layouts.get(i)));
+        }
+    }
+
+    /**
+     * Thay danh sách vòng chơi bằng các vòng sinh ngẫu nhiên, cùng một spec
+     * (mỗi vòng có seed riêng nên bố cục khác nhau). Vòng mới được áp dụng từ
+     * lần {@link #reset()} hoặc {@link #loadRound(int)} kế tiếp.
+     *
+     * @param spec Mô tả bố cục.
+     * @param count Số vòng (ít nhất 1).
+     * @throws IllegalArgumentException Nếu {@code count} nhỏ hơn 1.
+     */
+    public void useProceduralRounds(ProceduralRound.Spec spec, int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("Invalid round count: " + count);
+        }
+        discardPreparedRound();
+        rounds.clear();
+        for (int i = 0; i < count; i++) {
+            String name = count == 1 ? spec.name() : spec.name() + " " + (i + 1);
+            rounds.add(new ProceduralRound(i + 1, spec.withName(name)));
+        }
+    }
+
+    /**
+     * Quay lại các vòng chơi đọc từ file level. Áp dụng từ lần {@link #reset()}
+     * hoặc {@link #loadRound(int)} kế tiếp.
+     */
+    public void useLevelRounds() {
+        discardPreparedRound();
+        initializeRounds();
     }
 
     /**
      * Tải một vòng chơi cụ thể theo chỉ số.
      *
      * @param roundNumber Chỉ số (index) của vòng chơi cần tải (bắt đầu từ 0).
-     * @return Danh sách các đối tượng {@link Brick} của vòng chơi mới.
+     * @return Danh sách gạch của vòng chơi, ở trạng thái ban đầu. Đây luôn là cùng
+     *         một danh sách chỉ đọc của kho gạch, được nạp lại mỗi lần bắt đầu vòng.
      * @throws IllegalArgumentException Nếu chỉ số vòng chơi không hợp lệ.
      */
     public List<Brick> loadRound(int roundNumber) {
         if (roundNumber < 0 || roundNumber >= rounds.size()) {
             throw new IllegalArgumentException("Invalid round number: " + roundNumber);
         }
+        discardPreparedRound(); // Tải đồng bộ thay cho vòng đang chuẩn bị (nếu có)
 
         currentRoundIndex = roundNumber; // Cập nhật chỉ số.
         currentRound = rounds.get(currentRoundIndex); // Lấy đối tượng vòng chơi.
-        currentBricks.clear(); // Xóa gạch cũ.
-        currentBricks = currentRound.createBricks(); // Tạo gạch mới.
+        currentRound.setSeed(seed + roundNumber); // Mỗi vòng một seed, cố định trong cả ván.
+        // Nạp gạch từ kho dùng lại: chỉ chép mảng và đặt lại trạng thái, không tạo gạch mới.
+        currentBricks = currentRound.loadBricks(brickStore);
 
         return currentBricks;
     }
 
+    /**
+     * Đặt seed của ván game. Áp dụng cho các vòng được tải sau đó.
+     *
+     * @param seed Seed của ván game.
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
     /**
      * Tải vòng chơi đầu tiên (Round 1).
      *
@@ -103,6 +172,156 @@ public class RoundsManager {
         return true;
     }
 
+    /**
+     * Bắt đầu chuẩn bị vòng chơi tiếp theo ở luồng nền: nạp gạch vào kho dự
+     * phòng và tạo chỉ mục va chạm, trong khi vòng hiện tại vẫn giữ nguyên.
+     *
+     * @throws IllegalStateException Nếu không còn vòng chơi nào nữa.
+     */
+    public void prepareNextRound() {
+        int nextRoundIndex = currentRoundIndex + 1;
+        if (nextRoundIndex >= rounds.size()) {
+            throw new IllegalStateException("No more rounds available.");
+        }
+        discardPreparedRound();
+        awaitSpareStore();
+
+        RoundBase round = rounds.get(nextRoundIndex);
+        // Đặt seed trên luồng mô phỏng, trước khi gửi tác vụ (Executor đảm bảo luồng nền thấy giá trị này)
+        round.setSeed(seed + nextRoundIndex);
+        BrickStore store = spareStore;
+        AtomicBoolean skipped = new AtomicBoolean();
+        preparedRoundIndex = nextRoundIndex;
+        preparationSkipped = skipped;
+        preparation = RoundPreparer.getInstance().submit(() -> {
+            if (skipped.get()) {
+                return; // Luồng mô phỏng đã tự nạp vòng này
+            }
+            long start = System.nanoTime();
+            round.loadBricks(store); // Nạp gạch và chỉ mục va chạm của vòng vào kho dự phòng
+            preparationNanos = System.nanoTime() - start;
+        });
+    }
+
+    /**
+     * Chuyển sang vòng đã chuẩn bị bằng {@link #prepareNextRound()}: nếu luồng
+     * nền đã xong thì đổi vai kho đang chơi và kho dự phòng. Nếu chưa xong, vòng
+     * được nạp ngay trên luồng này vào kho của vòng vừa kết thúc, để tick không
+     * phải chờ hàng đợi chung của {@link RoundPreparer}; kết quả giống hệt vì
+     * cùng vòng và cùng seed. Nếu việc chuẩn bị lỗi, vòng cũng được nạp đồng bộ.
+     *
+     * @return Danh sách gạch của vòng mới.
+     * @throws IllegalStateException Nếu không có vòng nào đang được chuẩn bị.
+     */
+    public List<Brick> commitPreparedRound() {
+        if (preparation == null) {
+            throw new IllegalStateException("No round is being prepared.");
+        }
+        long waitStart = System.nanoTime();
+        currentRoundIndex = preparedRoundIndex;
+        currentRound = rounds.get(currentRoundIndex);
+        if (preparation.isDone()) {
+            boolean prepared = awaitPreparation(preparation);
+            preparation = null;
+            BrickStore previous = brickStore;
+            brickStore = spareStore;
+            spareStore = previous;
+            if (!prepared) {
+                currentRound.loadBricks(brickStore);
+            }
+        } else {
+            // Chưa xong: bỏ việc chuẩn bị và nạp vào kho đang chơi; kho dự phòng
+            // chỉ được dùng lại sau khi tác vụ cũ (nếu đã bắt đầu) chạy xong
+            preparationSkipped.set(true);
+            spareBusy = preparation;
+            preparation = null;
+            currentRound.loadBricks(brickStore);
+        }
+        preparationWaitNanos = System.nanoTime() - waitStart;
+        currentBricks = brickStore.getBricks();
+        preparedRoundIndex = -1;
+        return currentBricks;
+    }
+
+    /**
+     * Bỏ vòng đang chuẩn bị (nếu có). Chờ luồng nền chạy xong để kho dự phòng
+     * không bị ghi cùng lúc với lần chuẩn bị sau.
+     */
+    private void discardPreparedRound() {
+        if (preparation != null) {
+            awaitPreparation(preparation);
+            preparation = null;
+            preparedRoundIndex = -1;
+        }
+    }
+
+    /**
+     * Chờ việc chuẩn bị đã bị bỏ ở lần đổi kho trước (nếu có) chạy xong, trước
+     * khi ghi lại vào kho dự phòng. Thường đã xong từ lâu vì cả một vòng đã trôi qua.
+     */
+    private void awaitSpareStore() {
+        Future<?> pending = spareBusy;
+        spareBusy = null;
+        if (pending != null) {
+            awaitPreparation(pending);
+        }
+    }
+
+    /**
+     * Chờ một việc chuẩn bị kết thúc.
+     *
+     * @param pending Future của việc chuẩn bị.
+     * @return {@code true} nếu chuẩn bị thành công.
+     */
+    private boolean awaitPreparation(Future<?> pending) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    pending.get();
+                    return true;
+                } catch (InterruptedException e) {
+                    interrupted = true; // Vẫn phải chờ: luồng nền đang ghi vào kho dự phòng
+                }
+            }
+        } catch (ExecutionException e) {
+            System.err.println("RoundsManager: Failed to prepare next round: " + e.getCause());
+            return false;
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Kiểm tra có vòng nào đang được chuẩn bị ở luồng nền không.
+     *
+     * @return {@code true} nếu đã gọi {@link #prepareNextRound()} mà chưa đổi kho.
+     */
+    public boolean isPreparingRound() {
+        return preparation != null;
+    }
+
+    /**
+     * Lấy thời gian luồng nền đã dùng để chuẩn bị vòng ở lần đổi kho gần nhất.
+     *
+     * @return Thời gian (ns).
+     */
+    public long getPreparationNanos() {
+        return preparationNanos;
+    }
+
+    /**
+     * Lấy thời gian luồng mô phỏng đã dùng ở lần đổi kho gần nhất: gần 0 nếu
+     * vòng đã sẵn sàng, hoặc thời gian nạp đồng bộ nếu luồng nền chưa xong.
+     *
+     * @return Thời gian (ns).
+     */
+    public long getPreparationWaitNanos() {
+        return preparationWaitNanos;
+    }
+
     /**
      * Kiểm tra xem còn vòng chơi tiếp theo để chuyển sang không.
      *
@@ -142,6 +361,15 @@ public class RoundsManager {
         return currentBricks;
     }
 
+    /**
+     * Lấy chỉ mục va chạm của danh sách gạch hiện tại.
+     *
+     * @return Chỉ mục, khớp chỉ số với {@link #getCurrentBricks()}.
+     */
+    public BrickIndex getCurrentBrickIndex() {
+        return brickStore.getIndex();
+    }
+
     /**
      * Đếm số lượng gạch còn lại (còn sống) trong vòng chơi hiện tại.
      *
@@ -162,7 +390,6 @@ public class RoundsManager {
      */
     public void reset() {
         currentRoundIndex = 0; // Đặt lại chỉ số.
-        currentBricks.clear(); // Xóa gạch cũ.
         loadFirstRound(); // Tải lại vòng chơi đầu tiên.
     }
 
@@ -77,6 +77,17 @@ public class ScoreManager {
      *
      * @return Điểm số hiện tại.
      */
+    /**
+     * Khôi phục điểm và hệ số nhân từ bản lưu (GameSnapshot).
+     *
+     * @param score Điểm số.
+     * @param multiplier Hệ số nhân điểm.
+     */
+    void restore(int score, int multiplier) {
+        this.score = score;
+        this.scoreMultiplier = multiplier;
+    }
+
     public int getScore() {
         return score;
     }
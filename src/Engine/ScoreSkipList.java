@@ -0,0 +1,238 @@
+package Engine;
+
+import Engine.HighScoreRepository.HighScoreEntry;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+
+/**
+ * Skip list có chỉ mục (indexable skip list) giữ các entry điểm cao theo thứ tự
+ * điểm giảm dần, cùng điểm thì entry cũ hơn (số thứ tự nhỏ hơn) đứng trước.
+ *
+ * <p>Mỗi liên kết lưu thêm "span" (số vị trí mà liên kết đó nhảy qua), nên có
+ * thể đếm hạng và truy cập theo vị trí trong O(log n) kỳ vọng: chèn, đếm số
+ * entry có điểm ≥ một giá trị, và lấy phần tử thứ k để đọc theo trang.</p>
+ *
+ * <p>Không an toàn luồng; {@link HighScoreRepository} đồng bộ hóa mọi truy cập.</p>
+ */
+final class ScoreSkipList {
+    private static final int MAX_LEVEL = 32; // Đủ cho hàng tỉ phần tử với p = 1/4
+    private static final int LEVEL_PROBABILITY_BITS = 2; // Xác suất lên tầng 1/4
+
+    /**
+     * Một nút của skip list.
+     */
+    private static final class Node {
+        final HighScoreEntry entry;
+        final Node[] next;
+        final int[] span;
+
+        Node(HighScoreEntry entry, int levels) {
+            this.entry = entry;
+            this.next = new Node[levels];
+            this.span = new int[levels];
+        }
+    }
+
+    // Thứ tự của danh sách: điểm giảm dần, cùng điểm thì số thứ tự tăng dần
+    private static final Comparator<HighScoreEntry> ORDER = Comparator
+            .comparingInt(HighScoreEntry::getScore).reversed()
+            .thenComparingLong(HighScoreEntry::getSequence);
+
+    private final Node head = new Node(null, MAX_LEVEL);
+    // Seed cố định: hình dạng danh sách tái lập được, không ảnh hưởng thứ tự
+    private final Random random = new Random(0x5EED);
+    private int level = 1;
+    private int size = 0;
+
+    /**
+     * Kiểm tra nút {@code node} có đứng trước vị trí của (score, sequence) không.
+     */
+    private static boolean precedes(Node node, int score, long sequence) {
+        int nodeScore = node.entry.getScore();
+        return nodeScore > score || (nodeScore == score && node.entry.getSequence() < sequence);
+    }
+
+    /**
+     * Chọn ngẫu nhiên số tầng cho nút mới.
+     */
+    private int randomLevel() {
+        int lvl = 1;
+        while (lvl < MAX_LEVEL && (random.nextInt() & ((1 << LEVEL_PROBABILITY_BITS) - 1)) == 0) {
+            lvl++;
+        }
+        return lvl;
+    }
+
+    /**
+     * Chèn một entry. O(log n) kỳ vọng.
+     *
+     * @param entry Entry cần chèn (đã có số thứ tự).
+     */
+    void insert(HighScoreEntry entry) {
+        Node[] update = new Node[MAX_LEVEL];
+        int[] rank = new int[MAX_LEVEL];
+        int score = entry.getScore();
+        long sequence = entry.getSequence();
+
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            rank[i] = (i == level - 1) ? 0 : rank[i + 1];
+            while (x.next[i] != null && precedes(x.next[i], score, sequence)) {
+                rank[i] += x.span[i];
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+
+        int lvl = randomLevel();
+        if (lvl > level) {
+            for (int i = level; i < lvl; i++) {
+                rank[i] = 0;
+                update[i] = head;
+                head.span[i] = size;
+            }
+            level = lvl;
+        }
+
+        Node node = new Node(entry, lvl);
+        for (int i = 0; i < lvl; i++) {
+            node.next[i] = update[i].next[i];
+            update[i].next[i] = node;
+            node.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+            update[i].span[i] = (rank[0] - rank[i]) + 1;
+        }
+        // Các tầng cao hơn nút mới: liên kết đi qua nó dài thêm 1
+        for (int i = lvl; i < level; i++) {
+            update[i].span[i]++;
+        }
+        size++;
+    }
+
+    /**
+     * Thay toàn bộ nội dung bằng các entry cho trước. Các entry được sắp xếp
+     * một lần rồi nối lần lượt vào cuối mỗi tầng, nên tổng chi phí là
+     * O(n log n) cho việc sắp xếp và O(n) cho việc dựng danh sách, nhanh hơn
+     * nhiều so với chèn từng entry khi tải một bảng lớn.
+     *
+     * @param entries Các entry (đã có số thứ tự); danh sách bị sắp xếp lại.
+     */
+    void build(List<HighScoreEntry> entries) {
+        clear();
+        entries.sort(ORDER);
+
+        // Nút cuối cùng hiện tại của mỗi tầng và vị trí (1-based) của nó
+        Node[] last = new Node[MAX_LEVEL];
+        int[] lastRank = new int[MAX_LEVEL];
+        Arrays.fill(last, head);
+
+        for (HighScoreEntry entry : entries) {
+            int lvl = randomLevel();
+            level = Math.max(level, lvl);
+            Node node = new Node(entry, lvl);
+            size++;
+            for (int i = 0; i < lvl; i++) {
+                last[i].next[i] = node;
+                last[i].span[i] = size - lastRank[i];
+                last[i] = node;
+                lastRank[i] = size;
+            }
+        }
+        // Liên kết cuối mỗi tầng trỏ tới null: span là khoảng cách tới cuối danh sách
+        for (int i = 0; i < level; i++) {
+            last[i].span[i] = size - lastRank[i];
+        }
+    }
+
+    /**
+     * Đếm số entry có điểm lớn hơn hoặc bằng {@code score}. O(log n) kỳ vọng.
+     *
+     * @param score Điểm cần so sánh.
+     * @return Số entry có điểm ≥ score.
+     */
+    int countAtLeast(int score) {
+        int count = 0;
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && x.next[i].entry.getScore() >= score) {
+                count += x.span[i];
+                x = x.next[i];
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Lấy nút ở vị trí {@code index} (bắt đầu từ 0). O(log n) kỳ vọng.
+     */
+    private Node nodeAt(int index) {
+        int traversed = 0;
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && traversed + x.span[i] <= index + 1) {
+                traversed += x.span[i];
+                x = x.next[i];
+            }
+            if (traversed == index + 1) {
+                return x;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Lấy entry ở vị trí {@code index} (0 = điểm cao nhất).
+     *
+     * @param index Vị trí.
+     * @return Entry, hoặc {@code null} nếu ngoài phạm vi.
+     */
+    HighScoreEntry get(int index) {
+        if (index < 0 || index >= size) {
+            return null;
+        }
+        Node node = nodeAt(index);
+        return node != null ? node.entry : null;
+    }
+
+    /**
+     * Duyệt một trang entry theo thứ tự hạng. O(log n + limit).
+     *
+     * @param offset Vị trí bắt đầu (0 = điểm cao nhất).
+     * @param limit Số entry tối đa.
+     * @param action Hành động cho từng entry.
+     */
+    void forEach(int offset, int limit, Consumer<HighScoreEntry> action) {
+        if (offset < 0 || offset >= size || limit <= 0) {
+            return;
+        }
+        Node x = nodeAt(offset);
+        for (int i = 0; i < limit && x != null; i++) {
+            action.accept(x.entry);
+            x = x.next[0];
+        }
+    }
+
+    /**
+     * Xóa toàn bộ entry.
+     */
+    void clear() {
+        for (int i = 0; i < MAX_LEVEL; i++) {
+            head.next[i] = null;
+            head.span[i] = 0;
+        }
+        level = 1;
+        size = 0;
+    }
+
+    /**
+     * Lấy số entry hiện có.
+     *
+     * @return Số entry.
+     */
+    int size() {
+        return size;
+    }
+}
@@ -0,0 +1,228 @@
+package Engine;
+
+import Utils.Constants;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Luồng mô phỏng chạy logic game với tần số cố định, tách khỏi luồng FX.
+ *
+ * <p>Mỗi tick, luồng này thực thi các lệnh đã được gửi từ luồng khác, cho
+ * {@link PaddleController} hiện tại (bàn phím hoặc bot) gửi input, gọi
+ * {@link GameManager#update()} rồi công bố một
+ * {@link RenderSnapshot} mới qua {@link SnapshotExchange} (và gửi cho khán
+ * giả qua {@link SpectatorServer} nếu có). Mọi thay đổi lên
+ * {@link GameManager} từ bên ngoài phải đi qua {@link #submit(Runnable)} để
+ * chỉ một luồng duy nhất chạm vào trạng thái game.</p>
+ */
+public class SimulationThread implements Runnable {
+    // Khoảng thời gian giữa hai tick (nano giây)
+    private static final long TICK_NANOS = 1_000_000_000L / Constants.Window.FPS;
+    // Số tick tối đa được bù trong một lần khi luồng bị trễ (tránh vòng xoáy chậm dần)
+    private static final int MAX_CATCH_UP_TICKS = 5;
+
+    private final GameManager gameManager;
+    private final SnapshotExchange snapshots;
+    // Hàng đợi lệnh từ các luồng khác, được thực thi ở đầu mỗi tick
+    private final Queue<Runnable> commands = new ConcurrentLinkedQueue<>();
+    private final Thread thread;
+    private volatile boolean running = false;
+    private volatile long tickCount = 0;
+    // Số tick game chạy trong mỗi chu kỳ tick (1 = thời gian thực, N = tua nhanh khi replay)
+    private volatile int speed = 1;
+    // Nguồn input của paddle, được hỏi mỗi tick (null = không có)
+    private volatile PaddleController controller;
+    // Máy chủ phát cho khán giả (null = không phát)
+    private volatile SpectatorServer spectators;
+
+    /**
+     * Khởi tạo luồng mô phỏng cho một GameManager.
+     *
+     * @param gameManager GameManager được luồng này sở hữu.
+     * @param snapshots Bộ trao đổi snapshot dùng để công bố trạng thái.
+     */
+    public SimulationThread(GameManager gameManager, SnapshotExchange snapshots) {
+        this.gameManager = gameManager;
+        this.snapshots = snapshots;
+        this.thread = new Thread(this, "Simulation");
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Bắt đầu chạy luồng mô phỏng. Công bố snapshot đầu tiên ngay lập tức.
+     */
+    public void start() {
+        snapshots.publish(gameManager);
+        running = true;
+        thread.start();
+        System.out.println("SimulationThread: Started at " + Constants.Window.FPS + " ticks/s");
+    }
+
+    /**
+     * Dừng luồng mô phỏng và chờ tới khi nó thực sự kết thúc, để bên gọi có
+     * thể đọc GameManager mà không tranh chấp với một tick đang chạy.
+     */
+    public void stop() {
+        running = false;
+        LockSupport.unpark(thread);
+        boolean interrupted = false;
+        while (thread.isAlive()) {
+            try {
+                thread.join(1000);
+            } catch (InterruptedException e) {
+                interrupted = true; // Vẫn phải chờ tick hiện tại chạy xong
+            }
+            if (thread.isAlive()) {
+                System.err.println("SimulationThread: Still waiting for the current tick to finish");
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        System.out.println("SimulationThread: Stopped after " + tickCount + " ticks");
+    }
+
+    /**
+     * Gửi một lệnh để thực thi trên luồng mô phỏng ở đầu tick kế tiếp.
+     *
+     * @param command Lệnh cần thực thi.
+     */
+    public void submit(Runnable command) {
+        commands.add(command);
+    }
+
+    /**
+     * Vòng lặp chính: chạy các tick theo lịch cố định và ngủ giữa các tick.
+     */
+    @Override
+    public void run() {
+        long nextTick = System.nanoTime();
+
+        while (running) {
+            long now = System.nanoTime();
+            int ticksThisLoop = 0;
+
+            // Chạy đủ số tick đã đến hạn (bù khi bị trễ, có giới hạn)
+            while (now - nextTick >= 0 && ticksThisLoop < MAX_CATCH_UP_TICKS) {
+                for (int i = speed; i > 0; i--) {
+                    tick();
+                }
+                nextTick += TICK_NANOS;
+                ticksThisLoop++;
+            }
+
+            // Trễ quá nhiều: bỏ qua phần còn lại thay vì cố đuổi theo
+            if (now - nextTick >= TICK_NANOS) {
+                nextTick = now + TICK_NANOS;
+            }
+
+            if (ticksThisLoop > 0) {
+                snapshots.publish(gameManager);
+                broadcast();
+            }
+
+            long sleep = nextTick - System.nanoTime();
+            if (sleep > 0) {
+                LockSupport.parkNanos(sleep);
+            }
+        }
+    }
+
+    /**
+     * Đặt nguồn điều khiển paddle (bàn phím hoặc bot). Có hiệu lực từ tick kế tiếp.
+     *
+     * @param controller Bộ điều khiển, hoặc {@code null} để không gửi input.
+     */
+    public void setController(PaddleController controller) {
+        this.controller = controller;
+    }
+
+    /**
+     * Đặt máy chủ phát cho khán giả. Trạng thái được gửi một lần mỗi chu kỳ
+     * tick, cùng lúc với snapshot cho luồng FX.
+     *
+     * @param spectators Máy chủ khán giả, hoặc {@code null} để ngừng phát.
+     */
+    public void setSpectators(SpectatorServer spectators) {
+        this.spectators = spectators;
+    }
+
+    /**
+     * Gửi trạng thái hiện tại cho khán giả (nếu có máy chủ khán giả).
+     */
+    private void broadcast() {
+        SpectatorServer current = spectators;
+        if (current != null) {
+            try {
+                current.broadcast(gameManager);
+            } catch (RuntimeException e) {
+                System.err.println("SimulationThread: Spectator broadcast failed: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Thực hiện một tick: chạy các lệnh đang chờ, lấy input từ bộ điều khiển rồi cập nhật game.
+     */
+    private void tick() {
+        Runnable command;
+        while ((command = commands.poll()) != null) {
+            try {
+                command.run();
+            } catch (RuntimeException e) {
+                System.err.println("SimulationThread: Command failed: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+
+        PaddleController current = controller;
+        if (current != null) {
+            try {
+                current.control(gameManager);
+            } catch (RuntimeException e) {
+                System.err.println("SimulationThread: Controller failed: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+
+        try {
+            gameManager.update();
+        } catch (RuntimeException e) {
+            System.err.println("SimulationThread: Update failed: " + e.getMessage());
+            e.printStackTrace();
+        }
+        tickCount++;
+    }
+
+    /**
+     * Đặt tốc độ mô phỏng: số tick game chạy trong mỗi chu kỳ tick. Dùng để tua
+     * nhanh replay; snapshot vẫn chỉ được công bố một lần mỗi chu kỳ.
+     *
+     * @param speed Hệ số tốc độ (tối thiểu 1).
+     */
+    public void setSpeed(int speed) {
+        this.speed = Math.max(1, speed);
+        System.out.println("SimulationThread: Speed " + this.speed + "x");
+    }
+
+    /**
+     * Lấy tốc độ mô phỏng hiện tại.
+     *
+     * @return Hệ số tốc độ.
+     */
+    public int getSpeed() {
+        return speed;
+    }
+
+    /**
+     * Lấy số tick đã chạy kể từ khi bắt đầu.
+     *
+     * @return Số tick.
+     */
+    public long getTickCount() {
+        return tickCount;
+    }
+}
@@ -0,0 +1,50 @@
+package Engine;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Bộ đệm ba lớp (triple buffer) không khóa để trao {@link RenderSnapshot}
+ * từ luồng mô phỏng sang luồng FX.
+ *
+ * <p>Có ba snapshot: luồng mô phỏng sở hữu bản "sau" (back) để ghi, luồng FX
+ * sở hữu bản "trước" (front) để vẽ, và bản "giữa" nằm trong một
+ * {@link AtomicReference}. Mỗi bên chỉ đổi bản của mình với bản giữa bằng
+ * {@code getAndSet}, nên không bên nào ghi vào snapshot mà bên kia đang đọc
+ * và không cần khóa.</p>
+ */
+public final class SnapshotExchange {
+    // Bản giữa, được trao đổi nguyên tử giữa hai luồng
+    private final AtomicReference<RenderSnapshot> middle = new AtomicReference<>(new RenderSnapshot());
+    // Bản đang được luồng mô phỏng ghi (chỉ luồng mô phỏng truy cập)
+    private RenderSnapshot back = new RenderSnapshot();
+    // Bản đang được luồng FX đọc (chỉ luồng FX truy cập)
+    private RenderSnapshot front = new RenderSnapshot();
+    // Số thứ tự của lần công bố gần nhất (chỉ luồng mô phỏng truy cập)
+    private long publishedSequence = 0;
+
+    /**
+     * Ghi trạng thái game vào bản sau rồi công bố nó làm bản mới nhất.
+     * Chỉ được gọi từ luồng mô phỏng.
+     *
+     * @param game GameManager nguồn.
+     */
+    public void publish(GameManager game) {
+        back.capture(game);
+        back.sequence = ++publishedSequence;
+        // Bản giữa cũ (có thể là bản FX vừa trả lại) trở thành bản sau cho lần ghi kế tiếp
+        back = middle.getAndSet(back);
+    }
+
+    /**
+     * Lấy snapshot mới nhất đã được công bố. Nếu không có bản mới hơn bản đang
+     * giữ, trả lại chính bản đó. Chỉ được gọi từ luồng FX.
+     *
+     * @return Snapshot mới nhất, chỉ đọc cho tới lần gọi kế tiếp.
+     */
+    public RenderSnapshot acquire() {
+        if (middle.get().sequence > front.sequence) {
+            front = middle.getAndSet(front);
+        }
+        return front;
+    }
+}
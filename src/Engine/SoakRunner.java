@@ -0,0 +1,271 @@
+package Engine;
+
+import Objects.Bricks.BrickType;
+import Utils.ConsoleLog;
+import Utils.Constants;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Chạy thử tải (soak test) không giao diện: cho {@link TrackingBot} chơi rất
+ * nhiều ván với seed ngẫu nhiên trên mọi lõi CPU, để tìm lỗi và các ván bị kẹt
+ * mà chơi tay khó gặp.
+ *
+ * <p>Mỗi ván là một {@link GameManager} riêng chạy trên một luồng của pool,
+ * không có {@link SimulationThread} và không chờ theo nhịp 60 FPS: mỗi tick chỉ
+ * gồm {@link PaddleController#control(GameManager)} rồi {@link GameManager#update()}.
+ * Ván kết thúc khi thắng, thua, hết số tick tối đa, bị kẹt (không chạm được
+ * viên gạch nào trong {@value #STALL_TICKS} tick chơi) hoặc ném ngoại lệ. Seed
+ * của từng ván được in kèm mọi ván kẹt/lỗi, và {@code --seed} chạy lại đúng ván
+ * đó (có log) để gỡ lỗi.</p>
+ *
+ * <p>Cách chạy:</p>
+ * <pre>
+ * java -cp out Engine.SoakRunner [số ván mỗi lõi] [số tick tối đa mỗi ván] [số luồng] [seed gốc]
+ * java -cp out Engine.SoakRunner --seed &lt;seed của ván&gt; [số tick tối đa]
+ * </pre>
+ */
+public final class SoakRunner {
+    private static final int DEFAULT_GAMES_PER_CORE = 4; // Số ván mỗi lõi mặc định
+    private static final long DEFAULT_MAX_TICKS = 30L * 60 * Constants.Window.FPS; // 30 phút chơi
+    private static final long STALL_TICKS = 3L * 60 * Constants.Window.FPS; // 3 phút không chạm gạch thì coi là kẹt
+    private static final int STACK_FRAMES = 4; // Số frame đầu stack in cho mỗi lỗi
+    private static final int GOLD = BrickType.GOLD.ordinal();
+
+    /**
+     * Cách một ván chạy thử kết thúc.
+     */
+    enum Outcome { WIN, GAME_OVER, TIMEOUT, STALLED, CRASHED }
+
+    /**
+     * Kết quả một ván.
+     *
+     * @param seed Seed của ván.
+     * @param outcome Cách ván kết thúc.
+     * @param ticks Số tick đã chạy.
+     * @param score Điểm cuối ván.
+     * @param round Vòng đang chơi khi kết thúc.
+     * @param maxDrought Số tick chơi dài nhất liên tiếp không chạm viên gạch nào.
+     * @param error Mô tả ngoại lệ (null nếu không lỗi).
+     */
+    record GameResult(long seed, Outcome outcome, long ticks, int score, int round,
+                      long maxDrought, String error) {}
+
+    /**
+     * Constructor private để ngăn việc tạo instance của lớp tiện ích.
+     */
+    private SoakRunner() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Chơi một ván bằng bot tới khi kết thúc.
+     *
+     * @param seed Seed của ván (bot dùng cùng seed cho RNG riêng của nó).
+     * @param maxTicks Số tick tối đa.
+     * @return Kết quả ván.
+     */
+    static GameResult play(long seed, long maxTicks) {
+        long ticks = 0;
+        long drought = 0;
+        long maxDrought = 0;
+        GameManager game = null;
+        try {
+            game = new GameManager(seed);
+            game.setAnalyticsEnabled(false);
+            game.setAudioEnabled(false);
+            game.setPlayerName("BOT");
+            game.getStateManager().setState(GameState.PLAYING);
+            PaddleController bot = new TrackingBot(seed);
+            long hits = totalHits(game);
+
+            while (ticks < maxTicks) {
+                GameState state = game.getStateManager().getState();
+                if (state == GameState.WIN || state == GameState.GAME_OVER) {
+                    return result(game, seed, state == GameState.WIN ? Outcome.WIN : Outcome.GAME_OVER,
+                            ticks, maxDrought, null);
+                }
+                bot.control(game);
+                game.update();
+                ticks++;
+
+                // Tổng thay đổi (kể cả về 0 khi sang vòng mới) nghĩa là có tiến triển
+                long now = totalHits(game);
+                if (now != hits) {
+                    hits = now;
+                    drought = 0;
+                } else if (game.getStateManager().getState() == GameState.PLAYING) {
+                    drought++;
+                    maxDrought = Math.max(maxDrought, drought);
+                    if (drought >= STALL_TICKS) {
+                        return result(game, seed, Outcome.STALLED, ticks, maxDrought, null);
+                    }
+                }
+            }
+            return result(game, seed, Outcome.TIMEOUT, ticks, maxDrought, null);
+        } catch (RuntimeException | Error e) {
+            return result(game, seed, Outcome.CRASHED, ticks, maxDrought, describe(e));
+        }
+    }
+
+    /**
+     * Tổng số lần gạch (trừ gạch vàng không phá được) bị chạm trong vòng hiện tại.
+     */
+    private static long totalHits(GameManager game) {
+        RoundStats stats = game.getRoundStats();
+        long total = 0;
+        for (int type = 0; type < BrickType.values().length; type++) {
+            if (type != GOLD) {
+                total += stats.getBricksHit(type);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Tạo kết quả ván (game có thể null nếu lỗi xảy ra ngay khi khởi tạo).
+     */
+    private static GameResult result(GameManager game, long seed, Outcome outcome, long ticks,
+                                     long maxDrought, String error) {
+        int score = game != null ? game.getScore() : 0;
+        int round = game != null ? game.getRoundsManager().getCurrentRoundNumber() : 0;
+        return new GameResult(seed, outcome, ticks, score, round, maxDrought, error);
+    }
+
+    /**
+     * Mô tả ngắn gọn một ngoại lệ: loại, thông điệp và vài frame đầu stack.
+     */
+    private static String describe(Throwable e) {
+        StringBuilder sb = new StringBuilder(e.toString());
+        StackTraceElement[] stack = e.getStackTrace();
+        for (int i = 0; i < Math.min(STACK_FRAMES, stack.length); i++) {
+            sb.append("\n        at ").append(stack[i]);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Chạy nhiều ván song song và tổng hợp báo cáo.
+     *
+     * @param games Số ván.
+     * @param maxTicks Số tick tối đa mỗi ván.
+     * @param threads Số luồng.
+     * @param baseSeed Seed sinh ra seed của từng ván.
+     * @return Báo cáo dạng văn bản.
+     */
+    static String run(int games, long maxTicks, int threads, long baseSeed) {
+        SplittableRandom seeds = new SplittableRandom(baseSeed);
+        AtomicInteger threadId = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "Soak-" + threadId.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long start = System.nanoTime();
+        List<Future<GameResult>> futures = new ArrayList<>(games);
+        for (int i = 0; i < games; i++) {
+            long seed = seeds.nextLong();
+            futures.add(pool.submit(() -> play(seed, maxTicks)));
+        }
+        List<GameResult> results = new ArrayList<>(games);
+        for (Future<GameResult> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                System.err.println("SoakRunner: Game task failed: " + e.getMessage());
+            }
+        }
+        pool.shutdownNow();
+        return report(results, threads, maxTicks, System.nanoTime() - start);
+    }
+
+    /**
+     * Tạo báo cáo: thông lượng, số ván theo cách kết thúc, khoảng không chạm
+     * gạch dài nhất, và mọi ván kẹt/lỗi kèm seed.
+     */
+    static String report(List<GameResult> results, int threads, long maxTicks, long elapsedNanos) {
+        int[] outcomes = new int[Outcome.values().length];
+        long totalTicks = 0;
+        GameResult longestDrought = null;
+        for (GameResult result : results) {
+            outcomes[result.outcome().ordinal()]++;
+            totalTicks += result.ticks();
+            if (longestDrought == null || result.maxDrought() > longestDrought.maxDrought()) {
+                longestDrought = result;
+            }
+        }
+
+        double seconds = Math.max(elapsedNanos, 1) / 1e9;
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Games: %d on %d threads, max %d ticks each, %.1f s wall time%n",
+                results.size(), threads, maxTicks, seconds));
+        sb.append(String.format("Throughput: %.0f games/hour, %.0f ticks/sec (%.0fx real time)%n",
+                results.size() * 3600.0 / seconds, totalTicks / seconds,
+                totalTicks / seconds / Constants.Window.FPS));
+        sb.append("Outcomes:");
+        for (Outcome outcome : Outcome.values()) {
+            sb.append(' ').append(outcome).append('=').append(outcomes[outcome.ordinal()]);
+        }
+        sb.append('\n');
+        if (longestDrought != null) {
+            sb.append(String.format("Max ticks without a brick hit: %d (seed %d)%n",
+                    longestDrought.maxDrought(), longestDrought.seed()));
+        }
+        for (GameResult result : results) {
+            if (result.outcome() == Outcome.STALLED) {
+                sb.append(String.format("STALLED seed %d at tick %d (round %d, score %d)%n",
+                        result.seed(), result.ticks(), result.round(), result.score()));
+            } else if (result.outcome() == Outcome.CRASHED) {
+                sb.append(String.format("CRASHED seed %d at tick %d (round %d): %s%n",
+                        result.seed(), result.ticks(), result.round(), result.error()));
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Điểm vào chạy thử tải. Log của game bị tắt trong lúc chạy nhiều ván
+     * (quá nhiều và xen lẫn giữa các luồng); {@code --seed} giữ nguyên log.
+     *
+     * @param args {@code [số ván mỗi lõi] [số tick tối đa] [số luồng] [seed gốc]}
+     *             hoặc {@code --seed <seed> [số tick tối đa]}.
+     */
+    public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("--seed")) {
+            long seed = Long.parseLong(args[1]);
+            long maxTicks = args.length > 2 ? Long.parseLong(args[2]) : DEFAULT_MAX_TICKS;
+            long start = System.nanoTime();
+            GameResult result = play(seed, maxTicks);
+            System.out.print(report(List.of(result), 1, maxTicks, System.nanoTime() - start));
+            System.out.printf("SoakRunner: Seed %d ended %s at tick %d, round %d, score %d%n",
+                    seed, result.outcome(), result.ticks(), result.round(), result.score());
+            return;
+        }
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        int gamesPerCore = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_GAMES_PER_CORE;
+        long maxTicks = args.length > 1 ? Long.parseLong(args[1]) : DEFAULT_MAX_TICKS;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : cores;
+        long baseSeed = args.length > 3 ? Long.parseLong(args[3]) : System.nanoTime();
+
+        PrintStream out = ConsoleLog.quiet(true);
+        out.printf("SoakRunner: %d games on %d threads, base seed %d%n", gamesPerCore * threads, threads, baseSeed);
+        String report;
+        try {
+            report = run(gamesPerCore * threads, maxTicks, threads, baseSeed);
+        } finally {
+            ConsoleLog.restore();
+        }
+        out.print(report);
+    }
+}
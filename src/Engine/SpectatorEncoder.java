@@ -0,0 +1,194 @@
+package Engine;
+
+import Objects.Bricks.Brick;
+import Objects.GameEntities.Ball;
+import Objects.GameEntities.Laser;
+import Objects.GameEntities.Paddle;
+import Objects.PowerUps.PowerUp;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+
+/**
+ * Mã hóa trạng thái ván game thành các frame gửi cho khán giả của
+ * {@link SpectatorServer}: một keyframe đầy đủ, sau đó mỗi tick một delta.
+ *
+ * <p>Mọi frame đều chứa HUD, paddle, bóng, laser và vật phẩm đang rơi với tọa
+ * độ lượng tử hóa 1/{@value #QUANTUM} px trong số nguyên không dấu 16 bit.
+ * Gạch chỉ có trong keyframe (vị trí, kích thước, loại và bitmap còn sống);
+ * delta chỉ liệt kê chỉ số các viên đổi trạng thái sống kể từ frame trước
+ * (bên nhận đảo bit tương ứng). Bố cục chi tiết: docs/Engine/SpectatorServer.md.</p>
+ *
+ * <p>Keyframe được tạo khi bên gọi yêu cầu hoặc khi bộ gạch đã đổi (sang vòng,
+ * chơi lại, khôi phục bản lưu). Chỉ dùng trên luồng mô phỏng.</p>
+ */
+final class SpectatorEncoder {
+    static final byte KEYFRAME = 0;
+    static final byte DELTA = 1;
+    static final int QUANTUM = 8; // Số bước lượng tử mỗi pixel
+    static final int HEADER_BYTES = 4; // Tiền tố độ dài của mỗi frame
+    static final int TYPE_OFFSET = HEADER_BYTES; // Vị trí byte loại frame
+
+    private static final int FIXED_BYTES = 64; // Header, HUD, paddle và các bộ đếm (dư)
+    private static final int BRICK_KEY_BYTES = 9; // x, y, rộng, cao, loại
+
+    private ByteBuffer frame = ByteBuffer.allocate(4096).order(ByteOrder.LITTLE_ENDIAN);
+    private long[] alive = new long[0]; // Bitmap gạch còn sống ở frame trước
+    private int brickCount = -1;
+    private long roundStartTick = Long.MIN_VALUE; // Nhận biết bộ gạch mới
+
+    /**
+     * Mã hóa một frame.
+     *
+     * @param game Ván game nguồn.
+     * @param forceKeyframe true để tạo keyframe dù bộ gạch không đổi.
+     * @return Frame (position 0, limit = độ dài), chỉ hợp lệ tới lần gọi kế tiếp.
+     */
+    ByteBuffer encode(GameManager game, boolean forceKeyframe) {
+        List<Brick> bricks = game.bricks;
+        long startTick = game.getRoundStats().getStartTick();
+        boolean keyframe = forceKeyframe || startTick != roundStartTick || bricks.size() != brickCount;
+        List<Ball> balls = game.balls;
+        List<Laser> lasers = game.getLasers();
+        List<PowerUp> powerUps = game.getPowerUpManager().getActivePowerUpsView();
+        ensureCapacity(FIXED_BYTES + balls.size() * 4 + lasers.size() * 4 + powerUps.size() * 5
+                + bricks.size() * (keyframe ? BRICK_KEY_BYTES + 1 : Integer.BYTES));
+
+        ByteBuffer out = frame;
+        out.clear();
+        out.putInt(0); // Độ dài, ghi lại ở cuối
+        out.put(keyframe ? KEYFRAME : DELTA);
+        out.putLong(game.getAnimationScheduler().getTick());
+        out.putInt(game.getScore());
+        out.put((byte) game.getLives());
+        out.put((byte) game.getRoundsManager().getCurrentRoundNumber());
+        out.put((byte) game.getStateManager().getState().ordinal());
+
+        Paddle paddle = game.paddle;
+        out.putShort(quantize(paddle.getX()));
+        out.putShort(quantize(paddle.getY()));
+        out.putShort(quantize(paddle.getWidth()));
+        out.put((byte) (paddle.isLaserEnabled() ? 1 : 0));
+
+        out.putShort((short) balls.size());
+        for (int i = 0; i < balls.size(); i++) {
+            Ball ball = balls.get(i);
+            out.putShort(quantize(ball.getX()));
+            out.putShort(quantize(ball.getY()));
+        }
+
+        int laserCountPosition = out.position();
+        int laserCount = 0;
+        out.putShort((short) 0);
+        for (int i = 0; i < lasers.size(); i++) {
+            Laser laser = lasers.get(i);
+            if (laser.isAlive()) {
+                out.putShort(quantize(laser.getX()));
+                out.putShort(quantize(laser.getY()));
+                laserCount++;
+            }
+        }
+        out.putShort(laserCountPosition, (short) laserCount);
+
+        int powerUpCountPosition = out.position();
+        int powerUpCount = 0;
+        out.putShort((short) 0);
+        for (int i = 0; i < powerUps.size(); i++) {
+            PowerUp powerUp = powerUps.get(i);
+            if (powerUp.isActive()) {
+                out.put((byte) powerUp.getType().ordinal());
+                out.putShort(quantize(powerUp.getX()));
+                out.putShort(quantize(powerUp.getY()));
+                powerUpCount++;
+            }
+        }
+        out.putShort(powerUpCountPosition, (short) powerUpCount);
+
+        if (keyframe) {
+            writeBricks(out, bricks, startTick);
+        } else {
+            writeBrickChanges(out, bricks);
+        }
+
+        out.putInt(0, out.position() - HEADER_BYTES);
+        out.flip();
+        return out;
+    }
+
+    /**
+     * Keyframe: toàn bộ gạch rồi bitmap còn sống (1 bit mỗi viên, theo thứ tự danh sách).
+     */
+    private void writeBricks(ByteBuffer out, List<Brick> bricks, long startTick) {
+        int count = bricks.size();
+        roundStartTick = startTick;
+        brickCount = count;
+        if (alive.length < (count + 63) >>> 6) {
+            alive = new long[(count + 63) >>> 6];
+        }
+        out.putInt(count);
+        for (int i = 0; i < count; i++) {
+            Brick brick = bricks.get(i);
+            out.putShort(quantize(brick.getX()));
+            out.putShort(quantize(brick.getY()));
+            out.putShort(quantize(brick.getWidth()));
+            out.putShort(quantize(brick.getHeight()));
+            out.put((byte) brick.getBrickType().ordinal());
+        }
+        int bits = 0;
+        for (int i = 0; i < count; i++) {
+            long mask = 1L << (i & 63);
+            if (bricks.get(i).isAlive()) {
+                alive[i >>> 6] |= mask;
+                bits |= 1 << (i & 7);
+            } else {
+                alive[i >>> 6] &= ~mask;
+            }
+            if ((i & 7) == 7) {
+                out.put((byte) bits);
+                bits = 0;
+            }
+        }
+        if ((count & 7) != 0) {
+            out.put((byte) bits);
+        }
+    }
+
+    /**
+     * Delta: chỉ số các viên đổi trạng thái sống (2 byte nếu có tối đa 65536 viên, ngược lại 4 byte).
+     */
+    private void writeBrickChanges(ByteBuffer out, List<Brick> bricks) {
+        boolean wide = brickCount > 0x10000;
+        int countPosition = out.position();
+        int changes = 0;
+        out.putInt(0);
+        for (int i = 0; i < brickCount; i++) {
+            long mask = 1L << (i & 63);
+            boolean was = (alive[i >>> 6] & mask) != 0;
+            if (bricks.get(i).isAlive() != was) {
+                alive[i >>> 6] ^= mask;
+                if (wide) {
+                    out.putInt(i);
+                } else {
+                    out.putShort((short) i);
+                }
+                changes++;
+            }
+        }
+        out.putInt(countPosition, changes);
+    }
+
+    private void ensureCapacity(int bytes) {
+        if (frame.capacity() < bytes) {
+            frame = ByteBuffer.allocate(Math.max(bytes, frame.capacity() * 2)).order(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+
+    /**
+     * Lượng tử hóa một tọa độ pixel thành số nguyên không dấu 16 bit (giới hạn trong 0..8191.875 px).
+     */
+    static short quantize(double pixels) {
+        long value = Math.round(pixels * QUANTUM);
+        return (short) Math.max(0, Math.min(0xFFFF, value));
+    }
+}
@@ -0,0 +1,238 @@
+package Engine;
+
+import Rounds.ProceduralRound;
+import Utils.ConsoleLog;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Thử tải {@link SpectatorServer}: một ván do {@link TrackingBot} chơi ở 60
+ * tick/giây trên {@link SimulationThread}, phát cho N khán giả cục bộ.
+ *
+ * <p>Mọi khán giả chạy trên một luồng "SpectatorLoad" với một {@link Selector}
+ * riêng, đọc luồng byte và tách frame theo tiền tố độ dài để kiểm tra frame
+ * đầu tiên là keyframe. Báo cáo gồm số byte mỗi tick, thông lượng và thời gian
+ * CPU của từng luồng (mô phỏng, Spectator, khán giả giả lập).</p>
+ *
+ * <pre>
+ * java -cp out Engine.SpectatorLoadTest [số khán giả] [số giây] [--stress]
+ * </pre>
+ */
+public final class SpectatorLoadTest {
+    private static final int DEFAULT_CLIENTS = 1000;
+    private static final int DEFAULT_SECONDS = 20;
+    private static final long WARM_UP_MILLIS = 3000; // Chờ mọi khán giả nhận keyframe và JIT ổn định
+    private static final int READ_BUFFER_BYTES = 64 * 1024;
+
+    /**
+     * Constructor private để ngăn việc tạo instance của lớp tiện ích.
+     */
+    private SpectatorLoadTest() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Một khán giả giả lập: tách frame từ luồng byte mà không giữ nội dung frame.
+     */
+    private static final class Viewer {
+        final SocketChannel channel;
+        int headerBytes; // Số byte độ dài đã đọc của frame hiện tại
+        int length; // Độ dài frame hiện tại (sau tiền tố)
+        int bodyLeft; // Số byte thân frame còn phải bỏ qua
+        long frames;
+        boolean badStart; // Frame đầu tiên không phải keyframe
+
+        Viewer(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        void consume(ByteBuffer data) {
+            while (data.hasRemaining()) {
+                if (headerBytes < SpectatorEncoder.HEADER_BYTES) {
+                    // Tiền tố độ dài little-endian, có thể bị cắt giữa hai lần đọc
+                    length |= (data.get() & 0xFF) << (8 * headerBytes);
+                    if (++headerBytes == SpectatorEncoder.HEADER_BYTES) {
+                        bodyLeft = length;
+                    }
+                } else {
+                    if (frames == 0 && bodyLeft == length && data.get(data.position()) != SpectatorEncoder.KEYFRAME) {
+                        badStart = true;
+                    }
+                    int skip = Math.min(bodyLeft, data.remaining());
+                    data.position(data.position() + skip);
+                    bodyLeft -= skip;
+                }
+                if (headerBytes == SpectatorEncoder.HEADER_BYTES && bodyLeft == 0) {
+                    frames++;
+                    headerBytes = 0;
+                    length = 0;
+                }
+            }
+        }
+    }
+
+    /**
+     * Điểm vào thử tải. Log của game bị tắt trong lúc chạy.
+     *
+     * @param args {@code [số khán giả] [số giây] [--stress]}.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int clientCount = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_CLIENTS;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_SECONDS;
+        boolean stress = args.length > 2 && args[2].equals("--stress");
+
+        PrintStream out = ConsoleLog.quiet(true);
+
+        GameManager game = new GameManager(1);
+        game.setAnalyticsEnabled(false);
+        game.setAudioEnabled(false);
+        game.setPlayerName("BOT");
+        if (stress) {
+            game.setProceduralSpec(ProceduralRound.Spec.stress());
+        }
+        game.getStateManager().setState(GameState.PLAYING);
+        TrackingBot bot = new TrackingBot(1);
+        long[] nextSeed = {2};
+        PaddleController controller = g -> {
+            // Ván kết thúc thì chơi ván mới, để luôn có trạng thái để phát
+            GameState state = g.getStateManager().getState();
+            if (state == GameState.GAME_OVER || state == GameState.WIN) {
+                g.resetGame(nextSeed[0]++);
+                g.getStateManager().setState(GameState.PLAYING);
+            } else {
+                bot.control(g);
+            }
+        };
+
+        SimulationThread simulation = new SimulationThread(game, new SnapshotExchange());
+        SpectatorServer server = new SpectatorServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        simulation.setController(controller);
+        simulation.setSpectators(server);
+        simulation.start();
+
+        Selector selector = Selector.open();
+        List<Viewer> viewers = new ArrayList<>(clientCount);
+        InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getPort());
+        for (int i = 0; i < clientCount; i++) {
+            SocketChannel channel = SocketChannel.open(address);
+            channel.configureBlocking(false);
+            Viewer viewer = new Viewer(channel);
+            channel.register(selector, SelectionKey.OP_READ, viewer);
+            viewers.add(viewer);
+        }
+        Thread reader = new Thread(() -> readLoop(selector), "SpectatorLoad");
+        reader.setDaemon(true);
+        reader.start();
+
+        Thread.sleep(WARM_UP_MILLIS);
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long[] cpuBefore = {cpu(threads, "Simulation"), cpu(threads, "Spectator"), cpu(threads, "SpectatorLoad"), processCpu()};
+        long ticksBefore = simulation.getTickCount();
+        long framesBefore = server.getFrameCount();
+        long frameBytesBefore = server.getFrameBytes();
+        long keyframesBefore = server.getKeyframeCount();
+        long keyframeBytesBefore = server.getKeyframeBytes();
+        long writtenBefore = server.getBytesWritten();
+        long start = System.nanoTime();
+
+        Thread.sleep(seconds * 1000L);
+
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        long[] cpuAfter = {cpu(threads, "Simulation"), cpu(threads, "Spectator"), cpu(threads, "SpectatorLoad"), processCpu()};
+        long ticks = simulation.getTickCount() - ticksBefore;
+        long frames = server.getFrameCount() - framesBefore;
+        long keyframes = server.getKeyframeCount() - keyframesBefore;
+        long keyframeBytes = server.getKeyframeBytes() - keyframeBytesBefore;
+        long deltaBytes = server.getFrameBytes() - frameBytesBefore - keyframeBytes;
+        long written = server.getBytesWritten() - writtenBefore;
+        int synced = 0;
+        int badStarts = 0;
+        for (Viewer viewer : viewers) {
+            synced += viewer.frames > 0 ? 1 : 0;
+            badStarts += viewer.badStart ? 1 : 0;
+        }
+        int connected = server.getClientCount();
+        long dropped = server.getDroppedClients();
+        long skipped = server.getSkippedTicks();
+
+        simulation.stop();
+        int bricks = game.bricks.size();
+        server.close();
+        selector.close();
+        ConsoleLog.restore();
+
+        out.printf("Spectators: %d connected, %d received frames, %d bad first frame, %d dropped as too slow%n",
+                connected, synced, badStarts, dropped);
+        out.printf("Ticks: %d in %.1f s (%.1f/s), %d frames, %d keyframes, %d ticks skipped, %d bricks%n",
+                ticks, elapsed, ticks / elapsed, frames, keyframes, skipped, bricks);
+        out.printf("Frame size: %.1f bytes per delta, %.0f bytes per keyframe%n",
+                (double) deltaBytes / Math.max(1, frames - keyframes),
+                (double) server.getKeyframeBytes() / Math.max(1, server.getKeyframeCount()));
+        out.printf("Sent: %.0f bytes per tick to all spectators, %.2f MB/s%n",
+                (double) written / Math.max(1, frames), written / elapsed / 1e6);
+        out.printf("CPU (%% of one core): simulation %.1f%%, spectator I/O %.1f%%, load clients %.1f%%, process %.1f%%%n",
+                percent(cpuAfter[0] - cpuBefore[0], elapsed), percent(cpuAfter[1] - cpuBefore[1], elapsed),
+                percent(cpuAfter[2] - cpuBefore[2], elapsed), percent(cpuAfter[3] - cpuBefore[3], elapsed));
+    }
+
+    /**
+     * Vòng đọc của mọi khán giả giả lập.
+     */
+    private static void readLoop(Selector selector) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(READ_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            while (selector.isOpen()) {
+                selector.select();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    Viewer viewer = (Viewer) key.attachment();
+                    buffer.clear();
+                    if (viewer.channel.read(buffer) < 0) {
+                        key.cancel();
+                        viewer.channel.close();
+                        continue;
+                    }
+                    buffer.flip();
+                    viewer.consume(buffer);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // Selector bị đóng khi thử tải kết thúc
+        }
+    }
+
+    /**
+     * Thời gian CPU (nano giây) của luồng có tên cho trước, 0 nếu không tìm thấy.
+     */
+    private static long cpu(ThreadMXBean threads, String name) {
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().equals(name)) {
+                return Math.max(0, threads.getThreadCpuTime(thread.getId()));
+            }
+        }
+        return 0;
+    }
+
+    private static long processCpu() {
+        return ProcessHandle.current().info().totalCpuDuration().orElse(Duration.ZERO).toNanos();
+    }
+
+    private static double percent(long cpuNanos, double seconds) {
+        return cpuNanos / 1e9 / seconds * 100;
+    }
+}
@@ -0,0 +1,405 @@
+package Engine;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Máy chủ phát trực tiếp ván đang chơi cho khán giả qua TCP, dùng một
+ * {@link Selector} trên một luồng riêng ("Spectator").
+ *
+ * <p>Luồng mô phỏng gọi {@link #broadcast(GameManager)} sau mỗi chu kỳ tick:
+ * trạng thái được mã hóa bởi {@link SpectatorEncoder} (keyframe hoặc delta),
+ * chép vào một frame lấy từ pool rồi đưa vào hàng đợi cho luồng Spectator.
+ * Luồng mô phỏng không bao giờ chạm vào socket nên không bị mạng làm chậm.
+ * Nếu luồng Spectator tụt lại quá {@value #MAX_QUEUED_FRAMES} frame, các tick
+ * tiếp theo không được mã hóa cho tới khi hàng đợi cạn; không mất thông tin
+ * gạch, vì delta luôn so với frame đã gửi trước đó chứ không phải tick trước.</p>
+ *
+ * <p>Luồng Spectator ghi mỗi frame thẳng từ frame dùng chung vào socket của
+ * từng khán giả; chỉ phần socket chưa nhận hết mới được chép vào bộ đệm gửi
+ * riêng của khán giả đó, bộ đệm này bị giới hạn {@value #MAX_BACKLOG_BYTES}
+ * byte. Khán giả đọc chậm tới mức vượt giới hạn bị ngắt kết nối. Khán giả mới
+ * chỉ nhận frame từ keyframe kế tiếp. Keyframe cho người mới vào được tạo
+ * kèm delta của cùng tick (người đã xem nhận delta, người mới nhận keyframe)
+ * và cách keyframe trước ít nhất {@value #MIN_KEYFRAME_INTERVAL} frame, để
+ * nhiều người vào cùng lúc chỉ tốn một keyframe. Keyframe do bộ gạch đổi
+ * (sang vòng, chơi lại) được gửi cho mọi khán giả.</p>
+ */
+public final class SpectatorServer implements AutoCloseable {
+    static final int MAX_BACKLOG_BYTES = 512 * 1024; // Đủ cho keyframe của lưới chạy thử tải 24000 gạch
+    static final int MAX_QUEUED_FRAMES = 8;
+    // Số frame tối thiểu giữa hai keyframe do khán giả mới yêu cầu (nhiều người vào cùng lúc chỉ tốn một keyframe)
+    static final int MIN_KEYFRAME_INTERVAL = 15;
+    private static final int READ_BUFFER_BYTES = 1024;
+
+    private final ServerSocketChannel serverChannel;
+    private final Selector selector;
+    private final Thread thread;
+    private final SpectatorEncoder encoder = new SpectatorEncoder();
+
+    // Trao frame giữa luồng mô phỏng và luồng Spectator
+    private final Queue<Frame> frames = new ConcurrentLinkedQueue<>();
+    private final Queue<Frame> pool = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queuedFrames = new AtomicInteger();
+    private final AtomicBoolean keyframeRequested = new AtomicBoolean();
+    // Chỉ luồng mô phỏng truy cập
+    private long lastKeyframe = -MIN_KEYFRAME_INTERVAL; // Số thứ tự frame của keyframe gần nhất
+
+    // Chỉ luồng Spectator truy cập
+    private final List<Client> clients = new ArrayList<>();
+    private final ByteBuffer readBuffer = ByteBuffer.allocate(READ_BUFFER_BYTES);
+
+    private volatile boolean closed;
+    private volatile int clientCount;
+    // Thống kê: frame do luồng mô phỏng ghi, phần còn lại do luồng Spectator ghi
+    private volatile long frameCount;
+    private volatile long keyframeCount;
+    private volatile long keyframeBytes;
+    private volatile long frameBytes;
+    private volatile long skippedTicks;
+    private volatile long bytesWritten;
+    private volatile long droppedClients;
+
+    /**
+     * Một frame đã mã hóa chờ gửi, được tái sử dụng qua pool.
+     */
+    private static final class Frame {
+        ByteBuffer data = ByteBuffer.allocate(0);
+        boolean joinOnly; // Keyframe chỉ dành cho khán giả chưa đồng bộ
+    }
+
+    /**
+     * Trạng thái một khán giả.
+     */
+    private static final class Client {
+        final SocketChannel channel;
+        final SelectionKey key;
+        ByteBuffer backlog; // Dữ liệu chưa gửi (chế độ ghi), null khi trống
+        boolean synced; // Đã nhận keyframe
+
+        Client(SocketChannel channel, SelectionKey key) {
+            this.channel = channel;
+            this.key = key;
+        }
+    }
+
+    /**
+     * Mở cổng lắng nghe và khởi động luồng Spectator.
+     *
+     * @param address Địa chỉ lắng nghe (cổng 0 = cổng ngẫu nhiên, xem {@link #getPort()}).
+     * @throws IOException Nếu không mở được cổng.
+     */
+    public SpectatorServer(InetSocketAddress address) throws IOException {
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        try {
+            serverChannel.bind(address, 1024);
+            serverChannel.configureBlocking(false);
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            serverChannel.close();
+            selector.close();
+            throw e;
+        }
+        this.thread = new Thread(this::run, "Spectator");
+        this.thread.setDaemon(true);
+        this.thread.start();
+        System.out.println("SpectatorServer: Listening on " + serverChannel.getLocalAddress());
+    }
+
+    /**
+     * Lấy cổng đang lắng nghe.
+     *
+     * @return Số cổng.
+     */
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * Mã hóa trạng thái hiện tại và đưa cho luồng Spectator gửi đi. Không làm
+     * gì khi không có khán giả. Chỉ được gọi từ luồng mô phỏng.
+     *
+     * @param game Ván game nguồn.
+     */
+    public void broadcast(GameManager game) {
+        if (closed || clientCount == 0) {
+            return;
+        }
+        if (queuedFrames.get() >= MAX_QUEUED_FRAMES) {
+            skippedTicks++;
+            return;
+        }
+        boolean join = frameCount - lastKeyframe >= MIN_KEYFRAME_INTERVAL && keyframeRequested.getAndSet(false);
+        boolean keyframe = enqueue(encoder.encode(game, false), false);
+        if (join && !keyframe) {
+            // Người mới nhận keyframe của cùng tick; bitmap gạch không đổi nên delta kế tiếp vẫn đúng cho cả hai nhóm
+            enqueue(encoder.encode(game, true), true);
+        }
+        selector.wakeup();
+    }
+
+    /**
+     * Chép frame vừa mã hóa vào một frame của pool và đưa vào hàng đợi.
+     *
+     * @return true nếu đó là keyframe.
+     */
+    private boolean enqueue(ByteBuffer encoded, boolean joinOnly) {
+        Frame frame = pool.poll();
+        if (frame == null) {
+            frame = new Frame();
+        }
+        if (frame.data.capacity() < encoded.remaining()) {
+            frame.data = ByteBuffer.allocate(Math.max(encoded.remaining(), frame.data.capacity() * 2));
+        }
+        frame.data.clear();
+        frame.data.put(encoded).flip();
+        frame.joinOnly = joinOnly;
+        frameCount++;
+        frameBytes += frame.data.remaining();
+        boolean keyframe = frame.data.get(SpectatorEncoder.TYPE_OFFSET) == SpectatorEncoder.KEYFRAME;
+        if (keyframe) {
+            keyframeCount++;
+            keyframeBytes += frame.data.remaining();
+            lastKeyframe = frameCount;
+        }
+        frames.add(frame);
+        queuedFrames.incrementAndGet();
+        return keyframe;
+    }
+
+    /**
+     * Đóng mọi kết nối và dừng luồng Spectator.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        selector.wakeup();
+        try {
+            thread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        System.out.println("SpectatorServer: Closed after " + frameCount + " frames, "
+                + droppedClients + " slow clients dropped");
+    }
+
+    /**
+     * Vòng lặp của luồng Spectator: nhận kết nối, phát frame và xả bộ đệm gửi.
+     */
+    private void run() {
+        try {
+            while (!closed) {
+                selector.select();
+                Frame frame;
+                while ((frame = frames.poll()) != null) {
+                    deliver(frame.data, frame.joinOnly);
+                    queuedFrames.decrementAndGet();
+                    pool.offer(frame);
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                    } else {
+                        Client client = (Client) key.attachment();
+                        if (key.isReadable()) {
+                            read(client);
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            flush(client);
+                        }
+                    }
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("SpectatorServer: Stopped: " + e.getMessage());
+        } finally {
+            for (Client client : clients) {
+                closeQuietly(client);
+            }
+            clients.clear();
+            clientCount = 0;
+            try {
+                serverChannel.close();
+                selector.close();
+            } catch (IOException e) {
+                System.err.println("SpectatorServer: Failed to close: " + e.getMessage());
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = serverChannel.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+            SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+            Client client = new Client(channel, key);
+            key.attach(client);
+            clients.add(client);
+            clientCount = clients.size();
+            keyframeRequested.set(true);
+        }
+    }
+
+    /**
+     * Khán giả không gửi gì có ý nghĩa: đọc bỏ, và đóng kết nối khi họ ngắt.
+     */
+    private void read(Client client) {
+        try {
+            int read;
+            do {
+                readBuffer.clear();
+                read = client.channel.read(readBuffer);
+            } while (read > 0);
+            if (read < 0) {
+                drop(client, null);
+            }
+        } catch (IOException e) {
+            drop(client, null);
+        }
+    }
+
+    /**
+     * Gửi một frame cho các khán giả cần nó: delta cho người đã đồng bộ,
+     * keyframe cho người chưa đồng bộ (và cho mọi người nếu không phải {@code joinOnly}).
+     */
+    private void deliver(ByteBuffer frame, boolean joinOnly) {
+        boolean keyframe = frame.get(SpectatorEncoder.TYPE_OFFSET) == SpectatorEncoder.KEYFRAME;
+        int length = frame.limit();
+        // Duyệt ngược để drop (hoán đổi với phần tử cuối) không làm bỏ sót khán giả
+        for (int i = clients.size() - 1; i >= 0; i--) {
+            Client client = clients.get(i);
+            if (!client.synced) {
+                if (!keyframe) {
+                    continue;
+                }
+                client.synced = true;
+            } else if (joinOnly) {
+                continue;
+            }
+            try {
+                if (client.backlog == null) {
+                    frame.position(0);
+                    bytesWritten += client.channel.write(frame);
+                    if (frame.hasRemaining()) {
+                        append(client, frame);
+                    }
+                } else {
+                    frame.position(0);
+                    append(client, frame);
+                    flush(client);
+                }
+            } catch (IOException e) {
+                drop(client, null);
+            }
+        }
+        frame.position(0).limit(length);
+    }
+
+    /**
+     * Chép phần frame còn lại vào bộ đệm gửi của khán giả; ngắt kết nối nếu vượt giới hạn.
+     */
+    private void append(Client client, ByteBuffer data) {
+        int pending = client.backlog == null ? 0 : client.backlog.position();
+        int needed = pending + data.remaining();
+        if (needed > MAX_BACKLOG_BYTES) {
+            drop(client, "too slow, " + needed + " bytes pending");
+            return;
+        }
+        if (client.backlog == null || client.backlog.capacity() < needed) {
+            ByteBuffer grown = ByteBuffer.allocate(Math.min(MAX_BACKLOG_BYTES, Math.max(needed, pending * 2)));
+            if (client.backlog != null) {
+                client.backlog.flip();
+                grown.put(client.backlog);
+            }
+            client.backlog = grown;
+        }
+        client.backlog.put(data);
+        client.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+    }
+
+    /**
+     * Gửi tiếp dữ liệu trong bộ đệm; trả bộ đệm khi đã gửi hết.
+     */
+    private void flush(Client client) {
+        ByteBuffer backlog = client.backlog;
+        if (backlog == null) {
+            client.key.interestOps(SelectionKey.OP_READ);
+            return;
+        }
+        try {
+            backlog.flip();
+            bytesWritten += client.channel.write(backlog);
+            backlog.compact();
+            if (backlog.position() == 0) {
+                client.backlog = null;
+                client.key.interestOps(SelectionKey.OP_READ);
+            }
+        } catch (IOException e) {
+            drop(client, null);
+        }
+    }
+
+    /**
+     * Ngắt kết nối một khán giả.
+     *
+     * @param reason Lý do để ghi log, null nếu khán giả tự ngắt.
+     */
+    private void drop(Client client, String reason) {
+        int index = clients.indexOf(client);
+        if (index < 0) {
+            return;
+        }
+        // Hoán đổi với phần tử cuối để xóa O(1)
+        clients.set(index, clients.get(clients.size() - 1));
+        clients.remove(clients.size() - 1);
+        clientCount = clients.size();
+        closeQuietly(client);
+        if (reason != null) {
+            droppedClients++;
+            System.err.println("SpectatorServer: Dropped client: " + reason);
+        }
+    }
+
+    private static void closeQuietly(Client client) {
+        client.key.cancel();
+        try {
+            client.channel.close();
+        } catch (IOException e) {
+            // Kết nối đã hỏng, không còn gì để làm
+        }
+    }
+
+    // Thống kê
+
+    public int getClientCount() { return clientCount; }
+    public long getFrameCount() { return frameCount; }
+    public long getKeyframeCount() { return keyframeCount; }
+    public long getKeyframeBytes() { return keyframeBytes; }
+    public long getFrameBytes() { return frameBytes; }
+    public long getSkippedTicks() { return skippedTicks; }
+    public long getBytesWritten() { return bytesWritten; }
+    public long getDroppedClients() { return droppedClients; }
+}
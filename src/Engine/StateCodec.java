@@ -0,0 +1,597 @@
+package Engine;
+
+import Objects.Bricks.Brick;
+import Objects.Bricks.SilverBrick;
+import Objects.GameEntities.Ball;
+import Objects.GameEntities.Laser;
+import Objects.GameEntities.Paddle;
+import Objects.PowerUps.PowerUp;
+import Objects.PowerUps.PowerUpType;
+import Utils.Constants;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Bộ mã hóa trạng thái ván game gọn, dùng cho mạng, replay và tua lại: một
+ * keyframe rồi các delta so với frame đã mã hóa trước đó.
+ *
+ * <p>Trạng thái được chụp vào một {@link State} (gạch theo định dạng byte của
+ * {@link GameSnapshot}: cờ còn sống | máu; thực thể đã lượng tử hóa). Mỗi frame gồm:</p>
+ * <ul>
+ *   <li>Header: loại frame, tick và điểm (zigzag varint của chênh lệch), mạng,
+ *       vòng, trạng thái ván. Keyframe thêm seed và số gạch.</li>
+ *   <li>Gạch: XOR mảng byte gạch với frame trước (keyframe: với viên liền
+ *       trước), nén RLE thành các cặp (số byte không đổi, số byte đổi + các
+ *       byte XOR). Tick không có gạch nào đổi chỉ tốn vài byte dù có hàng chục
+ *       nghìn viên.</li>
+ *   <li>Thực thể: số bóng, laser, vật phẩm (varint), rồi đóng gói bit. Tọa độ 1/{@value #POSITION_QUANTUM} px trong
+ *       {@value #POSITION_BITS} bit, vận tốc bóng 1/{@value #VELOCITY_QUANTUM}
+ *       px/tick trong {@value #VELOCITY_BITS} bit có dấu.</li>
+ * </ul>
+ *
+ * <p>Keyframe là delta so với trạng thái rỗng, nên bên nhận chỉ cần một hàm
+ * {@link #decode(ByteBuffer, State)}. Vị trí và kích thước gạch không được
+ * gửi: bên nhận dựng lại bố cục từ seed và số vòng như {@link GameSnapshot}.</p>
+ *
+ * <p>Mã hóa và giải mã không cấp phát khi các mảng của {@link State} đã đủ lớn;
+ * frame được ghi vào {@link ByteBuffer} do bên gọi sở hữu và dùng lại. Bố cục
+ * chi tiết: docs/Engine/StateCodec.md. Một instance chỉ dùng trên một luồng.</p>
+ */
+public final class StateCodec {
+    public static final byte KEYFRAME = 0;
+    public static final byte DELTA = 1;
+    static final int POSITION_QUANTUM = 8; // Số bước lượng tử mỗi pixel
+    static final int POSITION_BITS = 13; // 0..1023 px, đủ cho cửa sổ 600x800
+    static final int VELOCITY_QUANTUM = 256;
+    static final int VELOCITY_BITS = 12; // ±8 px/tick, tốc độ bóng tối đa là 6
+    static final int POWER_UP_TYPE_BITS = 3;
+
+    private static final int POSITION_MAX = (1 << POSITION_BITS) - 1;
+    private static final int VELOCITY_MIN = -(1 << (VELOCITY_BITS - 1));
+    private static final int VELOCITY_MAX = (1 << (VELOCITY_BITS - 1)) - 1;
+    private static final int HEADER_MAX_BYTES = 48; // Loại, varint, seed, HUD (dư)
+    private static final int MAX_BRICKS = Constants.Procedural.MAX_COLUMNS * Constants.Procedural.MAX_ROWS;
+    private static final int MAX_VARINT_BYTES = 5; // Varint của một số int không âm
+    private static final PowerUpType[] POWER_UP_TYPES = PowerUpType.values();
+
+    private State current = new State();
+    private State reference = new State(); // Trạng thái của frame đã mã hóa trước đó
+
+    /**
+     * Trạng thái đã lượng tử hóa của một ván, dùng lại giữa các frame. Bên mã
+     * hóa chụp vào đây; bên giải mã áp frame lên đây.
+     */
+    public static final class State {
+        long tick;
+        long seed;
+        int score;
+        int lives;
+        int round;
+        int gameState;
+        boolean synced; // Đã nhận keyframe (bên giải mã)
+
+        // Bộ đệm bit của phần thực thể, chỉ dùng trong một lần mã hóa/giải mã
+        long bits;
+        int bitCount;
+
+        int brickCount;
+        byte[] bricks = new byte[0];
+
+        int paddleX;
+        int paddleY;
+        int paddleWidth;
+        boolean paddleLaser;
+
+        int ballCount;
+        int[] ballX = new int[4];
+        int[] ballY = new int[4];
+        int[] ballDx = new int[4];
+        int[] ballDy = new int[4];
+        boolean[] ballAttached = new boolean[4];
+
+        int laserCount;
+        int[] laserX = new int[8];
+        int[] laserY = new int[8];
+
+        int powerUpCount;
+        byte[] powerUpType = new byte[4];
+        int[] powerUpX = new int[4];
+        int[] powerUpY = new int[4];
+
+        /**
+         * Chụp trạng thái hiện tại của ván game.
+         *
+         * @param game Ván game nguồn (trên luồng mô phỏng).
+         */
+        void capture(GameManager game) {
+            tick = game.getAnimationScheduler().getTick();
+            seed = game.getSeed();
+            score = game.getScore();
+            lives = game.getLives();
+            round = game.getRoundsManager().getCurrentRoundNumber();
+            gameState = game.getStateManager().getState().ordinal();
+
+            List<Brick> source = game.bricks;
+            setBrickCount(source.size());
+            for (int i = 0; i < brickCount; i++) {
+                Brick brick = source.get(i);
+                int hp = brick instanceof SilverBrick silver ? silver.getCurrentHP() : brick.getHitPoints();
+                bricks[i] = (byte) ((brick.isAlive() ? GameSnapshot.ALIVE_FLAG : 0) | (hp & 0x7F));
+            }
+
+            Paddle paddle = game.paddle;
+            paddleX = position(paddle.getX());
+            paddleY = position(paddle.getY());
+            paddleWidth = position(paddle.getWidth());
+            paddleLaser = paddle.isLaserEnabled();
+
+            List<Ball> balls = game.balls;
+            setBallCount(balls.size());
+            for (int i = 0; i < ballCount; i++) {
+                Ball ball = balls.get(i);
+                ballX[i] = position(ball.getX());
+                ballY[i] = position(ball.getY());
+                ballDx[i] = velocity(ball.getVelocity().getDx());
+                ballDy[i] = velocity(ball.getVelocity().getDy());
+                ballAttached[i] = ball.isAttached();
+            }
+
+            List<Laser> lasers = game.getLasers();
+            setLaserCount(lasers.size());
+            for (int i = 0; i < laserCount; i++) {
+                Laser laser = lasers.get(i);
+                laserX[i] = position(laser.getX());
+                laserY[i] = position(laser.getY());
+            }
+
+            List<PowerUp> powerUps = game.getPowerUpManager().getActivePowerUpsView();
+            setPowerUpCount(powerUps.size());
+            for (int i = 0; i < powerUpCount; i++) {
+                PowerUp powerUp = powerUps.get(i);
+                powerUpType[i] = (byte) powerUp.getType().ordinal();
+                powerUpX[i] = position(powerUp.getX());
+                powerUpY[i] = position(powerUp.getY());
+            }
+        }
+
+        /**
+         * Đưa về trạng thái rỗng (gốc của keyframe). Giữ nguyên các mảng.
+         */
+        void clear() {
+            tick = 0;
+            seed = 0;
+            score = 0;
+            lives = 0;
+            round = 0;
+            gameState = 0;
+            synced = false;
+            Arrays.fill(bricks, 0, brickCount, (byte) 0);
+            brickCount = 0;
+            paddleX = 0;
+            paddleY = 0;
+            paddleWidth = 0;
+            paddleLaser = false;
+            ballCount = 0;
+            laserCount = 0;
+            powerUpCount = 0;
+        }
+
+        /**
+         * So sánh hai trạng thái (dùng để kiểm tra mã hóa/giải mã).
+         *
+         * @param other Trạng thái khác.
+         * @return true nếu mọi trường đã lượng tử hóa đều bằng nhau.
+         */
+        public boolean sameAs(State other) {
+            if (tick != other.tick || seed != other.seed || score != other.score || lives != other.lives
+                    || round != other.round || gameState != other.gameState
+                    || paddleX != other.paddleX || paddleY != other.paddleY
+                    || paddleWidth != other.paddleWidth || paddleLaser != other.paddleLaser
+                    || !Arrays.equals(bricks, 0, brickCount, other.bricks, 0, other.brickCount)
+                    || ballCount != other.ballCount || laserCount != other.laserCount
+                    || powerUpCount != other.powerUpCount) {
+                return false;
+            }
+            for (int i = 0; i < ballCount; i++) {
+                if (ballX[i] != other.ballX[i] || ballY[i] != other.ballY[i] || ballDx[i] != other.ballDx[i]
+                        || ballDy[i] != other.ballDy[i] || ballAttached[i] != other.ballAttached[i]) {
+                    return false;
+                }
+            }
+            for (int i = 0; i < laserCount; i++) {
+                if (laserX[i] != other.laserX[i] || laserY[i] != other.laserY[i]) {
+                    return false;
+                }
+            }
+            for (int i = 0; i < powerUpCount; i++) {
+                if (powerUpType[i] != other.powerUpType[i] || powerUpX[i] != other.powerUpX[i]
+                        || powerUpY[i] != other.powerUpY[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        void setBrickCount(int count) {
+            if (bricks.length < count) {
+                bricks = Arrays.copyOf(bricks, count);
+            }
+            if (count > brickCount) {
+                Arrays.fill(bricks, brickCount, count, (byte) 0);
+            }
+            brickCount = count;
+        }
+
+        void setBallCount(int count) {
+            if (ballX.length < count) {
+                int capacity = Math.max(count, ballX.length * 2);
+                ballX = Arrays.copyOf(ballX, capacity);
+                ballY = Arrays.copyOf(ballY, capacity);
+                ballDx = Arrays.copyOf(ballDx, capacity);
+                ballDy = Arrays.copyOf(ballDy, capacity);
+                ballAttached = Arrays.copyOf(ballAttached, capacity);
+            }
+            ballCount = count;
+        }
+
+        void setLaserCount(int count) {
+            if (laserX.length < count) {
+                int capacity = Math.max(count, laserX.length * 2);
+                laserX = Arrays.copyOf(laserX, capacity);
+                laserY = Arrays.copyOf(laserY, capacity);
+            }
+            laserCount = count;
+        }
+
+        void setPowerUpCount(int count) {
+            if (powerUpX.length < count) {
+                int capacity = Math.max(count, powerUpX.length * 2);
+                powerUpType = Arrays.copyOf(powerUpType, capacity);
+                powerUpX = Arrays.copyOf(powerUpX, capacity);
+                powerUpY = Arrays.copyOf(powerUpY, capacity);
+            }
+            powerUpCount = count;
+        }
+
+        public long getTick() { return tick; }
+        public long getSeed() { return seed; }
+        public int getScore() { return score; }
+        public int getLives() { return lives; }
+        public int getRound() { return round; }
+        public GameState getGameState() { return GameState.values()[gameState]; }
+        public boolean isSynced() { return synced; }
+
+        public int getBrickCount() { return brickCount; }
+        public boolean isBrickAlive(int index) { return (bricks[index] & GameSnapshot.ALIVE_FLAG) != 0; }
+        public int getBrickHitPoints(int index) { return bricks[index] & 0x7F; }
+
+        public double getPaddleX() { return (double) paddleX / POSITION_QUANTUM; }
+        public double getPaddleY() { return (double) paddleY / POSITION_QUANTUM; }
+        public double getPaddleWidth() { return (double) paddleWidth / POSITION_QUANTUM; }
+        public boolean isPaddleLaser() { return paddleLaser; }
+
+        public int getBallCount() { return ballCount; }
+        public double getBallX(int index) { return (double) ballX[index] / POSITION_QUANTUM; }
+        public double getBallY(int index) { return (double) ballY[index] / POSITION_QUANTUM; }
+        public double getBallDx(int index) { return (double) ballDx[index] / VELOCITY_QUANTUM; }
+        public double getBallDy(int index) { return (double) ballDy[index] / VELOCITY_QUANTUM; }
+        public boolean isBallAttached(int index) { return ballAttached[index]; }
+
+        public int getLaserCount() { return laserCount; }
+        public double getLaserX(int index) { return (double) laserX[index] / POSITION_QUANTUM; }
+        public double getLaserY(int index) { return (double) laserY[index] / POSITION_QUANTUM; }
+
+        public int getPowerUpCount() { return powerUpCount; }
+        public PowerUpType getPowerUpType(int index) { return POWER_UP_TYPES[powerUpType[index]]; }
+        public double getPowerUpX(int index) { return (double) powerUpX[index] / POSITION_QUANTUM; }
+        public double getPowerUpY(int index) { return (double) powerUpY[index] / POSITION_QUANTUM; }
+    }
+
+    /**
+     * Mã hóa trạng thái hiện tại của ván game thành một frame. Keyframe được
+     * tạo khi bên gọi yêu cầu, ở lần mã hóa đầu tiên, hoặc khi seed hay số gạch
+     * đã đổi (chơi lại, bộ vòng khác); sang vòng có cùng số gạch vẫn là delta.
+     *
+     * @param game Ván game nguồn (trên luồng mô phỏng).
+     * @param out Bộ đệm đích, ghi từ position hiện tại; cần ít nhất
+     *            {@link #maxFrameBytes(GameManager)} byte trống.
+     * @param forceKeyframe true để tạo keyframe dù có thể gửi delta.
+     * @return Số byte đã ghi.
+     * @throws java.nio.BufferOverflowException Nếu bộ đệm không đủ chỗ.
+     */
+    public int encode(GameManager game, ByteBuffer out, boolean forceKeyframe) {
+        State state = current;
+        state.capture(game);
+        State previous = reference;
+        boolean keyframe = forceKeyframe || !previous.synced || previous.seed != state.seed
+                || previous.brickCount != state.brickCount;
+        if (keyframe) {
+            previous.clear();
+            // Gạch của keyframe được XOR với viên liền trước: các viên giống nhau thành dãy 0
+            previous.setBrickCount(state.brickCount);
+            if (state.brickCount > 1) {
+                System.arraycopy(state.bricks, 0, previous.bricks, 1, state.brickCount - 1);
+            }
+        }
+
+        int start = out.position();
+        out.put(keyframe ? KEYFRAME : DELTA);
+        putVarLong(out, zigzag(state.tick - previous.tick));
+        if (keyframe) {
+            out.putLong(state.seed);
+            putVarLong(out, state.brickCount);
+        }
+        putVarLong(out, zigzag(state.score - previous.score));
+        out.put((byte) state.lives);
+        out.put((byte) state.round);
+        out.put((byte) state.gameState);
+
+        encodeBricks(out, state.bricks, previous.bricks, state.brickCount);
+        encodeEntities(out, state);
+
+        // Frame này thành gốc của frame sau: đổi vai hai bộ trạng thái thay vì chép
+        state.synced = true;
+        current = previous;
+        reference = state;
+        return out.position() - start;
+    }
+
+    /**
+     * Số byte tối đa một frame của ván game này có thể cần (keyframe xấu nhất).
+     *
+     * @param game Ván game nguồn.
+     * @return Giới hạn trên của kích thước frame.
+     */
+    public static int maxFrameBytes(GameManager game) {
+        int entityBits = 3 * POSITION_BITS + 1
+                + game.balls.size() * (2 * POSITION_BITS + 2 * VELOCITY_BITS + 1)
+                + game.getLasers().size() * 2 * POSITION_BITS
+                + game.getPowerUpManager().getActivePowerUpsView().size() * (POWER_UP_TYPE_BITS + 2 * POSITION_BITS);
+        // RLE xấu nhất: mỗi byte đổi xen một byte không đổi, tốn 2 varint cho mỗi 2 byte
+        int brickBytes = game.bricks.size() * 2 + 16;
+        return HEADER_MAX_BYTES + brickBytes + 3 * MAX_VARINT_BYTES + entityBits / 8 + 1;
+    }
+
+    /**
+     * Áp một frame lên trạng thái của bên nhận. Keyframe thay toàn bộ trạng
+     * thái; delta áp lên trạng thái của frame trước đó.
+     *
+     * @param in Bộ đệm chứa frame, đọc từ position hiện tại tới hết frame.
+     * @param state Trạng thái của bên nhận, được cập nhật tại chỗ.
+     * @return false nếu là delta nhưng bên nhận chưa có keyframe (frame bị bỏ qua).
+     * @throws java.nio.BufferUnderflowException Nếu frame bị cắt.
+     * @throws IllegalArgumentException Nếu frame không hợp lệ.
+     */
+    public static boolean decode(ByteBuffer in, State state) {
+        byte kind = in.get();
+        if (kind == KEYFRAME) {
+            state.clear();
+        } else if (kind != DELTA) {
+            throw new IllegalArgumentException("Unknown frame kind " + kind);
+        } else if (!state.synced) {
+            return false;
+        }
+
+        state.tick += unzigzag(getVarLong(in));
+        if (kind == KEYFRAME) {
+            state.seed = in.getLong();
+            long count = getVarLong(in);
+            if (count > MAX_BRICKS) {
+                throw new IllegalArgumentException("Invalid brick count " + count);
+            }
+            state.setBrickCount((int) count);
+        }
+        state.score += (int) unzigzag(getVarLong(in));
+        state.lives = in.get();
+        state.round = in.get();
+        state.gameState = in.get();
+
+        decodeBricks(in, state.bricks, state.brickCount);
+        if (kind == KEYFRAME) {
+            for (int i = 1; i < state.brickCount; i++) {
+                state.bricks[i] ^= state.bricks[i - 1];
+            }
+        }
+        decodeEntities(in, state);
+        state.synced = true;
+        return true;
+    }
+
+    // Gạch: XOR + RLE
+
+    /**
+     * Ghi các cặp (số byte không đổi, số byte đổi + byte XOR) tới hết mảng.
+     * Một byte không đổi đơn lẻ giữa hai byte đổi được gộp vào đoạn đổi, vì
+     * tách ra tốn hai varint.
+     */
+    private static void encodeBricks(ByteBuffer out, byte[] bricks, byte[] previous, int count) {
+        int i = 0;
+        while (i < count) {
+            int runStart = i;
+            while (i < count && bricks[i] == previous[i]) {
+                i++;
+            }
+            putVarLong(out, i - runStart);
+            if (i == count) {
+                break;
+            }
+            int literalStart = i;
+            while (i < count && (bricks[i] != previous[i]
+                    || (i + 1 < count && bricks[i + 1] != previous[i + 1]))) {
+                i++;
+            }
+            putVarLong(out, i - literalStart);
+            for (int j = literalStart; j < i; j++) {
+                out.put((byte) (bricks[j] ^ previous[j]));
+            }
+        }
+    }
+
+    private static void decodeBricks(ByteBuffer in, byte[] bricks, int count) {
+        int i = 0;
+        while (i < count) {
+            i += checkedRun(getVarLong(in), count - i);
+            if (i == count) {
+                break;
+            }
+            int literals = checkedRun(getVarLong(in), count - i);
+            for (int end = i + literals; i < end; i++) {
+                bricks[i] ^= in.get();
+            }
+        }
+    }
+
+    private static int checkedRun(long run, int remaining) {
+        if (run < 0 || run > remaining) {
+            throw new IllegalArgumentException("Invalid brick run " + run);
+        }
+        return (int) run;
+    }
+
+    // Thực thể: đóng gói bit
+
+    private static void encodeEntities(ByteBuffer out, State state) {
+        // Số lượng là varint trước phần bit: không giới hạn (DUPLICATE có thể nhân bóng rất nhiều)
+        putVarLong(out, state.ballCount);
+        putVarLong(out, state.laserCount);
+        putVarLong(out, state.powerUpCount);
+        state.bits = 0;
+        state.bitCount = 0;
+        putBits(out, state, state.paddleX, POSITION_BITS);
+        putBits(out, state, state.paddleY, POSITION_BITS);
+        putBits(out, state, state.paddleWidth, POSITION_BITS);
+        putBits(out, state, state.paddleLaser ? 1 : 0, 1);
+
+        for (int i = 0; i < state.ballCount; i++) {
+            putBits(out, state, state.ballX[i], POSITION_BITS);
+            putBits(out, state, state.ballY[i], POSITION_BITS);
+            putBits(out, state, state.ballDx[i], VELOCITY_BITS);
+            putBits(out, state, state.ballDy[i], VELOCITY_BITS);
+            putBits(out, state, state.ballAttached[i] ? 1 : 0, 1);
+        }
+        for (int i = 0; i < state.laserCount; i++) {
+            putBits(out, state, state.laserX[i], POSITION_BITS);
+            putBits(out, state, state.laserY[i], POSITION_BITS);
+        }
+        for (int i = 0; i < state.powerUpCount; i++) {
+            putBits(out, state, state.powerUpType[i], POWER_UP_TYPE_BITS);
+            putBits(out, state, state.powerUpX[i], POSITION_BITS);
+            putBits(out, state, state.powerUpY[i], POSITION_BITS);
+        }
+        if (state.bitCount > 0) {
+            out.put((byte) state.bits);
+        }
+    }
+
+    private static void putBits(ByteBuffer out, State w, int value, int width) {
+        w.bits |= (long) (value & ((1 << width) - 1)) << w.bitCount;
+        w.bitCount += width;
+        while (w.bitCount >= 8) {
+            out.put((byte) w.bits);
+            w.bits >>>= 8;
+            w.bitCount -= 8;
+        }
+    }
+
+    private static void decodeEntities(ByteBuffer in, State state) {
+        state.setBallCount(count(getVarLong(in), in));
+        state.setLaserCount(count(getVarLong(in), in));
+        state.setPowerUpCount(count(getVarLong(in), in));
+        state.bits = 0;
+        state.bitCount = 0;
+        state.paddleX = getBits(in, state, POSITION_BITS);
+        state.paddleY = getBits(in, state, POSITION_BITS);
+        state.paddleWidth = getBits(in, state, POSITION_BITS);
+        state.paddleLaser = getBits(in, state, 1) != 0;
+
+        for (int i = 0; i < state.ballCount; i++) {
+            state.ballX[i] = getBits(in, state, POSITION_BITS);
+            state.ballY[i] = getBits(in, state, POSITION_BITS);
+            state.ballDx[i] = signed(getBits(in, state, VELOCITY_BITS), VELOCITY_BITS);
+            state.ballDy[i] = signed(getBits(in, state, VELOCITY_BITS), VELOCITY_BITS);
+            state.ballAttached[i] = getBits(in, state, 1) != 0;
+        }
+        for (int i = 0; i < state.laserCount; i++) {
+            state.laserX[i] = getBits(in, state, POSITION_BITS);
+            state.laserY[i] = getBits(in, state, POSITION_BITS);
+        }
+        for (int i = 0; i < state.powerUpCount; i++) {
+            int type = getBits(in, state, POWER_UP_TYPE_BITS);
+            if (type >= POWER_UP_TYPES.length) {
+                throw new IllegalArgumentException("Invalid power-up type " + type);
+            }
+            state.powerUpType[i] = (byte) type;
+            state.powerUpX[i] = getBits(in, state, POSITION_BITS);
+            state.powerUpY[i] = getBits(in, state, POSITION_BITS);
+        }
+    }
+
+    /**
+     * Kiểm tra số thực thể đọc được: mỗi thực thể tốn ít nhất một bit phía sau,
+     * nên frame hỏng không thể bắt bên nhận cấp phát mảng khổng lồ.
+     */
+    private static int count(long value, ByteBuffer in) {
+        if (value < 0 || value > (long) in.remaining() * 8) {
+            throw new IllegalArgumentException("Invalid entity count " + value);
+        }
+        return (int) value;
+    }
+
+    private static int getBits(ByteBuffer in, State r, int width) {
+        while (r.bitCount < width) {
+            r.bits |= (long) (in.get() & 0xFF) << r.bitCount;
+            r.bitCount += 8;
+        }
+        int value = (int) (r.bits & ((1L << width) - 1));
+        r.bits >>>= width;
+        r.bitCount -= width;
+        return value;
+    }
+
+    private static int signed(int value, int width) {
+        int shift = Integer.SIZE - width;
+        return (value << shift) >> shift;
+    }
+
+    // Lượng tử hóa và varint
+
+    static int position(double pixels) {
+        long q = Math.round(pixels * POSITION_QUANTUM);
+        return (int) Math.max(0, Math.min(POSITION_MAX, q));
+    }
+
+    static int velocity(double pixelsPerTick) {
+        long q = Math.round(pixelsPerTick * VELOCITY_QUANTUM);
+        return (int) Math.max(VELOCITY_MIN, Math.min(VELOCITY_MAX, q));
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void putVarLong(ByteBuffer out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    private static long getVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Varint too long");
+    }
+}
@@ -0,0 +1,164 @@
+package Engine;
+
+import Rounds.ProceduralRound;
+import Utils.ConsoleLog;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Đo {@link StateCodec} trên Round 1-4 và một sân 10.000 gạch: số byte mỗi
+ * tick (delta và keyframe) và thời gian mã hóa/giải mã mỗi frame.
+ *
+ * <p>Mỗi sân được {@link TrackingBot} chơi trong một số tick cố định; thua,
+ * thắng, qua vòng hoặc có quá {@value #MAX_BALLS} bóng thì sân được dựng lại
+ * (trên sân lớn bot nhặt DUPLICATE liên tục, số bóng tăng không giới hạn). Cứ {@value #KEYFRAME_INTERVAL}
+ * tick có một keyframe (như khi có người mới vào xem). Mọi frame đều được giải
+ * mã lại và so với trạng thái đã chụp, nên số liệu chỉ được in khi codec khớp
+ * hoàn toàn. Cột cuối là kích thước của {@link GameSnapshot} để so sánh.</p>
+ *
+ * <pre>
+ * java -cp out Engine.StateCodecBenchmark [số tick mỗi sân]
+ * </pre>
+ */
+public final class StateCodecBenchmark {
+    private static final int DEFAULT_TICKS = 20_000;
+    private static final int WARM_UP_TICKS = 5_000;
+    private static final int KEYFRAME_INTERVAL = 300; // 5 giây ở 60 tick/giây
+    private static final long SEED = 1;
+    private static final int LEVEL_ROUNDS = 4;
+    private static final int MAX_BALLS = 32; // Nhiều hơn thì dựng lại sân (xem run)
+
+    /**
+     * Constructor private để ngăn việc tạo instance của lớp tiện ích.
+     */
+    private StateCodecBenchmark() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Kết quả đo của một sân.
+     */
+    private record Result(String name, int bricks, long ticks, long keyframes, long keyframeBytes,
+                          long deltaBytes, long encodeNanos, long decodeNanos, long ballTicks, int snapshotBytes) {
+    }
+
+    /**
+     * Điểm vào benchmark. Log của game bị tắt trong lúc chạy.
+     *
+     * @param args {@code [số tick mỗi sân]}.
+     */
+    public static void main(String[] args) {
+        int ticks = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_TICKS;
+
+        PrintStream out = ConsoleLog.quiet(false);
+
+        // Sân 10.000 gạch: lưới 100x100 kín, tỉ lệ gạch bạc/vàng như sân stress
+        ProceduralRound.Spec stress = ProceduralRound.Spec.stress();
+        ProceduralRound.Spec field = new ProceduralRound.Spec("10k Field", 100, 100, 1.0,
+                stress.silverDensity(), stress.goldDensity(), stress.weights());
+
+        // Chạy một lượt khởi động để JIT ổn định trước khi đo
+        for (int round = 0; round < LEVEL_ROUNDS; round++) {
+            run("warm-up", null, round, WARM_UP_TICKS);
+        }
+        run("warm-up", field, 0, WARM_UP_TICKS);
+
+        Result[] results = new Result[LEVEL_ROUNDS + 1];
+        for (int round = 0; round < LEVEL_ROUNDS; round++) {
+            results[round] = run("Round " + (round + 1), null, round, ticks);
+        }
+        results[LEVEL_ROUNDS] = run(field.name(), field, 0, ticks);
+        ConsoleLog.restore();
+
+        out.printf("StateCodecBenchmark: %d ticks per field, keyframe every %d ticks%n", ticks, KEYFRAME_INTERVAL);
+        out.printf("%-10s %7s %6s %9s %11s %9s %10s %10s %11s%n", "Field", "Bricks", "Balls", "Delta B",
+                "Keyframe B", "B/tick", "Encode ns", "Decode ns", "Snapshot B");
+        for (Result r : results) {
+            long deltas = Math.max(1, r.ticks() - r.keyframes());
+            out.printf("%-10s %7d %6.1f %9.1f %11.0f %9.1f %10.0f %10.0f %11d%n", r.name(), r.bricks(),
+                    (double) r.ballTicks() / r.ticks(), (double) r.deltaBytes() / deltas, (double) r.keyframeBytes() / Math.max(1, r.keyframes()),
+                    (double) (r.deltaBytes() + r.keyframeBytes()) / r.ticks(),
+                    (double) r.encodeNanos() / r.ticks(), (double) r.decodeNanos() / r.ticks(), r.snapshotBytes());
+        }
+    }
+
+    /**
+     * Chơi một sân và đo mọi frame.
+     *
+     * @param spec Spec của sân sinh ngẫu nhiên, hoặc null để dùng vòng từ file.
+     * @param round Chỉ số vòng (từ 0).
+     */
+    private static Result run(String name, ProceduralRound.Spec spec, int round, int ticks) {
+        GameManager game = new GameManager(SEED);
+        game.setAnalyticsEnabled(false);
+        game.setAudioEnabled(false);
+        game.setPlayerName("BOT");
+        if (spec != null) {
+            game.setProceduralSpec(spec);
+        }
+        TrackingBot bot = new TrackingBot(SEED);
+        long nextSeed = SEED;
+        setUp(game, round, nextSeed++);
+        int bricks = game.bricks.size();
+        int snapshotBytes = GameSnapshot.encode(game).length;
+
+        StateCodec codec = new StateCodec();
+        StateCodec.State expected = new StateCodec.State();
+        StateCodec.State decoded = new StateCodec.State();
+        ByteBuffer frame = ByteBuffer.allocate(StateCodec.maxFrameBytes(game) * 2);
+        long keyframes = 0;
+        long keyframeBytes = 0;
+        long deltaBytes = 0;
+        long encodeNanos = 0;
+        long decodeNanos = 0;
+        long ballTicks = 0;
+
+        for (int tick = 0; tick < ticks; tick++) {
+            GameState state = game.getStateManager().getState();
+            if (state != GameState.PLAYING || game.getRoundsManager().getCurrentRoundNumber() != round + 1
+                    || game.balls.size() > MAX_BALLS) {
+                setUp(game, round, nextSeed++);
+            }
+            bot.control(game);
+            game.update();
+
+            if (frame.capacity() < StateCodec.maxFrameBytes(game)) {
+                frame = ByteBuffer.allocate(StateCodec.maxFrameBytes(game) * 2);
+            }
+            frame.clear();
+            long start = System.nanoTime();
+            int bytes = codec.encode(game, frame, tick % KEYFRAME_INTERVAL == 0);
+            long encoded = System.nanoTime();
+            frame.flip();
+            StateCodec.decode(frame, decoded);
+            decodeNanos += System.nanoTime() - encoded;
+            encodeNanos += encoded - start;
+
+            if (frame.get(0) == StateCodec.KEYFRAME) {
+                keyframes++;
+                keyframeBytes += bytes;
+            } else {
+                deltaBytes += bytes;
+            }
+            ballTicks += game.balls.size();
+            expected.capture(game);
+            if (frame.hasRemaining() || !decoded.sameAs(expected)) {
+                throw new IllegalStateException(name + ": decoded state differs at tick " + tick);
+            }
+        }
+        return new Result(name, bricks, ticks, keyframes, keyframeBytes, deltaBytes,
+                encodeNanos, decodeNanos, ballTicks, snapshotBytes);
+    }
+
+    /**
+     * Bắt đầu ván mới ở vòng cho trước, như khi khôi phục bản lưu.
+     */
+    private static void setUp(GameManager game, int round, long seed) {
+        game.resetGame(seed);
+        if (round > 0) {
+            game.bricks = game.getRoundsManager().loadRound(round);
+            game.beginRoundStats(0);
+        }
+        game.getStateManager().setState(GameState.PLAYING);
+    }
+}
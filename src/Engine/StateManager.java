@@ -1,10 +1,12 @@
 package Engine;
 
 import Audio.MusicTrack;
+import javafx.application.Platform;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Lớp quản lý trạng thái (StateManager) chịu trách nhiệm theo dõi và quản lý
@@ -12,25 +14,24 @@ import java.util.Set;
  * chuyển đổi giữa các trạng thái là hợp lệ.
  */
 public class StateManager {
-    private GameState currentState; // Trạng thái hiện tại của game.
-    private GameState previousState; // Trạng thái trước đó.
-    private final AudioManager audioManager; // Tham chiếu đến AudioManager để xử lý nhạc nền khi chuyển trạng thái.
+    // volatile: trạng thái được luồng mô phỏng ghi và luồng FX đọc mỗi khung hình.
+    private volatile GameState currentState; // Trạng thái hiện tại của game.
+    private volatile GameState previousState; // Trạng thái trước đó.
+    private volatile boolean audioEnabled = true; // Đổi nhạc nền khi chuyển trạng thái (tắt cho ván không giao diện)
 
     // Map định nghĩa các quy tắc chuyển đổi hợp lệ: Key (Trạng thái BẮT ĐẦU) -> Value (Set các Trạng thái ĐÍCH hợp lệ).
     private final Map<GameState, Set<GameState>> validTransitions;
 
     /**
-     * Khởi tạo StateManager.
+     * Khởi tạo StateManager ở trạng thái MENU. Nhạc nền chỉ được đổi khi
+     * chuyển trạng thái; nhạc menu lúc khởi động do ứng dụng phát.
      */
     public StateManager() {
         this.currentState = GameState.MENU; // Trạng thái ban đầu là MENU.
         this.previousState = null;
-        this.audioManager = AudioManager.getInstance();
         this.validTransitions = new HashMap<>();
 
         initializeTransitionRules(); // Thiết lập các quy tắc chuyển đổi.
-
-        onStateEnter(GameState.MENU); // Thực hiện các hành động khi vào trạng thái MENU.
     }
 
     /**
@@ -49,9 +50,10 @@ public class StateManager {
         validTransitions.put(GameState.PAUSED,
                 EnumSet.of(GameState.PLAYING, GameState.MENU));
 
-        // Từ LEVEL_COMPLETE có thể chuyển sang PLAYING (vòng tiếp theo) hoặc WIN (nếu đó là vòng cuối)
+        // Từ LEVEL_COMPLETE có thể chuyển sang PLAYING (vòng tiếp theo), WIN (nếu đó là vòng cuối)
+        // hoặc MENU (đặt lại ván trong lúc hiển thị màn hình qua màn)
         validTransitions.put(GameState.LEVEL_COMPLETE,
-                EnumSet.of(GameState.PLAYING, GameState.WIN));
+                EnumSet.of(GameState.PLAYING, GameState.WIN, GameState.MENU));
 
         // Từ GAME_OVER chỉ có thể chuyển về MENU
         validTransitions.put(GameState.GAME_OVER,
@@ -68,7 +70,7 @@ public class StateManager {
      * @param newState Trạng thái game mới.
      * @return {@code true} nếu chuyển đổi hợp lệ và thành công, ngược lại là {@code false}.
      */
-    public boolean setState(GameState newState) {
+    public synchronized boolean setState(GameState newState) {
         if (newState == null) {
             System.err.println("StateManager: Cannot transition to null state");
             return false;
@@ -116,22 +118,22 @@ public class StateManager {
         switch (state) {
             case MENU:
                 System.out.println("Returned to menu.");
-                audioManager.playMusic(MusicTrack.MENU); // Phát nhạc menu.
+                runAudio(audio -> audio.playMusic(MusicTrack.MENU)); // Phát nhạc menu.
                 break;
             case PLAYING:
                 System.out.println("Game resumed/started.");
                 // Nếu quay lại từ PAUSED, tiếp tục nhạc.
                 if (previousState == GameState.PAUSED) {
-                    audioManager.resumeMusic();
+                    runAudio(AudioManager::resumeMusic);
                 }
                 // Ngược lại (bắt đầu mới hoặc từ LEVEL_COMPLETE), phát nhạc vòng chơi.
                 else {
-                    audioManager.playMusic(MusicTrack.ROUNDS);
+                    runAudio(audio -> audio.playMusic(MusicTrack.ROUNDS));
                 }
                 break;
             case PAUSED:
                 System.out.println("Game paused.");
-                audioManager.pauseMusic(); // Tạm dừng nhạc.
+                runAudio(AudioManager::pauseMusic); // Tạm dừng nhạc.
                 break;
             case LEVEL_COMPLETE:
                 System.out.println("Level completed!");
@@ -139,17 +141,49 @@ public class StateManager {
                 break;
             case GAME_OVER:
                 System.out.println("Game over!");
-                audioManager.playMusic(MusicTrack.GAME_OVER); // Phát nhạc Game Over.
+                runAudio(audio -> audio.playMusic(MusicTrack.GAME_OVER)); // Phát nhạc Game Over.
                 break;
             case WIN:
                 System.out.println("You win!");
-                audioManager.playMusic(MusicTrack.VICTORY); // Phát nhạc chiến thắng.
+                runAudio(audio -> audio.playMusic(MusicTrack.VICTORY)); // Phát nhạc chiến thắng.
                 break;
             default:
                 break;
         }
     }
 
+    /**
+     * Chạy một thao tác âm thanh trên luồng FX. Chuyển trạng thái có thể xảy ra
+     * trên luồng mô phỏng, trong khi {@link AudioManager} chỉ được dùng từ luồng FX.
+     * Bỏ qua khi âm thanh bị tắt hoặc JavaFX chưa khởi động (chạy không giao diện).
+     *
+     * @param action Thao tác âm thanh cần chạy.
+     */
+    private void runAudio(Consumer<AudioManager> action) {
+        if (!audioEnabled) {
+            return;
+        }
+        if (Platform.isFxApplicationThread()) {
+            action.accept(AudioManager.getInstance());
+            return;
+        }
+        try {
+            Platform.runLater(() -> action.accept(AudioManager.getInstance()));
+        } catch (IllegalStateException e) {
+            // Toolkit chưa được khởi tạo: không có MediaPlayer nào để điều khiển.
+        }
+    }
+
+    /**
+     * Bật/tắt đổi nhạc nền khi chuyển trạng thái (tắt cho các ván không giao diện,
+     * để các luồng chạy thử không bao giờ chạm tới {@link AudioManager}).
+     *
+     * @param enabled {@code true} để đổi nhạc theo trạng thái.
+     */
+    public void setAudioEnabled(boolean enabled) {
+        this.audioEnabled = enabled;
+    }
+
     /**
      * Xử lý các hành động cần thiết khi game THOÁT khỏi một trạng thái.
      *
@@ -210,6 +244,16 @@ public class StateManager {
         return currentState == GameState.PLAYING;
     }
 
+    /**
+     * Kiểm tra xem ván game có đang chạy theo tick không (PLAYING hoặc màn hình
+     * qua màn LEVEL_COMPLETE, nơi vòng kế tiếp đang được chuẩn bị).
+     *
+     * @return {@code true} nếu {@link GameManager#update()} còn tiến tick.
+     */
+    public boolean isRunning() {
+        return currentState == GameState.PLAYING || currentState == GameState.LEVEL_COMPLETE;
+    }
+
     /**
      * Kiểm tra xem game có đang ở trạng thái PAUSED không.
      *
@@ -234,7 +278,7 @@ public class StateManager {
      * @return {@link AudioManager} instance.
      */
     public AudioManager getAudioManager() {
-        return audioManager;
+        return AudioManager.getInstance();
     }
 
 }
\ No newline at end of file
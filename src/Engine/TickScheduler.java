@@ -0,0 +1,216 @@
+package Engine;
+
+import Utils.Constants;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bộ lập lịch tick chia shard cho {@link GameServer}: mỗi shard là một luồng
+ * ("Tick-N") sở hữu một nhóm {@link GameSession} và tick tất cả chúng
+ * {@value Constants.Window#FPS} lần mỗi giây, theo lịch cố định như
+ * {@link SimulationThread}.
+ *
+ * <p>Phiên mới vào shard có tải dự kiến thấp nhất. Tải của shard là tỉ lệ
+ * thời gian bận trong mỗi chu kỳ tick (trung bình trượt). Hai mức chống quá tải:</p>
+ * <ul>
+ *   <li>Từ chối phiên mới khi tải dự kiến của mọi shard vượt {@value #ADMIT_LOAD_PERCENT}%.</li>
+ *   <li>Shard trễ hạn (một chu kỳ dài hơn một tick) {@value #SHED_AFTER_MISSES}
+ *       chu kỳ liên tiếp thì đóng phiên vào sau cùng, để các ván đang chơi từ
+ *       trước vẫn giữ đúng nhịp.</li>
+ * </ul>
+ */
+public final class TickScheduler implements AutoCloseable {
+    static final long TICK_NANOS = 1_000_000_000L / Constants.Window.FPS;
+    static final int ADMIT_LOAD_PERCENT = 75;
+    static final int SHED_AFTER_MISSES = 30; // Nửa giây trễ hạn liên tục
+    private static final double LOAD_SMOOTHING = 0.1; // Hệ số trung bình trượt của tải
+
+    private final Shard[] shards;
+    private volatile boolean running = true;
+
+    /**
+     * Một luồng tick và các phiên của nó.
+     */
+    private final class Shard implements Runnable {
+        final Thread thread;
+        final Queue<GameSession> incoming = new ConcurrentLinkedQueue<>();
+        final List<GameSession> sessions = new ArrayList<>(); // Chỉ luồng shard truy cập, theo thứ tự vào
+        volatile int sessionCount; // Số phiên đã vào danh sách (chưa tính incoming)
+        volatile double load; // Tỉ lệ bận (0..1+)
+        volatile long cycles;
+        volatile long missedDeadlines;
+        volatile long shedSessions;
+        int consecutiveMisses;
+
+        Shard(int index) {
+            this.thread = new Thread(this, "Tick-" + index);
+            this.thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            long nextTick = System.nanoTime();
+            while (running) {
+                GameSession session;
+                while ((session = incoming.poll()) != null) {
+                    sessions.add(session);
+                }
+
+                long start = System.nanoTime();
+                for (int i = 0; i < sessions.size(); i++) {
+                    session = sessions.get(i);
+                    if (!session.isClosed()) {
+                        try {
+                            session.tick();
+                        } catch (RuntimeException e) {
+                            System.err.println("TickScheduler: Session " + session.getId() + " crashed: " + e);
+                            session.close("crashed");
+                        }
+                    }
+                }
+                sessions.removeIf(GameSession::isClosed);
+                long busy = System.nanoTime() - start;
+                cycles++;
+                load += LOAD_SMOOTHING * ((double) busy / TICK_NANOS - load);
+
+                if (busy > TICK_NANOS) {
+                    missedDeadlines++;
+                    if (++consecutiveMisses >= SHED_AFTER_MISSES && !sessions.isEmpty()) {
+                        // Bỏ phiên mới nhất: các ván đã chơi lâu được ưu tiên giữ nhịp
+                        sessions.remove(sessions.size() - 1).close("server overloaded");
+                        shedSessions++;
+                        consecutiveMisses = 0;
+                    }
+                } else {
+                    consecutiveMisses = 0;
+                }
+                sessionCount = sessions.size();
+
+                nextTick += TICK_NANOS;
+                long now = System.nanoTime();
+                if (now - nextTick >= TICK_NANOS) {
+                    // Trễ quá nhiều: bỏ qua phần còn lại thay vì cố đuổi theo
+                    nextTick = now;
+                }
+                long sleep = nextTick - now;
+                if (sleep > 0) {
+                    LockSupport.parkNanos(sleep);
+                }
+            }
+            for (GameSession session : sessions) {
+                session.close("server stopped");
+            }
+        }
+    }
+
+    /**
+     * Tạo và khởi động các shard.
+     *
+     * @param shardCount Số shard (thường bằng số lõi).
+     */
+    public TickScheduler(int shardCount) {
+        shards = new Shard[Math.max(1, shardCount)];
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = new Shard(i);
+            shards[i].thread.start();
+        }
+    }
+
+    /**
+     * Đưa một phiên vào shard có tải dự kiến thấp nhất.
+     *
+     * @param session Phiên mới.
+     * @return false nếu mọi shard đều quá tải (phiên không được nhận).
+     */
+    boolean add(GameSession session) {
+        Shard best = null;
+        double bestLoad = Double.MAX_VALUE;
+        for (Shard shard : shards) {
+            double projected = projectedLoad(shard);
+            if (projected < bestLoad) {
+                best = shard;
+                bestLoad = projected;
+            }
+        }
+        if (!running || bestLoad * 100 > ADMIT_LOAD_PERCENT) {
+            return false;
+        }
+        best.incoming.add(session);
+        return true;
+    }
+
+    /**
+     * Ước lượng tải của shard sau khi nhận thêm một phiên có chi phí trung bình.
+     * Tính cả các phiên đang chờ vào, nên nhiều kết nối dồn dập không lọt qua
+     * trước khi tải đo được kịp tăng.
+     */
+    private static double projectedLoad(Shard shard) {
+        int current = shard.sessionCount;
+        int total = current + shard.incoming.size() + 1;
+        return current == 0 ? 0 : shard.load * total / current;
+    }
+
+    /**
+     * Dừng mọi shard; các phiên còn lại bị đóng.
+     */
+    @Override
+    public void close() {
+        running = false;
+        for (Shard shard : shards) {
+            LockSupport.unpark(shard.thread);
+            try {
+                shard.thread.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // Thống kê (tổng hoặc lớn nhất trên mọi shard)
+
+    public int getShardCount() { return shards.length; }
+
+    public int getSessionCount() {
+        int total = 0;
+        for (Shard shard : shards) {
+            total += shard.sessionCount + shard.incoming.size();
+        }
+        return total;
+    }
+
+    public double getMaxLoad() {
+        double max = 0;
+        for (Shard shard : shards) {
+            max = Math.max(max, shard.load);
+        }
+        return max;
+    }
+
+    public long getCycles() {
+        long total = 0;
+        for (Shard shard : shards) {
+            total += shard.cycles;
+        }
+        return total;
+    }
+
+    public long getMissedDeadlines() {
+        long total = 0;
+        for (Shard shard : shards) {
+            total += shard.missedDeadlines;
+        }
+        return total;
+    }
+
+    public long getShedSessions() {
+        long total = 0;
+        for (Shard shard : shards) {
+            total += shard.shedSessions;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,227 @@
+package Engine;
+
+/**
+ * Bánh xe hẹn giờ phân cấp (hierarchical timer wheel) theo tick game.
+ *
+ * <p>Có {@value #LEVELS} tầng, mỗi tầng {@value #SLOTS} ô. Tầng 0 giữ các hẹn
+ * giờ còn dưới {@value #SLOTS} tick, mỗi ô một tick; tầng {@code k} giữ các hẹn
+ * giờ xa hơn, mỗi ô {@code SLOTS^k} tick. Khi tầng dưới quay hết một vòng, ô
+ * kế tiếp của tầng trên được "đổ" xuống (chèn lại theo khoảng cách mới). Hẹn
+ * giờ xa hơn {@code SLOTS^LEVELS} tick được giữ ở ô xa nhất và chèn lại mỗi lần
+ * ô đó được đổ xuống.</p>
+ *
+ * <p>Mỗi {@link Timer} là một nút của danh sách liên kết đôi trong ô của nó,
+ * nên lên lịch, hủy và hết hạn đều O(1); mỗi tick chỉ duyệt đúng một ô tầng 0
+ * (cộng phần đổ xuống, chia đều theo số tick). Hẹn giờ do bên dùng tạo sẵn và
+ * dùng lại, nên lên lịch lại không cấp phát.</p>
+ *
+ * <p>Không an toàn luồng: chỉ dùng trên luồng cập nhật của ván game sở hữu.</p>
+ */
+final class TimerWheel {
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS; // Số ô mỗi tầng
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4; // 64^4 tick ≈ 77 giờ ở 60 FPS
+    private static final long MAX_DELAY = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+    /**
+     * Một hẹn giờ. Bên dùng tạo một lần và truyền lại cho
+     * {@link #schedule(Timer, long)} mỗi lần cần lên lịch.
+     */
+    static final class Timer {
+        final int id; // Định danh do bên dùng đặt (ví dụ ordinal của loại hiệu ứng)
+        private long deadline; // Tick hết hạn
+        private int slot = -1; // Ô đang chứa (tầng * SLOTS + chỉ số), -1 nếu chưa lên lịch
+        private Timer prev;
+        private Timer next;
+
+        Timer(int id) {
+            this.id = id;
+        }
+
+        /**
+         * Kiểm tra hẹn giờ có đang được lên lịch không.
+         *
+         * @return true nếu chưa hết hạn và chưa bị hủy.
+         */
+        boolean isScheduled() {
+            return slot >= 0;
+        }
+
+        /**
+         * Lấy tick hết hạn (chỉ có nghĩa khi đang được lên lịch).
+         *
+         * @return Tick hết hạn.
+         */
+        long getDeadline() {
+            return deadline;
+        }
+    }
+
+    /**
+     * Nhận các hẹn giờ hết hạn.
+     */
+    @FunctionalInterface
+    interface Listener {
+        /**
+         * Được gọi một lần cho mỗi hẹn giờ hết hạn; hẹn giờ đã được gỡ khỏi
+         * bánh xe nên có thể lên lịch lại ngay trong callback.
+         *
+         * @param timer Hẹn giờ hết hạn.
+         */
+        void expired(Timer timer);
+    }
+
+    private final Timer[] heads = new Timer[LEVELS * SLOTS]; // Đầu danh sách của từng ô
+    private final Timer[] tails = new Timer[LEVELS * SLOTS]; // Cuối danh sách (chèn cuối giữ thứ tự lên lịch)
+    private long now; // Tick đã xử lý gần nhất
+    private int size; // Số hẹn giờ đang được lên lịch
+
+    /**
+     * Hủy mọi hẹn giờ và đặt tick hiện tại (khi bắt đầu ván mới hoặc khôi phục bản lưu).
+     *
+     * @param tick Tick hiện tại của ván game.
+     */
+    void reset(long tick) {
+        for (int i = 0; i < heads.length; i++) {
+            for (Timer t = heads[i]; t != null; ) {
+                Timer next = t.next;
+                t.prev = t.next = null;
+                t.slot = -1;
+                t = next;
+            }
+            heads[i] = tails[i] = null;
+        }
+        size = 0;
+        now = tick;
+    }
+
+    /**
+     * Lên lịch (hoặc dời lịch) một hẹn giờ. Hạn không muộn hơn tick hiện tại
+     * sẽ hết hạn ở lần {@link #advance} kế tiếp.
+     *
+     * @param timer Hẹn giờ.
+     * @param deadline Tick hết hạn.
+     */
+    void schedule(Timer timer, long deadline) {
+        cancel(timer);
+        timer.deadline = deadline;
+        insert(timer, now + 1);
+        size++;
+    }
+
+    /**
+     * Hủy một hẹn giờ (không làm gì nếu hẹn giờ không được lên lịch).
+     *
+     * @param timer Hẹn giờ.
+     */
+    void cancel(Timer timer) {
+        if (timer.slot >= 0) {
+            unlink(timer);
+            size--;
+        }
+    }
+
+    /**
+     * Tiến bánh xe tới {@code tick}, gọi {@code listener} cho mọi hẹn giờ có hạn
+     * trong khoảng đã đi qua, theo thứ tự tick rồi thứ tự lên lịch.
+     *
+     * @param tick Tick hiện tại của ván game.
+     * @param listener Nơi nhận hẹn giờ hết hạn.
+     */
+    void advance(long tick, Listener listener) {
+        if (size == 0) {
+            now = Math.max(now, tick); // Không có gì để duyệt: nhảy thẳng tới tick
+            return;
+        }
+        while (now < tick) {
+            now++;
+            int index = (int) (now & SLOT_MASK);
+            // Tầng dưới vừa quay hết một vòng: đổ ô kế tiếp của tầng trên xuống
+            for (int level = 1; level < LEVELS && index == 0; level++) {
+                index = (int) ((now >>> (SLOT_BITS * level)) & SLOT_MASK);
+                cascade(level * SLOTS + index);
+            }
+            int slot = (int) (now & SLOT_MASK);
+            while (heads[slot] != null) {
+                Timer timer = heads[slot];
+                unlink(timer);
+                if (timer.deadline > now) {
+                    insert(timer, now); // Hẹn giờ rất xa được giữ ở ô xa nhất, chưa tới hạn
+                    continue;
+                }
+                size--;
+                listener.expired(timer);
+            }
+            if (size == 0) {
+                now = Math.max(now, tick);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Lấy số hẹn giờ đang được lên lịch.
+     *
+     * @return Số hẹn giờ.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Chèn lại mọi hẹn giờ của một ô theo khoảng cách tới tick hiện tại.
+     */
+    private void cascade(int slot) {
+        Timer timer = heads[slot];
+        heads[slot] = tails[slot] = null;
+        while (timer != null) {
+            Timer next = timer.next;
+            timer.prev = timer.next = null;
+            insert(timer, now);
+            timer = next;
+        }
+    }
+
+    /**
+     * Đặt hẹn giờ vào ô ứng với khoảng cách từ tick hiện tại tới hạn của nó.
+     * Hạn sớm hơn {@code earliest} được coi như {@code earliest}: tick kế tiếp
+     * khi lên lịch từ bên ngoài, chính tick đang xử lý khi đổ xuống.
+     */
+    private void insert(Timer timer, long earliest) {
+        long delay = Math.min(Math.max(timer.deadline, earliest) - now, MAX_DELAY);
+        int level = 0;
+        while (level < LEVELS - 1 && delay >= (1L << (SLOT_BITS * (level + 1)))) {
+            level++;
+        }
+        int slot = level * SLOTS + (int) (((now + delay) >>> (SLOT_BITS * level)) & SLOT_MASK);
+        timer.slot = slot;
+        timer.prev = tails[slot];
+        timer.next = null;
+        if (tails[slot] == null) {
+            heads[slot] = timer;
+        } else {
+            tails[slot].next = timer;
+        }
+        tails[slot] = timer;
+    }
+
+    /**
+     * Gỡ hẹn giờ khỏi ô đang chứa nó.
+     */
+    private void unlink(Timer timer) {
+        int slot = timer.slot;
+        if (timer.prev == null) {
+            heads[slot] = timer.next;
+        } else {
+            timer.prev.next = timer.next;
+        }
+        if (timer.next == null) {
+            tails[slot] = timer.prev;
+        } else {
+            timer.next.prev = timer.prev;
+        }
+        timer.prev = timer.next = null;
+        timer.slot = -1;
+    }
+}
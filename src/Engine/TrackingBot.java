@@ -0,0 +1,102 @@
+package Engine;
+
+import Objects.GameEntities.Ball;
+import Objects.GameEntities.Paddle;
+import Utils.Constants;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Bot tự lái: bám theo quả bóng nguy hiểm nhất và đón nó ở điểm rơi dự đoán.
+ *
+ * <p>Bóng mục tiêu là quả đang rơi thấp nhất (nếu không có thì quả thấp nhất).
+ * Điểm rơi được lấy từ {@link TrajectoryPredictor} của ván (đã tính cả tường
+ * và gạch); nếu không đoán được, bot đi theo x của bóng. Điểm đón được lệch
+ * ngẫu nhiên trong phạm vi thân paddle (tung lại mỗi lần bóng bắt đầu bay lên)
+ * để bóng bật đi nhiều góc khác nhau.</p>
+ *
+ * <p>Bot dùng {@link Random} riêng, không bao giờ chạm vào RNG của ván game,
+ * và chỉ gửi input khi hướng di chuyển mong muốn khác hướng hiện tại của
+ * paddle, nên bản ghi replay gọn như của người chơi thật.</p>
+ */
+public final class TrackingBot implements PaddleController {
+    private static final double MAX_AIM_RATIO = 0.7; // Độ lệch điểm đón tối đa, tính theo nửa chiều rộng paddle
+    private static final double DEAD_ZONE = Constants.Paddle.PADDLE_SPEED; // Sai số chấp nhận được trước khi di chuyển
+    private static final int LASER_INTERVAL = 20; // Số tick giữa hai lần bắn laser
+
+    private final Random random;
+    private double aimOffset; // Độ lệch điểm đón hiện tại (pixel, so với tâm paddle)
+    private boolean targetRising = true; // Bóng mục tiêu đang bay lên ở tick trước
+
+    /**
+     * Tạo bot với seed riêng cho các lần tung độ lệch điểm đón.
+     *
+     * @param seed Seed của bot.
+     */
+    public TrackingBot(long seed) {
+        this.random = new Random(seed);
+    }
+
+    @Override
+    public void control(GameManager game) {
+        if (game.getStateManager().getState() != GameState.PLAYING) {
+            return;
+        }
+        Paddle paddle = game.getPaddle();
+        if (game.isAttached()) {
+            game.applyInput(InputAction.FIRE);
+        } else if (paddle.isLaserEnabled() && game.getAnimationScheduler().getTick() % LASER_INTERVAL == 0) {
+            game.applyInput(InputAction.FIRE);
+        }
+
+        Ball target = selectTarget(game.balls);
+        InputAction desired = InputAction.STOP;
+        if (target != null) {
+            double halfWidth = paddle.getWidth() / 2.0;
+            boolean rising = target.getVelocity().getDy() < 0;
+            if (rising && !targetRising) {
+                aimOffset = (random.nextDouble() * 2 - 1) * MAX_AIM_RATIO * halfWidth;
+            }
+            targetRising = rising;
+
+            TrajectoryPredictor.Trajectory trajectory = game.getTrajectoryPredictor().predict(target);
+            double targetX = trajectory != null && trajectory.lands()
+                    ? trajectory.getLandingX() : target.getCenter().getX();
+            double error = targetX - (paddle.getX() + halfWidth + aimOffset);
+            if (error < -DEAD_ZONE) {
+                desired = InputAction.MOVE_LEFT;
+            } else if (error > DEAD_ZONE) {
+                desired = InputAction.MOVE_RIGHT;
+            }
+        }
+
+        double dx = paddle.getVelocity().getDx();
+        InputAction current = dx < 0 ? InputAction.MOVE_LEFT : dx > 0 ? InputAction.MOVE_RIGHT : InputAction.STOP;
+        if (desired != current) {
+            game.applyInput(desired);
+        }
+    }
+
+    /**
+     * Chọn quả bóng cần đón: quả đang rơi thấp nhất, nếu không có thì quả thấp nhất.
+     *
+     * @return Bóng mục tiêu, hoặc null nếu không có bóng đang bay.
+     */
+    private static Ball selectTarget(List<Ball> balls) {
+        Ball lowest = null;
+        Ball lowestFalling = null;
+        for (int i = 0; i < balls.size(); i++) {
+            Ball ball = balls.get(i);
+            if (ball.isAttached()) {
+                continue;
+            }
+            if (lowest == null || ball.getY() > lowest.getY()) {
+                lowest = ball;
+            }
+            if (ball.getVelocity().getDy() > 0 && (lowestFalling == null || ball.getY() > lowestFalling.getY())) {
+                lowestFalling = ball;
+            }
+        }
+        return lowestFalling != null ? lowestFalling : lowest;
+    }
+}
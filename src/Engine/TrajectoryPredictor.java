@@ -0,0 +1,399 @@
+package Engine;
+
+import Objects.Bricks.Brick;
+import Objects.GameEntities.Ball;
+import Rounds.BrickIndex;
+import Utils.Constants;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dự đoán nơi mỗi quả bóng sẽ cắt qua đường paddle lần kế tiếp (dùng cho
+ * bot tự lái và có thể cho lớp vẽ hỗ trợ ngắm).
+ *
+ * <p>Quỹ đạo được dò theo từng đoạn thẳng: từ vị trí hiện tại của tâm bóng,
+ * tìm vật cản gần nhất theo hướng vận tốc (tường trái/phải/trên, hoặc gạch còn
+ * sống tìm qua {@link BrickIndex} của vòng), phản xạ thành phần vận tốc tương
+ * ứng rồi đi tiếp, cho tới khi tâm bóng chạm độ cao paddle. Gạch được mở rộng
+ * theo bán kính bóng và phản xạ theo cạnh đi vào (bỏ qua bo góc), nên kết quả
+ * là ước lượng sát chứ không phải mô phỏng lại {@link CollisionManager}.</p>
+ *
+ * <p>Quỹ đạo của từng quả bóng được giữ lại và chỉ dò lại khi:</p>
+ * <ul>
+ *   <li>vận tốc của bóng đổi (nảy vào tường/gạch/paddle, hiệu ứng làm chậm),
+ *       hoặc bóng không còn nằm trên đoạn đầu của quỹ đạo đã đoán;</li>
+ *   <li>một viên gạch mà quỹ đạo nảy vào đã bị phá (gạch chỉ mất đi trong một
+ *       vòng, nên gạch bị phá ở chỗ khác không làm quỹ đạo sai);</li>
+ *   <li>gạch được nạp lại ({@link #clear()}: sang vòng, chơi lại, khôi phục bản lưu).</li>
+ * </ul>
+ * <p>Vì vậy mỗi quả bóng chỉ bị dò lại vài lần mỗi giây; các tick còn lại chỉ
+ * tốn vài phép so sánh. Không an toàn luồng: chỉ dùng trên luồng mô phỏng
+ * (chỉ mục gạch dùng chung bộ đệm truy vấn với va chạm).</p>
+ */
+public final class TrajectoryPredictor {
+    private static final int MAX_BOUNCES = 32; // Số lần nảy tối đa trước khi bỏ cuộc
+    private static final double LINE_TOLERANCE = 0.01; // Khoảng lệch (pixel) cho phép khỏi đoạn đầu quỹ đạo
+    private static final double QUERY_MARGIN = 1.0; // Lề thêm quanh vùng truy vấn chỉ mục gạch
+    private static final double MARCH_STEP = Constants.Bricks.BRICK_WIDTH; // Độ dài mỗi bước dò gạch (pixel)
+
+    /**
+     * Quỹ đạo đã đoán của một quả bóng. Đối tượng được dùng lại cho cùng quả
+     * bóng qua các lần dò lại, nên chỉ đọc ngay sau {@link #predict(Ball)}.
+     */
+    public static final class Trajectory {
+        private boolean lands; // Quỹ đạo có tới được đường paddle không
+        private double landingX; // X của tâm bóng khi chạm đường paddle
+        private double totalTicks; // Số tick từ điểm đầu tới điểm chạm
+        private double ticksToLanding; // Số tick còn lại tính từ vị trí hiện tại
+        private double[] points = new double[16]; // Các đỉnh (x, y) của đường gấp khúc
+        private int pointCount;
+        private int[] bounceBricks = new int[8]; // Chỉ số các gạch mà quỹ đạo nảy vào
+        private int bounceBrickCount;
+        // Trạng thái bóng lúc dò (dùng để kiểm tra còn hợp lệ)
+        private double originX, originY, velocityX, velocityY;
+        private long generation;
+
+        /**
+         * Kiểm tra bóng có tới được đường paddle trong giới hạn số lần nảy không.
+         *
+         * @return true nếu {@link #getLandingX()} có nghĩa.
+         */
+        public boolean lands() {
+            return lands;
+        }
+
+        /**
+         * Lấy vị trí X của tâm bóng khi chạm đường paddle.
+         *
+         * @return Tọa độ X (chỉ có nghĩa khi {@link #lands()}).
+         */
+        public double getLandingX() {
+            return landingX;
+        }
+
+        /**
+         * Lấy số tick còn lại tới khi bóng chạm đường paddle.
+         *
+         * @return Số tick (có phần lẻ).
+         */
+        public double getTicksToLanding() {
+            return ticksToLanding;
+        }
+
+        /**
+         * Lấy số đỉnh của đường gấp khúc, gồm điểm đầu và điểm cuối.
+         *
+         * @return Số đỉnh.
+         */
+        public int getPointCount() {
+            return pointCount;
+        }
+
+        /**
+         * Lấy tọa độ X của đỉnh thứ {@code i}. Đỉnh 0 là vị trí bóng lúc dò.
+         *
+         * @param i Chỉ số đỉnh.
+         * @return Tọa độ X.
+         */
+        public double getPointX(int i) {
+            return points[2 * i];
+        }
+
+        /**
+         * Lấy tọa độ Y của đỉnh thứ {@code i}.
+         *
+         * @param i Chỉ số đỉnh.
+         * @return Tọa độ Y.
+         */
+        public double getPointY(int i) {
+            return points[2 * i + 1];
+        }
+
+        private void addPoint(double x, double y) {
+            if (2 * pointCount + 2 > points.length) {
+                points = Arrays.copyOf(points, points.length * 2);
+            }
+            points[2 * pointCount] = x;
+            points[2 * pointCount + 1] = y;
+            pointCount++;
+        }
+
+        private void addBounceBrick(int index) {
+            if (bounceBrickCount == bounceBricks.length) {
+                bounceBricks = Arrays.copyOf(bounceBricks, bounceBricks.length * 2);
+            }
+            bounceBricks[bounceBrickCount++] = index;
+        }
+    }
+
+    private final GameManager game;
+    private final Map<Ball, Trajectory> cache = new IdentityHashMap<>(); // Quỹ đạo đã đoán theo bóng
+    private long generation; // Tăng mỗi lần gạch được nạp lại
+    private long traces; // Số lần phải dò lại (thống kê)
+    // Kết quả phụ của findBrickHit/entryTime (tránh cấp phát đối tượng kết quả)
+    private int hitBrickIndex; // Chỉ số gạch chạm đầu tiên
+    private boolean entryAxisIsX; // Đi vào qua cạnh đứng (phản xạ theo X)
+
+    /**
+     * Tạo bộ dự đoán cho một ván game.
+     *
+     * @param game Ván game sở hữu (đọc bóng, gạch và vị trí paddle).
+     */
+    TrajectoryPredictor(GameManager game) {
+        this.game = game;
+    }
+
+    /**
+     * Bỏ mọi quỹ đạo đã đoán. Gọi mỗi khi danh sách gạch được nạp lại, vì gạch
+     * đã phá có thể sống lại.
+     */
+    void clear() {
+        generation++;
+    }
+
+    /**
+     * Lấy quỹ đạo đoán trước của một quả bóng, dò lại nếu quỹ đạo cũ không còn đúng.
+     *
+     * @param ball Quả bóng (đang bay, không dính paddle).
+     * @return Quỹ đạo, hoặc {@code null} nếu bóng đứng yên.
+     */
+    public Trajectory predict(Ball ball) {
+        double vx = ball.getVelocity().getDx();
+        double vy = ball.getVelocity().getDy();
+        if (ball.isAttached() || (vx == 0 && vy == 0)) {
+            return null;
+        }
+        double cx = ball.getCenter().getX();
+        double cy = ball.getCenter().getY();
+
+        Trajectory trajectory = cache.get(ball);
+        if (trajectory == null) {
+            if (cache.size() > game.balls.size()) {
+                cache.keySet().retainAll(game.balls); // Bỏ quỹ đạo của bóng đã rơi
+            }
+            trajectory = new Trajectory();
+            cache.put(ball, trajectory);
+        } else if (isValid(trajectory, cx, cy, vx, vy)) {
+            // Bóng vẫn đi trên đoạn đầu: chỉ trừ phần đã đi
+            double travelled = ((cx - trajectory.originX) * vx + (cy - trajectory.originY) * vy) / (vx * vx + vy * vy);
+            trajectory.ticksToLanding = trajectory.totalTicks - travelled;
+            return trajectory;
+        }
+
+        trace(trajectory, cx, cy, vx, vy, ball.getWidth() / 2.0);
+        return trajectory;
+    }
+
+    /**
+     * Lấy số lần đã phải dò lại quỹ đạo (để đo hiệu quả của bộ nhớ đệm).
+     *
+     * @return Số lần dò.
+     */
+    public long getTraceCount() {
+        return traces;
+    }
+
+    /**
+     * Kiểm tra quỹ đạo đã đoán còn đúng với trạng thái hiện tại của bóng.
+     */
+    private boolean isValid(Trajectory t, double cx, double cy, double vx, double vy) {
+        if (t.generation != generation || t.velocityX != vx || t.velocityY != vy) {
+            return false;
+        }
+        // Tâm bóng phải còn nằm trên đoạn đầu (bị dời chỗ mà không đổi vận tốc thì dò lại)
+        double cross = (cx - t.originX) * vy - (cy - t.originY) * vx;
+        if (Math.abs(cross) > LINE_TOLERANCE * Math.hypot(vx, vy)) {
+            return false;
+        }
+        List<Brick> bricks = game.bricks;
+        for (int i = 0; i < t.bounceBrickCount; i++) {
+            int index = t.bounceBricks[i];
+            if (index >= bricks.size() || !bricks.get(index).isAlive()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Dò quỹ đạo từ vị trí và vận tốc hiện tại, ghi kết quả vào {@code t}.
+     * Thời gian tính theo tick: mỗi tick tâm bóng đi đúng một vector vận tốc.
+     */
+    private void trace(Trajectory t, double x, double y, double vx, double vy, double radius) {
+        traces++;
+        t.generation = generation;
+        t.originX = x;
+        t.originY = y;
+        t.velocityX = vx;
+        t.velocityY = vy;
+        t.pointCount = 0;
+        t.bounceBrickCount = 0;
+        t.lands = false;
+        t.addPoint(x, y);
+
+        List<Brick> bricks = game.bricks;
+        BrickIndex index = bricks == game.getRoundsManager().getCurrentBricks()
+                ? game.getRoundsManager().getCurrentBrickIndex() : null;
+        double left = Constants.PlayArea.PLAY_AREA_X + radius;
+        double right = Constants.PlayArea.PLAY_AREA_X + Constants.PlayArea.PLAY_AREA_WIDTH - radius;
+        double top = Constants.PlayArea.PLAY_AREA_Y + radius;
+        double landingY = game.getPaddle().getY() - radius;
+
+        double elapsed = 0;
+        for (int bounce = 0; bounce <= MAX_BOUNCES; bounce++) {
+            if (vy > 0 && y >= landingY) {
+                break; // Đã ở dưới đường paddle
+            }
+
+            // Vật cản cố định gần nhất: tường hoặc đường paddle
+            double tx = vx < 0 ? (left - x) / vx : vx > 0 ? (right - x) / vx : Double.POSITIVE_INFINITY;
+            double ty = vy < 0 ? (top - y) / vy : vy > 0 ? (landingY - y) / vy : Double.POSITIVE_INFINITY;
+            double tBest = Math.max(0, Math.min(tx, ty));
+            boolean flipX = tx <= ty;
+            boolean landed = !flipX && vy > 0;
+
+            if (!Double.isFinite(tBest)) {
+                break; // Không bao giờ chạm gì (không thể xảy ra khi còn vận tốc, phòng hờ)
+            }
+
+            // Gạch gần hơn trên đoạn đó (nếu có)
+            double brickHit = findBrickHit(bricks, index, x, y, vx, vy, radius, tBest);
+            int hitBrick = -1;
+            if (brickHit < tBest) {
+                tBest = brickHit;
+                hitBrick = hitBrickIndex;
+                flipX = entryAxisIsX;
+                landed = false;
+            }
+
+            x += vx * tBest;
+            y += vy * tBest;
+            elapsed += tBest;
+            t.addPoint(x, y);
+            if (landed) {
+                t.lands = true;
+                t.landingX = x;
+                t.totalTicks = elapsed;
+                t.ticksToLanding = elapsed;
+                return;
+            }
+            if (hitBrick >= 0) {
+                t.addBounceBrick(hitBrick);
+            }
+            if (flipX) {
+                vx = -vx;
+            } else {
+                vy = -vy;
+            }
+        }
+        t.totalTicks = elapsed;
+        t.ticksToLanding = elapsed;
+    }
+
+    /**
+     * Tìm gạch còn sống đầu tiên mà tâm bóng chạm vào trên đoạn
+     * {@code [0, limit)}. Có chỉ mục thì đoạn được dò từng bước
+     * {@value #MARCH_STEP} pixel và dừng ở bước đầu tiên có va chạm, nên mỗi
+     * truy vấn chỉ phủ vài ô lưới kể cả khi sân có hàng chục nghìn gạch.
+     * Chỉ số và trục đi vào của gạch tìm được nằm ở {@link #hitBrickIndex} và
+     * {@link #entryAxisIsX}.
+     *
+     * @return Thời điểm chạm, hoặc {@code limit} nếu không chạm gạch nào.
+     */
+    private double findBrickHit(List<Brick> bricks, BrickIndex index, double x, double y,
+                                double vx, double vy, double radius, double limit) {
+        double best = limit;
+        boolean bestAxisIsX = false;
+        if (index == null) {
+            for (int i = 0; i < bricks.size(); i++) {
+                double hit = brickEntryTime(bricks.get(i), x, y, vx, vy, radius);
+                if (hit >= 0 && hit < best) {
+                    best = hit;
+                    hitBrickIndex = i;
+                    bestAxisIsX = entryAxisIsX;
+                }
+            }
+            entryAxisIsX = bestAxisIsX;
+            return best;
+        }
+
+        double step = MARCH_STEP / Math.hypot(vx, vy); // Số tick của một bước dò
+        double reach = radius + QUERY_MARGIN;
+        for (double from = 0; from < limit; from += step) {
+            double to = Math.min(limit, from + step);
+            double x0 = x + vx * from, y0 = y + vy * from;
+            double x1 = x + vx * to, y1 = y + vy * to;
+            int count = index.query(Math.min(x0, x1) - reach, Math.min(y0, y1) - reach,
+                    Math.max(x0, x1) + reach, Math.max(y0, y1) + reach);
+            for (int k = 0; k < count; k++) {
+                int i = index.resultAt(k);
+                double hit = brickEntryTime(bricks.get(i), x, y, vx, vy, radius);
+                if (hit >= 0 && hit < best) {
+                    best = hit;
+                    hitBrickIndex = i;
+                    bestAxisIsX = entryAxisIsX;
+                }
+            }
+            if (best <= to) {
+                break; // Gạch ở các bước sau chỉ có thể bị chạm muộn hơn
+            }
+        }
+        entryAxisIsX = bestAxisIsX;
+        return best;
+    }
+
+    /**
+     * Thời điểm tâm bóng đi vào một viên gạch còn sống (mở rộng theo bán kính bóng).
+     *
+     * @return Thời điểm đi vào, hoặc -1 nếu gạch đã bị phá hoặc không cắt.
+     */
+    private double brickEntryTime(Brick brick, double x, double y, double vx, double vy, double radius) {
+        if (!brick.isAlive()) {
+            return -1;
+        }
+        return entryTime(x, y, vx, vy, brick.getX() - radius, brick.getY() - radius,
+                brick.getX() + brick.getWidth() + radius, brick.getY() + brick.getHeight() + radius);
+    }
+
+    /**
+     * Thời điểm tia {@code (x, y) + t * (vx, vy)} đi vào hình chữ nhật (phương
+     * pháp slab). Tia xuất phát bên trong hình chữ nhật không tính là va chạm.
+     *
+     * @return Thời điểm đi vào (≥ 0), hoặc -1 nếu không cắt.
+     */
+    private double entryTime(double x, double y, double vx, double vy,
+                             double minX, double minY, double maxX, double maxY) {
+        double nearX, farX, nearY, farY;
+        if (vx == 0) {
+            if (x <= minX || x >= maxX) {
+                return -1;
+            }
+            nearX = Double.NEGATIVE_INFINITY;
+            farX = Double.POSITIVE_INFINITY;
+        } else {
+            double t1 = (minX - x) / vx, t2 = (maxX - x) / vx;
+            nearX = Math.min(t1, t2);
+            farX = Math.max(t1, t2);
+        }
+        if (vy == 0) {
+            if (y <= minY || y >= maxY) {
+                return -1;
+            }
+            nearY = Double.NEGATIVE_INFINITY;
+            farY = Double.POSITIVE_INFINITY;
+        } else {
+            double t1 = (minY - y) / vy, t2 = (maxY - y) / vy;
+            nearY = Math.min(t1, t2);
+            farY = Math.max(t1, t2);
+        }
+        double near = Math.max(nearX, nearY);
+        double far = Math.min(farX, farY);
+        if (near < 0 || near >= far) {
+            return -1;
+        }
+        entryAxisIsX = nearX > nearY;
+        return near;
+    }
+}
@@ -0,0 +1,418 @@
+package Engine;
+
+import Utils.ConsoleLog;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.SplittableRandom;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Chạy K môi trường {@link ArkanoidEnv} độc lập theo nhịp chung (lockstep)
+ * trên nhiều luồng, đọc hành động và ghi kết quả trong một bộ đệm direct duy nhất.
+ *
+ * <p>Bộ đệm có thể là một file được map vào bộ nhớ: tiến trình Python map cùng
+ * file và đọc quan sát bằng {@code numpy.frombuffer} mà không sao chép. Bố cục
+ * (little-endian, các vùng bắt đầu ở biên 64 byte):</p>
+ * <pre>
+ * 0    int    MAGIC ("ARKV")
+ * 4    int    VERSION
+ * 8    int    số môi trường K
+ * 12   int    số phần tử quan sát mỗi môi trường
+ * 16   int    số thứ tự yêu cầu (bên huấn luyện tăng sau khi ghi hành động)
+ * 20   int    số thứ tự phản hồi (VectorEnv ghi bằng số yêu cầu sau khi xong)
+ * 24   int    lệnh: 0 = bước, 1 = bắt đầu lại mọi ván, 2 = kết thúc
+ * 64   int[K]      hành động (ordinal của InputAction)
+ * ..   float[K]    phần thưởng của bước vừa chạy
+ * ..   byte[K]     0 = đang chơi, 1 = vừa kết thúc (thắng/thua), 2 = vừa bị cắt ngang
+ * ..   float[K*N]  quan sát (xem {@link ArkanoidEnv})
+ * </pre>
+ *
+ * <p>Môi trường vừa kết thúc được bắt đầu lại ngay với seed kế tiếp của nó,
+ * nên quan sát trả về là của ván mới, còn phần thưởng và cờ kết thúc là của
+ * ván cũ. Mỗi môi trường có chuỗi seed riêng tách từ seed gốc, nên kết quả
+ * không phụ thuộc cách chia việc giữa các luồng.</p>
+ *
+ * <p>Luồng gọi {@link #step()} cũng làm phần việc của luồng 0; các luồng còn
+ * lại là luồng nền, gặp nhau ở hai rào chắn mỗi bước. Chỉ một luồng được gọi
+ * {@link #step()}/{@link #reset()}/{@link #close()}.</p>
+ */
+public final class VectorEnv implements AutoCloseable {
+    public static final int MAGIC = 0x564B5241; // "ARKV" (little-endian)
+    public static final int VERSION = 1;
+    public static final int OFFSET_NUM_ENVS = 8;
+    public static final int OFFSET_OBSERVATION_SIZE = 12;
+    public static final int OFFSET_REQUEST = 16;
+    public static final int OFFSET_RESPONSE = 20;
+    public static final int OFFSET_COMMAND = 24;
+    public static final int COMMAND_STEP = 0;
+    public static final int COMMAND_RESET = 1;
+    public static final int COMMAND_CLOSE = 2;
+    public static final byte RUNNING = 0;
+    public static final byte TERMINATED = 1;
+    public static final byte TRUNCATED = 2;
+
+    private static final int HEADER_BYTES = 64;
+    private static final int ALIGNMENT = 64; // Mỗi vùng bắt đầu ở biên cache line
+    private static final int SPIN_LIMIT = 10_000; // Số vòng chờ bận trước khi ngủ ngắn
+    private static final long PARK_NANOS = 50_000;
+    private static final VarHandle INT = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private final int numEnvs;
+    private final ArkanoidEnv[] envs;
+    private final SplittableRandom[] seeds; // Chuỗi seed riêng của từng môi trường
+    private final long[] currentSeeds; // Seed của ván đang chơi (để báo lỗi)
+    private final ByteBuffer buffer;
+    private final IntBuffer actions;
+    private final FloatBuffer rewards;
+    private final ByteBuffer dones;
+    private final FloatBuffer observations;
+
+    private final int threads;
+    private final CyclicBarrier start;
+    private final CyclicBarrier finish;
+    private volatile boolean resetting; // Lệnh của lượt hiện tại (đọc sau rào chắn start)
+    private volatile boolean closed;
+
+    /**
+     * Tính kích thước bộ đệm cần cho {@code numEnvs} môi trường.
+     *
+     * @param numEnvs Số môi trường.
+     * @return Số byte.
+     */
+    public static int bufferSize(int numEnvs) {
+        return observationsOffset(numEnvs) + numEnvs * ArkanoidEnv.OBSERVATION_SIZE * Float.BYTES;
+    }
+
+    private static int actionsOffset() {
+        return HEADER_BYTES;
+    }
+
+    private static int rewardsOffset(int numEnvs) {
+        return align(actionsOffset() + numEnvs * Integer.BYTES);
+    }
+
+    private static int donesOffset(int numEnvs) {
+        return align(rewardsOffset(numEnvs) + numEnvs * Float.BYTES);
+    }
+
+    private static int observationsOffset(int numEnvs) {
+        return align(donesOffset(numEnvs) + numEnvs);
+    }
+
+    private static int align(int offset) {
+        return (offset + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+    }
+
+    /**
+     * Tạo K môi trường trên bộ đệm cho trước và ghi header. Các ván chưa bắt
+     * đầu: gọi {@link #reset()} trước bước đầu tiên.
+     *
+     * @param buffer Bộ đệm direct, ít nhất {@link #bufferSize(int)} byte.
+     * @param numEnvs Số môi trường K.
+     * @param threads Số luồng (gồm cả luồng gọi).
+     * @param frameSkip Số tick mỗi bước.
+     * @param baseSeed Seed gốc sinh ra chuỗi seed của từng môi trường.
+     */
+    public VectorEnv(ByteBuffer buffer, int numEnvs, int threads, int frameSkip, long baseSeed) {
+        if (!buffer.isDirect() || buffer.capacity() < bufferSize(numEnvs)) {
+            throw new IllegalArgumentException("Need a direct buffer of at least " + bufferSize(numEnvs) + " bytes");
+        }
+        this.numEnvs = numEnvs;
+        this.threads = Math.max(1, Math.min(threads, numEnvs));
+        this.buffer = buffer.order(ByteOrder.LITTLE_ENDIAN);
+        this.actions = region(rewardsOffset(numEnvs) - actionsOffset(), actionsOffset()).asIntBuffer();
+        this.rewards = region(numEnvs * Float.BYTES, rewardsOffset(numEnvs)).asFloatBuffer();
+        this.dones = region(numEnvs, donesOffset(numEnvs));
+        this.observations = region(numEnvs * ArkanoidEnv.OBSERVATION_SIZE * Float.BYTES,
+                observationsOffset(numEnvs)).asFloatBuffer();
+
+        this.envs = new ArkanoidEnv[numEnvs];
+        this.seeds = new SplittableRandom[numEnvs];
+        this.currentSeeds = new long[numEnvs];
+        SplittableRandom root = new SplittableRandom(baseSeed);
+        for (int i = 0; i < numEnvs; i++) {
+            envs[i] = new ArkanoidEnv(frameSkip);
+            seeds[i] = root.split();
+        }
+
+        this.buffer.putInt(0, MAGIC);
+        this.buffer.putInt(4, VERSION);
+        this.buffer.putInt(OFFSET_NUM_ENVS, numEnvs);
+        this.buffer.putInt(OFFSET_OBSERVATION_SIZE, ArkanoidEnv.OBSERVATION_SIZE);
+
+        this.start = new CyclicBarrier(this.threads);
+        this.finish = new CyclicBarrier(this.threads);
+        for (int w = 1; w < this.threads; w++) {
+            int worker = w;
+            Thread thread = new Thread(() -> workerLoop(worker), "VectorEnv-" + w);
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    /**
+     * Cắt một vùng của bộ đệm chung (little-endian).
+     */
+    private ByteBuffer region(int length, int offset) {
+        return buffer.slice(offset, length).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Bắt đầu lại mọi ván với seed kế tiếp và ghi quan sát đầu tiên.
+     */
+    public void reset() {
+        run(true);
+    }
+
+    /**
+     * Chạy một bước cho mọi môi trường: đọc hành động trong bộ đệm, ghi phần
+     * thưởng, cờ kết thúc và quan sát.
+     */
+    public void step() {
+        run(false);
+    }
+
+    /**
+     * Lấy vùng hành động của bộ đệm (ghi theo chỉ số tuyệt đối).
+     *
+     * @return IntBuffer K phần tử.
+     */
+    public IntBuffer actions() {
+        return actions;
+    }
+
+    /**
+     * Lấy vùng quan sát của bộ đệm.
+     *
+     * @return FloatBuffer K * {@link ArkanoidEnv#OBSERVATION_SIZE} phần tử.
+     */
+    public FloatBuffer observations() {
+        return observations;
+    }
+
+    /**
+     * Lấy vùng phần thưởng của bộ đệm.
+     *
+     * @return FloatBuffer K phần tử.
+     */
+    public FloatBuffer rewards() {
+        return rewards;
+    }
+
+    /**
+     * Lấy vùng cờ kết thúc của bộ đệm.
+     *
+     * @return ByteBuffer K phần tử ({@link #RUNNING}, {@link #TERMINATED}, {@link #TRUNCATED}).
+     */
+    public ByteBuffer dones() {
+        return dones;
+    }
+
+    /**
+     * Dừng các luồng nền.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            start.await(); // Đánh thức các luồng nền để chúng thấy cờ closed và thoát
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (BrokenBarrierException e) {
+            // Các luồng nền đã dừng
+        }
+    }
+
+    /**
+     * Chạy một lượt (bước hoặc bắt đầu lại) trên mọi luồng và chờ tất cả xong.
+     */
+    private void run(boolean reset) {
+        if (closed) {
+            throw new IllegalStateException("VectorEnv is closed");
+        }
+        resetting = reset;
+        await(start);
+        work(0, reset);
+        await(finish);
+    }
+
+    private void workerLoop(int worker) {
+        while (true) {
+            if (!await(start) || closed) {
+                return;
+            }
+            work(worker, resetting);
+            if (!await(finish)) {
+                return;
+            }
+        }
+    }
+
+    private boolean await(CyclicBarrier barrier) {
+        try {
+            barrier.await();
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (BrokenBarrierException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Phần việc của một luồng: các môi trường [from, to).
+     */
+    private void work(int worker, boolean reset) {
+        int from = (int) ((long) numEnvs * worker / threads);
+        int to = (int) ((long) numEnvs * (worker + 1) / threads);
+        for (int i = from; i < to; i++) {
+            ArkanoidEnv env = envs[i];
+            if (reset) {
+                restart(i);
+                rewards.put(i, 0f);
+                dones.put(i, RUNNING);
+            } else {
+                float reward;
+                byte done;
+                try {
+                    reward = env.step(actions.get(i));
+                    done = !env.isDone() ? RUNNING : env.isTruncated() ? TRUNCATED : TERMINATED;
+                } catch (RuntimeException e) {
+                    // Một ván lỗi không được làm dừng cả lô: báo lỗi kèm seed rồi bỏ ván đó
+                    System.err.println("VectorEnv: Env " + i + " failed (seed " + currentSeeds[i] + "): " + e);
+                    reward = 0f;
+                    done = TRUNCATED;
+                }
+                rewards.put(i, reward);
+                dones.put(i, done);
+                if (done != RUNNING) {
+                    restart(i);
+                }
+            }
+            env.observe(observations, i * ArkanoidEnv.OBSERVATION_SIZE);
+        }
+    }
+
+    private void restart(int i) {
+        currentSeeds[i] = seeds[i].nextLong();
+        envs[i].reset(currentSeeds[i]);
+    }
+
+    /**
+     * Phục vụ tiến trình huấn luyện qua file map: chờ số yêu cầu thay đổi, chạy
+     * lệnh trong header, rồi ghi số phản hồi. Chờ bận ngắn rồi ngủ từng quãng
+     * nhỏ, nên khi bên huấn luyện bận tính toán thì không chiếm trọn một lõi.
+     */
+    private void serve() {
+        int last = (int) INT.getVolatile(buffer, OFFSET_REQUEST);
+        while (true) {
+            int request;
+            int spins = 0;
+            while ((request = (int) INT.getVolatile(buffer, OFFSET_REQUEST)) == last) {
+                if (++spins < SPIN_LIMIT) {
+                    Thread.onSpinWait();
+                } else {
+                    LockSupport.parkNanos(PARK_NANOS);
+                }
+            }
+            last = request;
+            int command = buffer.getInt(OFFSET_COMMAND);
+            if (command == COMMAND_CLOSE) {
+                INT.setRelease(buffer, OFFSET_RESPONSE, request);
+                return;
+            }
+            run(command == COMMAND_RESET);
+            INT.setRelease(buffer, OFFSET_RESPONSE, request);
+        }
+    }
+
+    /**
+     * Đo thông lượng với hành động ngẫu nhiên (không cần tiến trình huấn luyện).
+     *
+     * @return Số bước môi trường mỗi giây.
+     */
+    private double benchmark(double seconds) {
+        SplittableRandom random = new SplittableRandom(1);
+        reset();
+        long steps = 0;
+        long start = System.nanoTime();
+        long end = start + (long) (seconds * 1e9);
+        long now;
+        do {
+            for (int i = 0; i < numEnvs; i++) {
+                actions.put(i, random.nextInt(ArkanoidEnv.ACTION_COUNT));
+            }
+            step();
+            steps += numEnvs;
+            now = System.nanoTime();
+        } while (now < end);
+        return steps / ((now - start) / 1e9);
+    }
+
+    /**
+     * Điểm vào. Log thường của game bị tắt (ghi ra stdout ở tốc độ này sẽ chiếm hết thời gian).
+     *
+     * <pre>
+     * java -cp out Engine.VectorEnv serve &lt;file&gt; &lt;K&gt; [số luồng] [frameSkip] [seed gốc]
+     * java -cp out Engine.VectorEnv bench &lt;K&gt; [số luồng] [frameSkip] [số giây]
+     * </pre>
+     *
+     * @param args Tham số dòng lệnh.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || !(args[0].equals("serve") || args[0].equals("bench"))) {
+            System.err.println("VectorEnv: Usage: serve <file> <envs> [threads] [frameSkip] [seed]"
+                    + " | bench <envs> [threads] [frameSkip] [seconds]");
+            return;
+        }
+        boolean serve = args[0].equals("serve");
+        int next = serve ? 2 : 1;
+        int numEnvs = Integer.parseInt(args[next]);
+        int threads = args.length > next + 1 ? Integer.parseInt(args[next + 1]) : Runtime.getRuntime().availableProcessors();
+        int frameSkip = args.length > next + 2 ? Integer.parseInt(args[next + 2]) : 1;
+
+        PrintStream out = ConsoleLog.quiet(false); // Giữ stderr để vẫn thấy các ván bị lỗi
+        try {
+            if (serve) {
+                long seed = args.length > 5 ? Long.parseLong(args[5]) : System.nanoTime();
+                Path path = Paths.get(args[1]);
+                try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                        StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                    ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, bufferSize(numEnvs));
+                    try (VectorEnv env = new VectorEnv(mapped, numEnvs, threads, frameSkip, seed)) {
+                        out.printf("VectorEnv: Serving %d envs on %d threads at %s (%d bytes)%n",
+                                numEnvs, env.threads, path, bufferSize(numEnvs));
+                        env.serve();
+                    }
+                }
+            } else {
+                double seconds = args.length > 4 ? Double.parseDouble(args[4]) : 10;
+                try (VectorEnv env = new VectorEnv(ByteBuffer.allocateDirect(bufferSize(numEnvs)),
+                        numEnvs, threads, frameSkip, 1)) {
+                    env.benchmark(Math.min(2, seconds)); // Làm nóng JIT
+                    double rate = env.benchmark(seconds);
+                    out.printf("VectorEnv: %d envs, %d threads, frameSkip %d: %.0f env-steps/sec (%.0f ticks/sec)%n",
+                            numEnvs, env.threads, frameSkip, rate, rate * frameSkip);
+                }
+            }
+        } finally {
+            ConsoleLog.restore();
+        }
+    }
+}
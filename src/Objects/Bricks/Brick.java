@@ -24,6 +24,9 @@ public abstract class Brick implements GameObject {
     // Số lần gạch có thể chịu đòn trước khi bị phá hủy
     private int hitPoints;
 
+    // Số lần chịu đòn ban đầu, dùng khi đặt lại gạch để chơi lại
+    private final int initialHitPoints;
+
     // Trạng thái của viên gạch: true = còn sống, false = đã bị phá hủy
     private boolean alive;
 
@@ -42,6 +45,7 @@ public abstract class Brick implements GameObject {
         this.width = width;
         this.height = height;
         this.hitPoints = hitPoints;
+        this.initialHitPoints = hitPoints;
         this.alive = true; // Gạch khởi tạo luôn ở trạng thái sống
     }
 
@@ -92,6 +96,26 @@ public abstract class Brick implements GameObject {
         alive = false;
     }
 
+    /**
+     * Khôi phục trạng thái gạch từ bản lưu (GameSnapshot).
+     *
+     * @param alive Gạch còn sống hay không.
+     * @param hitPoints Số lần chịu đòn còn lại.
+     */
+    public void restoreState(boolean alive, int hitPoints) {
+        this.alive = alive;
+        this.hitPoints = hitPoints;
+    }
+
+    /**
+     * Đặt lại gạch về trạng thái lúc mới tạo (còn sống, đủ số lần chịu đòn),
+     * để dùng lại cùng đối tượng khi vòng chơi bắt đầu lại.
+     */
+    public void reset() {
+        this.alive = true;
+        this.hitPoints = initialHitPoints;
+    }
+
     /**
      * Phương thức update — có thể được ghi đè trong các lớp con để cập nhật trạng thái gạch.
      * (ví dụ: gạch đổi màu, gạch chuyển động, v.v.)
@@ -1,7 +1,7 @@
 package Objects.Bricks;
 
-import Render.Animation;
-import Utils.AnimationFactory;
+import Render.AnimationScheduler;
+import Render.FrameTable;
 import GeometryPrimitives.Point;
 import GeometryPrimitives.Rectangle;
 
@@ -11,18 +11,20 @@ import GeometryPrimitives.Rectangle;
  * <p>Gạch bạc có độ bền cao hơn gạch thường, cần bị đánh trúng nhiều lần
  * (theo giá trị {@link BrickType#SILVER#getHitPoints()}) mới bị phá hủy hoàn toàn.</p>
  *
- * <p>Khi chỉ còn 1 HP, gạch bạc sẽ hiển thị hiệu ứng nứt thông qua {@link Animation}
- * được tạo bởi {@link AnimationFactory#createBrickCrackAnimation()}.</p>
- *
- * <p>Trạng thái và hiệu ứng của gạch được cập nhật liên tục trong phương thức {@link #update()}.</p>
+ * <p>Khi chỉ còn 1 HP, gạch bạc sẽ hiển thị hiệu ứng nứt bằng bảng khung hình
+ * {@link FrameTable#SILVER_CRACK}. Gạch chỉ lưu trạng thái animation gọn; khung hình
+ * được {@link AnimationScheduler} tính theo tick nên gạch không cần được cập nhật mỗi frame.</p>
  */
 public class SilverBrick extends Brick {
 
     /** Số máu hiện tại của gạch bạc */
     private int currentHP;
 
-    /** Hiệu ứng nứt của gạch bạc khi gần bị phá hủy */
-    private Animation crackAnimation;
+    /** Đồng hồ animation của ván game, do RoundsManager gán khi nạp màn */
+    private AnimationScheduler scheduler;
+
+    /** Trạng thái gọn của hiệu ứng nứt ({@link AnimationScheduler#NONE} nếu chưa nứt) */
+    private long crackAnimation = AnimationScheduler.NONE;
 
     /**
      * Khởi tạo một đối tượng {@code SilverBrick} tại vị trí và kích thước xác định.
@@ -36,8 +38,6 @@ public class SilverBrick extends Brick {
         // Gọi constructor lớp cha với thông tin từ BrickType.SILVER
         super(x, y, width, height, BrickType.SILVER.getHitPoints());
         this.currentHP = BrickType.SILVER.getHitPoints();
-        // Tạo hiệu ứng nứt từ AnimationFactory
-        this.crackAnimation = AnimationFactory.createBrickCrackAnimation();
     }
 
     /**
@@ -55,24 +55,15 @@ public class SilverBrick extends Brick {
 
         if (currentHP == 1) {
             // Khi chỉ còn 1 HP → hiển thị hiệu ứng nứt
-            crackAnimation.play();
+            if (scheduler != null) {
+                crackAnimation = scheduler.play(FrameTable.SILVER_CRACK, AnimationScheduler.Mode.ONCE);
+            }
         } else if (currentHP == 0) {
             // Khi HP = 0 → phá hủy gạch
             destroy();
         }
     }
 
-    /**
-     * Cập nhật hiệu ứng nứt (nếu đang phát).
-     * <p>Phương thức này được gọi mỗi frame để đảm bảo animation hoạt động mượt mà.</p>
-     */
-    @Override
-    public void update() {
-        if (crackAnimation != null && crackAnimation.isPlaying()) {
-            crackAnimation.update();
-        }
-    }
-
     /**
      * Trả về vùng bao (hitbox) của gạch bạc.
      *
@@ -111,6 +102,29 @@ public class SilverBrick extends Brick {
         return BrickType.SILVER;
     }
 
+    /**
+     * Khôi phục trạng thái gạch bạc từ bản lưu (GameSnapshot). Với gạch bạc,
+     * số lần chịu đòn còn lại chính là HP hiện tại.
+     *
+     * @param alive Gạch còn sống hay không.
+     * @param hitPoints HP còn lại.
+     */
+    @Override
+    public void restoreState(boolean alive, int hitPoints) {
+        super.restoreState(alive, hitPoints);
+        this.currentHP = hitPoints;
+    }
+
+    /**
+     * Đặt lại gạch bạc về trạng thái lúc mới tạo: đủ HP và chưa nứt.
+     */
+    @Override
+    public void reset() {
+        super.reset();
+        this.currentHP = BrickType.SILVER.getHitPoints();
+        this.crackAnimation = AnimationScheduler.NONE;
+    }
+
     /**
      * Lấy số HP hiện tại của gạch.
      *
@@ -126,24 +140,33 @@ public class SilverBrick extends Brick {
      * @return {@code true} nếu hiệu ứng đang chạy
      */
     public boolean isCrackAnimationPlaying() {
-        return crackAnimation != null && crackAnimation.isPlaying();
+        return scheduler != null && scheduler.isPlaying(crackAnimation);
     }
 
     /**
-     * Lấy hiệu ứng nứt hiện tại của gạch bạc.
+     * Lấy trạng thái gọn của hiệu ứng nứt.
      *
-     * @return đối tượng {@link Animation} của hiệu ứng nứt
+     * @return trạng thái animation, hoặc {@link AnimationScheduler#NONE} nếu chưa nứt
      */
-    public Animation getCrackAnimation() {
+    public long getCrackAnimation() {
         return crackAnimation;
     }
 
     /**
-     * Gán hiệu ứng nứt mới cho gạch bạc.
+     * Gán trạng thái hiệu ứng nứt cho gạch bạc.
      *
-     * @param animation đối tượng {@link Animation} mới
+     * @param animation trạng thái animation mới
      */
-    public void setCrackAnimation(Animation animation) {
+    public void setCrackAnimation(long animation) {
         this.crackAnimation = animation;
     }
+
+    /**
+     * Gán đồng hồ animation của ván game cho gạch.
+     *
+     * @param scheduler đồng hồ animation dùng chung
+     */
+    public void setAnimationScheduler(AnimationScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
 }
@@ -1,10 +1,11 @@
 package Objects.GameEntities;
 
-import Utils.AnimationFactory;
 import Utils.Constants;
 import GeometryPrimitives.Velocity;
-import Render.Animation;
+import Render.AnimationScheduler;
+import Render.FrameTable;
 import Objects.Core.MovableObject;
+import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.ArrayList;
 
@@ -18,21 +19,24 @@ public class Paddle extends MovableObject{
     private boolean catchMode = false;
     // Số lần bắn laser còn lại
     private int laserShots = 0;
-    // Thời điểm cooldown laser kết thúc (để kiểm soát tốc độ bắn)
+    // Thời điểm cooldown laser kết thúc theo thời gian game (để kiểm soát tốc độ bắn)
     private long laserCooldown = 0;
 
     // Trạng thái hiện tại của Paddle (NORMAL, WIDE, LASER, v.v.)
     private PaddleState currentState = PaddleState.NORMAL;
-    // Animation hiện tại đang được phát
-    private Animation currentAnimation = null;
+    // Đồng hồ animation dùng chung của ván game
+    private final AnimationScheduler scheduler;
+    // Trạng thái gọn của animation hiện tại (AnimationScheduler.NONE nếu không có)
+    private long currentAnimation = AnimationScheduler.NONE;
     // Cờ báo hiệu animation đang được phát
     private boolean animationPlaying = false;
 
-    // Thời điểm các hiệu ứng hết hạn (milliseconds)
-    private long expandExpiryTime = 0;
-    private long laserExpiryTime = 0;
-    private long catchExpiryTime = 0;
-    private long slowExpiryTime = 0;
+    // Hiệu ứng SLOW đang hoạt động (CATCH dùng catchMode)
+    private boolean slowEffect = false;
+    // Hiệu ứng CATCH / SLOW đã vào khoảng cảnh báo sắp hết hạn. Thời hạn do
+    // PowerUpManager hẹn giờ; paddle chỉ nhận sự kiện cảnh báo và hết hạn.
+    private boolean catchWarning = false;
+    private boolean slowWarning = false;
 
 
     /**
@@ -42,14 +46,17 @@ public class Paddle extends MovableObject{
      * @param y Tọa độ y ban đầu của paddle.
      * @param width Chiều rộng của paddle.
      * @param height Chiều cao của paddle.
+     * @param scheduler Đồng hồ animation dùng chung của ván game.
      */
-    public Paddle(double x, double y, double width, double height) {
+    public Paddle(double x, double y, double width, double height, AnimationScheduler scheduler) {
         super(x, y, width, height);
+        this.scheduler = scheduler;
     }
 
     /**
      * Cập nhật trạng thái của paddle trong mỗi frame game.
-     * Xử lý di chuyển, animation, và kiểm tra/hết hạn của các hiệu ứng power-up.
+     * Xử lý di chuyển, animation và nhấp nháy cảnh báo của hiệu ứng; thời hạn
+     * các hiệu ứng do PowerUpManager hẹn giờ và báo qua các phương thức warn/disable.
      */
     @Override
     public void update() {
@@ -57,11 +64,9 @@ public class Paddle extends MovableObject{
         move();
 
         // 2. Cập nhật và kiểm tra animation
-        if (animationPlaying && currentAnimation != null) {
-            currentAnimation.update();
-
-            // Kiểm tra xem animation đã kết thúc chưa
-            if (currentAnimation.isFinished() && !currentAnimation.isPlaying()) {
+        if (animationPlaying && currentAnimation != AnimationScheduler.NONE) {
+            // Kiểm tra xem animation đã kết thúc chưa (khung hình do scheduler tính theo tick)
+            if (scheduler.isFinished(currentAnimation)) {
                 if (currentState == PaddleState.MATERIALIZE) {
                     // Sau khi animation MATERIALIZE (xuất hiện) kết thúc, chuyển về trạng thái NORMAL
                     System.out.println("Paddle: MATERIALIZE animation finished, switching to NORMAL");
@@ -70,84 +75,82 @@ public class Paddle extends MovableObject{
                     // Sau khi animation EXPLODE (nổ) kết thúc
                     System.out.println("Paddle: EXPLODE animation finished");
                     animationPlaying = false;
-                    currentAnimation = null;
+                    currentAnimation = AnimationScheduler.NONE;
                 } else if (currentState == PaddleState.WIDE || currentState == PaddleState.LASER) {
                     // Animation chuyển trạng thái (WIDE/LASER) kết thúc
                     System.out.println("Paddle: " + currentState + " transition animation finished");
                     animationPlaying = false;
-                } else if (currentAnimation.isReversed()) {
+                } else if (AnimationScheduler.isReversed(currentAnimation)) {
                     // Animation đảo ngược (chuyển về NORMAL) kết thúc
                     System.out.println("Paddle: Reversed animation finished, switching to NORMAL");
                     setState(PaddleState.NORMAL); // Gọi setState(NORMAL) để dọn dẹp
                     animationPlaying = false;
-                    currentAnimation = null;
+                    currentAnimation = AnimationScheduler.NONE;
                 }
             }
         }
 
-        // 3. Kiểm tra thời gian hết hạn của các Power-up
-        long currentTime = System.currentTimeMillis();
-        long warningThreshold = Constants.PowerUps.WARNING_THRESHOLD;
-
-        // Xử lý hiệu ứng EXPAND (mở rộng)
-        if (expandExpiryTime > 0) {
-            long timeRemaining = expandExpiryTime - currentTime;
-
-            if (timeRemaining <= 0) {
-                // Hết hạn: thu nhỏ về NORMAL
-                shrinkToNormal();
-                expandExpiryTime = 0;
-            } else if (timeRemaining <= warningThreshold && currentState == PaddleState.WIDE) {
-                // Gần hết hạn: chuyển sang trạng thái nhấp nháy (PULSATE)
-                setState(PaddleState.WIDE_PULSATE);
-                System.out.println("Paddle: WIDE effect expiring soon, switching to WIDE_PULSATE");
-            }
-        }
-
-        // Xử lý hiệu ứng LASER
-        if (laserExpiryTime > 0) {
-            long timeRemaining = laserExpiryTime - currentTime;
-
-            if (timeRemaining <= 0) {
-                // Hết hạn: tắt laser
-                disableLaser();
-                laserExpiryTime = 0;
-            } else if (timeRemaining <= warningThreshold && currentState == PaddleState.LASER) {
-                // Gần hết hạn: chuyển sang trạng thái nhấp nháy (PULSATE)
-                setState(PaddleState.LASER_PULSATE);
-                System.out.println("Paddle: LASER effect expiring soon, switching to LASER_PULSATE");
-            }
-        }
+        // 3. Nhấp nháy cảnh báo của hiệu ứng CATCH / SLOW (khi paddle trở về NORMAL)
+        updateShapeIndependentState();
+    }
 
-        // Kiểm tra xem có hiệu ứng độc lập với hình dạng (Catch hoặc Slow) đang hoạt động không
-        boolean hasCatchEffect = catchExpiryTime > 0 && (catchExpiryTime - currentTime) > 0;
-        boolean hasSlowEffect = slowExpiryTime > 0 && (slowExpiryTime - currentTime) > 0;
-        boolean hasShapeIndependentEffect = hasCatchEffect || hasSlowEffect;
-
-        // Xử lý hiệu ứng độc lập với hình dạng (Catch, Slow) trên Paddle NORMAL
-        if (hasShapeIndependentEffect && currentState == PaddleState.NORMAL) {
-            long catchTimeRemaining = hasCatchEffect ? catchExpiryTime - currentTime : Long.MAX_VALUE;
-            long slowTimeRemaining = hasSlowEffect ? slowExpiryTime - currentTime : Long.MAX_VALUE;
-            // Lấy thời gian còn lại ngắn nhất
-            long minTimeRemaining = Math.min(catchTimeRemaining, slowTimeRemaining);
-
-            if (minTimeRemaining <= warningThreshold) {
-                // Gần hết hạn: chuyển sang trạng thái nhấp nháy (PULSATE)
-                setState(PaddleState.PULSATE);
-                System.out.println("Paddle: Shape-independent effect expiring soon, switching to PULSATE");
-            }
+    /**
+     * Cập nhật trạng thái nhấp nháy của các hiệu ứng độc lập với hình dạng
+     * (CATCH, SLOW): chuyển NORMAL sang PULSATE khi một hiệu ứng đang hoạt động
+     * đã vào khoảng cảnh báo, và PULSATE về NORMAL khi không còn hiệu ứng nào.
+     */
+    private void updateShapeIndependentState() {
+        boolean hasShapeIndependentEffect = catchMode || slowEffect;
+        boolean warning = (catchMode && catchWarning) || (slowEffect && slowWarning);
+
+        if (hasShapeIndependentEffect && warning && currentState == PaddleState.NORMAL) {
+            // Gần hết hạn: chuyển sang trạng thái nhấp nháy (PULSATE)
+            setState(PaddleState.PULSATE);
+            System.out.println("Paddle: Shape-independent effect expiring soon, switching to PULSATE");
         } else if (!hasShapeIndependentEffect && currentState == PaddleState.PULSATE) {
             // Tất cả hiệu ứng độc lập đã hết hạn: chuyển về NORMAL
             setState(PaddleState.NORMAL);
             System.out.println("Paddle: Shape-independent effects expired, switching back to NORMAL");
         }
+    }
 
-        // Dọn dẹp thời gian hết hạn cho Catch và Slow (nếu chưa được xử lý ở các phần trên)
-        if (catchExpiryTime > 0 && (catchExpiryTime - currentTime) <= 0) {
-            catchExpiryTime = 0;
+    /**
+     * Báo hiệu ứng EXPAND sắp hết hạn: paddle WIDE chuyển sang nhấp nháy.
+     */
+    public void warnExpandExpiring() {
+        if (currentState == PaddleState.WIDE) {
+            setState(PaddleState.WIDE_PULSATE);
+            System.out.println("Paddle: WIDE effect expiring soon, switching to WIDE_PULSATE");
         }
-        if (slowExpiryTime > 0 && (slowExpiryTime - currentTime) <= 0) {
-            slowExpiryTime = 0;
+    }
+
+    /**
+     * Báo hiệu ứng LASER sắp hết hạn: paddle LASER chuyển sang nhấp nháy.
+     */
+    public void warnLaserExpiring() {
+        if (currentState == PaddleState.LASER) {
+            setState(PaddleState.LASER_PULSATE);
+            System.out.println("Paddle: LASER effect expiring soon, switching to LASER_PULSATE");
+        }
+    }
+
+    /**
+     * Báo hiệu ứng CATCH sắp hết hạn (bỏ qua nếu CATCH đã bị tắt trước đó).
+     */
+    public void warnCatchExpiring() {
+        if (catchMode) {
+            catchWarning = true;
+            updateShapeIndependentState();
+        }
+    }
+
+    /**
+     * Báo hiệu ứng SLOW sắp hết hạn (bỏ qua nếu SLOW đã bị xóa trước đó).
+     */
+    public void warnSlowExpiring() {
+        if (slowEffect) {
+            slowWarning = true;
+            updateShapeIndependentState();
         }
     }
 
@@ -186,19 +189,15 @@ public class Paddle extends MovableObject{
         this.currentState = newState;
         if (newState == PaddleState.NORMAL) {
             // Trạng thái NORMAL không có animation
-            this.currentAnimation = null;
+            this.currentAnimation = AnimationScheduler.NONE;
             this.animationPlaying = false;
             return;
         }
 
-        // Tạo animation mới cho trạng thái mới
-        this.currentAnimation = AnimationFactory.createPaddleAnimation(newState);
-
-        if (currentAnimation != null) {
-            // Bắt đầu phát animation
-            currentAnimation.play();
-            animationPlaying = true;
-        }
+        // Bắt đầu animation mới từ tick hiện tại, dùng bảng khung hình chung của trạng thái
+        this.currentAnimation = scheduler.play(FrameTable.forPaddle(newState),
+                newState.shouldLoop() ? AnimationScheduler.Mode.LOOP : AnimationScheduler.Mode.ONCE);
+        animationPlaying = true;
     }
 
     /**
@@ -211,11 +210,11 @@ public class Paddle extends MovableObject{
     }
 
     /**
-     * Lấy animation hiện tại.
+     * Lấy trạng thái gọn của animation hiện tại.
      *
-     * @return Đối tượng Animation hiện tại.
+     * @return Trạng thái animation, hoặc {@link AnimationScheduler#NONE} nếu không có.
      */
-    public Animation getAnimation() {
+    public long getAnimation() {
         return currentAnimation;
     }
 
@@ -225,7 +224,7 @@ public class Paddle extends MovableObject{
      * @return true nếu animation đang chạy và chưa kết thúc, ngược lại là false.
      */
     public boolean isAnimationPlaying() {
-        return animationPlaying && currentAnimation != null && currentAnimation.isPlaying();
+        return animationPlaying && scheduler.isPlaying(currentAnimation);
     }
 
     /**
@@ -241,15 +240,11 @@ public class Paddle extends MovableObject{
             setWidth(normalWidth);
             setX(centerX - normalWidth / 2.0);
 
-            expandExpiryTime = 0; // Hủy bỏ hiệu ứng EXPAND
-
             System.out.println("Paddle: Shrunk from WIDE to enable LASER");
         }
 
         setState(PaddleState.LASER);
         laserShots = Constants.Laser.LASER_SHOTS;
-        // Thiết lập thời gian hết hạn
-        laserExpiryTime = System.currentTimeMillis() + Constants.PowerUps.LASER_DURATION;
     }
 
     /**
@@ -261,7 +256,6 @@ public class Paddle extends MovableObject{
             // Chơi animation đảo ngược
             playReversedAnimation(PaddleState.LASER);
             laserShots = 0;
-            laserExpiryTime = 0;
             System.out.println("Paddle: Laser disabled with reversed animation");
         }
     }
@@ -280,7 +274,7 @@ public class Paddle extends MovableObject{
             return lasers;
         }
 
-        long now = System.currentTimeMillis();
+        long now = scheduler.getTimeMillis();
         // Không thể bắn nếu đang trong thời gian cooldown
         if (now < laserCooldown) {
             return lasers;
@@ -307,15 +301,13 @@ public class Paddle extends MovableObject{
      * Nếu đã WIDE, chỉ gia hạn thời gian. Nếu đang LASER, hủy LASER.
      */
     public void expand() {
-        // Nếu đã ở trạng thái WIDE, chỉ gia hạn thời gian
+        // Nếu đã ở trạng thái WIDE, giữ nguyên (PowerUpManager gia hạn thời gian)
         if (getState() == PaddleState.WIDE || getState() == PaddleState.WIDE_PULSATE) {
-            expandExpiryTime = System.currentTimeMillis() + Constants.PowerUps.EXPAND_DURATION;
             return;
         }
         // Nếu đang ở trạng thái LASER, hủy LASER
         if (currentState == PaddleState.LASER || currentState == PaddleState.LASER_PULSATE) {
             laserShots = 0;
-            laserExpiryTime = 0;
             System.out.println("Paddle: Laser cancelled by EXPAND powerup");
         }
 
@@ -326,8 +318,6 @@ public class Paddle extends MovableObject{
         double newWidth = Constants.Paddle.PADDLE_WIDE_WIDTH;
         setWidth(newWidth);
         setX(centerX - newWidth / 2.0);
-        // Thiết lập thời gian hết hạn
-        expandExpiryTime = System.currentTimeMillis() + Constants.PowerUps.EXPAND_DURATION;
     }
 
     /**
@@ -348,7 +338,6 @@ public class Paddle extends MovableObject{
         setWidth(normalWidth);
 
         setX(centerX - getWidth() / 2.0);
-        expandExpiryTime = 0;
     }
 
     /**
@@ -356,7 +345,7 @@ public class Paddle extends MovableObject{
      */
     public void enableCatch() {
         this.catchMode = true;
-        catchExpiryTime = System.currentTimeMillis() + Constants.PowerUps.CATCH_DURATION;
+        this.catchWarning = false;
     }
 
     /**
@@ -364,7 +353,8 @@ public class Paddle extends MovableObject{
      */
     public void disableCatch() {
         this.catchMode = false;
-        catchExpiryTime = 0;
+        this.catchWarning = false;
+        updateShapeIndependentState();
     }
 
     /**
@@ -425,19 +415,20 @@ public class Paddle extends MovableObject{
     }
 
     /**
-     * Đặt thời gian hết hạn cho hiệu ứng làm chậm (SLOW).
-     *
-     * @param expiryTime Thời điểm hết hạn (milliseconds).
+     * Đánh dấu hiệu ứng làm chậm (SLOW) đang hoạt động (để hiển thị cảnh báo khi sắp hết hạn).
      */
-    public void setSlowEffectExpiry(long expiryTime) {
-        this.slowExpiryTime = expiryTime;
+    public void enableSlowEffect() {
+        this.slowEffect = true;
+        this.slowWarning = false;
     }
 
     /**
      * Xóa hiệu ứng làm chậm (SLOW).
      */
     public void clearSlowEffect() {
-        this.slowExpiryTime = 0;
+        this.slowEffect = false;
+        this.slowWarning = false;
+        updateShapeIndependentState();
     }
 
     /**
@@ -454,6 +445,65 @@ public class Paddle extends MovableObject{
         setState(PaddleState.EXPLODE);
     }
 
+    /**
+     * Ghi trạng thái paddle (vị trí, trạng thái, animation, cờ hiệu ứng và thời
+     * gian hồi laser còn lại) vào bản lưu của GameSnapshot. Thời hạn hiệu ứng do
+     * PowerUpManager lưu.
+     *
+     * @param out Buffer đích.
+     * @param now Thời điểm hiện tại (ms).
+     */
+    public void saveState(ByteBuffer out, long now) {
+        out.putDouble(getX());
+        out.putDouble(getY());
+        out.putDouble(getWidth());
+        out.putDouble(getVelocity().getDx());
+        out.put((byte) currentState.ordinal());
+        out.putLong(currentAnimation);
+        out.put((byte) (animationPlaying ? 1 : 0));
+        out.put((byte) (catchMode ? 1 : 0));
+        out.putInt(laserShots);
+        out.putInt(remainingMillis(laserCooldown, now));
+        out.put((byte) ((slowEffect ? 1 : 0) | (catchWarning ? 2 : 0) | (slowWarning ? 4 : 0)));
+    }
+
+    /**
+     * Đọc trạng thái paddle đã ghi bởi {@link #saveState(ByteBuffer, long)}.
+     *
+     * @param in Buffer nguồn.
+     * @param now Thời điểm hiện tại (ms).
+     */
+    public void loadState(ByteBuffer in, long now) {
+        setX(in.getDouble());
+        setY(in.getDouble());
+        setWidth(in.getDouble());
+        setVelocity(new Velocity(in.getDouble(), 0));
+        currentState = PaddleState.values()[in.get()];
+        currentAnimation = in.getLong();
+        animationPlaying = in.get() != 0;
+        catchMode = in.get() != 0;
+        laserShots = in.getInt();
+        laserCooldown = expiryOf(in.getInt(), now);
+        int effects = in.get();
+        slowEffect = (effects & 1) != 0;
+        catchWarning = (effects & 2) != 0;
+        slowWarning = (effects & 4) != 0;
+    }
+
+    /**
+     * Tính thời gian còn lại của một mốc hết hạn (0 nếu không có hoặc đã qua).
+     */
+    private static int remainingMillis(long expiry, long now) {
+        return expiry > now ? (int) Math.min(Integer.MAX_VALUE, expiry - now) : 0;
+    }
+
+    /**
+     * Đổi thời gian còn lại thành mốc hết hạn (0 nếu không có hiệu ứng).
+     */
+    private static long expiryOf(int remaining, long now) {
+        return remaining > 0 ? now + remaining : 0;
+    }
+
     /**
      * Chơi animation đảo ngược để chuyển từ một trạng thái hiệu ứng về trạng thái NORMAL.
      *
@@ -464,18 +514,10 @@ public class Paddle extends MovableObject{
             return;
         }
 
-        // Tạo animation cho trạng thái ban đầu
-        this.currentAnimation = AnimationFactory.createPaddleAnimation(fromState);
-
-        if (currentAnimation != null) {
-            // Chơi animation đảo ngược
-            currentAnimation.playReversed();
-            animationPlaying = true;
+        // Chơi ngược bảng khung hình của trạng thái ban đầu
+        this.currentAnimation = scheduler.play(FrameTable.forPaddle(fromState), AnimationScheduler.Mode.REVERSED);
+        animationPlaying = true;
 
-            System.out.println("Paddle: Playing reversed animation from " + fromState + " to NORMAL");
-        } else {
-            // Nếu không có animation, chuyển trực tiếp về NORMAL
-            setState(PaddleState.NORMAL);
-        }
+        System.out.println("Paddle: Playing reversed animation from " + fromState + " to NORMAL");
     }
 }
\ No newline at end of file
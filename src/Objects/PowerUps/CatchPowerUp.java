@@ -10,6 +10,48 @@ import Utils.Constants;
  * Nó kế thừa từ lớp trừu tượng PowerUp.
  */
 public class CatchPowerUp extends PowerUp{
+    // Hiệu ứng 'Bắt bóng' (handler không trạng thái, xem EffectHandler)
+    public static final EffectHandler EFFECT = new EffectHandler() {
+        @Override
+        public void apply(GameManager gameManager) {
+            // Kiểm tra an toàn
+            if (gameManager == null) {
+                System.err.println("CatchPowerUp: GameManager is null, cannot apply effect");
+                return;
+            }
+
+            // Kích hoạt chế độ bắt bóng trong GameManager (thường là gọi phương thức trên Paddle)
+            gameManager.enableCatchMode();
+
+            // In ra thông báo cho mục đích debug/theo dõi
+            System.out.println("CatchPowerUp: Catch mode enabled for " +
+                    Constants.PowerUps.CATCH_DURATION / 1000.0 + " seconds");
+        }
+
+        @Override
+        public void warn(GameManager gameManager) {
+            // Sắp hết hạn: thanh đỡ chuyển sang trạng thái nhấp nháy cảnh báo
+            if (gameManager != null) {
+                gameManager.getPaddle().warnCatchExpiring();
+            }
+        }
+
+        @Override
+        public void expire(GameManager gameManager) {
+            // Kiểm tra an toàn
+            if (gameManager == null) {
+                System.err.println("CatchPowerUp: GameManager is null, cannot remove effect");
+                return;
+            }
+
+            // Vô hiệu hóa chế độ bắt bóng trong GameManager
+            gameManager.disableCatchMode();
+
+            // In ra thông báo cho mục đích debug/theo dõi
+            System.out.println("CatchPowerUp: Catch mode disabled (expired)");
+        }
+    };
+
     /**
      * Khởi tạo một đối tượng CatchPowerUp mới.
      *
@@ -29,18 +71,7 @@ public class CatchPowerUp extends PowerUp{
      */
     @Override
     public void applyEffect(GameManager gameManager) {
-        // Kiểm tra an toàn
-        if (gameManager == null) {
-            System.err.println("CatchPowerUp: GameManager is null, cannot apply effect");
-            return;
-        }
-
-        // Kích hoạt chế độ bắt bóng trong GameManager (thường là gọi phương thức trên Paddle)
-        gameManager.enableCatchMode();
-
-        // In ra thông báo cho mục đích debug/theo dõi
-        System.out.println("CatchPowerUp: Catch mode enabled for " +
-                Constants.PowerUps.CATCH_DURATION / 1000.0 + " seconds");
+        EFFECT.apply(gameManager);
     }
 
     /**
@@ -51,16 +82,6 @@ public class CatchPowerUp extends PowerUp{
      */
     @Override
     public void removeEffect(GameManager gameManager) {
-        // Kiểm tra an toàn
-        if (gameManager == null) {
-            System.err.println("CatchPowerUp: GameManager is null, cannot remove effect");
-            return;
-        }
-
-        // Vô hiệu hóa chế độ bắt bóng trong GameManager
-        gameManager.disableCatchMode();
-
-        // In ra thông báo cho mục đích debug/theo dõi
-        System.out.println("CatchPowerUp: Catch mode disabled (expired)");
+        EFFECT.expire(gameManager);
     }
 }
\ No newline at end of file
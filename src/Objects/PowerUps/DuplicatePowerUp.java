@@ -9,6 +9,32 @@ import Engine.GameManager;
  * Nó kế thừa từ lớp trừu tượng PowerUp.
  */
 public class DuplicatePowerUp extends  PowerUp{
+    // Hiệu ứng 'Nhân đôi bóng' (handler không trạng thái, xem EffectHandler)
+    public static final EffectHandler EFFECT = new EffectHandler() {
+        @Override
+        public void apply(GameManager gameManager) {
+            // Kiểm tra an toàn
+            if (gameManager == null) {
+                System.err.println("DuplicatePowerUp: GameManager is null, cannot apply effect");
+                return;
+            }
+
+            // Lấy số lượng bóng ban đầu trước khi nhân đôi (cho mục đích log)
+            int originalCount = gameManager.getBallCount();
+
+            // Thực hiện nhân đôi bóng trong GameManager
+            // GameManager sẽ chịu trách nhiệm tạo các bản sao của Ball và thêm chúng vào danh sách
+            gameManager.duplicateBalls();
+
+            // Lấy số lượng bóng mới sau khi nhân đôi
+            int newCount = gameManager.getBallCount();
+
+            // In ra thông báo cho mục đích debug/theo dõi
+            System.out.println("DuplicatePowerUp: Balls duplicated from " +
+                    originalCount + " to " + newCount);
+        }
+    };
+
     /**
      * Khởi tạo một đối tượng DuplicatePowerUp mới.
      *
@@ -28,25 +54,7 @@ public class DuplicatePowerUp extends  PowerUp{
      */
     @Override
     public void applyEffect(GameManager gameManager) {
-        // Kiểm tra an toàn
-        if (gameManager == null) {
-            System.err.println("DuplicatePowerUp: GameManager is null, cannot apply effect");
-            return;
-        }
-
-        // Lấy số lượng bóng ban đầu trước khi nhân đôi (cho mục đích log)
-        int originalCount = gameManager.getBallCount();
-
-        // Thực hiện nhân đôi bóng trong GameManager
-        // GameManager sẽ chịu trách nhiệm tạo các bản sao của Ball và thêm chúng vào danh sách
-        gameManager.duplicateBalls();
-
-        // Lấy số lượng bóng mới sau khi nhân đôi
-        int newCount = gameManager.getBallCount();
-
-        // In ra thông báo cho mục đích debug/theo dõi
-        System.out.println("DuplicatePowerUp: Balls duplicated from " +
-                originalCount + " to " + newCount);
+        EFFECT.apply(gameManager);
     }
 
     /**
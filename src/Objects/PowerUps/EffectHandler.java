@@ -0,0 +1,38 @@
+package Objects.PowerUps;
+
+import Engine.GameManager;
+
+/**
+ * Hiệu ứng của một loại Power-up, tách khỏi đối tượng vật phẩm đang rơi.
+ *
+ * <p>Handler không giữ trạng thái (trạng thái hiệu ứng nằm ở GameManager và
+ * Paddle), nên mỗi loại chỉ có một instance dùng chung cho mọi ván game.
+ * {@code PowerUpManager} giữ bảng {@code EnumMap<PowerUpType, EffectHandler>},
+ * gọi {@link #apply} khi vật phẩm được nhặt, rồi {@link #warn} và {@link #expire}
+ * theo hẹn giờ tính bằng tick cho các loại có thời hạn.</p>
+ */
+public interface EffectHandler {
+    /**
+     * Áp dụng hiệu ứng khi vật phẩm được nhặt.
+     *
+     * @param gameManager Ván game nhận hiệu ứng.
+     */
+    void apply(GameManager gameManager);
+
+    /**
+     * Báo hiệu ứng sắp hết hạn (còn {@code Constants.PowerUps.WARNING_THRESHOLD}).
+     * Mặc định không làm gì.
+     *
+     * @param gameManager Ván game đang có hiệu ứng.
+     */
+    default void warn(GameManager gameManager) {
+    }
+
+    /**
+     * Hủy hiệu ứng khi hết thời hạn. Mặc định không làm gì (hiệu ứng tức thời).
+     *
+     * @param gameManager Ván game đang có hiệu ứng.
+     */
+    default void expire(GameManager gameManager) {
+    }
+}
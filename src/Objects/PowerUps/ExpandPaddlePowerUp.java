@@ -10,6 +10,49 @@ import Utils.Constants;
  * Nó kế thừa từ lớp trừu tượng PowerUp.
  */
 public class ExpandPaddlePowerUp extends PowerUp{
+    // Hiệu ứng 'Mở rộng thanh đỡ' (handler không trạng thái, xem EffectHandler)
+    public static final EffectHandler EFFECT = new EffectHandler() {
+        @Override
+        public void apply(GameManager gameManager) {
+            // Kiểm tra an toàn
+            if (gameManager == null) {
+                System.err.println("ExpandPaddlePowerUp: GameManager is null, cannot apply effect");
+                return;
+            }
+
+            // Kích hoạt logic mở rộng Paddle trong GameManager (thường là gọi phương thức expand() trên Paddle)
+            gameManager.expandPaddle();
+
+            // In ra thông báo cho mục đích debug/theo dõi
+            System.out.println("ExpandPaddlePowerUp: Paddle expanded to " +
+                    (Constants.PowerUps.EXPAND_MULTIPLIER * 100) + "% for " + // Hiển thị tỷ lệ mở rộng
+                    Constants.PowerUps.EXPAND_DURATION / 1000.0 + " seconds"); // Hiển thị thời gian hiệu lực
+        }
+
+        @Override
+        public void warn(GameManager gameManager) {
+            // Sắp hết hạn: thanh đỡ chuyển sang trạng thái nhấp nháy cảnh báo
+            if (gameManager != null) {
+                gameManager.getPaddle().warnExpandExpiring();
+            }
+        }
+
+        @Override
+        public void expire(GameManager gameManager) {
+            // Kiểm tra an toàn
+            if (gameManager == null) {
+                System.err.println("ExpandPaddlePowerUp: GameManager is null, cannot remove effect");
+                return;
+            }
+
+            // Khôi phục kích thước Paddle về bình thường trong GameManager (thường là gọi shrinkToNormal() trên Paddle)
+            gameManager.revertPaddleSize();
+
+            // In ra thông báo cho mục đích debug/theo dõi
+            System.out.println("ExpandPaddlePowerUp: Paddle reverted to normal size (expired)");
+        }
+    };
+
     /**
      * Khởi tạo một đối tượng ExpandPaddlePowerUp mới.
      *
@@ -29,19 +72,7 @@ public class ExpandPaddlePowerUp extends PowerUp{
      */
     @Override
     public void applyEffect(GameManager gameManager) {
-        // Kiểm tra an toàn
-        if (gameManager == null) {
-            System.err.println("ExpandPaddlePowerUp: GameManager is null, cannot apply effect");
-            return;
-        }
-
-        // Kích hoạt logic mở rộng Paddle trong GameManager (thường là gọi phương thức expand() trên Paddle)
-        gameManager.expandPaddle();
-
-        // In ra thông báo cho mục đích debug/theo dõi
-        System.out.println("ExpandPaddlePowerUp: Paddle expanded to " +
-                (Constants.PowerUps.EXPAND_MULTIPLIER * 100) + "% for " + // Hiển thị tỷ lệ mở rộng
-                Constants.PowerUps.EXPAND_DURATION / 1000.0 + " seconds"); // Hiển thị thời gian hiệu lực
+        EFFECT.apply(gameManager);
     }
 
     /**
@@ -52,16 +83,6 @@ public class ExpandPaddlePowerUp extends PowerUp{
      */
     @Override
     public void removeEffect(GameManager gameManager) {
-        // Kiểm tra an toàn
-        if (gameManager == null) {
-            System.err.println("ExpandPaddlePowerUp: GameManager is null, cannot remove effect");
-            return;
-        }
-
-        // Khôi phục kích thước Paddle về bình thường trong GameManager (thường là gọi shrinkToNormal() trên Paddle)
-        gameManager.revertPaddleSize();
-
-        // In ra thông báo cho mục đích debug/theo dõi
-        System.out.println("ExpandPaddlePowerUp: Paddle reverted to normal size (expired)");
+        EFFECT.expire(gameManager);
     }
 }
\ No newline at end of file
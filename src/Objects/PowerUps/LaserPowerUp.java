@@ -10,6 +10,49 @@ import Utils.Constants;
  * Nó kế thừa từ lớp trừu tượng PowerUp.
  */
 public class LaserPowerUp extends PowerUp{
+    // Hiệu ứng 'Laser' (handler không trạng thái, xem EffectHandler)
+    public static final EffectHandler EFFECT = new EffectHandler() {
+        @Override
+        public void apply(GameManager gameManager) {
+            // Kiểm tra an toàn
+            if (gameManager == null) {
+                System.err.println("LaserPowerUp: GameManager is null, cannot apply effect");
+                return;
+            }
+
+            // Kích hoạt logic laser trong GameManager (thường là gọi phương thức enableLaser() trên Paddle)
+            gameManager.enableLaser();
+
+            // In ra thông báo cho mục đích debug/theo dõi, hiển thị số đạn và thời gian hiệu lực
+            System.out.println("LaserPowerUp: Laser enabled with " +
+                    Constants.Laser.LASER_SHOTS + " shots for " +
+                    Constants.PowerUps.LASER_DURATION / 1000.0 + " seconds");
+        }
+
+        @Override
+        public void warn(GameManager gameManager) {
+            // Sắp hết hạn: thanh đỡ chuyển sang trạng thái nhấp nháy cảnh báo
+            if (gameManager != null) {
+                gameManager.getPaddle().warnLaserExpiring();
+            }
+        }
+
+        @Override
+        public void expire(GameManager gameManager) {
+            // Kiểm tra an toàn
+            if (gameManager == null) {
+                System.err.println("LaserPowerUp: GameManager is null, cannot remove effect");
+                return;
+            }
+
+            // Vô hiệu hóa chế độ laser trong GameManager (thường là gọi phương thức disableLaser() trên Paddle)
+            gameManager.disableLaser();
+
+            // In ra thông báo cho mục đích debug/theo dõi
+            System.out.println("LaserPowerUp: Laser disabled (expired or shots depleted)");
+        }
+    };
+
     /**
      * Khởi tạo một đối tượng LaserPowerUp mới.
      *
@@ -29,19 +72,7 @@ public class LaserPowerUp extends PowerUp{
      */
     @Override
     public void applyEffect(GameManager gameManager) {
-        // Kiểm tra an toàn
-        if (gameManager == null) {
-            System.err.println("LaserPowerUp: GameManager is null, cannot apply effect");
-            return;
-        }
-
-        // Kích hoạt logic laser trong GameManager (thường là gọi phương thức enableLaser() trên Paddle)
-        gameManager.enableLaser();
-
-        // In ra thông báo cho mục đích debug/theo dõi, hiển thị số đạn và thời gian hiệu lực
-        System.out.println("LaserPowerUp: Laser enabled with " +
-                Constants.Laser.LASER_SHOTS + " shots for " +
-                Constants.PowerUps.LASER_DURATION / 1000.0 + " seconds");
+        EFFECT.apply(gameManager);
     }
 
     /**
@@ -53,16 +84,6 @@ public class LaserPowerUp extends PowerUp{
      */
     @Override
     public void removeEffect(GameManager gameManager) {
-        // Kiểm tra an toàn
-        if (gameManager == null) {
-            System.err.println("LaserPowerUp: GameManager is null, cannot remove effect");
-            return;
-        }
-
-        // Vô hiệu hóa chế độ laser trong GameManager (thường là gọi phương thức disableLaser() trên Paddle)
-        gameManager.disableLaser();
-
-        // In ra thông báo cho mục đích debug/theo dõi
-        System.out.println("LaserPowerUp: Laser disabled (expired or shots depleted)");
+        EFFECT.expire(gameManager);
     }
 }
\ No newline at end of file
@@ -10,6 +10,38 @@ import Utils.Constants;
  * Nó kế thừa từ lớp trừu tượng PowerUp.
  */
 public class LifePowerUp extends PowerUp{
+    // Hiệu ứng 'Mạng sống' (handler không trạng thái, xem EffectHandler)
+    public static final EffectHandler EFFECT = new EffectHandler() {
+        @Override
+        public void apply(GameManager gameManager) {
+            // Kiểm tra an toàn
+            if (gameManager == null) {
+                System.err.println("LifePowerUp: GameManager is null, cannot apply effect");
+                return;
+            }
+
+            // Lấy số mạng sống hiện tại trước khi cộng (cho mục đích log)
+            int livesBeforeAdd = gameManager.getLives();
+
+            // Thực hiện thêm mạng sống (GameManager có trách nhiệm kiểm tra MAX_LIVES)
+            gameManager.addLife();
+
+            // Lấy số mạng sống sau khi đã gọi addLife()
+            int livesAfter = gameManager.getLives();
+
+            // Kiểm tra xem mạng sống có thực sự được tăng lên hay không (để tránh vượt quá MAX_LIVES)
+            if (livesAfter > livesBeforeAdd) {
+                // In ra thông báo thành công
+                System.out.println("LifePowerUp: Life added! Lives: " +
+                        livesBeforeAdd + " → " + livesAfter);
+            } else {
+                // In ra thông báo khi đã đạt giới hạn mạng sống
+                System.out.println("LifePowerUp: Max lives reached (" +
+                        Constants.GameRules.MAX_LIVES + "), no effect");
+            }
+        }
+    };
+
     /**
      * Khởi tạo một đối tượng LifePowerUp mới.
      *
@@ -29,31 +61,7 @@ public class LifePowerUp extends PowerUp{
      */
     @Override
     public void applyEffect(GameManager gameManager) {
-        // Kiểm tra an toàn
-        if (gameManager == null) {
-            System.err.println("LifePowerUp: GameManager is null, cannot apply effect");
-            return;
-        }
-
-        // Lấy số mạng sống hiện tại trước khi cộng (cho mục đích log)
-        int livesBeforeAdd = gameManager.getLives();
-
-        // Thực hiện thêm mạng sống (GameManager có trách nhiệm kiểm tra MAX_LIVES)
-        gameManager.addLife();
-
-        // Lấy số mạng sống sau khi đã gọi addLife()
-        int livesAfter = gameManager.getLives();
-
-        // Kiểm tra xem mạng sống có thực sự được tăng lên hay không (để tránh vượt quá MAX_LIVES)
-        if (livesAfter > livesBeforeAdd) {
-            // In ra thông báo thành công
-            System.out.println("LifePowerUp: Life added! Lives: " +
-                    livesBeforeAdd + " → " + livesAfter);
-        } else {
-            // In ra thông báo khi đã đạt giới hạn mạng sống
-            System.out.println("LifePowerUp: Max lives reached (" +
-                    Constants.GameRules.MAX_LIVES + "), no effect");
-        }
+        EFFECT.apply(gameManager);
     }
 
     /**
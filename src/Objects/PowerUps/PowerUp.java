@@ -5,8 +5,8 @@ import GeometryPrimitives.Rectangle;
 import GeometryPrimitives.Velocity;
 import Objects.Core.MovableObject;
 import Objects.GameEntities.Paddle;
-import Render.Animation;
-import Utils.AnimationFactory;
+import Render.AnimationScheduler;
+import Render.FrameTable;
 import Utils.Constants;
 
 /**
@@ -17,8 +17,8 @@ import Utils.Constants;
 public abstract class PowerUp extends MovableObject {
     // Loại Power-up (ví dụ: LASER, EXPAND, CATCH)
     private final PowerUpType type;
-    // Animation hiển thị của Power-up
-    private final Animation animation;
+    // Trạng thái gọn của animation hiển thị (AnimationScheduler.NONE nếu chưa bắt đầu)
+    private long animation = AnimationScheduler.NONE;
 
     // Trạng thái: đã được người chơi nhặt chưa
     private boolean collected;
@@ -27,7 +27,8 @@ public abstract class PowerUp extends MovableObject {
 
     /**
      * Khởi tạo một đối tượng PowerUp.
-     * Thiết lập vị trí, kích thước, loại, vận tốc rơi, và bắt đầu animation.
+     * Thiết lập vị trí, kích thước, loại và vận tốc rơi.
+     * Animation được bắt đầu riêng qua {@link #startAnimation(AnimationScheduler)}.
      *
      * @param x Tọa độ x ban đầu.
      * @param y Tọa độ y ban đầu.
@@ -42,34 +43,44 @@ public abstract class PowerUp extends MovableObject {
 
         // Vận tốc rơi thẳng đứng xuống dưới
         setVelocity(new Velocity(0, Constants.PowerUps.POWERUP_FALL_SPEED));
-        // Tạo animation dựa trên loại PowerUp
-        this.animation = AnimationFactory.createPowerUpAnimation(type);
-        this.animation.play(); // Bắt đầu chơi animation
+    }
+
+    /**
+     * Bắt đầu animation lặp của Power-up từ tick hiện tại của đồng hồ chung.
+     *
+     * @param scheduler Đồng hồ animation của ván game.
+     */
+    public void startAnimation(AnimationScheduler scheduler) {
+        this.animation = scheduler.play(FrameTable.forPowerUp(type), AnimationScheduler.Mode.LOOP);
     }
 
     /**
      * Cập nhật trạng thái của Power-up trong mỗi frame.
-     * Cập nhật vị trí dựa trên vận tốc và cập nhật animation.
+     * Chỉ cập nhật vị trí; khung hình animation do {@link AnimationScheduler} tính theo tick.
      */
     public void update() {
         // Cập nhật vị trí bằng cách di chuyển
         move();
-
-        // Cập nhật animation
-        if (animation != null) {
-            animation.update();
-        }
     }
 
     /**
-     * Lấy animation hiện tại của Power-up.
+     * Lấy trạng thái gọn của animation hiện tại.
      *
-     * @return Đối tượng Animation.
+     * @return Trạng thái animation, hoặc {@link AnimationScheduler#NONE} nếu chưa bắt đầu.
      */
-    public Animation getAnimation() {
+    public long getAnimation() {
         return animation;
     }
 
+    /**
+     * Khôi phục trạng thái animation đã lưu (GameSnapshot).
+     *
+     * @param animation Trạng thái animation gọn.
+     */
+    public void setAnimation(long animation) {
+        this.animation = animation;
+    }
+
     /**
      * Kiểm tra va chạm giữa Power-up và thanh đỡ (Paddle).
      *
@@ -2,6 +2,8 @@ package Objects.PowerUps;
 
 import Utils.Constants;
 
+import java.util.Random;
+
 /**
  * PowerUpType là một enum định nghĩa tất cả các loại Power-up có thể xuất hiện trong game.
  * Mỗi loại chứa thông tin cấu hình cần thiết, bao gồm tiền tố sprite và xác suất xuất hiện.
@@ -55,9 +57,10 @@ public enum PowerUpType {
     /**
      * Lựa chọn ngẫu nhiên một loại Power-up dựa trên xác suất (trọng số) đã định.
      *
+     * @param random Bộ sinh số ngẫu nhiên của ván game (có seed để tái lập khi replay).
      * @return Một loại PowerUpType được chọn ngẫu nhiên.
      */
-    public static PowerUpType randomWeighted() {
+    public static PowerUpType randomWeighted(Random random) {
         // 1. Tính tổng trọng số (tổng xác suất)
         double totalWeight = 0.0;
         for (PowerUpType type : PowerUpType.values()) {
@@ -65,7 +68,7 @@ public enum PowerUpType {
         }
 
         // 2. Chọn một giá trị ngẫu nhiên trong khoảng [0, totalWeight)
-        double randomValue = Math.random() * totalWeight;
+        double randomValue = random.nextDouble() * totalWeight;
 
         // 3. Xác định loại Power-up tương ứng
         double cumulativeWeight = 0.0;
@@ -10,6 +10,49 @@ import Utils.Constants;
  * Nó kế thừa từ lớp trừu tượng PowerUp.
  */
 public class SlowBallPowerUp extends PowerUp{
+    // Hiệu ứng 'Làm chậm bóng' (handler không trạng thái, xem EffectHandler)
+    public static final EffectHandler EFFECT = new EffectHandler() {
+        @Override
+        public void apply(GameManager gameManager) {
+            // Kiểm tra an toàn
+            if (gameManager == null) {
+                System.err.println("SlowBallPowerUp: GameManager is null, cannot apply effect");
+                return;
+            }
+
+            // Gọi phương thức trong GameManager để áp dụng hệ số làm chậm lên tất cả Ball
+            gameManager.slowBalls(Constants.PowerUps.SLOW_MULTIPLIER);
+
+            // In ra thông báo cho mục đích debug/theo dõi
+            System.out.println("SlowBallPowerUp: Balls slowed to " +
+                    (Constants.PowerUps.SLOW_MULTIPLIER * 100) + "% speed for " +
+                    Constants.PowerUps.SLOW_DURATION / 1000.0 + " seconds");
+        }
+
+        @Override
+        public void warn(GameManager gameManager) {
+            // Sắp hết hạn: thanh đỡ chuyển sang trạng thái nhấp nháy cảnh báo
+            if (gameManager != null) {
+                gameManager.getPaddle().warnSlowExpiring();
+            }
+        }
+
+        @Override
+        public void expire(GameManager gameManager) {
+            // Kiểm tra an toàn
+            if (gameManager == null) {
+                System.err.println("SlowBallPowerUp: GameManager is null, cannot remove effect");
+                return;
+            }
+
+            // Gọi phương thức trong GameManager để khôi phục tốc độ bóng về trạng thái bình thường
+            gameManager.restoreBallSpeed();
+
+            // In ra thông báo cho mục đích debug/theo dõi
+            System.out.println("SlowBallPowerUp: Ball speed restored (slow expired)");
+        }
+    };
+
     /**
      * Khởi tạo một đối tượng SlowBallPowerUp mới.
      *
@@ -29,19 +72,7 @@ public class SlowBallPowerUp extends PowerUp{
      */
     @Override
     public void applyEffect(GameManager gameManager) {
-        // Kiểm tra an toàn
-        if (gameManager == null) {
-            System.err.println("SlowBallPowerUp: GameManager is null, cannot apply effect");
-            return;
-        }
-
-        // Gọi phương thức trong GameManager để áp dụng hệ số làm chậm lên tất cả Ball
-        gameManager.slowBalls(Constants.PowerUps.SLOW_MULTIPLIER);
-
-        // In ra thông báo cho mục đích debug/theo dõi
-        System.out.println("SlowBallPowerUp: Balls slowed to " +
-                (Constants.PowerUps.SLOW_MULTIPLIER * 100) + "% speed for " +
-                Constants.PowerUps.SLOW_DURATION / 1000.0 + " seconds");
+        EFFECT.apply(gameManager);
     }
 
     /**
@@ -52,16 +83,6 @@ public class SlowBallPowerUp extends PowerUp{
      */
     @Override
     public void removeEffect(GameManager gameManager) {
-        // Kiểm tra an toàn
-        if (gameManager == null) {
-            System.err.println("SlowBallPowerUp: GameManager is null, cannot remove effect");
-            return;
-        }
-
-        // Gọi phương thức trong GameManager để khôi phục tốc độ bóng về trạng thái bình thường
-        gameManager.restoreBallSpeed();
-
-        // In ra thông báo cho mục đích debug/theo dõi
-        System.out.println("SlowBallPowerUp: Ball speed restored (slow expired)");
+        EFFECT.expire(gameManager);
     }
 }
\ No newline at end of file
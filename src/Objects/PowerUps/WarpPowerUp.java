@@ -10,6 +10,33 @@ import Engine.GameManager;
  * Nó kế thừa từ lớp trừu tượng PowerUp.
  */
 public class WarpPowerUp extends PowerUp{
+    // Hiệu ứng 'Chuyển cấp' (handler không trạng thái, xem EffectHandler)
+    public static final EffectHandler EFFECT = new EffectHandler() {
+        @Override
+        public void apply(GameManager gameManager) {
+            // Kiểm tra an toàn
+            if (gameManager == null) {
+                System.err.println("WarpPowerUp: GameManager is null, cannot apply effect");
+                return;
+            }
+
+            // Gọi phương thức trong GameManager để thực hiện chuyển cấp.
+            // Phương thức này trả về true nếu có level tiếp theo, false nếu đã là level cuối.
+            boolean hasNextLevel = gameManager.warpToNextLevel();
+
+            // Xử lý kết quả chuyển cấp
+            if (hasNextLevel) {
+                // Chuyển cấp thành công
+                System.out.println("WarpPowerUp: Warping to next level! " +
+                        "Score and lives preserved.");
+            } else {
+                // Đã là level cuối, kích hoạt màn hình thắng
+                System.out.println("WarpPowerUp: No more levels! " +
+                        "Triggering win screen.");
+            }
+        }
+    };
+
     /**
      * Khởi tạo một đối tượng WarpPowerUp mới.
      *
@@ -29,26 +56,7 @@ public class WarpPowerUp extends PowerUp{
      */
     @Override
     public void applyEffect(GameManager gameManager) {
-        // Kiểm tra an toàn
-        if (gameManager == null) {
-            System.err.println("WarpPowerUp: GameManager is null, cannot apply effect");
-            return;
-        }
-
-        // Gọi phương thức trong GameManager để thực hiện chuyển cấp.
-        // Phương thức này trả về true nếu có level tiếp theo, false nếu đã là level cuối.
-        boolean hasNextLevel = gameManager.warpToNextLevel();
-
-        // Xử lý kết quả chuyển cấp
-        if (hasNextLevel) {
-            // Chuyển cấp thành công
-            System.out.println("WarpPowerUp: Warping to next level! " +
-                    "Score and lives preserved.");
-        } else {
-            // Đã là level cuối, kích hoạt màn hình thắng
-            System.out.println("WarpPowerUp: No more levels! " +
-                    "Triggering win screen.");
-        }
+        EFFECT.apply(gameManager);
     }
 
     /**
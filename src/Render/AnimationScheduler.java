@@ -0,0 +1,207 @@
+package Render;
+
+import Utils.Constants;
+
+/**
+ * Đồng hồ animation dùng chung cho một ván game.
+ *
+ * <p>Thay vì mỗi thực thể giữ một đối tượng {@code Animation} tự đọc
+ * {@code System.currentTimeMillis()}, trạng thái animation được gói gọn trong
+ * một giá trị {@code long} gồm id {@link FrameTable}, tick bắt đầu và chế độ
+ * phát. Khung hình hiện tại được tính trực tiếp từ {@code (tick hiện tại - tick bắt đầu)},
+ * nên mỗi tick scheduler chỉ tăng bộ đếm: không animation nào (và không viên
+ * gạch đứng yên nào) bị duyệt qua. Chỉ nơi cần vẽ mới hỏi khung hình.</p>
+ *
+ * <p>Bố cục bit của trạng thái: bit 0-1 là chế độ ({@link #NONE} nếu không có
+ * animation), bit 2-9 là ordinal của bảng khung hình, bit 10-63 là tick bắt đầu.</p>
+ */
+public final class AnimationScheduler {
+    /** Trạng thái "không có animation". */
+    public static final long NONE = 0L;
+
+    /**
+     * Chế độ phát của một animation.
+     */
+    public enum Mode {
+        // Lặp vô tận
+        LOOP,
+        // Chạy một lần rồi dừng ở khung cuối
+        ONCE,
+        // Chạy một lần theo thứ tự ngược
+        REVERSED
+    }
+
+    private static final int MODE_BITS = 2;
+    private static final int TABLE_BITS = 8;
+    private static final int TABLE_SHIFT = MODE_BITS;
+    private static final int TICK_SHIFT = MODE_BITS + TABLE_BITS;
+    private static final long MODE_MASK = (1L << MODE_BITS) - 1;
+    private static final long TABLE_MASK = (1L << TABLE_BITS) - 1;
+
+    private static final FrameTable[] TABLES = FrameTable.values();
+    private static final Mode[] MODES = Mode.values();
+
+    // Tick hiện tại, tăng một lần mỗi lần cập nhật game
+    private long tick = 0;
+
+    /**
+     * Tiến đồng hồ thêm một tick. Gọi một lần mỗi lần cập nhật game.
+     */
+    public void tick() {
+        tick++;
+    }
+
+    /**
+     * Lấy tick hiện tại.
+     *
+     * @return Số tick đã trôi qua.
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Lấy thời gian game (ms) tính từ số tick đã trôi qua. Đồng hồ này dừng khi
+     * game tạm dừng và không phụ thuộc đồng hồ hệ thống, nên mọi mốc hết hạn
+     * tính theo nó đều tái lập được khi chạy lại (replay).
+     *
+     * @return Thời gian game (ms).
+     */
+    public long getTimeMillis() {
+        return tick * 1000L / Constants.Window.FPS;
+    }
+
+    /**
+     * Đổi một khoảng thời gian game (ms) ra số tick, làm tròn lên, sao cho
+     * {@code getTimeMillis()} tăng ít nhất {@code millis} sau chừng ấy tick.
+     *
+     * @param millis Khoảng thời gian (ms, không âm).
+     * @return Số tick tương ứng.
+     */
+    public static long ticksFor(long millis) {
+        return (millis * Constants.Window.FPS + 999) / 1000;
+    }
+
+    /**
+     * Đặt đồng hồ về một tick đã lưu (khi khôi phục ván game). Các trạng thái
+     * animation được lưu cùng tick đó tiếp tục đúng khung hình.
+     *
+     * @param tick Tick cần khôi phục.
+     */
+    public void setTick(long tick) {
+        this.tick = tick;
+    }
+
+    /**
+     * Đặt lại đồng hồ về 0. Các trạng thái animation đang giữ sẽ không còn hợp lệ.
+     */
+    public void reset() {
+        tick = 0;
+    }
+
+    /**
+     * Bắt đầu một animation từ tick hiện tại.
+     *
+     * @param table Bảng khung hình.
+     * @param mode Chế độ phát.
+     * @return Trạng thái animation gọn để thực thể lưu lại.
+     */
+    public long play(FrameTable table, Mode mode) {
+        return (tick << TICK_SHIFT)
+                | ((long) table.ordinal() << TABLE_SHIFT)
+                | (mode.ordinal() + 1);
+    }
+
+    /**
+     * Lấy bảng khung hình của một trạng thái animation.
+     *
+     * @param animation Trạng thái animation.
+     * @return Bảng khung hình, hoặc null nếu là {@link #NONE}.
+     */
+    public static FrameTable tableOf(long animation) {
+        if (animation == NONE) {
+            return null;
+        }
+        return TABLES[(int) ((animation >>> TABLE_SHIFT) & TABLE_MASK)];
+    }
+
+    /**
+     * Lấy chế độ phát của một trạng thái animation.
+     *
+     * @param animation Trạng thái animation.
+     * @return Chế độ phát, hoặc null nếu là {@link #NONE}.
+     */
+    public static Mode modeOf(long animation) {
+        if (animation == NONE) {
+            return null;
+        }
+        return MODES[(int) (animation & MODE_MASK) - 1];
+    }
+
+    /**
+     * Kiểm tra animation có đang chạy ngược không.
+     *
+     * @param animation Trạng thái animation.
+     * @return true nếu chế độ là {@link Mode#REVERSED}.
+     */
+    public static boolean isReversed(long animation) {
+        return modeOf(animation) == Mode.REVERSED;
+    }
+
+    /**
+     * Số bước khung hình đã trôi qua kể từ khi animation bắt đầu.
+     *
+     * @param animation Trạng thái animation (khác {@link #NONE}).
+     * @return Số bước, không âm.
+     */
+    private long stepsOf(long animation) {
+        long elapsed = Math.max(0, tick - (animation >>> TICK_SHIFT));
+        return elapsed / tableOf(animation).getTicksPerFrame();
+    }
+
+    /**
+     * Kiểm tra animation chạy một lần đã kết thúc chưa (đã hiển thị hết khung cuối).
+     * Animation lặp không bao giờ kết thúc.
+     *
+     * @param animation Trạng thái animation.
+     * @return true nếu đã kết thúc hoặc là {@link #NONE}.
+     */
+    public boolean isFinished(long animation) {
+        if (animation == NONE) {
+            return true;
+        }
+        if (modeOf(animation) == Mode.LOOP) {
+            return false;
+        }
+        return stepsOf(animation) >= tableOf(animation).getFrameCount();
+    }
+
+    /**
+     * Kiểm tra animation có đang phát không.
+     *
+     * @param animation Trạng thái animation.
+     * @return true nếu chưa kết thúc.
+     */
+    public boolean isPlaying(long animation) {
+        return !isFinished(animation);
+    }
+
+    /**
+     * Tính chỉ số khung hình hiện tại của animation.
+     *
+     * @param animation Trạng thái animation.
+     * @return Chỉ số khung hình, hoặc -1 nếu là {@link #NONE}.
+     */
+    public int frameIndex(long animation) {
+        if (animation == NONE) {
+            return -1;
+        }
+        int count = tableOf(animation).getFrameCount();
+        long steps = stepsOf(animation);
+        return switch (modeOf(animation)) {
+            case LOOP -> (int) (steps % count);
+            case ONCE -> (int) Math.min(steps, count - 1);
+            case REVERSED -> (int) (count - 1 - Math.min(steps, count - 1));
+        };
+    }
+}
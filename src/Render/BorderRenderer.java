@@ -1,28 +1,28 @@
 package Render;
 
-import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.image.Image;
+import Utils.SpriteId;
 import Utils.SpriteProvider;
 import Utils.Constants;
 
 /**
  * Lớp chịu trách nhiệm render (vẽ) các thành phần viền (border) xung quanh khu vực chính của trò chơi.
- * Nó sử dụng các sprite đã được tải sẵn từ {@link SpriteProvider} và vẽ chúng lên {@link GraphicsContext}.
+ * Nó sử dụng các sprite đã được tải sẵn từ {@link SpriteProvider} và gửi chúng vào {@link RenderQueue}.
  */
 public class BorderRenderer {
     // Đối tượng cung cấp các hình ảnh (sprites) cần thiết cho việc render
     private final SpriteProvider sprites;
-    // Context đồ họa của Canvas, dùng để thực hiện các thao tác vẽ
-    private final GraphicsContext gc;
+    // Hàng đợi lệnh vẽ, nhận các sprite viền ở lớp nền
+    private final RenderQueue queue;
 
     /**
      * Constructor khởi tạo BorderRenderer.
      *
-     * @param gc Context đồ họa để vẽ.
+     * @param queue Hàng đợi lệnh vẽ.
      * @param sprites Đối tượng cung cấp các sprite (hình ảnh) viền.
      */
-    public BorderRenderer(GraphicsContext gc, SpriteProvider sprites) {
-        this.gc = gc;
+    public BorderRenderer(RenderQueue queue, SpriteProvider sprites) {
+        this.queue = queue;
         this.sprites = sprites;
     }
 
@@ -30,19 +30,17 @@ public class BorderRenderer {
      * Thực hiện vẽ toàn bộ các cạnh viền: trên, trái và phải.
      */
     public void render() {
-        drawTopEdge(gc);
-        drawLeftEdge(gc);
-        drawRightEdge(gc);
+        drawTopEdge();
+        drawLeftEdge();
+        drawRightEdge();
     }
 
     /**
      * Vẽ cạnh viền phía trên.
-     *
-     * @param gc Context đồ họa.
      */
-    private void drawTopEdge(GraphicsContext gc) {
+    private void drawTopEdge() {
         // Lấy hình ảnh (sprite) cho cạnh trên
-        Image edgeTop = sprites.get("edge_top.png");
+        Image edgeTop = sprites.get(SpriteId.EDGE_TOP);
         if (edgeTop == null) {
             // Tránh lỗi nếu sprite không được tìm thấy
             System.err.println("Warning: edge_top.png not found.");
@@ -55,17 +53,15 @@ public class BorderRenderer {
         double srartY = Constants.Window.WINDOW_TOP_OFFSET;
 
         // Vẽ hình ảnh cạnh trên tại vị trí đã xác định
-        gc.drawImage(edgeTop, startX, srartY);
+        queue.drawImage(RenderQueue.LAYER_BACKGROUND, edgeTop, startX, srartY);
     }
 
     /**
      * Vẽ cạnh viền phía bên trái.
-     *
-     * @param gc Context đồ họa.
      */
-    private void drawLeftEdge(GraphicsContext gc) {
+    private void drawLeftEdge() {
         // Lấy hình ảnh (sprite) cho cạnh trái
-        Image edgeLeft = sprites.get("edge_left.png");
+        Image edgeLeft = sprites.get(SpriteId.EDGE_LEFT);
         if (edgeLeft == null) {
             System.err.println("Warning: edge_left.png not found.");
             return;
@@ -77,17 +73,15 @@ public class BorderRenderer {
         double startY = Constants.Window.WINDOW_TOP_OFFSET;
 
         // Vẽ hình ảnh cạnh trái
-        gc.drawImage(edgeLeft, startX, startY);
+        queue.drawImage(RenderQueue.LAYER_BACKGROUND, edgeLeft, startX, startY);
     }
 
     /**
      * Vẽ cạnh viền phía bên phải.
-     *
-     * @param gc Context đồ họa.
      */
-    private void drawRightEdge(GraphicsContext gc) {
+    private void drawRightEdge() {
         // Lấy hình ảnh (sprite) cho cạnh phải
-        Image edgeRight = sprites.get("edge_right.png");
+        Image edgeRight = sprites.get(SpriteId.EDGE_RIGHT);
         if (edgeRight == null) {
             System.err.println("Warning: edge_right.png not found.");
             return;
@@ -99,6 +93,6 @@ public class BorderRenderer {
         double startY = Constants.Window.WINDOW_TOP_OFFSET;
 
         // Vẽ hình ảnh cạnh phải
-        gc.drawImage(edgeRight, startX, startY);
+        queue.drawImage(RenderQueue.LAYER_BACKGROUND, edgeRight, startX, startY);
     }
 }
\ No newline at end of file
@@ -1,18 +1,16 @@
 package Render;
 
-import Objects.GameEntities.Ball;
-import Objects.GameEntities.Laser;
-import Objects.GameEntities.Paddle;
-import Objects.Bricks.Brick;
-import Objects.PowerUps.PowerUp;
+import Engine.RenderSnapshot;
 import Utils.AssetLoader;
 import Utils.Constants;
+import Utils.SpriteId;
 import Utils.SpriteProvider;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 import javafx.scene.text.TextAlignment;
+import javafx.scene.transform.Scale;
 
 /**
  * Lớp chịu trách nhiệm render (vẽ) tất cả các thành phần lên Canvas
@@ -25,11 +23,16 @@ public class CanvasRenderer {
     private final GraphicsContext gc;
     // Renderer chuyên dụng để vẽ các sprite của thực thể game
     private final SpriteRenderer spriteRenderer;
+    // Hàng đợi lệnh vẽ thực thể, được sắp xếp theo lớp và texture trước khi vẽ
+    private final RenderQueue renderQueue;
     // Renderer chuyên dụng để vẽ viền (border)
     private final BorderRenderer borderRenderer;
     // Đối tượng cung cấp các sprite (hình ảnh)
     private final SpriteProvider sprites;
 
+    // Tỉ lệ hiển thị hiện tại (1.0 = 600x800)
+    private double scale = 1.0;
+
     // Font cho điểm số (Score)
     private Font scoreFont;
     // Font cho các phần tử UI khác
@@ -45,19 +48,51 @@ public class CanvasRenderer {
         this.canvas = canvas;
         this.gc = canvas.getGraphicsContext2D();
         // Khởi tạo các Renderer phụ
-        this.spriteRenderer = new SpriteRenderer(gc, sprites);
-        this.borderRenderer = new BorderRenderer(gc, sprites);
+        this.renderQueue = new RenderQueue();
+        this.spriteRenderer = new SpriteRenderer(renderQueue, sprites);
+        this.borderRenderer = new BorderRenderer(renderQueue, sprites);
         this.sprites = sprites;
+        // Tạo bản sao sprite cho tỉ lệ mặc định (gạch được đưa về kích thước vẽ ngay cả ở 1x)
+        setScale(1.0);
         // Tải font UI khi khởi tạo
         this.loadUIAssets();
     }
 
     /**
-     * Xóa toàn bộ Canvas, tô màu nền đen.
+     * Đổi tỉ lệ hiển thị: đổi kích thước vật lý của canvas, tạo bản sao sprite
+     * đã phóng to sẵn cho tỉ lệ mới và bù tỉ lệ của node canvas để mỗi pixel
+     * canvas khớp đúng một pixel màn hình khi node cha được phóng to cùng tỉ lệ.
+     *
+     * @param newScale Tỉ lệ hiển thị mới.
+     */
+    public void setScale(double newScale) {
+        this.scale = newScale;
+        sprites.prepareScale(newScale);
+        canvas.setWidth(Math.round(Constants.Window.WINDOW_WIDTH * newScale));
+        canvas.setHeight(Math.round(Constants.Window.WINDOW_HEIGHT * newScale));
+        canvas.getTransforms().setAll(new Scale(1.0 / newScale, 1.0 / newScale));
+        renderQueue.setScale(newScale, sprites::getScaled);
+    }
+
+    /**
+     * Lấy tỉ lệ hiển thị hiện tại.
+     *
+     * @return Tỉ lệ hiển thị.
+     */
+    public double getScale() {
+        return scale;
+    }
+
+    /**
+     * Xóa toàn bộ Canvas, tô màu nền đen. Sau đó đặt transform theo tỉ lệ hiển thị
+     * để các màn hình UI tiếp tục vẽ bằng tọa độ logic 600x800.
      */
     public void clear() {
+        gc.setTransform(1, 0, 0, 1, 0, 0);
         gc.setFill(Color.BLACK);
         gc.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        gc.setTransform(scale, 0, 0, scale, 0, 0);
+        gc.setImageSmoothing(false);
     }
 
     /**
@@ -77,6 +112,8 @@ public class CanvasRenderer {
 
     /**
      * Vẽ giao diện người dùng (UI), bao gồm logo, điểm số, điểm cao nhất và mạng sống.
+     * Chữ được vẽ ngay; logo, viền và biểu tượng mạng được gửi vào hàng đợi
+     * và chỉ xuất hiện sau {@link #flush()}.
      *
      * @param score Điểm số hiện tại.
      * @param highScore Điểm cao nhất.
@@ -84,7 +121,7 @@ public class CanvasRenderer {
      */
     public void drawUI(int score, int highScore, int lives) {
         // Vẽ Logo
-        gc.drawImage(sprites.get("logo.png"),0,0);
+        renderQueue.drawImage(RenderQueue.LAYER_BACKGROUND, sprites.get(SpriteId.LOGO), 0, 0);
 
         // Vẽ Score (1UP)
         gc.setFont(uiFont);
@@ -112,7 +149,7 @@ public class CanvasRenderer {
             double lifeX = Constants.Window.WINDOW_SIDE_OFFSET + i * (Constants.Paddle.PADDLE_LIFE_WIDTH + 10);
             // Vị trí Y cố định ở dưới cùng
             double lifeY = Constants.Window.WINDOW_HEIGHT - Constants.Paddle.PADDLE_LIFE_HEIGHT - 10;
-            gc.drawImage(sprites.get("paddle_life.png"), lifeX, lifeY);
+            renderQueue.drawImage(RenderQueue.LAYER_BACKGROUND, sprites.get(SpriteId.PADDLE_LIFE), lifeX, lifeY);
         }
     }
 
@@ -219,43 +256,79 @@ public class CanvasRenderer {
     // Các phương thức vẽ thực thể game sử dụng SpriteRenderer
 
     /**
-     * Vẽ quả bóng.
-     * @param ball Đối tượng Ball.
+     * Vẽ toàn bộ thực thể gameplay từ một snapshot do luồng mô phỏng công bố.
+     * Các lệnh vẽ được gom vào {@link RenderQueue} rồi vẽ theo lớp
+     * (gạch, vết nứt, PowerUp, laser, bóng, paddle) và theo texture trong mỗi lớp.
+     *
+     * @param snapshot Snapshot trạng thái game mới nhất.
      */
-    public void drawBall(Ball ball) {
-        spriteRenderer.drawBall(ball);
-    }
+    public void drawSnapshot(RenderSnapshot snapshot) {
+        // Vẽ paddle
+        spriteRenderer.drawPaddle(snapshot.getPaddleX(), snapshot.getPaddleY(),
+                snapshot.getPaddleWidth(), snapshot.getPaddleState(),
+                sprites.getFrame(snapshot.getPaddleFrameTable(), snapshot.getPaddleFrameIndex()));
 
-    /**
-     * Vẽ tia laser.
-     * @param laser Đối tượng Laser.
-     */
-    public void drawLaser(Laser laser) {
-        spriteRenderer.drawLaser(laser);
+        // Vẽ tất cả các quả bóng
+        for (int i = 0; i < snapshot.getBallCount(); i++) {
+            spriteRenderer.drawBall(snapshot.getBallX(i), snapshot.getBallY(i));
+        }
+
+        // Vẽ tất cả các tia laser đang hoạt động
+        for (int i = 0; i < snapshot.getLaserCount(); i++) {
+            spriteRenderer.drawLaser(snapshot.getLaserX(i), snapshot.getLaserY(i));
+        }
+
+        // Vẽ gạch
+        for (int i = 0; i < snapshot.getBrickCount(); i++) {
+            spriteRenderer.drawBrick(snapshot.getBrickX(i), snapshot.getBrickY(i),
+                    snapshot.getBrickWidth(i), snapshot.getBrickHeight(i), snapshot.getBrickType(i), sprites.getFrame(FrameTable.SILVER_CRACK, snapshot.getBrickCrackFrame(i)));
+        }
+
+        // Vẽ PowerUps
+        for (int i = 0; i < snapshot.getPowerUpCount(); i++) {
+            spriteRenderer.drawPowerUp(snapshot.getPowerUpX(i), snapshot.getPowerUpY(i),
+                    snapshot.getPowerUpWidth(i), snapshot.getPowerUpHeight(i),
+                    sprites.getFrame(snapshot.getPowerUpFrameTable(i), snapshot.getPowerUpFrameIndex(i)));
+        }
     }
 
     /**
-     * Vẽ thanh trượt (paddle).
-     * @param paddle Đối tượng Paddle.
+     * Vẽ tất cả lệnh đang chờ trong hàng đợi (sắp xếp theo lớp và texture).
+     * Gọi sau {@link #drawUI(int, int, int)} và {@link #drawSnapshot(RenderSnapshot)},
+     * trước khi vẽ các overlay.
      */
-    public void drawPaddle(Paddle paddle) {
-        spriteRenderer.drawPaddle(paddle);
+    public void flush() {
+        renderQueue.flush(gc);
     }
 
     /**
-     * Vẽ viên gạch.
-     * @param brick Đối tượng Brick.
+     * Vẽ thống kê render của khung hình gần nhất (số draw call và số lần đổi texture,
+     * có và không có sắp xếp, tỉ lệ, bộ nhớ sprite và thời gian khung hình)
+     * ở góc dưới bên phải. Dùng để đo hiệu quả gom nhóm và phóng to.
+     *
+     * @param averageFrameMillis Thời gian render trung bình của một khung hình (ms).
      */
-    public void drawBrick(Brick brick) {
-        spriteRenderer.drawBrick(brick);
+    public void drawRenderStats(double averageFrameMillis) {
+        gc.setFont(Font.font("Monospaced", 12));
+        gc.setFill(Color.LIME);
+        gc.setTextAlign(TextAlignment.RIGHT);
+        double x = Constants.Window.WINDOW_WIDTH - Constants.Window.WINDOW_SIDE_OFFSET - 4;
+        double y = Constants.Window.WINDOW_HEIGHT - 42;
+        gc.fillText(String.format("scale %.2fx  sprites %.1f KB  frame %.2f ms",
+                scale, sprites.getScaledMemoryBytes() / 1024.0, averageFrameMillis), x, y);
+        y += 14;
+        gc.fillText("draws: " + renderQueue.getDrawCallCount(), x, y);
+        gc.fillText("state changes: " + renderQueue.getStateChangeCount()
+                + " (unsorted " + renderQueue.getUnsortedStateChangeCount() + ")", x, y + 14);
     }
 
     /**
-     * Vẽ PowerUp.
-     * @param powerUp Đối tượng PowerUp.
+     * Lấy hàng đợi lệnh vẽ (để đọc thống kê draw call / đổi trạng thái).
+     *
+     * @return RenderQueue của renderer.
      */
-    public void drawPowerUp(PowerUp powerUp) {
-        spriteRenderer.drawPowerUp(powerUp);
+    public RenderQueue getRenderQueue() {
+        return renderQueue;
     }
 
     /**
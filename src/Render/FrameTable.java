@@ -0,0 +1,93 @@
+package Render;
+
+import Objects.GameEntities.PaddleState;
+import Objects.PowerUps.PowerUpType;
+import Utils.Constants;
+
+/**
+ * Định danh các bảng khung hình animation dùng chung.
+ *
+ * <p>Mỗi bảng mô tả số khung hình và số tick hiển thị mỗi khung hình. Bản thân
+ * các {@code Image} được {@link Utils.SpriteProvider} giữ một lần cho toàn game;
+ * thực thể chỉ lưu id bảng trong trạng thái animation gọn của
+ * {@link AnimationScheduler}.</p>
+ */
+public enum FrameTable {
+    SILVER_CRACK(10, Constants.Animation.CRACK_ANIMATION_DURATION),
+
+    POWERUP_CATCH(8, Constants.Animation.POWERUP_ANIMATION_DURATION),
+    POWERUP_EXPAND(8, Constants.Animation.POWERUP_ANIMATION_DURATION),
+    POWERUP_LASER(8, Constants.Animation.POWERUP_ANIMATION_DURATION),
+    POWERUP_DUPLICATE(8, Constants.Animation.POWERUP_ANIMATION_DURATION),
+    POWERUP_SLOW(8, Constants.Animation.POWERUP_ANIMATION_DURATION),
+    POWERUP_LIFE(8, Constants.Animation.POWERUP_ANIMATION_DURATION),
+    POWERUP_WARP(8, Constants.Animation.POWERUP_ANIMATION_DURATION),
+
+    PADDLE_WIDE(PaddleState.WIDE.getFrameCount(), Constants.Animation.PADDLE_ANIMATION_DURATION),
+    PADDLE_WIDE_PULSATE(PaddleState.WIDE_PULSATE.getFrameCount(), Constants.Animation.PADDLE_ANIMATION_DURATION),
+    PADDLE_LASER(PaddleState.LASER.getFrameCount(), Constants.Animation.PADDLE_ANIMATION_DURATION),
+    PADDLE_LASER_PULSATE(PaddleState.LASER_PULSATE.getFrameCount(), Constants.Animation.PADDLE_ANIMATION_DURATION),
+    PADDLE_PULSATE(PaddleState.PULSATE.getFrameCount(), Constants.Animation.PADDLE_ANIMATION_DURATION),
+    PADDLE_MATERIALIZE(PaddleState.MATERIALIZE.getFrameCount(), Constants.Animation.PADDLE_ANIMATION_DURATION),
+    PADDLE_EXPLODE(PaddleState.EXPLODE.getFrameCount(), Constants.Animation.PADDLE_ANIMATION_DURATION);
+
+    // Số khung hình trong bảng
+    private final int frameCount;
+    // Số tick hiển thị mỗi khung hình (ít nhất 1)
+    private final int ticksPerFrame;
+
+    /**
+     * @param frameCount Số khung hình.
+     * @param frameDurationMillis Thời gian hiển thị mỗi khung hình (ms), được quy đổi sang tick.
+     */
+    FrameTable(int frameCount, long frameDurationMillis) {
+        this.frameCount = frameCount;
+        this.ticksPerFrame = (int) Math.max(1, Math.round(frameDurationMillis * Constants.Window.FPS / 1000.0));
+    }
+
+    public int getFrameCount() {
+        return frameCount;
+    }
+
+    public int getTicksPerFrame() {
+        return ticksPerFrame;
+    }
+
+    /**
+     * Lấy bảng khung hình của một loại PowerUp.
+     *
+     * @param type Loại PowerUp.
+     * @return Bảng khung hình tương ứng.
+     */
+    public static FrameTable forPowerUp(PowerUpType type) {
+        return switch (type) {
+            case CATCH -> POWERUP_CATCH;
+            case EXPAND -> POWERUP_EXPAND;
+            case LASER -> POWERUP_LASER;
+            case DUPLICATE -> POWERUP_DUPLICATE;
+            case SLOW -> POWERUP_SLOW;
+            case LIFE -> POWERUP_LIFE;
+            case WARP -> POWERUP_WARP;
+        };
+    }
+
+    /**
+     * Lấy bảng khung hình của một trạng thái Paddle (khác NORMAL).
+     *
+     * @param state Trạng thái Paddle.
+     * @return Bảng khung hình tương ứng.
+     * @throws IllegalArgumentException nếu trạng thái là NORMAL (không có animation).
+     */
+    public static FrameTable forPaddle(PaddleState state) {
+        return switch (state) {
+            case NORMAL -> throw new IllegalArgumentException("PaddleState.NORMAL does not have animation frames.");
+            case WIDE -> PADDLE_WIDE;
+            case WIDE_PULSATE -> PADDLE_WIDE_PULSATE;
+            case LASER -> PADDLE_LASER;
+            case LASER_PULSATE -> PADDLE_LASER_PULSATE;
+            case PULSATE -> PADDLE_PULSATE;
+            case MATERIALIZE -> PADDLE_MATERIALIZE;
+            case EXPLODE -> PADDLE_EXPLODE;
+        };
+    }
+}
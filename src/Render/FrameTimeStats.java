@@ -0,0 +1,83 @@
+package Render;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Thống kê thời gian render khung hình, tách theo tỉ lệ hiển thị.
+ *
+ * <p>Mỗi khi tỉ lệ thay đổi, thống kê của tỉ lệ cũ được giữ lại để cuối phiên
+ * có thể so sánh thời gian khung hình và bộ nhớ sprite ở 1x, 2x, 3x.</p>
+ */
+public class FrameTimeStats {
+    // Số khung hình dùng cho trung bình trượt hiển thị trên overlay
+    private static final int WINDOW_FRAMES = 60;
+
+    // Thống kê tích lũy theo tỉ lệ: [số khung hình, tổng nano giây, nano giây lớn nhất, byte sprite]
+    private final Map<Double, long[]> perScale = new TreeMap<>();
+    private long[] current;
+
+    // Trung bình trượt cho overlay
+    private long windowNanos = 0;
+    private int windowCount = 0;
+    private double averageMillis = 0;
+
+    /**
+     * Bắt đầu ghi thống kê cho một tỉ lệ hiển thị.
+     *
+     * @param scale Tỉ lệ hiển thị.
+     * @param spriteBytes Bộ nhớ sprite đã phóng to ở tỉ lệ này (byte).
+     */
+    public void setScale(double scale, long spriteBytes) {
+        current = perScale.computeIfAbsent(scale, s -> new long[4]);
+        current[3] = spriteBytes;
+        windowNanos = 0;
+        windowCount = 0;
+    }
+
+    /**
+     * Ghi thời gian render của một khung hình.
+     *
+     * @param nanos Thời gian render (nano giây).
+     */
+    public void record(long nanos) {
+        if (current == null) {
+            return;
+        }
+        current[0]++;
+        current[1] += nanos;
+        current[2] = Math.max(current[2], nanos);
+
+        windowNanos += nanos;
+        if (++windowCount == WINDOW_FRAMES) {
+            averageMillis = windowNanos / 1_000_000.0 / windowCount;
+            windowNanos = 0;
+            windowCount = 0;
+        }
+    }
+
+    /**
+     * Lấy thời gian render trung bình của cửa sổ khung hình gần nhất.
+     *
+     * @return Thời gian trung bình (ms).
+     */
+    public double getAverageMillis() {
+        return averageMillis;
+    }
+
+    /**
+     * In báo cáo thời gian khung hình và bộ nhớ sprite cho từng tỉ lệ đã dùng.
+     */
+    public void printReport() {
+        System.out.println("=== Render Report ===");
+        for (Map.Entry<Double, long[]> entry : perScale.entrySet()) {
+            long[] stats = entry.getValue();
+            if (stats[0] == 0) {
+                continue;
+            }
+            System.out.printf("Scale %.2fx: sprites %.1f KB, %d frames, avg %.3f ms, max %.3f ms%n",
+                    entry.getKey(), stats[3] / 1024.0, stats[0],
+                    stats[1] / 1_000_000.0 / stats[0], stats[2] / 1_000_000.0);
+        }
+    }
+}
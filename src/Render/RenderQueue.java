@@ -0,0 +1,327 @@
+package Render;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.paint.Color;
+
+import java.util.Arrays;
+import java.util.function.UnaryOperator;
+
+/**
+ * Hàng đợi lệnh vẽ cho một khung hình.
+ *
+ * <p>Các lệnh vẽ được thu thập trong các mảng song song, sau đó được sắp xếp
+ * theo (lớp, texture, thứ tự gửi) rồi mới vẽ ra {@link GraphicsContext}.
+ * Nhờ vậy các sprite giống nhau (ví dụ tất cả gạch đỏ) được vẽ liền nhau,
+ * giảm số lần đổi texture/màu. Thứ tự giữa các lớp luôn được giữ nguyên, và
+ * trong cùng một lớp các lệnh có cùng texture vẫn giữ thứ tự gửi.</p>
+ *
+ * <p>Hàng đợi không cấp phát bộ nhớ trong trạng thái ổn định: các mảng chỉ
+ * mở rộng khi số lệnh vượt dung lượng, và khóa sắp xếp là {@code long} nguyên thủy.</p>
+ */
+public class RenderQueue {
+    // Các lớp vẽ, theo thứ tự từ dưới lên trên
+    public static final int LAYER_BACKGROUND = 0;    // Logo, viền, biểu tượng mạng
+    public static final int LAYER_BRICK = 1;         // Gạch
+    public static final int LAYER_BRICK_OVERLAY = 2; // Vết nứt đè lên gạch
+    public static final int LAYER_POWERUP = 3;       // PowerUp đang rơi
+    public static final int LAYER_LASER = 4;         // Tia laser
+    public static final int LAYER_BALL = 5;          // Bóng
+    public static final int LAYER_PADDLE = 6;        // Thanh đỡ
+
+    // Loại lệnh vẽ
+    private static final byte KIND_IMAGE = 0;        // Vẽ ảnh kích thước gốc
+    private static final byte KIND_IMAGE_SCALED = 1; // Vẽ ảnh với kích thước chỉ định
+    private static final byte KIND_RECT = 2;         // Tô hình chữ nhật
+    private static final byte KIND_OVAL = 3;         // Tô hình elip
+
+    // Số bit dành cho từng phần của khóa sắp xếp
+    private static final int SEQ_BITS = 24;
+    private static final int TEXTURE_BITS = 16;
+    private static final long SEQ_MASK = (1L << SEQ_BITS) - 1;
+    private static final long TEXTURE_MASK = (1L << TEXTURE_BITS) - 1;
+
+    private static final int INITIAL_CAPACITY = 256;
+    private static final int MAX_TEXTURES = 1 << TEXTURE_BITS;
+
+    // Dữ liệu lệnh (mảng song song, chỉ số là thứ tự gửi)
+    private Object[] resources = new Object[INITIAL_CAPACITY]; // Image hoặc Color
+    private byte[] kinds = new byte[INITIAL_CAPACITY];
+    private double[] xs = new double[INITIAL_CAPACITY];
+    private double[] ys = new double[INITIAL_CAPACITY];
+    private double[] ws = new double[INITIAL_CAPACITY];
+    private double[] hs = new double[INITIAL_CAPACITY];
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private int count = 0;
+
+    // Bảng định danh texture: mỗi Image/Color khác nhau nhận một id nhỏ, tra theo danh tính đối tượng
+    private Object[] textureTable = new Object[64];
+    private int textureCount = 0;
+
+    // Tỉ lệ hiển thị và bản sao đã phóng to sẵn của từng texture (theo id, tạo khi gặp lần đầu)
+    private double scale = 1.0;
+    private UnaryOperator<Image> scaledLookup = UnaryOperator.identity();
+    private Image[] scaledTextures = new Image[64];
+
+    // Thống kê của lần flush gần nhất
+    private int drawCallCount = 0;
+    private int stateChangeCount = 0;
+    private int unsortedStateChangeCount = 0;
+
+    /**
+     * Đặt tỉ lệ hiển thị. Khi flush, tọa độ logic được nhân với tỉ lệ và ảnh
+     * được thay bằng bản sao đã phóng to sẵn, nên mỗi lệnh vẽ ảnh là một blit 1:1.
+     *
+     * @param scale Tỉ lệ hiển thị.
+     * @param scaledLookup Hàm trả về bản sao đã phóng to của một ảnh gốc.
+     */
+    public void setScale(double scale, UnaryOperator<Image> scaledLookup) {
+        this.scale = scale;
+        this.scaledLookup = scaledLookup;
+        Arrays.fill(scaledTextures, null);
+    }
+
+    /**
+     * Gửi lệnh vẽ một ảnh với kích thước gốc.
+     *
+     * @param layer Lớp vẽ.
+     * @param image Ảnh cần vẽ.
+     * @param x Tọa độ X.
+     * @param y Tọa độ Y.
+     */
+    public void drawImage(int layer, Image image, double x, double y) {
+        add(layer, KIND_IMAGE, image, x, y, 0, 0);
+    }
+
+    /**
+     * Gửi lệnh vẽ một ảnh với kích thước chỉ định.
+     *
+     * @param layer Lớp vẽ.
+     * @param image Ảnh cần vẽ.
+     * @param x Tọa độ X.
+     * @param y Tọa độ Y.
+     * @param w Chiều rộng.
+     * @param h Chiều cao.
+     */
+    public void drawImage(int layer, Image image, double x, double y, double w, double h) {
+        add(layer, KIND_IMAGE_SCALED, image, x, y, w, h);
+    }
+
+    /**
+     * Gửi lệnh tô hình chữ nhật.
+     *
+     * @param layer Lớp vẽ.
+     * @param color Màu tô.
+     * @param x Tọa độ X.
+     * @param y Tọa độ Y.
+     * @param w Chiều rộng.
+     * @param h Chiều cao.
+     */
+    public void fillRect(int layer, Color color, double x, double y, double w, double h) {
+        add(layer, KIND_RECT, color, x, y, w, h);
+    }
+
+    /**
+     * Gửi lệnh tô hình elip.
+     *
+     * @param layer Lớp vẽ.
+     * @param color Màu tô.
+     * @param x Tọa độ X.
+     * @param y Tọa độ Y.
+     * @param w Chiều rộng.
+     * @param h Chiều cao.
+     */
+    public void fillOval(int layer, Color color, double x, double y, double w, double h) {
+        add(layer, KIND_OVAL, color, x, y, w, h);
+    }
+
+    /**
+     * Thêm một lệnh vào hàng đợi.
+     */
+    private void add(int layer, byte kind, Object resource, double x, double y, double w, double h) {
+        if (resource == null) {
+            return;
+        }
+        if (count == keys.length) {
+            grow();
+        }
+        if (count > SEQ_MASK) {
+            System.err.println("RenderQueue: Too many draw commands in one frame, dropping");
+            return;
+        }
+
+        int i = count++;
+        resources[i] = resource;
+        kinds[i] = kind;
+        xs[i] = x;
+        ys[i] = y;
+        ws[i] = w;
+        hs[i] = h;
+        keys[i] = ((long) layer << (TEXTURE_BITS + SEQ_BITS))
+                | ((long) textureId(resource) << SEQ_BITS)
+                | i;
+    }
+
+    /**
+     * Lấy id nhỏ cho một texture/màu. Số lượng texture trong game ít nên tìm
+     * tuyến tính theo danh tính đối tượng là đủ nhanh và không cấp phát.
+     *
+     * @param resource Image hoặc Color.
+     * @return Id của texture.
+     */
+    private int textureId(Object resource) {
+        for (int i = 0; i < textureCount; i++) {
+            if (textureTable[i] == resource) {
+                return i;
+            }
+        }
+        if (textureCount == MAX_TEXTURES) {
+            return MAX_TEXTURES - 1;
+        }
+        if (textureCount == textureTable.length) {
+            textureTable = Arrays.copyOf(textureTable, textureTable.length * 2);
+            scaledTextures = Arrays.copyOf(scaledTextures, textureTable.length);
+        }
+        textureTable[textureCount] = resource;
+        return textureCount++;
+    }
+
+    /**
+     * Nhân đôi dung lượng các mảng lệnh.
+     */
+    private void grow() {
+        int capacity = keys.length * 2;
+        resources = Arrays.copyOf(resources, capacity);
+        kinds = Arrays.copyOf(kinds, capacity);
+        xs = Arrays.copyOf(xs, capacity);
+        ys = Arrays.copyOf(ys, capacity);
+        ws = Arrays.copyOf(ws, capacity);
+        hs = Arrays.copyOf(hs, capacity);
+        keys = Arrays.copyOf(keys, capacity);
+    }
+
+    /**
+     * Sắp xếp các lệnh theo lớp và texture rồi vẽ chúng ra GraphicsContext.
+     * Lệnh được vẽ trong hệ tọa độ pixel của canvas (bỏ qua transform hiện tại),
+     * với ảnh đã phóng to sẵn và vị trí làm tròn tới pixel.
+     * Sau khi flush, hàng đợi trống và thống kê của khung hình được cập nhật.
+     *
+     * @param gc Context đồ họa để vẽ.
+     */
+    public void flush(GraphicsContext gc) {
+        // Số lần đổi texture nếu vẽ theo thứ tự gửi (để so sánh)
+        unsortedStateChangeCount = countSubmissionOrderStateChanges();
+
+        Arrays.sort(keys, 0, count);
+
+        drawCallCount = 0;
+        stateChangeCount = 0;
+        Object current = null;
+        Image currentImage = null;
+
+        gc.save();
+        gc.setTransform(1, 0, 0, 1, 0, 0);
+
+        for (int k = 0; k < count; k++) {
+            int i = (int) (keys[k] & SEQ_MASK);
+            Object resource = resources[i];
+            if (resource != current) {
+                stateChangeCount++;
+                current = resource;
+                if (resource instanceof Color color) {
+                    gc.setFill(color);
+                } else {
+                    currentImage = scaledTexture((int) ((keys[k] >>> SEQ_BITS) & TEXTURE_MASK), (Image) resource);
+                }
+            }
+
+            double x = Math.round(xs[i] * scale);
+            double y = Math.round(ys[i] * scale);
+            switch (kinds[i]) {
+                case KIND_IMAGE -> gc.drawImage(currentImage, x, y);
+                case KIND_IMAGE_SCALED -> {
+                    double w = Math.round(ws[i] * scale);
+                    double h = Math.round(hs[i] * scale);
+                    if (currentImage.getWidth() == w && currentImage.getHeight() == h) {
+                        gc.drawImage(currentImage, x, y); // Blit 1:1
+                    } else {
+                        gc.drawImage(currentImage, x, y, w, h);
+                    }
+                }
+                case KIND_RECT -> gc.fillRect(x, y, ws[i] * scale, hs[i] * scale);
+                case KIND_OVAL -> gc.fillOval(x, y, ws[i] * scale, hs[i] * scale);
+                default -> { }
+            }
+            drawCallCount++;
+        }
+
+        gc.restore();
+
+        // Xóa tham chiếu để không giữ ảnh cũ và đặt lại hàng đợi
+        Arrays.fill(resources, 0, count, null);
+        count = 0;
+    }
+
+    /**
+     * Lấy bản sao đã phóng to sẵn của một texture, tra một lần rồi lưu theo id.
+     *
+     * @param textureId Id của texture.
+     * @param original Ảnh gốc.
+     * @return Ảnh đã phóng to cho tỉ lệ hiện tại.
+     */
+    private Image scaledTexture(int textureId, Image original) {
+        if (textureId >= scaledTextures.length || textureTable[textureId] != original) {
+            return scaledLookup.apply(original);
+        }
+        Image scaled = scaledTextures[textureId];
+        if (scaled == null) {
+            scaled = scaledLookup.apply(original);
+            scaledTextures[textureId] = scaled;
+        }
+        return scaled;
+    }
+
+    /**
+     * Đếm số lần đổi texture/màu nếu các lệnh được vẽ theo thứ tự gửi.
+     *
+     * @return Số lần đổi trạng thái.
+     */
+    private int countSubmissionOrderStateChanges() {
+        int changes = 0;
+        Object current = null;
+        for (int i = 0; i < count; i++) {
+            if (resources[i] != current) {
+                changes++;
+                current = resources[i];
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Lấy số lệnh vẽ đã thực hiện trong lần flush gần nhất.
+     *
+     * @return Số draw call.
+     */
+    public int getDrawCallCount() {
+        return drawCallCount;
+    }
+
+    /**
+     * Lấy số lần đổi texture/màu trong lần flush gần nhất (sau khi sắp xếp).
+     *
+     * @return Số lần đổi trạng thái.
+     */
+    public int getStateChangeCount() {
+        return stateChangeCount;
+    }
+
+    /**
+     * Lấy số lần đổi texture/màu mà lần flush gần nhất sẽ có nếu vẽ theo thứ tự gửi.
+     *
+     * @return Số lần đổi trạng thái khi không sắp xếp.
+     */
+    public int getUnsortedStateChangeCount() {
+        return unsortedStateChangeCount;
+    }
+}
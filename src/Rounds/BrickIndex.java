@@ -0,0 +1,215 @@
+package Rounds;
+
+import Objects.Bricks.Brick;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Chỉ mục va chạm (lưới đều) của một danh sách gạch.
+ *
+ * <p>Gạch không bao giờ di chuyển, nên vị trí và kích thước của chúng được
+ * chép một lần vào các mảng song song, và mỗi ô lưới giữ chỉ số các gạch chạm
+ * vào ô đó (dạng CSR: {@code cellStart} + {@code cellItems}). Truy vấn một vùng
+ * chỉ duyệt các ô bị vùng đó phủ thay vì toàn bộ gạch.</p>
+ *
+ * <p>Kết quả truy vấn luôn theo thứ tự tăng dần của chỉ số gạch, tức cùng thứ
+ * tự với danh sách gạch, nên va chạm xử lý theo chỉ mục cho đúng kết quả như
+ * duyệt cả danh sách. Các mảng hình học là bất biến sau khi tạo; bộ đệm truy
+ * vấn thì không, nên {@link #query} chỉ được gọi từ luồng mô phỏng.</p>
+ */
+public final class BrickIndex {
+    private final int size; // Số gạch
+    private final double[] xs; // Tọa độ X của từng gạch
+    private final double[] ys; // Tọa độ Y của từng gạch
+    private final double[] widths; // Chiều rộng của từng gạch
+    private final double[] heights; // Chiều cao của từng gạch
+
+    private final double originX; // Góc trên bên trái của lưới
+    private final double originY;
+    private final double cellWidth; // Kích thước một ô lưới
+    private final double cellHeight;
+    private final int columns; // Số cột và số hàng của lưới
+    private final int rows;
+    private final int[] cellStart; // Vị trí bắt đầu của mỗi ô trong cellItems (độ dài columns * rows + 1)
+    private final int[] cellItems; // Chỉ số gạch theo ô
+
+    // Bộ đệm truy vấn (chỉ dùng trên luồng mô phỏng)
+    private final int[] marks; // Dấu "đã lấy" theo gạch, so với stamp hiện tại
+    private int stamp;
+    private int[] results = new int[16];
+    private int resultCount;
+
+    /**
+     * Tạo chỉ mục cho một danh sách gạch. Kích thước ô lưới bằng kích thước
+     * gạch lớn nhất, nên mỗi gạch chỉ chạm vài ô.
+     *
+     * @param bricks Danh sách gạch (vị trí không đổi trong suốt vòng).
+     */
+    public BrickIndex(List<Brick> bricks) {
+        size = bricks.size();
+        xs = new double[size];
+        ys = new double[size];
+        widths = new double[size];
+        heights = new double[size];
+        marks = new int[size];
+
+        double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE;
+        double maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+        double maxW = 1, maxH = 1;
+        for (int i = 0; i < size; i++) {
+            Brick brick = bricks.get(i);
+            xs[i] = brick.getX();
+            ys[i] = brick.getY();
+            widths[i] = brick.getWidth();
+            heights[i] = brick.getHeight();
+            minX = Math.min(minX, xs[i]);
+            minY = Math.min(minY, ys[i]);
+            maxX = Math.max(maxX, xs[i] + widths[i]);
+            maxY = Math.max(maxY, ys[i] + heights[i]);
+            maxW = Math.max(maxW, widths[i]);
+            maxH = Math.max(maxH, heights[i]);
+        }
+
+        if (size == 0) {
+            originX = originY = 0;
+            cellWidth = cellHeight = 1;
+            columns = rows = 1;
+            cellStart = new int[2];
+            cellItems = new int[0];
+            return;
+        }
+        originX = minX;
+        originY = minY;
+        cellWidth = maxW;
+        cellHeight = maxH;
+        columns = Math.max(1, (int) Math.ceil((maxX - minX) / cellWidth));
+        rows = Math.max(1, (int) Math.ceil((maxY - minY) / cellHeight));
+
+        // Hai lượt: đếm số gạch mỗi ô, rồi điền chỉ số gạch (theo thứ tự tăng dần trong mỗi ô)
+        cellStart = new int[columns * rows + 1];
+        for (int i = 0; i < size; i++) {
+            for (int r = rowOf(ys[i]); r <= rowOf(ys[i] + heights[i]); r++) {
+                for (int c = columnOf(xs[i]); c <= columnOf(xs[i] + widths[i]); c++) {
+                    cellStart[r * columns + c + 1]++;
+                }
+            }
+        }
+        for (int cell = 0; cell < columns * rows; cell++) {
+            cellStart[cell + 1] += cellStart[cell];
+        }
+        cellItems = new int[cellStart[columns * rows]];
+        int[] fill = new int[columns * rows];
+        for (int i = 0; i < size; i++) {
+            for (int r = rowOf(ys[i]); r <= rowOf(ys[i] + heights[i]); r++) {
+                for (int c = columnOf(xs[i]); c <= columnOf(xs[i] + widths[i]); c++) {
+                    int cell = r * columns + c;
+                    cellItems[cellStart[cell] + fill[cell]++] = i;
+                }
+            }
+        }
+    }
+
+    /**
+     * Tìm các gạch có hình chữ nhật chạm vào một vùng. Kết quả đọc bằng
+     * {@link #resultAt(int)}, hợp lệ cho tới lần truy vấn kế tiếp.
+     *
+     * @param minX Biên trái của vùng.
+     * @param minY Biên trên của vùng.
+     * @param maxX Biên phải của vùng.
+     * @param maxY Biên dưới của vùng.
+     * @return Số gạch tìm được.
+     */
+    public int query(double minX, double minY, double maxX, double maxY) {
+        resultCount = 0;
+        if (size == 0 || maxX < originX || maxY < originY
+                || minX > originX + columns * cellWidth || minY > originY + rows * cellHeight) {
+            return 0;
+        }
+        if (++stamp == 0) {
+            Arrays.fill(marks, 0);
+            stamp = 1;
+        }
+
+        int r0 = rowOf(minY), r1 = rowOf(maxY);
+        int c0 = columnOf(minX), c1 = columnOf(maxX);
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                int cell = r * columns + c;
+                for (int k = cellStart[cell]; k < cellStart[cell + 1]; k++) {
+                    int i = cellItems[k];
+                    if (marks[i] == stamp) {
+                        continue;
+                    }
+                    marks[i] = stamp;
+                    if (xs[i] <= maxX && xs[i] + widths[i] >= minX && ys[i] <= maxY && ys[i] + heights[i] >= minY) {
+                        add(i);
+                    }
+                }
+            }
+        }
+        return resultCount;
+    }
+
+    /**
+     * Lấy chỉ số gạch thứ {@code k} của lần truy vấn gần nhất (tăng dần theo {@code k}).
+     *
+     * @param k Vị trí trong kết quả (0 ≤ k < số kết quả).
+     * @return Chỉ số gạch trong danh sách.
+     */
+    public int resultAt(int k) {
+        return results[k];
+    }
+
+    /**
+     * Thêm một chỉ số vào kết quả, giữ thứ tự tăng dần. Các ô được duyệt theo
+     * hàng rồi cột, giống thứ tự gạch trong level, nên hầu như luôn chỉ nối vào cuối.
+     */
+    private void add(int index) {
+        if (resultCount == results.length) {
+            results = Arrays.copyOf(results, results.length * 2);
+        }
+        int k = resultCount++;
+        while (k > 0 && results[k - 1] > index) {
+            results[k] = results[k - 1];
+            k--;
+        }
+        results[k] = index;
+    }
+
+    private int columnOf(double x) {
+        return Math.max(0, Math.min(columns - 1, (int) ((x - originX) / cellWidth)));
+    }
+
+    private int rowOf(double y) {
+        return Math.max(0, Math.min(rows - 1, (int) ((y - originY) / cellHeight)));
+    }
+
+    /**
+     * Lấy số gạch trong chỉ mục.
+     *
+     * @return Số gạch.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Lấy tọa độ X của gạch thứ {@code i} (bất biến, đọc được từ mọi luồng).
+     *
+     * @param i Chỉ số gạch.
+     * @return Tọa độ X.
+     */
+    public double getX(int i) {
+        return xs[i];
+    }
+
+    /**
+     * Lấy tọa độ Y của gạch thứ {@code i} (bất biến, đọc được từ mọi luồng).
+     *
+     * @param i Chỉ số gạch.
+     * @return Tọa độ Y.
+     */
+    public double getY(int i) {
+        return ys[i];
+    }
+}
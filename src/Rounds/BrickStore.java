@@ -0,0 +1,182 @@
+package Rounds;
+
+import Objects.Bricks.Brick;
+import Objects.Bricks.SilverBrick;
+import Render.AnimationScheduler;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.RandomAccess;
+
+/**
+ * Kho gạch dùng lại của một ván game.
+ *
+ * <p>Mỗi {@link LevelLayout} chỉ được tạo thành đối tượng {@link Brick} một
+ * lần cho mỗi kho (lần đầu vòng đó được chơi). Các lần bắt đầu vòng sau chỉ
+ * chép mảng gạch của vòng vào danh sách hiện tại bằng {@code System.arraycopy}
+ * rồi đặt lại trạng thái sống và số lần chịu đòn của từng viên, nên chuyển
+ * vòng, chơi lại và {@code resetGame} không cấp phát.</p>
+ *
+ * <p>Cùng với gạch, kho giữ {@link BrickIndex} của từng bố cục (vị trí gạch
+ * không phụ thuộc seed), nên chỉ mục va chạm cũng chỉ được tạo một lần.</p>
+ *
+ * <p>Với level có {@code silver_chance}, mỗi ô gạch thường có sẵn cả gạch
+ * thường và gạch bạc thay thế; lần tung theo seed chọn viên nào vào danh sách.
+ * Danh sách trả về luôn là cùng một đối tượng, chỉ đọc, và chỉ được dùng trên
+ * luồng mô phỏng của ván game sở hữu kho.</p>
+ */
+public final class BrickStore {
+    private final AnimationScheduler animationScheduler; // Đồng hồ animation gán cho gạch bạc
+    private final Map<LevelLayout, Slots> slotsByLayout = new IdentityHashMap<>(); // Gạch đã tạo theo bố cục
+    private final Random random = new Random(0); // Dùng lại cho lần tung gạch bạc (setSeed mỗi lần nạp)
+    private final BrickList bricks = new BrickList(); // Danh sách gạch của vòng hiện tại
+    private BrickIndex index = new BrickIndex(bricks); // Chỉ mục va chạm của danh sách hiện tại
+
+    /**
+     * Khởi tạo kho gạch rỗng.
+     *
+     * @param animationScheduler Đồng hồ animation của ván game, gán cho các gạch bạc khi tạo.
+     */
+    public BrickStore(AnimationScheduler animationScheduler) {
+        this.animationScheduler = animationScheduler;
+    }
+
+    /**
+     * Nạp gạch của một bố cục vào danh sách hiện tại, ở trạng thái ban đầu.
+     * Lần đầu gặp bố cục sẽ tạo gạch; các lần sau không cấp phát.
+     *
+     * @param layout Bố cục đã biên dịch.
+     * @param seed Seed của vòng; chỉ ảnh hưởng khi level có {@code silver_chance}.
+     * @return Danh sách gạch hiện tại (cùng một đối tượng cho mọi lần nạp).
+     */
+    public List<Brick> load(LevelLayout layout, long seed) {
+        Slots slots = slotsByLayout.get(layout);
+        if (slots == null) {
+            slots = new Slots(layout);
+            slotsByLayout.put(layout, slots);
+        }
+
+        int count = slots.primary.length;
+        Brick[] target = bricks.prepare(count);
+        if (slots.silver == null) {
+            System.arraycopy(slots.primary, 0, target, 0, count);
+        } else {
+            random.setSeed(seed);
+            for (int i = 0; i < count; i++) {
+                target[i] = layout.rollsSilver(i, random) ? slots.silver[i] : slots.primary[i];
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            target[i].reset();
+        }
+        index = slots.index;
+        return bricks;
+    }
+
+    /**
+     * Nạp một danh sách gạch vừa tạo (cho các vòng không dựa trên
+     * {@link LevelLayout}). Gạch được lấy nguyên, không đặt lại trạng thái.
+     *
+     * @param created Gạch mới của vòng.
+     * @return Danh sách gạch hiện tại.
+     */
+    public List<Brick> load(List<Brick> created) {
+        Brick[] target = bricks.prepare(created.size());
+        for (int i = 0; i < created.size(); i++) {
+            target[i] = attach(created.get(i));
+        }
+        index = new BrickIndex(bricks);
+        return bricks;
+    }
+
+    /**
+     * Lấy danh sách gạch hiện tại.
+     *
+     * @return Danh sách chỉ đọc, rỗng nếu chưa nạp vòng nào.
+     */
+    public List<Brick> getBricks() {
+        return bricks;
+    }
+
+    /**
+     * Lấy chỉ mục va chạm của danh sách gạch hiện tại.
+     *
+     * @return Chỉ mục, khớp chỉ số với {@link #getBricks()}.
+     */
+    public BrickIndex getIndex() {
+        return index;
+    }
+
+    /**
+     * Gán đồng hồ animation cho gạch có hiệu ứng nứt.
+     */
+    private Brick attach(Brick brick) {
+        if (brick instanceof SilverBrick silverBrick) {
+            silverBrick.setAnimationScheduler(animationScheduler);
+        }
+        return brick;
+    }
+
+    /**
+     * Gạch đã tạo của một bố cục: gạch theo lưới gốc và (nếu level có
+     * {@code silver_chance}) gạch bạc thay thế cho từng ô gạch thường.
+     */
+    private final class Slots {
+        final Brick[] primary;
+        final SilverBrick[] silver;
+        final BrickIndex index; // Gạch bạc thay thế nằm đúng vị trí gạch gốc nên dùng chung chỉ mục
+
+        Slots(LevelLayout layout) {
+            int count = layout.getBrickCount();
+            primary = new Brick[count];
+            silver = layout.getSilverChance() > 0 ? new SilverBrick[count] : null;
+            for (int i = 0; i < count; i++) {
+                primary[i] = attach(layout.newBrick(i));
+                if (silver != null && layout.canRollSilver(i)) {
+                    silver[i] = (SilverBrick) attach(layout.newSilverBrick(i));
+                }
+            }
+            index = new BrickIndex(Arrays.asList(primary));
+        }
+    }
+
+    /**
+     * Danh sách chỉ đọc trên một mảng được dùng lại; chỉ tăng kích thước khi
+     * vòng mới có nhiều gạch hơn mọi vòng trước.
+     */
+    private static final class BrickList extends AbstractList<Brick> implements RandomAccess {
+        private Brick[] elements = new Brick[0];
+        private int size;
+
+        /**
+         * Chuẩn bị mảng cho {@code count} gạch và trả về mảng để ghi vào.
+         * Phần thừa của vòng trước được xóa để không giữ tham chiếu.
+         */
+        Brick[] prepare(int count) {
+            if (elements.length < count) {
+                elements = new Brick[count];
+            } else if (size > count) {
+                Arrays.fill(elements, count, size, null);
+            }
+            size = count;
+            modCount++;
+            return elements;
+        }
+
+        @Override
+        public Brick get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+            }
+            return elements[index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package Rounds;
+
+import Objects.Bricks.Brick;
+import Objects.Bricks.BrickType;
+import Objects.Bricks.GoldBrick;
+import Objects.Bricks.NormalBrick;
+import Objects.Bricks.SilverBrick;
+import Utils.Constants;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Bố cục đã biên dịch (compiled) của một level, do {@link LevelLoader} tạo từ
+ * file level và dùng chung cho mọi ván chơi.
+ *
+ * <p>Đối tượng bất biến: lưới gạch được chuyển một lần thành các mảng song
+ * song (loại gạch, tọa độ X, Y) chỉ chứa ô có gạch, theo thứ tự hàng rồi cột.
+ * Số gạch và số gạch theo loại được tính sẵn, nên đếm gạch không cần tạo đối
+ * tượng {@link Brick} nào.</p>
+ */
+public final class LevelLayout {
+    private static final BrickType[] TYPES = BrickType.values();
+
+    private final String name; // Tên hiển thị của level
+    private final int columns; // Số cột của lưới
+    private final int rows; // Số hàng của lưới
+    private final double silverChance; // Khả năng mỗi gạch thường thành gạch bạc (0: bố cục cố định)
+    private final byte[] types; // Ordinal BrickType của từng gạch
+    private final double[] xs; // Tọa độ X của từng gạch
+    private final double[] ys; // Tọa độ Y của từng gạch
+    private final int[] typeCounts; // Số gạch theo ordinal BrickType (trước khi áp silverChance)
+
+    /**
+     * Biên dịch một lưới gạch. Lưới được căn giữa theo chiều ngang trong khu
+     * vực chơi và bắt đầu ở {@code Constants.Bricks.BRICK_START_Y / 2} phía dưới mép trên.
+     *
+     * @param name Tên level.
+     * @param grid Lưới ordinal BrickType theo [hàng][cột], -1 là ô trống.
+     * @param silverChance Khả năng mỗi gạch thường thành gạch bạc (0..1).
+     */
+    LevelLayout(String name, byte[][] grid, double silverChance) {
+        this.name = name;
+        this.rows = grid.length;
+        this.columns = rows == 0 ? 0 : grid[0].length;
+        this.silverChance = silverChance;
+        this.typeCounts = new int[TYPES.length];
+
+        double brickW = Constants.Bricks.BRICK_WIDTH;
+        double brickH = Constants.Bricks.BRICK_HEIGHT;
+        double stepX = brickW + Constants.Bricks.BRICK_H_SPACING;
+        double stepY = brickH + Constants.Bricks.BRICK_V_SPACING;
+        double totalWidth = columns * brickW + (columns - 1) * Constants.Bricks.BRICK_H_SPACING;
+        double startX = Constants.PlayArea.PLAY_AREA_X + (Constants.PlayArea.PLAY_AREA_WIDTH - totalWidth) / 2.0;
+        double startY = Constants.PlayArea.PLAY_AREA_Y + Constants.Bricks.BRICK_START_Y / 2.0;
+
+        int count = 0;
+        for (byte[] row : grid) {
+            for (byte cell : row) {
+                if (cell >= 0) {
+                    count++;
+                }
+            }
+        }
+        this.types = new byte[count];
+        this.xs = new double[count];
+        this.ys = new double[count];
+
+        int i = 0;
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++) {
+                byte cell = grid[r][c];
+                if (cell < 0) {
+                    continue;
+                }
+                types[i] = cell;
+                xs[i] = startX + c * stepX;
+                ys[i] = startY + r * stepY;
+                typeCounts[cell]++;
+                i++;
+            }
+        }
+    }
+
+    /**
+     * Tạo danh sách gạch mới cho một lần chơi level.
+     *
+     * @param seed Seed của vòng; chỉ ảnh hưởng khi level có {@code silver_chance}.
+     * @return Danh sách gạch theo thứ tự hàng rồi cột.
+     */
+    public List<Brick> createBricks(long seed) {
+        List<Brick> bricks = new ArrayList<>(types.length);
+        // Chỉ tạo Random khi cần: bố cục cố định không phụ thuộc seed
+        Random rnd = silverChance > 0 ? new Random(seed) : null;
+
+        for (int i = 0; i < types.length; i++) {
+            bricks.add(rollsSilver(i, rnd) ? newSilverBrick(i) : newBrick(i));
+        }
+        return bricks;
+    }
+
+    /**
+     * Tạo gạch của một ô theo đúng loại trong lưới gốc.
+     *
+     * @param i Chỉ số gạch (theo thứ tự hàng rồi cột).
+     * @return Gạch mới.
+     */
+    Brick newBrick(int i) {
+        BrickType type = TYPES[types[i]];
+        double brickW = Constants.Bricks.BRICK_WIDTH;
+        double brickH = Constants.Bricks.BRICK_HEIGHT;
+        if (type == BrickType.GOLD) {
+            return new GoldBrick(xs[i], ys[i], brickW, brickH);
+        } else if (type == BrickType.SILVER) {
+            return new SilverBrick(xs[i], ys[i], brickW, brickH);
+        }
+        return new NormalBrick(xs[i], ys[i], brickW, brickH, type);
+    }
+
+    /**
+     * Tạo gạch bạc tại vị trí của một ô (dùng khi ô gạch thường được tung
+     * thành gạch bạc).
+     *
+     * @param i Chỉ số gạch.
+     * @return Gạch bạc mới.
+     */
+    SilverBrick newSilverBrick(int i) {
+        return new SilverBrick(xs[i], ys[i], Constants.Bricks.BRICK_WIDTH, Constants.Bricks.BRICK_HEIGHT);
+    }
+
+    /**
+     * Tung xem gạch thường ở ô {@code i} có thành gạch bạc không. Chỉ gạch
+     * thường mới rút một số từ {@code rnd}, nên cùng seed luôn cho cùng kết quả
+     * dù gạch được tạo mới hay lấy lại từ {@link BrickStore}.
+     *
+     * @param i Chỉ số gạch.
+     * @param rnd Bộ sinh số của vòng, hoặc {@code null} nếu bố cục cố định.
+     * @return {@code true} nếu ô là gạch thường và được tung thành gạch bạc.
+     */
+    boolean rollsSilver(int i, Random rnd) {
+        BrickType type = TYPES[types[i]];
+        return rnd != null && type != BrickType.GOLD && type != BrickType.SILVER
+                && rnd.nextDouble() < silverChance;
+    }
+
+    /**
+     * Kiểm tra ô {@code i} có thể được tung thành gạch bạc hay không.
+     *
+     * @param i Chỉ số gạch.
+     * @return {@code true} nếu level có {@code silver_chance} và ô là gạch thường.
+     */
+    boolean canRollSilver(int i) {
+        BrickType type = TYPES[types[i]];
+        return silverChance > 0 && type != BrickType.GOLD && type != BrickType.SILVER;
+    }
+
+    /**
+     * Lấy tên level.
+     *
+     * @return Tên level.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Lấy tổng số gạch của level (không phụ thuộc seed).
+     *
+     * @return Số gạch.
+     */
+    public int getBrickCount() {
+        return types.length;
+    }
+
+    /**
+     * Lấy số gạch của một loại theo lưới gốc. Với level có {@code silver_chance},
+     * một phần gạch thường sẽ thành gạch bạc khi tạo gạch.
+     *
+     * @param type Loại gạch.
+     * @return Số gạch.
+     */
+    public int getBrickCount(BrickType type) {
+        return typeCounts[type.ordinal()];
+    }
+
+    /**
+     * Lấy số cột của lưới.
+     *
+     * @return Số cột.
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Lấy số hàng của lưới.
+     *
+     * @return Số hàng.
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Lấy khả năng mỗi gạch thường thành gạch bạc.
+     *
+     * @return Giá trị 0..1 (0 nếu bố cục cố định).
+     */
+    public double getSilverChance() {
+        return silverChance;
+    }
+}
@@ -0,0 +1,241 @@
+package Rounds;
+
+import Objects.Bricks.BrickType;
+import Utils.Constants;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lớp tiện ích (Utility class) đọc các file level trong {@code /Resources/Levels/}
+ * và biên dịch chúng thành {@link LevelLayout}.
+ *
+ * <p>Mỗi file chỉ được đọc và biên dịch một lần; bố cục đã biên dịch là bất
+ * biến nên được cache và dùng chung cho mọi ván chơi và mọi luồng. Danh sách
+ * level theo thứ tự chơi nằm trong {@code levels.txt}; thêm level chỉ cần
+ * thêm file lưới và một dòng vào danh sách, không cần lớp mới. Định dạng file
+ * được mô tả ở đầu {@code levels.txt}.</p>
+ */
+public final class LevelLoader {
+    private static final char EMPTY = '.'; // Ký hiệu ô trống
+    private static final String GRID_MARKER = "grid"; // Dòng bắt đầu lưới gạch
+
+    // Cache bố cục đã biên dịch theo tên file
+    private static final Map<String, LevelLayout> CACHE = new ConcurrentHashMap<>();
+    // Danh sách level theo thứ tự chơi (null cho tới lần đọc đầu tiên)
+    private static volatile List<LevelLayout> levels;
+
+    /**
+     * Constructor private để ngăn việc tạo ra các instance của lớp tiện ích này.
+     *
+     * @throws UnsupportedOperationException Luôn ném ngoại lệ vì đây là lớp tiện ích.
+     */
+    private LevelLoader() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Lấy tất cả level theo thứ tự trong {@code levels.txt}. Level không đọc
+     * được bị bỏ qua (có báo lỗi).
+     *
+     * @return Danh sách bố cục (chỉ đọc, dùng chung).
+     */
+    public static List<LevelLayout> loadAll() {
+        List<LevelLayout> result = levels;
+        if (result == null) {
+            synchronized (LevelLoader.class) {
+                result = levels;
+                if (result == null) {
+                    result = new ArrayList<>();
+                    for (String file : readIndex()) {
+                        LevelLayout layout = load(file);
+                        if (layout != null) {
+                            result.add(layout);
+                        }
+                    }
+                    result = Collections.unmodifiableList(result);
+                    levels = result;
+                    System.out.println("LevelLoader: Loaded " + result.size() + " levels");
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Lấy bố cục đã biên dịch của một file level, đọc và biên dịch ở lần gọi đầu tiên.
+     *
+     * @param filename Tên file trong thư mục level (ví dụ "round1.txt").
+     * @return Bố cục, hoặc {@code null} nếu file không tồn tại hoặc sai định dạng.
+     */
+    public static LevelLayout load(String filename) {
+        LevelLayout cached = CACHE.get(filename);
+        if (cached != null) {
+            return cached;
+        }
+        List<String> lines = readResource(filename);
+        if (lines == null) {
+            return null;
+        }
+        try {
+            LevelLayout layout = parse(lines);
+            LevelLayout existing = CACHE.putIfAbsent(filename, layout);
+            return existing != null ? existing : layout;
+        } catch (IllegalArgumentException e) {
+            System.err.println("LevelLoader: Invalid level " + filename + " - " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Biên dịch nội dung một file level.
+     *
+     * @param lines Các dòng của file.
+     * @return Bố cục đã biên dịch.
+     * @throws IllegalArgumentException Nếu thiếu tên, thiếu lưới, ký hiệu lạ hoặc các hàng không cùng độ dài.
+     */
+    public static LevelLayout parse(List<String> lines) {
+        String name = null;
+        double silverChance = 0;
+        List<byte[]> grid = new ArrayList<>();
+        boolean inGrid = false;
+
+        for (int n = 0; n < lines.size(); n++) {
+            String line = lines.get(n).strip();
+            if (line.isEmpty() || line.charAt(0) == '#') {
+                continue;
+            }
+            if (inGrid) {
+                grid.add(parseRow(line, n + 1));
+            } else if (line.equals(GRID_MARKER)) {
+                inGrid = true;
+            } else {
+                int eq = line.indexOf('=');
+                if (eq < 0) {
+                    throw new IllegalArgumentException("line " + (n + 1) + ": expected key = value");
+                }
+                String key = line.substring(0, eq).strip();
+                String value = line.substring(eq + 1).strip();
+                switch (key) {
+                    case "name":
+                        name = value;
+                        break;
+                    case "silver_chance":
+                        silverChance = parseChance(value, n + 1);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("line " + (n + 1) + ": unknown key " + key);
+                }
+            }
+        }
+
+        if (name == null) {
+            throw new IllegalArgumentException("missing name");
+        }
+        if (grid.isEmpty()) {
+            throw new IllegalArgumentException("missing grid");
+        }
+        int columns = grid.get(0).length;
+        for (byte[] row : grid) {
+            if (row.length != columns) {
+                throw new IllegalArgumentException("rows have different lengths");
+            }
+        }
+        return new LevelLayout(name, grid.toArray(new byte[0][]), silverChance);
+    }
+
+    /**
+     * Chuyển một dòng lưới thành ordinal BrickType của từng ô.
+     */
+    private static byte[] parseRow(String line, int lineNumber) {
+        byte[] row = new byte[line.length()];
+        for (int c = 0; c < row.length; c++) {
+            BrickType type = typeOf(line.charAt(c));
+            if (type == null && line.charAt(c) != EMPTY) {
+                throw new IllegalArgumentException("line " + lineNumber + ": unknown brick '" + line.charAt(c) + "'");
+            }
+            row[c] = (byte) (type == null ? -1 : type.ordinal());
+        }
+        return row;
+    }
+
+    /**
+     * Ánh xạ ký hiệu trong file level sang loại gạch.
+     *
+     * @param symbol Ký hiệu.
+     * @return Loại gạch, hoặc {@code null} nếu là ô trống hoặc ký hiệu lạ.
+     */
+    private static BrickType typeOf(char symbol) {
+        switch (symbol) {
+            case 'B': return BrickType.BLUE;
+            case 'R': return BrickType.RED;
+            case 'G': return BrickType.GREEN;
+            case 'Y': return BrickType.YELLOW;
+            case 'O': return BrickType.ORANGE;
+            case 'P': return BrickType.PINK;
+            case 'C': return BrickType.CYAN;
+            case 'W': return BrickType.WHITE;
+            case 'S': return BrickType.SILVER;
+            case '*': return BrickType.GOLD;
+            default: return null;
+        }
+    }
+
+    private static double parseChance(String value, int lineNumber) {
+        try {
+            double chance = Double.parseDouble(value);
+            if (chance >= 0 && chance <= 1) {
+                return chance;
+            }
+        } catch (NumberFormatException e) {
+            // Báo lỗi chung bên dưới
+        }
+        throw new IllegalArgumentException("line " + lineNumber + ": silver_chance must be in 0..1");
+    }
+
+    /**
+     * Đọc danh sách file level, bỏ qua chú thích và dòng trống.
+     */
+    private static List<String> readIndex() {
+        List<String> lines = readResource(Constants.Paths.LEVEL_INDEX_FILE);
+        if (lines == null) {
+            return List.of();
+        }
+        List<String> files = new ArrayList<>();
+        for (String line : lines) {
+            String file = line.strip();
+            if (!file.isEmpty() && file.charAt(0) != '#') {
+                files.add(file);
+            }
+        }
+        return files;
+    }
+
+    /**
+     * Đọc một file trong thư mục level.
+     *
+     * @param filename Tên file.
+     * @return Các dòng của file, hoặc {@code null} nếu không tìm thấy hoặc lỗi đọc.
+     */
+    private static List<String> readResource(String filename) {
+        String path = Constants.Paths.LEVELS_PATH + filename;
+        try (InputStream is = LevelLoader.class.getResourceAsStream(path)) {
+            if (is == null) {
+                System.err.println("LevelLoader: Level file not found - " + path);
+                return null;
+            }
+            BufferedReader reader = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8));
+            return reader.lines().toList();
+        } catch (IOException e) {
+            System.err.println("LevelLoader: Failed to read " + path + " - " + e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package Rounds;
+
+import Objects.Bricks.Brick;
+import java.util.List;
+
+/**
+ * Cấp độ được định nghĩa bằng file level (xem {@link LevelLoader}). Mọi cấp độ
+ * có sẵn của game đều là LevelRound; bố cục nằm trong {@link LevelLayout} đã
+ * biên dịch và dùng chung, nên thêm cấp độ không cần thêm lớp mới.
+ */
+public class LevelRound extends RoundBase {
+    private final LevelLayout layout; // Bố cục đã biên dịch (dùng chung, bất biến)
+
+    /**
+     * Khởi tạo cấp độ từ một bố cục đã biên dịch.
+     *
+     * @param roundNumber Số thứ tự của cấp độ (bắt đầu từ 1).
+     * @param layout Bố cục của cấp độ.
+     */
+    public LevelRound(int roundNumber, LevelLayout layout) {
+        super(roundNumber, layout.getName());
+        this.layout = layout;
+    }
+
+    /**
+     * Tạo gạch của cấp độ từ bố cục đã biên dịch, dùng seed của vòng cho các
+     * level có gạch bạc ngẫu nhiên.
+     *
+     * @return Danh sách các đối tượng Brick.
+     */
+    @Override
+    public List<Brick> createBricks() {
+        return layout.createBricks(seed);
+    }
+
+    /**
+     * Nạp gạch từ kho của ván game: bố cục chỉ được tạo thành gạch ở lần đầu,
+     * các lần sau chỉ chép mảng và đặt lại trạng thái.
+     *
+     * @param store Kho gạch của ván game.
+     * @return Danh sách gạch của vòng.
+     */
+    @Override
+    public List<Brick> loadBricks(BrickStore store) {
+        return store.load(layout, seed);
+    }
+
+    /**
+     * Lấy tổng số gạch từ bố cục đã biên dịch, không tạo gạch.
+     *
+     * @return Tổng số viên gạch.
+     */
+    @Override
+    public int getTotalBrickCount() {
+        return layout.getBrickCount();
+    }
+
+    /**
+     * Lấy bố cục đã biên dịch của cấp độ.
+     *
+     * @return Bố cục.
+     */
+    public LevelLayout getLayout() {
+        return layout;
+    }
+}
@@ -0,0 +1,246 @@
+package Rounds;
+
+import Objects.Bricks.Brick;
+import Objects.Bricks.BrickType;
+import Objects.Bricks.GoldBrick;
+import Objects.Bricks.NormalBrick;
+import Objects.Bricks.SilverBrick;
+import Utils.Constants;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Cấp độ có bố cục sinh ngẫu nhiên từ seed của vòng.
+ *
+ * <p>Bố cục được mô tả bằng một {@link Spec}: kích thước lưới (tối đa
+ * {@code Constants.Procedural.MAX_COLUMNS} x {@code MAX_ROWS}), tỉ lệ ô có
+ * gạch, mật độ gạch bạc/gạch vàng và tỉ trọng các loại gạch thường. Cùng spec
+ * và cùng seed luôn cho cùng bố cục, nên vòng này dùng được cho cả chế độ chơi
+ * (qua {@code RoundsManager.useProceduralRounds}) lẫn làm dữ liệu chạy thử tải
+ * lặp lại được ({@link Spec#stress()}).</p>
+ *
+ * <p>Lưới lớn hơn khu vực chơi được thu nhỏ đều (khu vực chơi ảo): mỗi ô có
+ * kích thước gạch gốc nhân với một hệ số, sao cho cả lưới vừa chiều ngang và
+ * nửa trên khu vực chơi. Bố cục đối xứng trái-phải như các level có sẵn.</p>
+ */
+public class ProceduralRound extends RoundBase {
+    private static final BrickType[] TYPES = BrickType.values();
+
+    /**
+     * Mô tả bố cục sinh ngẫu nhiên.
+     *
+     * @param name Tên hiển thị của vòng.
+     * @param columns Số cột (1..{@code MAX_COLUMNS}).
+     * @param rows Số hàng (1..{@code MAX_ROWS}).
+     * @param fill Tỉ lệ ô có gạch (0..1, lớn hơn 0).
+     * @param silverDensity Tỉ lệ gạch là gạch bạc (0..1).
+     * @param goldDensity Tỉ lệ gạch là gạch vàng (0..1).
+     * @param weights Tỉ trọng các loại gạch thường (không gồm SILVER, GOLD); tổng phải lớn hơn 0.
+     */
+    public record Spec(String name, int columns, int rows, double fill,
+                       double silverDensity, double goldDensity, Map<BrickType, Double> weights) {
+
+        /**
+         * Kiểm tra tham số và chép bảng tỉ trọng (spec bất biến).
+         *
+         * @throws IllegalArgumentException Nếu một tham số nằm ngoài giới hạn.
+         */
+        public Spec {
+            if (columns < 1 || columns > Constants.Procedural.MAX_COLUMNS
+                    || rows < 1 || rows > Constants.Procedural.MAX_ROWS) {
+                throw new IllegalArgumentException("Invalid grid size: " + columns + "x" + rows);
+            }
+            if (!(fill > 0 && fill <= 1)) {
+                throw new IllegalArgumentException("fill must be in (0, 1]: " + fill);
+            }
+            if (!(silverDensity >= 0 && goldDensity >= 0 && silverDensity + goldDensity < 1)) {
+                throw new IllegalArgumentException("Invalid silver/gold density: " + silverDensity + ", " + goldDensity);
+            }
+            double total = 0;
+            for (Map.Entry<BrickType, Double> entry : weights.entrySet()) {
+                BrickType type = entry.getKey();
+                double weight = entry.getValue();
+                if (type == BrickType.SILVER || type == BrickType.GOLD || !(weight >= 0)) {
+                    throw new IllegalArgumentException("Invalid weight for " + type + ": " + weight);
+                }
+                total += weight;
+            }
+            if (total <= 0) {
+                throw new IllegalArgumentException("At least one normal brick type must have a positive weight");
+            }
+            weights = Map.copyOf(weights);
+        }
+
+        /**
+         * Tạo spec giống spec này nhưng khác tên.
+         *
+         * @param newName Tên mới.
+         * @return Spec mới.
+         */
+        public Spec withName(String newName) {
+            return new Spec(newName, columns, rows, fill, silverDensity, goldDensity, weights);
+        }
+
+        /**
+         * Bố cục cho chế độ chơi: lưới vừa khu vực chơi ở kích thước gạch gốc,
+         * mọi màu gạch thường có tỉ trọng bằng nhau.
+         *
+         * @param name Tên hiển thị của vòng.
+         * @return Spec chế độ chơi.
+         */
+        public static Spec gameplay(String name) {
+            return new Spec(name, Constants.Procedural.GAMEPLAY_COLUMNS, Constants.Procedural.GAMEPLAY_ROWS,
+                    Constants.Procedural.GAMEPLAY_FILL, 0.1, 0.03, uniformWeights());
+        }
+
+        /**
+         * Bố cục chạy thử tải: lưới lớn nhất ({@code MAX_COLUMNS} x {@code MAX_ROWS}),
+         * đầy gạch, thu nhỏ vào khu vực chơi.
+         *
+         * @return Spec chạy thử tải.
+         */
+        public static Spec stress() {
+            return new Spec("Stress Field", Constants.Procedural.MAX_COLUMNS, Constants.Procedural.MAX_ROWS,
+                    1.0, 0.1, 0.02, uniformWeights());
+        }
+
+        /**
+         * Tỉ trọng bằng nhau cho mọi loại gạch thường.
+         */
+        private static Map<BrickType, Double> uniformWeights() {
+            Map<BrickType, Double> weights = new EnumMap<>(BrickType.class);
+            for (BrickType type : TYPES) {
+                if (type != BrickType.SILVER && type != BrickType.GOLD) {
+                    weights.put(type, 1.0);
+                }
+            }
+            return weights;
+        }
+    }
+
+    private final Spec spec; // Mô tả bố cục
+    private final BrickType[] normalTypes; // Các loại gạch thường có tỉ trọng dương
+    private final double[] cumulativeWeights; // Tỉ trọng cộng dồn tương ứng
+
+    /**
+     * Khởi tạo cấp độ sinh ngẫu nhiên.
+     *
+     * @param roundNumber Số thứ tự của cấp độ (bắt đầu từ 1).
+     * @param spec Mô tả bố cục.
+     */
+    public ProceduralRound(int roundNumber, Spec spec) {
+        super(roundNumber, spec.name());
+        this.spec = spec;
+
+        // Thứ tự theo BrickType để kết quả không phụ thuộc thứ tự duyệt của Map
+        List<BrickType> types = new ArrayList<>();
+        for (BrickType type : TYPES) {
+            Double weight = spec.weights().get(type);
+            if (weight != null && weight > 0) {
+                types.add(type);
+            }
+        }
+        this.normalTypes = types.toArray(new BrickType[0]);
+        this.cumulativeWeights = new double[normalTypes.length];
+        double total = 0;
+        for (int i = 0; i < normalTypes.length; i++) {
+            total += spec.weights().get(normalTypes[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    /**
+     * Sinh gạch của vòng từ seed. Nửa trái của lưới được sinh theo thứ tự hàng
+     * rồi cột và lật sang nửa phải; danh sách trả về theo thứ tự hàng rồi cột.
+     * Nếu không sinh được gạch phá được nào, ô đầu tiên được đặt một gạch thường
+     * để vòng luôn có thể hoàn thành.
+     *
+     * @return Danh sách các đối tượng Brick mới.
+     */
+    @Override
+    public List<Brick> createBricks() {
+        int columns = spec.columns();
+        int rows = spec.rows();
+        double scale = Math.min(1.0, Math.min(
+                playAreaWidth / (columns * Constants.Bricks.BRICK_WIDTH),
+                playAreaHeight * Constants.Procedural.MAX_FIELD_HEIGHT_RATIO / (rows * Constants.Bricks.BRICK_HEIGHT)));
+        double brickW = Constants.Bricks.BRICK_WIDTH * scale;
+        double brickH = Constants.Bricks.BRICK_HEIGHT * scale;
+        double startX = Constants.PlayArea.PLAY_AREA_X + (playAreaWidth - columns * brickW) / 2.0;
+        double startY = Constants.PlayArea.PLAY_AREA_Y + Constants.Bricks.BRICK_START_Y / 2.0 * scale;
+
+        // Sinh nửa trái (gồm cột giữa nếu số cột lẻ), mỗi ô một ordinal BrickType hoặc -1
+        Random rnd = new Random(seed);
+        int half = (columns + 1) / 2;
+        byte[] cells = new byte[rows * half];
+        boolean destructible = false;
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = (byte) rollCell(rnd);
+            destructible |= cells[i] >= 0 && cells[i] != BrickType.GOLD.ordinal();
+        }
+        if (!destructible) {
+            cells[0] = (byte) normalTypes[0].ordinal();
+        }
+
+        List<Brick> bricks = new ArrayList<>();
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++) {
+                int source = c < half ? c : columns - 1 - c; // Lật nửa trái sang nửa phải
+                int cell = cells[r * half + source];
+                if (cell >= 0) {
+                    bricks.add(newBrick(TYPES[cell], startX + c * brickW, startY + r * brickH, brickW, brickH));
+                }
+            }
+        }
+        return bricks;
+    }
+
+    /**
+     * Tung loại gạch của một ô.
+     *
+     * @return Ordinal BrickType, hoặc -1 nếu ô trống.
+     */
+    private int rollCell(Random rnd) {
+        if (rnd.nextDouble() >= spec.fill()) {
+            return -1;
+        }
+        double roll = rnd.nextDouble();
+        if (roll < spec.goldDensity()) {
+            return BrickType.GOLD.ordinal();
+        }
+        if (roll < spec.goldDensity() + spec.silverDensity()) {
+            return BrickType.SILVER.ordinal();
+        }
+        double pick = rnd.nextDouble() * cumulativeWeights[cumulativeWeights.length - 1];
+        for (int i = 0; i < normalTypes.length - 1; i++) {
+            if (pick < cumulativeWeights[i]) {
+                return normalTypes[i].ordinal();
+            }
+        }
+        return normalTypes[normalTypes.length - 1].ordinal();
+    }
+
+    /**
+     * Tạo gạch theo loại.
+     */
+    private static Brick newBrick(BrickType type, double x, double y, double w, double h) {
+        if (type == BrickType.GOLD) {
+            return new GoldBrick(x, y, w, h);
+        } else if (type == BrickType.SILVER) {
+            return new SilverBrick(x, y, w, h);
+        }
+        return new NormalBrick(x, y, w, h, type);
+    }
+
+    /**
+     * Lấy mô tả bố cục của cấp độ.
+     *
+     * @return Spec.
+     */
+    public Spec getSpec() {
+        return spec;
+    }
+}
@@ -17,6 +17,8 @@ public abstract class RoundBase {
     // Chiều rộng và chiều cao của khu vực chơi, lấy từ Constants
     protected double playAreaWidth;
     protected double playAreaHeight;
+    // Seed cho các cấp độ có bố cục ngẫu nhiên, do RoundsManager đặt trước khi tạo gạch
+    protected long seed;
 
     /**
      * Constructor khởi tạo cấp độ.
@@ -41,6 +43,18 @@ public abstract class RoundBase {
      */
     public abstract List<Brick> createBricks();
 
+    /**
+     * Nạp gạch của cấp độ vào kho gạch của ván game. Cách mặc định tạo gạch
+     * mới bằng {@link #createBricks()}; {@link LevelRound} dùng lại gạch đã
+     * tạo trong kho nên bắt đầu lại vòng không cấp phát.
+     *
+     * @param store Kho gạch của ván game.
+     * @return Danh sách gạch của vòng, ở trạng thái ban đầu.
+     */
+    public List<Brick> loadBricks(BrickStore store) {
+        return store.load(createBricks());
+    }
+
 //    /**
 //     * (Hàm đã được comment out trong code gốc)
 //     * Phương thức trừu tượng để định nghĩa bản nhạc nền cho cấp độ.
@@ -48,6 +62,16 @@ public abstract class RoundBase {
 //     */
 //    public abstract MusicTrack getMusicTrack();
 
+    /**
+     * Đặt seed cho bố cục ngẫu nhiên. Cùng seed luôn tạo cùng bố cục gạch,
+     * nên ván chơi tái lập được khi lưu/khôi phục hoặc replay.
+     *
+     * @param seed Seed của cấp độ.
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
     /**
      * Lấy số thứ tự của cấp độ.
      * @return roundNumber.
@@ -66,7 +90,8 @@ public abstract class RoundBase {
 
     /**
      * Tính tổng số gạch ban đầu trong cấp độ.
-     * Lưu ý: Phương thức này gọi createBricks() nên có thể tốn kém nếu gọi nhiều lần.
+     * Cách mặc định gọi createBricks() nên tốn kém; {@link LevelRound} lấy số
+     * gạch từ bố cục đã biên dịch.
      *
      * @return Tổng số viên gạch.
      */
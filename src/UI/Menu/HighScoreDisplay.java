@@ -1,11 +1,12 @@
 package UI.Menu;
 
-import Engine.HighScoreManager;
-import Engine.HighScoreManager.HighScoreEntry;
+import Engine.HighScoreRepository;
+import Engine.HighScoreRepository.HighScoreEntry;
 import UI.Screen;
 import UI.UIHelper;
 import Utils.AssetLoader;
 import Utils.Constants;
+import Utils.SpriteId;
 import Utils.SpriteProvider;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.image.Image;
@@ -14,15 +15,21 @@ import javafx.scene.input.MouseEvent;
 import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Lớp màn hình hiển thị điểm cao (High Score Display).
- * Chịu trách nhiệm tải, hiển thị danh sách top scores và các thành phần UI liên quan.
+ * Chịu trách nhiệm hiển thị danh sách top scores và các thành phần UI liên quan.
+ *
+ * <p>Dữ liệu lấy từ {@link HighScoreRepository} dùng chung. Các hàng của bảng
+ * được định dạng sẵn và chỉ dựng lại khi kho thông báo có thay đổi.</p>
  */
 public class HighScoreDisplay implements Screen {
     private final SpriteProvider sprites; // Nguồn cung cấp sprite (hình ảnh).
-    private final HighScoreManager highScoreManager; // Quản lý điểm cao.
+    private final HighScoreRepository highScoreRepository; // Kho điểm cao dùng chung.
+    private final List<String[]> cachedRows = new ArrayList<>(); // Các hàng đã định dạng: rank, tên, điểm, ngày.
+    private volatile boolean rowsDirty = true; // Cờ cần dựng lại cachedRows (đặt bởi listener).
     private Image logo; // Sprite logo game.
     private String fontFamilyOptimus; // Lưu tên font family để tái sử dụng
     private String fontFamilyGeneration; // Lưu tên font family để tái sử dụng
@@ -46,8 +53,10 @@ public class HighScoreDisplay implements Screen {
      */
     public HighScoreDisplay(SpriteProvider sprites) {
         this.sprites = sprites;
-        // Khởi tạo HighScoreManager, manager sẽ tự động tải scores từ file.
-        this.highScoreManager = new HighScoreManager();
+        // Dùng kho điểm cao chung (file chỉ được đọc một lần cho cả tiến trình).
+        this.highScoreRepository = HighScoreRepository.getInstance();
+        // Chỉ đánh dấu cần dựng lại; việc dựng lại diễn ra trên luồng FX khi render.
+        this.highScoreRepository.addListener(repository -> rowsDirty = true);
         loadAssets(); // Tải các tài nguyên cần thiết.
     }
 
@@ -55,7 +64,7 @@ public class HighScoreDisplay implements Screen {
      * Tải các sprite cần thiết cho màn hình.
      */
     private void loadAssets() {
-        logo = sprites.get("logo.png");
+        logo = sprites.get(SpriteId.LOGO);
         try {
             // Chỉ load font một lần, lưu tên font family
             Font baseFontEmulogic = AssetLoader.loadFont("emulogic.ttf", 24);
@@ -112,26 +121,24 @@ public class HighScoreDisplay implements Screen {
         gc.strokeLine(COL_RANK_X, headerY + 25, WINDOW_WIDTH - 60, headerY + 25);
 
         // Vẽ dữ liệu điểm số (Scores Data)
-        List<HighScoreEntry> scores = highScoreManager.getAllScores();
+        if (rowsDirty) {
+            rebuildRows();
+        }
         double rowY = TABLE_START_Y + 40; // Bắt đầu hàng dữ liệu đầu tiên
 
-        for (HighScoreEntry entry : scores) {
-            // Đổi màu nền hàng xen kẽ
-            if (entry.getRank() % 2 == 0) {
+        for (int i = 0; i < cachedRows.size(); i++) {
+            String[] row = cachedRows.get(i);
+            // Đổi màu nền hàng xen kẽ (hạng chẵn)
+            if (i % 2 == 1) {
                 gc.setFill(Color.rgb(20, 20, 40, 0.5)); // Màu tối mờ
                 gc.fillRect(COL_RANK_X - 10, rowY - 5, WINDOW_WIDTH - 180, ROW_HEIGHT - 5);
             }
 
             // Vẽ dữ liệu từng cột
-            UIHelper.drawLeftAlignedText(gc, String.valueOf(entry.getRank()),
-                    COL_RANK_X, rowY, dataFont, dataColor);
-            UIHelper.drawLeftAlignedText(gc, entry.getPlayerName(),
-                    COL_NAME_X, rowY, dataFont, dataColor);
-            // Định dạng điểm số có dấu phẩy ngăn cách hàng nghìn
-            UIHelper.drawLeftAlignedText(gc, String.format("%,d", entry.getScore()),
-                    COL_SCORE_X, rowY, dataFont, dataColor);
-            UIHelper.drawLeftAlignedText(gc, entry.getFormattedDate(),
-                    COL_DATE_X, rowY, dataFont, dataColor);
+            UIHelper.drawLeftAlignedText(gc, row[0], COL_RANK_X, rowY, dataFont, dataColor);
+            UIHelper.drawLeftAlignedText(gc, row[1], COL_NAME_X, rowY, dataFont, dataColor);
+            UIHelper.drawLeftAlignedText(gc, row[2], COL_SCORE_X, rowY, dataFont, dataColor);
+            UIHelper.drawLeftAlignedText(gc, row[3], COL_DATE_X, rowY, dataFont, dataColor);
 
             rowY += ROW_HEIGHT; // Chuyển sang hàng tiếp theo
         }
@@ -142,6 +149,21 @@ public class HighScoreDisplay implements Screen {
                 Font.font(fontFamilyOptimus, 14), Color.LIGHTGRAY);
     }
 
+    /**
+     * Dựng lại các hàng đã định dạng từ kho điểm cao. Chỉ chạy khi kho báo thay đổi.
+     */
+    private void rebuildRows() {
+        rowsDirty = false;
+        cachedRows.clear();
+        highScoreRepository.forEachTopScore(entry -> cachedRows.add(new String[] {
+                String.valueOf(entry.getRank()),
+                entry.getPlayerName(),
+                // Định dạng điểm số có dấu phẩy ngăn cách hàng nghìn
+                String.format("%,d", entry.getScore()),
+                entry.getFormattedDate()
+        }));
+    }
+
     /**
      * Cập nhật logic màn hình (không có animation đặc biệt).
      *
@@ -197,7 +219,7 @@ public class HighScoreDisplay implements Screen {
      */
     @Override
     public void onEnter() {
-        // HighScoreManager tự động load từ file khi khởi tạo, không cần reload thủ công.
+        // Bảng đã cache được dựng lại tự động khi HighScoreRepository thông báo thay đổi.
     }
 
     /**
@@ -209,10 +231,10 @@ public class HighScoreDisplay implements Screen {
     }
 
     /**
-     * Lấy HighScoreManager instance để truy cập điểm số.
-     * @return Instance của HighScoreManager.
+     * Lấy kho điểm cao dùng chung.
+     * @return Instance của HighScoreRepository.
      */
-    public HighScoreManager getHighScoreManager() {
-        return highScoreManager;
+    public HighScoreRepository getHighScoreRepository() {
+        return highScoreRepository;
     }
 }
\ No newline at end of file
@@ -1,7 +1,6 @@
 package UI.Menu;
 
-import Engine.GameState;
-import Engine.StateManager;
+import Engine.AudioManager;
 import Objects.PowerUps.PowerUpType;
 import UI.Button;
 import UI.PowerUpDisplay;
@@ -9,6 +8,7 @@ import UI.Screen;
 import UI.UIHelper;
 import Utils.AssetLoader;
 import Utils.Constants;
+import Utils.SpriteId;
 import Utils.SpriteProvider;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.image.Image;
@@ -30,7 +30,7 @@ import java.util.List;
  * xử lý tương tác của người dùng và chuyển đổi trạng thái game.
  */
 public class MainMenu implements Screen {
-    private final StateManager stateManager; // Quản lý trạng thái game, dùng để chuyển từ MENU sang PLAYING.
+    private final Runnable onStart; // Callback bắt đầu game mới (chuyển từ MENU sang PLAYING trên luồng mô phỏng).
     private final SpriteProvider sprites; // Nguồn cung cấp sprite (hình ảnh) cho các thành phần UI.
     private final HighScoreDisplay highScoreDisplay; // Màn hình hiển thị điểm cao (màn hình con).
     private final SettingsScreen settingsScreen; // Màn hình cài đặt (màn hình con).
@@ -92,19 +92,20 @@ public class MainMenu implements Screen {
     private String fontFamily; // Lưu tên font family để tái sử dụng
     /**
      * Constructor.
-     * @param stateManager StateManager để chuyển trạng thái game.
+     * @param audioManager AudioManager cho màn hình cài đặt.
      * @param sprites SpriteProvider để lấy tài nguyên hình ảnh.
      * @param parentPane Pane chứa canvas để thêm TextField.
+     * @param onStart Callback được gọi khi người dùng chọn START GAME.
      */
-    public MainMenu(StateManager stateManager, SpriteProvider sprites, Pane parentPane) {
-        this.stateManager = stateManager;
+    public MainMenu(AudioManager audioManager, SpriteProvider sprites, Pane parentPane, Runnable onStart) {
+        this.onStart = onStart;
         this.sprites = sprites;
         this.parentPane = parentPane;
         // Khởi tạo màn hình điểm cao.
         this.highScoreDisplay = new HighScoreDisplay(sprites);
 
         // Khởi tạo màn hình cài đặt, truyền callback onBackFromSettings để khi ESC sẽ quay lại menu chính.
-        this.settingsScreen = new SettingsScreen(stateManager.getAudioManager(), sprites, this::onBackFromSettings);
+        this.settingsScreen = new SettingsScreen(audioManager, sprites, this::onBackFromSettings);
 
         // Khởi tạo danh sách trống cho các thành phần UI.
         this.buttons = new ArrayList<>();
@@ -120,7 +121,7 @@ public class MainMenu implements Screen {
      */
     private void initializeComponents() {
         // Tải logo từ SpriteProvider
-        logo = sprites.get("logo.png");
+        logo = sprites.get(SpriteId.LOGO);
 
         // Tính toán vị trí center cho khối buttons
         double centerX = WINDOW_WIDTH / 2;
@@ -690,10 +691,10 @@ public class MainMenu implements Screen {
     // --- Button callbacks (Hành động khi nút được nhấn) ---
 
     /**
-     * Chuyển trạng thái game sang PLAYING để bắt đầu game mới.
+     * Bắt đầu game mới qua callback của ứng dụng (trạng thái game thuộc luồng mô phỏng).
      */
     private void onStartGame() {
-        stateManager.setState(GameState.PLAYING);
+        onStart.run();
     }
 
     /**
@@ -6,6 +6,7 @@ import UI.Screen;
 import UI.UIHelper;
 import Utils.AssetLoader;
 import Utils.Constants;
+import Utils.SpriteId;
 import Utils.SpriteProvider;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.image.Image;
@@ -56,7 +57,7 @@ public class SettingsScreen implements Screen {
         this.audioManager = audioManager;
         this.sprites = sprites;
         this.onBack = onBack;
-        this.logo = sprites.get("logo.png"); // Tải logo.
+        this.logo = sprites.get(SpriteId.LOGO); // Tải logo.
         initializeComponents(); // Khởi tạo các thành phần UI.
     }
 
@@ -1,10 +1,11 @@
 package UI.Screens;
 
-import Engine.HighScoreManager;
+import Engine.HighScoreRepository;
 import UI.Screen;
 import UI.UIHelper;
 import Utils.AssetLoader;
 import Utils.Constants;
+import Utils.SpriteId;
 import Utils.SpriteProvider;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.image.Image;
@@ -19,7 +20,7 @@ import javafx.scene.text.Font;
  */
 public class GameOverScreen implements Screen {
     private final SpriteProvider sprites; // Nguồn cung cấp sprite.
-    private final HighScoreManager highScoreManager; // Quản lý điểm cao.
+    private final HighScoreRepository highScoreRepository; // Kho điểm cao dùng chung.
     private Image logo; // Sprite logo game.
 
     // Font families
@@ -45,11 +46,11 @@ public class GameOverScreen implements Screen {
     /**
      * Constructor.
      * @param sprites SpriteProvider để lấy tài nguyên hình ảnh.
-     * @param highScoreManager HighScoreManager để kiểm tra điểm cao nhất.
+     * @param highScoreRepository HighScoreRepository để kiểm tra điểm cao nhất.
      */
-    public GameOverScreen(SpriteProvider sprites, HighScoreManager highScoreManager) {
+    public GameOverScreen(SpriteProvider sprites, HighScoreRepository highScoreRepository) {
         this.sprites = sprites;
-        this.highScoreManager = highScoreManager;
+        this.highScoreRepository = highScoreRepository;
         loadAssets(); // Tải tài nguyên.
     }
 
@@ -57,7 +58,7 @@ public class GameOverScreen implements Screen {
      * Tải các sprite cần thiết cho màn hình.
      */
     private void loadAssets() {
-        logo = sprites.get("logo.png");
+        logo = sprites.get(SpriteId.LOGO);
         try {
             // Chỉ load font một lần, lưu tên font family
             Font baseFontEmulogic = AssetLoader.loadFont("emulogic.ttf", 24);
@@ -84,9 +85,9 @@ public class GameOverScreen implements Screen {
         this.finalScore = score;
         this.roundReached = round;
         // Lấy điểm cao nhất hiện tại.
-        this.highScore = highScoreManager.getHighestScore();
+        this.highScore = highScoreRepository.getHighestScore();
         // Kiểm tra xem điểm cuối cùng có phải là high score mới không.
-        this.isNewHighScore = highScoreManager.isHighScore(score);
+        this.isNewHighScore = highScoreRepository.isHighScore(score);
     }
 
     /**
@@ -4,6 +4,7 @@ import UI.Screen;
 import UI.UIHelper;
 import Utils.AssetLoader;
 import Utils.Constants;
+import Utils.SpriteId;
 import Utils.SpriteProvider;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.image.Image;
@@ -50,7 +51,7 @@ public class PauseScreen implements Screen {
      * Tải các sprite cần thiết cho màn hình (chủ yếu là logo).
      */
     private void loadAssets() {
-        logo = sprites.get("logo.png");
+        logo = sprites.get(SpriteId.LOGO);
         try {
             // Chỉ load font một lần, lưu tên font family
             Font baseFontEmulogic = AssetLoader.loadFont("emulogic.ttf", 24);
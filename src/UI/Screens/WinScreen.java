@@ -1,10 +1,11 @@
 package UI.Screens;
 
-import Engine.HighScoreManager;
+import Engine.HighScoreRepository;
 import UI.Screen;
 import UI.UIHelper;
 import Utils.AssetLoader;
 import Utils.Constants;
+import Utils.SpriteId;
 import Utils.SpriteProvider;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.image.Image;
@@ -19,7 +20,7 @@ import javafx.scene.text.Font;
  */
 public class WinScreen implements Screen {
     private final SpriteProvider sprites; // Nguồn cung cấp sprite để tải hình ảnh.
-    private final HighScoreManager highScoreManager; // Quản lý điểm cao để lấy và kiểm tra high score.
+    private final HighScoreRepository highScoreRepository; // Quản lý điểm cao để lấy và kiểm tra high score.
     private Image logo; // Sprite logo game.
 
     // Font families
@@ -45,11 +46,11 @@ public class WinScreen implements Screen {
     /**
      * Constructor.
      * @param sprites SpriteProvider để lấy tài nguyên hình ảnh.
-     * @param highScoreManager HighScoreManager để kiểm tra high score.
+     * @param highScoreRepository HighScoreRepository để kiểm tra high score.
      */
-    public WinScreen(SpriteProvider sprites, HighScoreManager highScoreManager) {
+    public WinScreen(SpriteProvider sprites, HighScoreRepository highScoreRepository) {
         this.sprites = sprites;
-        this.highScoreManager = highScoreManager;
+        this.highScoreRepository = highScoreRepository;
         loadAssets(); // Tải tài nguyên cần thiết.
     }
 
@@ -57,7 +58,7 @@ public class WinScreen implements Screen {
      * Tải các sprite cần thiết cho màn hình (chủ yếu là logo).
      */
     private void loadAssets() {
-        logo = sprites.get("logo.png");
+        logo = sprites.get(SpriteId.LOGO);
         try {
             // Chỉ load font một lần, lưu tên font family
             Font baseFontEmulogic = AssetLoader.loadFont("emulogic.ttf", 24);
@@ -85,8 +86,8 @@ public class WinScreen implements Screen {
     public void setGameResult(int score, int rounds) {
         this.finalScore = score;
         this.totalRounds = rounds;
-        this.highScore = highScoreManager.getHighestScore(); // Lấy điểm cao nhất hiện tại từ manager.
-        this.isNewHighScore = highScoreManager.isHighScore(score); // Kiểm tra xem điểm mới có lọt vào top không.
+        this.highScore = highScoreRepository.getHighestScore(); // Lấy điểm cao nhất hiện tại từ manager.
+        this.isNewHighScore = highScoreRepository.isHighScore(score); // Kiểm tra xem điểm mới có lọt vào top không.
     }
 
     /**
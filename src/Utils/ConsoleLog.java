@@ -0,0 +1,67 @@
+package Utils;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+/**
+ * Công tắc duy nhất tắt log thường của game trong các chương trình chạy không
+ * giao diện (máy chủ, chạy thử tải, benchmark).
+ *
+ * <p>Log của game được in thẳng ra {@code System.out} từ nhiều lớp; với hàng
+ * trăm ván chạy song song thì quá nhiều và xen lẫn giữa các luồng.
+ * {@link #quiet(boolean)} thay {@code System.out} (và nếu cần {@code System.err})
+ * bằng luồng rỗng, rồi trả về stdout gốc để chương trình in báo cáo của riêng nó.
+ * {@link #restore()} trả lại các luồng gốc.</p>
+ *
+ * <p>Chạy với {@code -Darkanoid.log=true} để giữ nguyên log khi cần gỡ lỗi.</p>
+ */
+public final class ConsoleLog {
+    // Giữ log dù chương trình yêu cầu tắt
+    private static final boolean KEEP_LOG = Boolean.getBoolean("arkanoid.log");
+
+    private static PrintStream out; // stdout gốc khi đang tắt log (null nếu không)
+    private static PrintStream err; // stderr gốc khi đang tắt log
+
+    /**
+     * Constructor private để ngăn việc tạo instance của lớp tiện ích.
+     */
+    private ConsoleLog() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Tắt log thường của game. Gọi lại khi đang tắt chỉ trả về stdout gốc.
+     *
+     * @param errors {@code true} để tắt cả {@code System.err} (ví dụ khi lỗi
+     *               được giả lập có chủ ý).
+     * @return stdout gốc, dùng để in báo cáo.
+     */
+    public static synchronized PrintStream quiet(boolean errors) {
+        if (out != null) {
+            return out;
+        }
+        out = System.out;
+        err = System.err;
+        if (!KEEP_LOG) {
+            PrintStream silent = new PrintStream(OutputStream.nullOutputStream());
+            System.setOut(silent);
+            if (errors) {
+                System.setErr(silent);
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Trả lại {@code System.out} và {@code System.err} gốc.
+     */
+    public static synchronized void restore() {
+        if (out == null) {
+            return;
+        }
+        System.setOut(out);
+        System.setErr(err);
+        out = null;
+        err = null;
+    }
+}
@@ -24,6 +24,8 @@ public final class Constants {
         public static final int WINDOW_SIDE_OFFSET = 22; // Khoảng cách từ mép bên cửa sổ đến khu vực chơi (pixel)
         public static final String WINDOW_TITLE = "Arkanoid"; // Tiêu đề cửa sổ game
         public static final int FPS = 60; // Số khung hình trên một giây (Frames Per Second)
+        public static final boolean INTEGER_SCALING = true; // Làm tròn xuống tỉ lệ nguyên khi cửa sổ lớn hơn kích thước gốc
+        public static final int MAX_WINDOW_SCALE = 3; // Tỉ lệ lớn nhất khi đổi kích thước cửa sổ bằng phím F2
     }
 
     /**
@@ -48,6 +50,7 @@ public final class Constants {
         public static final int MAX_LIVES = 5; // Số mạng tối đa người chơi có thể giữ
         public static final int LIFE_LOST_PENALTY = 500; // Điểm trừ khi mất mạng
         public static final double POWERUP_SPAWN_CHANCE = 0.3; // Tỉ lệ (0.0 đến 1.0) rơi ra vật phẩm khi phá gạch
+        public static final int LEVEL_COMPLETE_TICKS = 2 * Window.FPS; // Thời gian hiển thị màn hình qua màn (tick), vòng kế tiếp được chuẩn bị trong lúc này
     }
 
     /**
@@ -86,6 +89,19 @@ public final class Constants {
         public static final double BRICK_START_Y = 100.0; // Vị trí Y bắt đầu của hàng gạch đầu tiên (pixel)
     }
 
+    /**
+     * Chứa các hằng số của chế độ level sinh ngẫu nhiên (ProceduralRound).
+     */
+    public static class Procedural {
+        public static final int MAX_COLUMNS = 200; // Số cột tối đa của lưới sinh ngẫu nhiên
+        public static final int MAX_ROWS = 120; // Số hàng tối đa của lưới sinh ngẫu nhiên
+        public static final int ROUND_COUNT = 4; // Số vòng của một ván ở chế độ sinh ngẫu nhiên
+        public static final int GAMEPLAY_COLUMNS = 17; // Kích thước lưới chế độ chơi (vừa khu vực chơi ở kích thước gạch gốc)
+        public static final int GAMEPLAY_ROWS = 9;
+        public static final double GAMEPLAY_FILL = 0.75; // Tỉ lệ ô có gạch ở chế độ chơi
+        public static final double MAX_FIELD_HEIGHT_RATIO = 0.5; // Lưới chiếm tối đa nửa trên khu vực chơi (phần còn lại cho bóng và thanh đỡ)
+    }
+
     /**
      * Chứa các hằng số liên quan đến vật phẩm bổ trợ (PowerUps).
      */
@@ -151,7 +167,20 @@ public final class Constants {
         public static final String GRAPHICS_PATH = RESOURCES_PATH + "Graphics/";
         public static final String AUDIO_PATH = RESOURCES_PATH + "Audio/";
         public static final String FONTS_PATH = RESOURCES_PATH + "Fonts/";
-        public static final String HIGHSCORE_FILE = "highscore.dat"; // Tên file lưu điểm cao
+        public static final String LEVELS_PATH = RESOURCES_PATH + "Levels/"; // Thư mục file level
+        public static final String LEVEL_INDEX_FILE = "levels.txt"; // Danh sách level theo thứ tự chơi
+        public static final String HIGHSCORE_FILE = "highscores.bin"; // Tên file nhị phân lưu bảng điểm cao
+        public static final String SAVEGAME_FILE = "savegame.bin"; // Tên file lưu nhanh ván đang chơi
+        public static final String REPLAY_FILE = "replay.bin"; // Tên file replay của ván gần nhất
+        public static final String ROUND_STATS_FILE = "round_stats.bin"; // Tên file số liệu vòng chơi (chỉ ghi thêm)
+    }
+
+    /**
+     * Chứa các hằng số liên quan đến việc ghi file nền (PersistenceService).
+     */
+    public static class Persistence {
+        public static final long WRITE_DEBOUNCE_MS = 250L; // Khoảng chờ gộp các lần ghi cùng file (ms)
+        public static final long FLUSH_TIMEOUT_MS = 2_000L; // Thời gian chờ tối đa khi flush lúc thoát (ms)
     }
 
     /**
@@ -6,7 +6,13 @@ import javafx.scene.control.Alert.AlertType;
 import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
 import java.nio.file.*;
+import java.util.Arrays;
 import java.util.List; // Thêm import List
 
 /**
@@ -14,6 +20,10 @@ import java.util.List; // Thêm import List
  * cấu hình và dữ liệu game (ví dụ: điểm cao, cài đặt âm thanh) một cách an toàn
  * và độc lập với hệ điều hành. Dữ liệu được lưu trong thư mục ẩn của ứng dụng
  * tại thư mục home của người dùng.
+ *
+ * <p>Các thao tác ghi ({@link #writeLinesToFile}, {@link #saveAudioSettings})
+ * không chặn: nội dung được giao cho {@link PersistenceService} để ghi nền, gộp
+ * các lần ghi liên tiếp. Các thao tác đọc thấy nội dung đang chờ ghi.</p>
  */
 public final class FileManager {
 
@@ -21,8 +31,6 @@ public final class FileManager {
     private static final String APP_DIR_NAME = ".arkanoid";
     // Đường dẫn đầy đủ đến thư mục ứng dụng (.arkanoid)
     private static final Path APP_DIR = Paths.get(System.getProperty("user.home"), APP_DIR_NAME);
-    // Đường dẫn đầy đủ đến file lưu điểm cao nhất.
-    private static final Path HIGHSCORE_FILE = APP_DIR.resolve(Constants.Paths.HIGHSCORE_FILE);
     // Tên file lưu cài đặt âm thanh.
     private static final String AUDIO_SETTINGS_FILE = "audio_settings.dat";
 
@@ -38,69 +46,6 @@ public final class FileManager {
         throw new UnsupportedOperationException("Utility class");
     }
 
-    /**
-     * Tải và trả về điểm cao nhất đã được lưu.
-     *
-     * @return Điểm cao nhất đã lưu, hoặc 0 nếu không tìm thấy file, file bị hỏng hoặc lỗi đọc.
-     */
-    public static int loadHighscore() {
-        // Đồng bộ hóa để đảm bảo chỉ có một luồng thực hiện việc đọc file tại một thời điểm.
-        synchronized (LOCK) {
-            try {
-                // Đảm bảo thư mục ứng dụng đã tồn tại.
-                ensureAppDirExists();
-                // Nếu file điểm cao chưa tồn tại, trả về 0.
-                if (!Files.exists(HIGHSCORE_FILE)) {
-                    return 0;
-                }
-                // Đọc toàn bộ nội dung file điểm cao dưới dạng chuỗi và loại bỏ khoảng trắng.
-                String s = Files.readString(HIGHSCORE_FILE).trim();
-                // Nếu file trống, trả về 0.
-                if (s.isEmpty()) {
-                    return 0;
-                }
-                try {
-                    // Chuyển chuỗi thành số nguyên.
-                    int v = Integer.parseInt(s);
-                    // Đảm bảo điểm không âm và trả về.
-                    return Math.max(0, v);
-                } catch (NumberFormatException ex) {
-                    // Xử lý lỗi nếu nội dung file không phải là số hợp lệ.
-                    System.err.println("Filemanager: highscore corrupt - returning default. (" + ex.getMessage() + ")");
-                    return 0;
-                }
-            } catch (IOException ex) {
-                // Xử lý lỗi I/O trong quá trình đọc file.
-                System.err.println("Filemanager: failed to read highscore - " + ex.getMessage());
-                return 0;
-            }
-        }
-    }
-
-    /**
-     * Lưu điểm số cao nhất mới vào file.
-     *
-     * @param score Điểm số cần lưu.
-     */
-    public static void saveHighscore(int score) {
-        // Đồng bộ hóa thao tác ghi file.
-        synchronized (LOCK) {
-            try {
-                // Đảm bảo thư mục ứng dụng đã tồn tại.
-                ensureAppDirExists();
-                // Chuẩn bị nội dung là điểm số (không âm) dưới dạng chuỗi.
-                String content = String.valueOf(Math.max(0, score));
-                // Ghi nội dung vào file điểm cao một cách nguyên tử (atomic).
-                writeFileAtomic(HIGHSCORE_FILE, content.getBytes());
-            } catch (IOException ex) {
-                // Xử lý lỗi I/O trong quá trình ghi file.
-                System.err.println("Filemanager: failed to save highscore - " + ex.getMessage());
-                // Hiển thị hộp thoại cảnh báo cho người dùng về lỗi ghi file.
-                showWriteErrorDialog("Lưu điểm cao nhất thất bại:\n" + ex.getMessage());
-            }
-        }
-    }
-
     /**
      * Đảm bảo rằng thư mục ứng dụng đã tồn tại. Nếu chưa, tạo thư mục.
      *
@@ -171,6 +116,238 @@ public final class FileManager {
         }
     }
 
+    /**
+     * Ghi ngay nội dung vào một file trong thư mục ứng dụng (nguyên tử, đồng bộ).
+     * Chỉ được gọi từ luồng nền của {@link PersistenceService} (trực tiếp hoặc
+     * trong một tác vụ đã {@link PersistenceService#submit(Runnable)}).
+     *
+     * @param filename Tên file cần ghi.
+     * @param data Nội dung cần ghi.
+     */
+    public static void writeFileNow(String filename, byte[] data) {
+        // Đồng bộ hóa thao tác ghi file.
+        synchronized (LOCK) {
+            try {
+                // Đảm bảo thư mục ứng dụng đã tồn tại.
+                ensureAppDirExists();
+                // Ghi nội dung vào file một cách nguyên tử.
+                writeFileAtomic(APP_DIR.resolve(filename), data);
+            } catch (IOException ex) {
+                // Xử lý lỗi I/O trong quá trình ghi file.
+                System.err.println("FileManager: failed to write file " + filename + " - " + ex.getMessage());
+                // Hiển thị hộp thoại cảnh báo.
+                showWriteErrorDialog("Lưu file thất bại:\n" + ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Ghi dữ liệu vào một vị trí cố định của file trong thư mục ứng dụng (tạo
+     * file nếu chưa có), không đụng tới phần còn lại của file.
+     * Chỉ được gọi từ luồng nền của {@link PersistenceService}.
+     *
+     * @param filename Tên file cần ghi.
+     * @param position Vị trí byte bắt đầu ghi.
+     * @param data Dữ liệu cần ghi (từ vị trí hiện tại tới limit).
+     */
+    public static void writeAtNow(String filename, long position, ByteBuffer data) {
+        // Đồng bộ hóa thao tác ghi file.
+        synchronized (LOCK) {
+            try {
+                // Đảm bảo thư mục ứng dụng đã tồn tại.
+                ensureAppDirExists();
+                try (FileChannel channel = FileChannel.open(APP_DIR.resolve(filename),
+                        StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                    long offset = position;
+                    while (data.hasRemaining()) {
+                        offset += channel.write(data, offset);
+                    }
+                }
+            } catch (IOException ex) {
+                // Xử lý lỗi I/O trong quá trình ghi file.
+                System.err.println("FileManager: failed to write file " + filename + " - " + ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Map toàn bộ một file trong thư mục ứng dụng vào bộ nhớ để đọc.
+     *
+     * @param filename Tên file cần đọc.
+     * @return Buffer chỉ đọc (little-endian), hoặc {@code null} nếu file không tồn tại, rỗng hoặc lỗi đọc.
+     */
+    public static MappedByteBuffer mapFileForRead(String filename) {
+        // Đồng bộ hóa thao tác đọc file.
+        synchronized (LOCK) {
+            Path filePath = APP_DIR.resolve(filename);
+            if (!Files.exists(filePath)) {
+                return null;
+            }
+            // Vùng map vẫn dùng được sau khi đóng channel.
+            try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+                long size = channel.size();
+                if (size == 0) {
+                    return null;
+                }
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                buffer.order(ByteOrder.LITTLE_ENDIAN);
+                return buffer;
+            } catch (IOException ex) {
+                // Xử lý lỗi I/O.
+                System.err.println("FileManager: failed to map file " + filename + " - " + ex.getMessage());
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Map một đoạn của file trong thư mục ứng dụng vào bộ nhớ để đọc (dùng cho
+     * file có thể lớn hơn 2 GB, chỉ cần đọc một phần).
+     *
+     * @param filename Tên file cần đọc.
+     * @param position Vị trí byte bắt đầu.
+     * @param size Số byte tối đa cần map (bị cắt ở cuối file).
+     * @return Buffer chỉ đọc (little-endian), hoặc {@code null} nếu file không tồn tại, đoạn rỗng hoặc lỗi đọc.
+     */
+    public static MappedByteBuffer mapFileForRead(String filename, long position, long size) {
+        // Đồng bộ hóa thao tác đọc file.
+        synchronized (LOCK) {
+            Path filePath = APP_DIR.resolve(filename);
+            if (!Files.exists(filePath)) {
+                return null;
+            }
+            try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+                long length = Math.min(size, channel.size() - position);
+                if (length <= 0) {
+                    return null;
+                }
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                buffer.order(ByteOrder.LITTLE_ENDIAN);
+                return buffer;
+            } catch (IOException ex) {
+                // Xử lý lỗi I/O.
+                System.err.println("FileManager: failed to map file " + filename + " - " + ex.getMessage());
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Đọc một đoạn của file trong thư mục ứng dụng vào bộ nhớ heap bằng
+     * {@link FileChannel#read}. Khác với {@link #mapFileForRead}, không để lại
+     * vùng map nào, nên file có thể bị thay thế ngay sau đó (trên Windows, file
+     * đang được map không thay thế được).
+     *
+     * @param filename Tên file cần đọc.
+     * @param position Vị trí byte bắt đầu.
+     * @param size Số byte tối đa cần đọc (bị cắt ở cuối file).
+     * @return Buffer little-endian (vị trí 0, limit là số byte đã đọc), hoặc
+     *         {@code null} nếu file không tồn tại, trống hoặc lỗi đọc.
+     */
+    public static ByteBuffer readRangeFromFile(String filename, long position, int size) {
+        // Đồng bộ hóa thao tác đọc file.
+        synchronized (LOCK) {
+            Path filePath = APP_DIR.resolve(filename);
+            if (!Files.exists(filePath)) {
+                return null;
+            }
+            try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+                long length = Math.min(size, channel.size() - position);
+                if (length <= 0) {
+                    return null;
+                }
+                ByteBuffer buffer = ByteBuffer.allocate((int) length).order(ByteOrder.LITTLE_ENDIAN);
+                while (buffer.hasRemaining() && channel.read(buffer, position + buffer.position()) >= 0) {
+                    // Đọc tới khi đủ hoặc hết file
+                }
+                return buffer.flip();
+            } catch (IOException ex) {
+                // Xử lý lỗi I/O.
+                System.err.println("FileManager: failed to read file " + filename + " - " + ex.getMessage());
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Lấy kích thước của một file trong thư mục ứng dụng.
+     *
+     * @param filename Tên file.
+     * @return Kích thước (byte), hoặc -1 nếu file không tồn tại hoặc lỗi đọc.
+     */
+    public static long fileSize(String filename) {
+        // Đồng bộ hóa thao tác đọc file.
+        synchronized (LOCK) {
+            try {
+                Path filePath = APP_DIR.resolve(filename);
+                return Files.exists(filePath) ? Files.size(filePath) : -1;
+            } catch (IOException ex) {
+                System.err.println("FileManager: failed to stat file " + filename + " - " + ex.getMessage());
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * Lấy đường dẫn đầy đủ của một file trong thư mục ứng dụng (cho công cụ đọc
+     * file ngoài tiến trình game, ví dụ bộ tổng hợp số liệu).
+     *
+     * @param filename Tên file.
+     * @return Đường dẫn tuyệt đối.
+     */
+    public static Path resolve(String filename) {
+        return APP_DIR.resolve(filename);
+    }
+
+    /**
+     * Đổi tên một file trong thư mục ứng dụng (ghi đè file đích nếu có).
+     * Chỉ được gọi từ luồng nền của {@link PersistenceService}.
+     *
+     * @param from Tên file nguồn.
+     * @param to Tên file đích.
+     */
+    public static void moveFileNow(String from, String to) {
+        // Đồng bộ hóa thao tác ghi file.
+        synchronized (LOCK) {
+            try {
+                Files.move(APP_DIR.resolve(from), APP_DIR.resolve(to), StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException ex) {
+                System.err.println("FileManager: failed to move file " + from + " - " + ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Xóa một file trong thư mục ứng dụng nếu tồn tại.
+     * Chỉ được gọi từ luồng nền của {@link PersistenceService}.
+     *
+     * @param filename Tên file cần xóa.
+     */
+    public static void deleteFileNow(String filename) {
+        // Đồng bộ hóa thao tác ghi file.
+        synchronized (LOCK) {
+            try {
+                Files.deleteIfExists(APP_DIR.resolve(filename));
+            } catch (IOException ex) {
+                System.err.println("FileManager: failed to delete file " + filename + " - " + ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Lấy nội dung đang chờ ghi của một file dưới dạng các dòng.
+     *
+     * @param filename Tên file.
+     * @return Các dòng đang chờ ghi, hoặc {@code null} nếu không có.
+     */
+    private static List<String> pendingLines(String filename) {
+        byte[] data = PersistenceService.getInstance().getPending(filename);
+        if (data == null) {
+            return null;
+        }
+        return Arrays.asList(new String(data, Charset.defaultCharset()).split("\\R"));
+    }
+
     /**
      * Đọc tất cả các dòng từ một file cấu hình nằm trong thư mục ứng dụng.
      *
@@ -178,6 +355,12 @@ public final class FileManager {
      * @return Một {@link List} chứa các dòng đã đọc, hoặc {@code null} nếu file không tồn tại hoặc lỗi đọc.
      */
     public static List<String> readLinesFromFile(String filename) {
+        // Ưu tiên nội dung mới nhất chưa kịp ghi xuống đĩa.
+        List<String> pendingLines = pendingLines(filename);
+        if (pendingLines != null) {
+            return pendingLines;
+        }
+
         // Đồng bộ hóa thao tác đọc file.
         synchronized (LOCK) {
             try {
@@ -202,37 +385,53 @@ public final class FileManager {
     }
 
     /**
-     * Ghi một danh sách các dòng vào file cấu hình trong thư mục ứng dụng.
+     * Đọc toàn bộ nội dung nhị phân của một file trong thư mục ứng dụng.
+     * Nội dung đang chờ ghi (nếu có) được ưu tiên.
      *
-     * @param filename Tên file cần ghi.
-     * @param lines Danh sách các chuỗi (dòng) cần ghi vào file.
+     * @param filename Tên file cần đọc.
+     * @return Nội dung file, hoặc {@code null} nếu file không tồn tại hoặc lỗi đọc.
      */
-    public static void writeLinesToFile(String filename, List<String> lines) {
-        // Đồng bộ hóa thao tác ghi file.
+    public static byte[] readBytesFromFile(String filename) {
+        // Ưu tiên nội dung mới nhất chưa kịp ghi xuống đĩa.
+        byte[] pending = PersistenceService.getInstance().getPending(filename);
+        if (pending != null) {
+            return pending;
+        }
+
+        // Đồng bộ hóa thao tác đọc file.
         synchronized (LOCK) {
+            Path filePath = APP_DIR.resolve(filename);
+            if (!Files.exists(filePath)) {
+                return null;
+            }
             try {
-                // Đảm bảo thư mục ứng dụng đã tồn tại.
-                ensureAppDirExists();
-                // Xây dựng đường dẫn đầy đủ đến file.
-                Path filePath = APP_DIR.resolve(filename);
-
-                // Tạo content từ lines, thêm dấu ngắt dòng cho mỗi dòng.
-                StringBuilder sb = new StringBuilder();
-                for (String line : lines) {
-                    sb.append(line).append(System.lineSeparator());
-                }
-
-                // Ghi nội dung vào file một cách nguyên tử.
-                writeFileAtomic(filePath, sb.toString().getBytes());
+                return Files.readAllBytes(filePath);
             } catch (IOException ex) {
-                // Xử lý lỗi I/O trong quá trình ghi file.
-                System.err.println("FileManager: failed to write file " + filename + " - " + ex.getMessage());
-                // Hiển thị hộp thoại cảnh báo.
-                showWriteErrorDialog("Lưu file thất bại:\n" + ex.getMessage());
+                // Xử lý lỗi I/O.
+                System.err.println("FileManager: failed to read file " + filename + " - " + ex.getMessage());
+                return null;
             }
         }
     }
 
+    /**
+     * Ghi một danh sách các dòng vào file cấu hình trong thư mục ứng dụng.
+     * Không chặn: việc ghi được giao cho {@link PersistenceService}.
+     *
+     * @param filename Tên file cần ghi.
+     * @param lines Danh sách các chuỗi (dòng) cần ghi vào file.
+     */
+    public static void writeLinesToFile(String filename, List<String> lines) {
+        // Tạo content từ lines, thêm dấu ngắt dòng cho mỗi dòng.
+        StringBuilder sb = new StringBuilder();
+        for (String line : lines) {
+            sb.append(line).append(System.lineSeparator());
+        }
+
+        // Giao cho luồng nền; lần ghi mới hơn của cùng file sẽ thay thế nội dung này.
+        PersistenceService.getInstance().write(filename, sb.toString().getBytes());
+    }
+
     /**
      * Tải cài đặt âm thanh (âm lượng và trạng thái tắt tiếng) từ file cấu hình.
      *
@@ -247,13 +446,16 @@ public final class FileManager {
                 ensureAppDirExists();
                 Path audioFile = APP_DIR.resolve(AUDIO_SETTINGS_FILE);
 
-                // Nếu file không tồn tại, trả về null.
-                if (!Files.exists(audioFile)) {
-                    return null;
+                // Ưu tiên nội dung đang chờ ghi, sau đó mới đọc file.
+                List<String> lines = pendingLines(AUDIO_SETTINGS_FILE);
+                if (lines == null) {
+                    // Nếu file không tồn tại, trả về null.
+                    if (!Files.exists(audioFile)) {
+                        return null;
+                    }
+                    // Đọc tất cả các dòng.
+                    lines = Files.readAllLines(audioFile);
                 }
-
-                // Đọc tất cả các dòng.
-                List<String> lines = Files.readAllLines(audioFile);
                 // Kiểm tra định dạng: phải có ít nhất 2 dòng (volume và muted).
                 if (lines.size() < 2) {
                     return null;
@@ -276,29 +478,18 @@ public final class FileManager {
 
     /**
      * Lưu cài đặt âm thanh (âm lượng và trạng thái tắt tiếng) vào file cấu hình.
+     * Không chặn: khi kéo thanh âm lượng, các lần lưu liên tiếp được gộp thành một lần ghi.
      *
      * @param volume Âm lượng cần lưu (0.0 đến 1.0).
      * @param isMuted Trạng thái tắt tiếng (true/false).
      */
     public static void saveAudioSettings(double volume, boolean isMuted) {
-        // Đồng bộ hóa thao tác ghi file.
-        synchronized (LOCK) {
-            try {
-                // Đảm bảo thư mục ứng dụng đã tồn tại.
-                ensureAppDirExists();
-                Path audioFile = APP_DIR.resolve(AUDIO_SETTINGS_FILE);
-
-                // Chuẩn bị nội dung để ghi: volume ở dòng 1, isMuted ở dòng 2.
-                StringBuilder sb = new StringBuilder();
-                sb.append(volume).append(System.lineSeparator());
-                sb.append(isMuted).append(System.lineSeparator());
+        // Chuẩn bị nội dung để ghi: volume ở dòng 1, isMuted ở dòng 2.
+        StringBuilder sb = new StringBuilder();
+        sb.append(volume).append(System.lineSeparator());
+        sb.append(isMuted).append(System.lineSeparator());
 
-                // Ghi nội dung vào file một cách nguyên tử.
-                writeFileAtomic(audioFile, sb.toString().getBytes());
-            } catch (IOException ex) {
-                // Xử lý lỗi I/O trong quá trình ghi file. (Không hiển thị dialog vì đây là cài đặt nền).
-                System.err.println("FileManager: failed to save audio settings - " + ex.getMessage());
-            }
-        }
+        // Giao cho luồng nền ghi sau khoảng chờ; chỉ giá trị cuối cùng được ghi.
+        PersistenceService.getInstance().write(AUDIO_SETTINGS_FILE, sb.toString().getBytes());
     }
 }
\ No newline at end of file
@@ -0,0 +1,183 @@
+package Utils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Dịch vụ ghi file nền (write-behind) cho dữ liệu trong thư mục ứng dụng.
+ *
+ * <p>Mỗi yêu cầu ghi chỉ thay nội dung đang chờ của file đó (giá trị mới nhất
+ * thắng) rồi trả về ngay. Một luồng nền duy nhất ghi file sau một khoảng chờ
+ * (debounce); mọi yêu cầu đến trong khoảng chờ được gộp thành một lần ghi. Vì
+ * vậy luồng FX không bao giờ phải chờ đĩa, kể cả khi người dùng kéo thanh âm lượng.</p>
+ *
+ * <p>{@link #flush()} ghi ngay mọi nội dung đang chờ và phải được gọi khi ứng
+ * dụng kết thúc ({@code Application.stop()}).</p>
+ */
+public final class PersistenceService {
+    private static PersistenceService instance; // Instance Singleton.
+
+    // Nội dung đang chờ ghi theo tên file (chỉ giữ bản mới nhất)
+    private final Map<String, byte[]> pending = new ConcurrentHashMap<>();
+    // Luồng nền duy nhất thực hiện việc ghi
+    private final ScheduledExecutorService executor;
+
+    // Thống kê: số yêu cầu ghi và số lần ghi thật xuống đĩa
+    private final AtomicLong requestedWrites = new AtomicLong();
+    private final AtomicLong performedWrites = new AtomicLong();
+
+    /**
+     * Constructor private để đảm bảo chỉ có thể truy cập qua {@link #getInstance()}.
+     */
+    private PersistenceService() {
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "Persistence");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Lấy instance duy nhất của PersistenceService.
+     *
+     * @return Instance của PersistenceService.
+     */
+    public static synchronized PersistenceService getInstance() {
+        if (instance == null) {
+            instance = new PersistenceService();
+        }
+        return instance;
+    }
+
+    /**
+     * Yêu cầu ghi nội dung vào một file trong thư mục ứng dụng, với khoảng chờ mặc định.
+     *
+     * @param filename Tên file.
+     * @param data Nội dung cần ghi (không được sửa sau khi gọi).
+     */
+    public void write(String filename, byte[] data) {
+        write(filename, data, Constants.Persistence.WRITE_DEBOUNCE_MS);
+    }
+
+    /**
+     * Yêu cầu ghi nội dung vào một file trong thư mục ứng dụng. Nếu file đã có
+     * nội dung đang chờ, nội dung đó bị thay thế và không lên lịch ghi thêm.
+     *
+     * @param filename Tên file.
+     * @param data Nội dung cần ghi (không được sửa sau khi gọi).
+     * @param debounceMillis Khoảng chờ trước khi ghi (ms).
+     */
+    public void write(String filename, byte[] data, long debounceMillis) {
+        requestedWrites.incrementAndGet();
+        // Chỉ lên lịch khi chưa có bản chờ: các yêu cầu sau chỉ thay nội dung
+        if (pending.put(filename, data) == null) {
+            try {
+                executor.schedule(() -> writePending(filename), debounceMillis, TimeUnit.MILLISECONDS);
+            } catch (RuntimeException e) {
+                // Executor đã dừng (ứng dụng đang thoát): ghi đồng bộ để không mất dữ liệu
+                System.err.println("PersistenceService: Executor unavailable, writing " + filename + " synchronously");
+                writePending(filename);
+            }
+        }
+    }
+
+    /**
+     * Chạy một tác vụ trên luồng nền, theo thứ tự với các lần ghi khác
+     * (ví dụ gộp log vào snapshot).
+     *
+     * @param task Tác vụ cần chạy.
+     */
+    public void submit(Runnable task) {
+        Runnable guarded = () -> {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                System.err.println("PersistenceService: Task failed: " + e.getMessage());
+                e.printStackTrace();
+            }
+        };
+        try {
+            executor.execute(guarded);
+        } catch (RuntimeException e) {
+            // Executor đã dừng (ứng dụng đang thoát): chạy đồng bộ
+            guarded.run();
+        }
+    }
+
+    /**
+     * Lấy nội dung đang chờ ghi của một file (để đọc thấy dữ liệu mới nhất).
+     *
+     * @param filename Tên file.
+     * @return Nội dung đang chờ, hoặc {@code null} nếu không có.
+     */
+    public byte[] getPending(String filename) {
+        return pending.get(filename);
+    }
+
+    /**
+     * Ghi nội dung đang chờ của một file, nếu còn.
+     *
+     * @param filename Tên file.
+     */
+    private void writePending(String filename) {
+        byte[] data = pending.remove(filename);
+        if (data == null) {
+            return; // Đã được flush trước đó.
+        }
+        FileManager.writeFileNow(filename, data);
+        performedWrites.incrementAndGet();
+    }
+
+    /**
+     * Ghi ngay mọi nội dung đang chờ trên luồng nền và chờ hoàn tất (có giới hạn thời gian).
+     */
+    public void flush() {
+        try {
+            Future<?> done = executor.submit(() -> {
+                for (String filename : pending.keySet()) {
+                    writePending(filename);
+                }
+            });
+            done.get(Constants.Persistence.FLUSH_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            // Luồng nền không phản hồi: ghi nốt trên luồng hiện tại
+            System.err.println("PersistenceService: Flush failed (" + e.getMessage() + "), writing synchronously");
+            for (String filename : pending.keySet()) {
+                writePending(filename);
+            }
+        }
+        System.out.println("PersistenceService: Flushed (" + performedWrites.get() + " writes for "
+                + requestedWrites.get() + " requests)");
+    }
+
+    /**
+     * Ghi mọi nội dung đang chờ rồi dừng luồng nền.
+     */
+    public void shutdown() {
+        flush();
+        executor.shutdown();
+    }
+
+    /**
+     * Lấy số yêu cầu ghi đã nhận.
+     *
+     * @return Số yêu cầu.
+     */
+    public long getRequestedWrites() {
+        return requestedWrites.get();
+    }
+
+    /**
+     * Lấy số lần ghi thật xuống đĩa.
+     *
+     * @return Số lần ghi.
+     */
+    public long getPerformedWrites() {
+        return performedWrites.get();
+    }
+}
@@ -1,11 +1,17 @@
 package Utils;
 
 import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.PixelReader;
+import javafx.scene.image.WritableImage;
 import Objects.Bricks.BrickType;
 import Objects.PowerUps.PowerUpType;
 import Objects.GameEntities.PaddleState;
+import Render.FrameTable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -36,6 +42,15 @@ public final class SpriteCache {
     private final List<Image> paddlePulsateCache = new ArrayList<>(); // Animation Paddle PULSATE
     private final List<Image> paddleMaterializeCache = new ArrayList<>(); // Animation Paddle MATERIALIZE (xuất hiện)
     private final List<Image> paddleExplodeCache = new ArrayList<>(); // Animation Paddle EXPLODE (nổ)
+    // Các bảng tra cứu theo ordinal của enum, được dựng một lần sau khi tải xong.
+    private final Image[] spriteTable = new Image[SpriteId.values().length]; // Sprite tĩnh dùng chung
+    private final Image[] brickTable = new Image[BrickType.values().length]; // Sprite gạch theo BrickType
+    private final Image[] paddleTable = new Image[PaddleState.values().length]; // Sprite tĩnh paddle theo PaddleState
+    private final Image[][] frameTables = new Image[FrameTable.values().length][]; // Khung hình animation theo FrameTable
+    // Bản sao đã phóng to sẵn (nearest-neighbour) của mọi sprite theo tỉ lệ hiện tại, tra theo danh tính ảnh gốc.
+    private final Map<Image, Image> scaledCache = new IdentityHashMap<>();
+    private double scale = 0; // Tỉ lệ của scaledCache (0 = chưa tạo).
+    private long scaledBytes = 0; // Bộ nhớ ước tính của các bản sao đã phóng to (byte, 4 byte/pixel).
     private boolean initialized = false; // Cờ kiểm tra xem cache đã được khởi tạo chưa.
     private int totalSprites = 0; // Tổng số sprite/khung hình đã tải.
 
@@ -83,6 +98,9 @@ public final class SpriteCache {
         loadEdgeSprites();
         loadLogoSprite();
 
+        // Dựng các bảng tra cứu theo enum để vòng lặp render không phải tra HashMap.
+        buildLookupTables();
+
         // Tính tổng số sprite đã tải (bao gồm cả sprite tĩnh và các khung hình animation).
         totalSprites = cache.size()
                 + silverCrackCache.size()
@@ -127,6 +145,13 @@ public final class SpriteCache {
         paddlePulsateCache.clear();
         paddleMaterializeCache.clear();
         paddleExplodeCache.clear();
+        Arrays.fill(spriteTable, null);
+        Arrays.fill(brickTable, null);
+        Arrays.fill(paddleTable, null);
+        Arrays.fill(frameTables, null);
+        scaledCache.clear();
+        scale = 0;
+        scaledBytes = 0;
         totalSprites = 0; // Đặt lại tổng số sprite.
         initialized = false; // Đặt lại cờ khởi tạo.
         System.out.println("SpriteCache: Cleared all cached sprites.");
@@ -205,7 +230,7 @@ public final class SpriteCache {
         cache.put(lifePath, lifeImg);
 
         // Tải sprite cho trạng thái mở rộng (Wide).
-        String widePath = PaddleState.NORMAL.getPaddlePrefix() + "_wide" + ".png";
+        String widePath = PaddleState.WIDE.getPaddlePrefix() + ".png";
         Image wideImg = AssetLoader.loadImage(widePath);
         cache.put(widePath, wideImg);
 
@@ -282,6 +307,274 @@ public final class SpriteCache {
         cache.put(filename, img);
     }
 
+    /**
+     * Dựng các bảng tra cứu theo ordinal của {@link SpriteId}, {@link BrickType}
+     * và {@link PaddleState} từ cache đã tải. Chỉ được gọi một lần trong
+     * {@link #initialize()}.
+     */
+    private void buildLookupTables() {
+        for (SpriteId id : SpriteId.values()) {
+            spriteTable[id.ordinal()] = cache.get(id.getFilename());
+        }
+
+        for (BrickType type : BrickType.values()) {
+            brickTable[type.ordinal()] = cache.get(type.getSpriteName() + ".png");
+        }
+
+        // Sprite tĩnh của paddle cho từng trạng thái (dùng khi không có animation đang chạy).
+        Image normal = cache.get(PaddleState.NORMAL.getPaddlePrefix() + ".png");
+        Image wide = cache.get(PaddleState.WIDE.getPaddlePrefix() + ".png");
+        Image laser = cache.get(PaddleState.LASER.getPaddlePrefix() + ".png");
+        for (PaddleState state : PaddleState.values()) {
+            paddleTable[state.ordinal()] = switch (state) {
+                case WIDE, WIDE_PULSATE -> wide;
+                case LASER, LASER_PULSATE -> laser;
+                default -> normal;
+            };
+        }
+
+        // Bảng khung hình animation dùng chung, tra theo ordinal của FrameTable.
+        frameTables[FrameTable.SILVER_CRACK.ordinal()] = silverCrackCache.toArray(new Image[0]);
+        for (PowerUpType type : PowerUpType.values()) {
+            frameTables[FrameTable.forPowerUp(type).ordinal()] = framesOf(type).toArray(new Image[0]);
+        }
+        for (PaddleState state : PaddleState.values()) {
+            if (state != PaddleState.NORMAL) {
+                frameTables[FrameTable.forPaddle(state).ordinal()] = framesOf(state).toArray(new Image[0]);
+            }
+        }
+    }
+
+    /**
+     * Tạo lại bản sao phóng to sẵn của mọi sprite cho một tỉ lệ hiển thị.
+     * Gạch và vết nứt được đưa về đúng kích thước vẽ ({@link Constants.Bricks})
+     * nhân tỉ lệ; các sprite khác giữ kích thước gốc nhân tỉ lệ. Sau đó mọi lệnh
+     * vẽ đều là blit 1:1, không lấy mẫu lại mỗi khung hình.
+     * Không làm gì nếu tỉ lệ không đổi.
+     *
+     * @param newScale Tỉ lệ hiển thị (1.0 = 600x800).
+     */
+    public synchronized void rescale(double newScale) {
+        if (!initialized || newScale <= 0 || newScale == scale) {
+            return;
+        }
+
+        long startTime = System.currentTimeMillis();
+        scaledCache.clear();
+        scaledBytes = 0;
+
+        // Gạch: đưa về kích thước vẽ thực tế (sprite gốc 43x21 được vẽ thành 32x21).
+        int brickW = (int) Math.round(Constants.Bricks.BRICK_WIDTH * newScale);
+        int brickH = (int) Math.round(Constants.Bricks.BRICK_HEIGHT * newScale);
+        for (Image img : brickTable) {
+            addScaled(img, brickW, brickH);
+        }
+        for (Image img : silverCrackCache) {
+            addScaled(img, brickW, brickH);
+        }
+
+        // Các sprite còn lại: kích thước gốc nhân tỉ lệ.
+        for (Image img : cache.values()) {
+            addNatural(img, newScale);
+        }
+        for (PowerUpType type : PowerUpType.values()) {
+            for (Image img : framesOf(type)) {
+                addNatural(img, newScale);
+            }
+        }
+        for (PaddleState state : PaddleState.values()) {
+            if (state == PaddleState.NORMAL) {
+                continue;
+            }
+            for (Image img : framesOf(state)) {
+                addNatural(img, newScale);
+            }
+        }
+
+        scale = newScale;
+        long elapsed = System.currentTimeMillis() - startTime;
+        System.out.printf("SpriteCache: Pre-scaled %d sprites to %.2fx (%.1f KB) in %d ms%n",
+                scaledCache.size(), newScale, scaledBytes / 1024.0, elapsed);
+    }
+
+    /**
+     * Thêm bản sao phóng to theo tỉ lệ của một sprite (nếu chưa có).
+     *
+     * @param img Ảnh gốc.
+     * @param factor Tỉ lệ.
+     */
+    private void addNatural(Image img, double factor) {
+        if (img == null || scaledCache.containsKey(img)) {
+            return;
+        }
+        addScaled(img, (int) Math.round(img.getWidth() * factor), (int) Math.round(img.getHeight() * factor));
+    }
+
+    /**
+     * Thêm bản sao của một sprite với kích thước đích chỉ định.
+     *
+     * @param img Ảnh gốc.
+     * @param width Chiều rộng đích.
+     * @param height Chiều cao đích.
+     */
+    private void addScaled(Image img, int width, int height) {
+        if (img == null || scaledCache.containsKey(img)) {
+            return;
+        }
+        Image scaled = scaleNearest(img, Math.max(1, width), Math.max(1, height));
+        scaledCache.put(img, scaled);
+        scaledBytes += (long) scaled.getWidth() * (long) scaled.getHeight() * 4L;
+    }
+
+    /**
+     * Phóng to/thu nhỏ một ảnh bằng nội suy láng giềng gần nhất (giữ nét pixel art).
+     *
+     * @param src Ảnh gốc.
+     * @param width Chiều rộng đích.
+     * @param height Chiều cao đích.
+     * @return Ảnh mới với kích thước đích, hoặc chính ảnh gốc nếu không đọc được pixel.
+     */
+    private static Image scaleNearest(Image src, int width, int height) {
+        int srcW = (int) src.getWidth();
+        int srcH = (int) src.getHeight();
+        PixelReader reader = src.getPixelReader();
+        if (reader == null || srcW == 0 || srcH == 0) {
+            return src;
+        }
+        if (srcW == width && srcH == height) {
+            return src;
+        }
+
+        int[] srcPixels = new int[srcW * srcH];
+        reader.getPixels(0, 0, srcW, srcH, PixelFormat.getIntArgbInstance(), srcPixels, 0, srcW);
+
+        int[] dstPixels = new int[width * height];
+        for (int y = 0; y < height; y++) {
+            int sy = Math.min(srcH - 1, (int) ((long) y * srcH / height));
+            int srcRow = sy * srcW;
+            int dstRow = y * width;
+            for (int x = 0; x < width; x++) {
+                int sx = Math.min(srcW - 1, (int) ((long) x * srcW / width));
+                dstPixels[dstRow + x] = srcPixels[srcRow + sx];
+            }
+        }
+
+        WritableImage dst = new WritableImage(width, height);
+        dst.getPixelWriter().setPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), dstPixels, 0, width);
+        return dst;
+    }
+
+    /**
+     * Lấy bản sao đã phóng to sẵn của một sprite theo tỉ lệ hiện tại.
+     *
+     * @param original Ảnh gốc lấy từ cache.
+     * @return Bản sao đã phóng to, hoặc chính ảnh gốc nếu chưa có bản sao.
+     */
+    public synchronized Image getScaled(Image original) {
+        Image scaled = scaledCache.get(original);
+        return scaled != null ? scaled : original;
+    }
+
+    /**
+     * Lấy tỉ lệ của các bản sao đã phóng to.
+     *
+     * @return Tỉ lệ hiện tại, 0 nếu chưa gọi {@link #rescale(double)}.
+     */
+    public synchronized double getScale() {
+        return scale;
+    }
+
+    /**
+     * Lấy bộ nhớ ước tính (4 byte/pixel) của các bản sao đã phóng to.
+     *
+     * @return Số byte.
+     */
+    public synchronized long getScaledMemoryBytes() {
+        return scaledBytes;
+    }
+
+    /**
+     * Lấy danh sách khung hình của một loại PowerUp.
+     *
+     * @param type Loại PowerUp.
+     * @return List các khung hình.
+     */
+    private List<Image> framesOf(PowerUpType type) {
+        return switch (type) {
+            case CATCH -> powerUpCatchCache;
+            case EXPAND -> powerUpExpandCache;
+            case LASER -> powerUpLaserCache;
+            case DUPLICATE -> powerUpDuplicateCache;
+            case SLOW -> powerUpSlowCache;
+            case LIFE -> powerUPLifeCache;
+            case WARP -> powerUpWarpCache;
+        };
+    }
+
+    /**
+     * Lấy danh sách khung hình của một trạng thái Paddle (khác NORMAL).
+     *
+     * @param state Trạng thái Paddle.
+     * @return List các khung hình.
+     */
+    private List<Image> framesOf(PaddleState state) {
+        return switch (state) {
+            case NORMAL -> throw new IllegalStateException("NORMAL state should use static image.");
+            case WIDE -> paddleWideCache;
+            case WIDE_PULSATE -> paddleWidePulsateCache;
+            case LASER -> paddleLaserCache;
+            case LASER_PULSATE -> paddleLaserPulsateCache;
+            case PULSATE -> paddlePulsateCache;
+            case MATERIALIZE -> paddleMaterializeCache;
+            case EXPLODE -> paddleExplodeCache;
+        };
+    }
+
+    /**
+     * Lấy một sprite tĩnh dùng chung theo {@link SpriteId}.
+     *
+     * @param id Định danh sprite.
+     * @return Đối tượng {@link Image} tương ứng.
+     */
+    public Image getSprite(SpriteId id) {
+        return spriteTable[id.ordinal()];
+    }
+
+    /**
+     * Lấy sprite gạch theo loại gạch.
+     *
+     * @param type Loại gạch.
+     * @return Đối tượng {@link Image} tương ứng.
+     */
+    public Image getBrickSprite(BrickType type) {
+        return brickTable[type.ordinal()];
+    }
+
+    /**
+     * Lấy sprite tĩnh của paddle theo trạng thái.
+     *
+     * @param state Trạng thái paddle.
+     * @return Đối tượng {@link Image} tương ứng.
+     */
+    public Image getPaddleSprite(PaddleState state) {
+        return paddleTable[state.ordinal()];
+    }
+
+    /**
+     * Lấy một khung hình animation theo bảng khung hình và chỉ số.
+     *
+     * @param table Bảng khung hình, có thể null.
+     * @param index Chỉ số khung hình.
+     * @return Đối tượng {@link Image}, hoặc {@code null} nếu không có.
+     */
+    public Image getFrame(FrameTable table, int index) {
+        if (table == null || index < 0) {
+            return null;
+        }
+        Image[] frames = frameTables[table.ordinal()];
+        return frames != null && index < frames.length ? frames[index] : null;
+    }
+
     /**
      * Lấy một sprite tĩnh từ cache bằng tên file.
      *
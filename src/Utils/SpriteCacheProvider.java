@@ -1,7 +1,9 @@
 package Utils;
 
+import Objects.Bricks.BrickType;
 import Objects.GameEntities.PaddleState;
 import Objects.PowerUps.PowerUpType;
+import Render.FrameTable;
 import javafx.scene.image.Image;
 import java.util.List;
 
@@ -36,6 +38,51 @@ public final class SpriteCacheProvider implements SpriteProvider {
         return cache.getImage(filename);
     }
 
+    /**
+     * Lấy một sprite tĩnh dùng chung từ bảng tra cứu theo enum.
+     *
+     * @param id Định danh sprite.
+     * @return Đối tượng {@link Image} tương ứng.
+     */
+    @Override
+    public Image get(SpriteId id) {
+        return cache.getSprite(id);
+    }
+
+    /**
+     * Lấy sprite gạch từ bảng tra cứu theo loại gạch.
+     *
+     * @param type Loại gạch.
+     * @return Đối tượng {@link Image} tương ứng.
+     */
+    @Override
+    public Image getBrick(BrickType type) {
+        return cache.getBrickSprite(type);
+    }
+
+    /**
+     * Lấy sprite tĩnh của Paddle từ bảng tra cứu theo trạng thái.
+     *
+     * @param state Trạng thái Paddle.
+     * @return Đối tượng {@link Image} tương ứng.
+     */
+    @Override
+    public Image getPaddle(PaddleState state) {
+        return cache.getPaddleSprite(state);
+    }
+
+    /**
+     * Lấy một khung hình từ bảng khung hình dùng chung.
+     *
+     * @param table Bảng khung hình.
+     * @param index Chỉ số khung hình.
+     * @return Đối tượng {@link Image} tương ứng, hoặc {@code null}.
+     */
+    @Override
+    public Image getFrame(FrameTable table, int index) {
+        return cache.getFrame(table, index);
+    }
+
     /**
      * Lấy danh sách các khung hình animation cho một loại PowerUp cụ thể.
      *
@@ -88,6 +135,37 @@ public final class SpriteCacheProvider implements SpriteProvider {
         return cache.getSilverCrackCache();
     }
 
+    /**
+     * Tạo bản sao phóng to sẵn của mọi sprite trong cache cho tỉ lệ chỉ định.
+     *
+     * @param scale Tỉ lệ hiển thị.
+     */
+    @Override
+    public void prepareScale(double scale) {
+        cache.rescale(scale);
+    }
+
+    /**
+     * Lấy bản sao đã phóng to sẵn của một sprite.
+     *
+     * @param sprite Sprite gốc.
+     * @return Bản sao đã phóng to, hoặc sprite gốc nếu không có.
+     */
+    @Override
+    public Image getScaled(Image sprite) {
+        return cache.getScaled(sprite);
+    }
+
+    /**
+     * Lấy bộ nhớ ước tính của các bản sao đã phóng to.
+     *
+     * @return Số byte.
+     */
+    @Override
+    public long getScaledMemoryBytes() {
+        return cache.getScaledMemoryBytes();
+    }
+
     /**
      * Kiểm tra xem các tài nguyên đã sẵn sàng để sử dụng chưa (SpriteCache đã được khởi tạo chưa).
      *
@@ -0,0 +1,53 @@
+package Utils;
+
+/**
+ * Enum {@code SpriteId} liệt kê các sprite tĩnh dùng chung không gắn với
+ * một loại gạch, trạng thái paddle hay PowerUp cụ thể.
+ *
+ * <p>Mỗi hằng số giữ tên file tương ứng. {@link SpriteCache} dùng
+ * {@link #ordinal()} làm chỉ số trong bảng tra cứu, nhờ đó vòng lặp render
+ * không cần ghép chuỗi hay băm tên file mỗi lần vẽ.</p>
+ */
+public enum SpriteId {
+    /** Sprite quả bóng */
+    BALL("ball.png"),
+
+    /** Sprite viên đạn laser */
+    LASER_BULLET("laser_bullet.png"),
+
+    /** Biểu tượng mạng sống hiển thị ở cuối màn hình */
+    PADDLE_LIFE("paddle_life.png"),
+
+    /** Logo game */
+    LOGO("logo.png"),
+
+    /** Viền phía trên khu vực chơi */
+    EDGE_TOP("edge_top.png"),
+
+    /** Viền bên trái khu vực chơi */
+    EDGE_LEFT("edge_left.png"),
+
+    /** Viền bên phải khu vực chơi */
+    EDGE_RIGHT("edge_right.png");
+
+    // Tên file sprite trong thư mục đồ họa
+    private final String filename;
+
+    /**
+     * Khởi tạo một SpriteId.
+     *
+     * @param filename Tên file sprite.
+     */
+    SpriteId(String filename) {
+        this.filename = filename;
+    }
+
+    /**
+     * Lấy tên file sprite tương ứng.
+     *
+     * @return Tên file (ví dụ: "ball.png").
+     */
+    public String getFilename() {
+        return filename;
+    }
+}
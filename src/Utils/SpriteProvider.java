@@ -1,7 +1,9 @@
 package Utils;
 
+import Objects.Bricks.BrickType;
 import Objects.GameEntities.PaddleState;
 import Objects.PowerUps.PowerUpType;
+import Render.FrameTable;
 import javafx.scene.image.Image;
 
 import java.util.List;
@@ -23,6 +25,40 @@ public interface SpriteProvider {
      */
     Image get(String filename);
 
+    /**
+     * Trả về một sprite tĩnh dùng chung theo định danh enum.
+     * Đây là truy cập theo chỉ số mảng, nên dùng trong vòng lặp render thay vì {@link #get(String)}.
+     *
+     * @param id Định danh sprite.
+     * @return Đối tượng {@link Image} đã được tải.
+     */
+    Image get(SpriteId id);
+
+    /**
+     * Trả về sprite của một loại gạch, tra theo {@link BrickType#ordinal()}.
+     *
+     * @param type Loại gạch.
+     * @return Đối tượng {@link Image} của gạch.
+     */
+    Image getBrick(BrickType type);
+
+    /**
+     * Trả về sprite tĩnh của Paddle cho một trạng thái (dùng khi không có animation).
+     *
+     * @param state Trạng thái Paddle.
+     * @return Đối tượng {@link Image} của Paddle.
+     */
+    Image getPaddle(PaddleState state);
+
+    /**
+     * Trả về một khung hình trong bảng khung hình animation dùng chung.
+     *
+     * @param table Bảng khung hình, có thể null.
+     * @param index Chỉ số khung hình.
+     * @return Đối tượng {@link Image}, hoặc {@code null} nếu bảng null hoặc chỉ số ngoài phạm vi.
+     */
+    Image getFrame(FrameTable table, int index);
+
     /**
      * Trả về danh sách các khung hình animation cho một loại PowerUp cụ thể.
      *
@@ -46,6 +82,30 @@ public interface SpriteProvider {
      */
     List<Image> getSilverCrackFrames();
 
+    /**
+     * Chuẩn bị bản sao phóng to sẵn (nearest-neighbour) của mọi sprite cho một tỉ lệ hiển thị.
+     * Chỉ tốn chi phí khi tỉ lệ thay đổi.
+     *
+     * @param scale Tỉ lệ hiển thị (1.0 = kích thước gốc của cửa sổ).
+     */
+    void prepareScale(double scale);
+
+    /**
+     * Trả về bản sao đã phóng to sẵn của một sprite theo tỉ lệ đã chuẩn bị,
+     * để có thể vẽ 1:1 mà không lấy mẫu lại.
+     *
+     * @param sprite Sprite gốc do provider này cung cấp.
+     * @return Bản sao đã phóng to, hoặc chính sprite gốc nếu không có bản sao.
+     */
+    Image getScaled(Image sprite);
+
+    /**
+     * Trả về bộ nhớ ước tính của các bản sao đã phóng to (4 byte/pixel).
+     *
+     * @return Số byte.
+     */
+    long getScaledMemoryBytes();
+
     /**
      * Kiểm tra xem nhà cung cấp sprite đã sẵn sàng cung cấp tài nguyên chưa
      * (ví dụ: cache đã được khởi tạo xong chưa).
@@ -3,5 +3,8 @@ module Arkanoid {
     requires javafx.controls;
     requires javafx.media;
     requires javafx.graphics;
+    requires java.management;
+    requires java.net.http;
+    requires jdk.httpserver;
     exports ArkanoidGame;
 }
\ No newline at end of file